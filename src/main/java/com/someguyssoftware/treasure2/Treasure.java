@@ -43,6 +43,8 @@ import com.someguyssoftware.treasure2.capability.KeyRingStorage;
 import com.someguyssoftware.treasure2.capability.TreasureCapabilities;
 import com.someguyssoftware.treasure2.charm.TreasureCharms;
 import com.someguyssoftware.treasure2.client.gui.GuiHandler;
+import com.someguyssoftware.treasure2.command.BenchmarkCommand;
+import com.someguyssoftware.treasure2.command.LocateCommand;
 import com.someguyssoftware.treasure2.command.SpawnCharmCommand;
 import com.someguyssoftware.treasure2.command.SpawnChestCommand;
 import com.someguyssoftware.treasure2.command.SpawnPitCommand;
@@ -72,12 +74,9 @@ import com.someguyssoftware.treasure2.material.TreasureCharmableMaterials;
 import com.someguyssoftware.treasure2.meta.TreasureMetaManager;
 import com.someguyssoftware.treasure2.network.CharmMessageHandlerOnClient;
 import com.someguyssoftware.treasure2.network.CharmMessageToClient;
-import com.someguyssoftware.treasure2.network.PoisonMistMessageHandlerOnServer;
-import com.someguyssoftware.treasure2.network.PoisonMistMessageToServer;
-import com.someguyssoftware.treasure2.network.WitherMistMessageHandlerOnServer;
-import com.someguyssoftware.treasure2.network.WitherMistMessageToServer;
 import com.someguyssoftware.treasure2.world.gen.structure.TreasureDecayManager;
 import com.someguyssoftware.treasure2.world.gen.structure.TreasureTemplateManager;
+import com.someguyssoftware.treasure2.worldgen.DeferredPlacementBuffer;
 import com.someguyssoftware.treasure2.worldgen.GemOreWorldGenerator;
 import com.someguyssoftware.treasure2.worldgen.ITreasureWorldGenerator;
 import com.someguyssoftware.treasure2.worldgen.SubmergedChestWorldGenerator;
@@ -201,12 +200,8 @@ public class Treasure extends AbstractMod {
 		// register the GUI handler
 		NetworkRegistry.INSTANCE.registerGuiHandler(this, new GuiHandler());
 
-		int PARTICLE_MESSAGE_ID = 14;
+		// NOTE message ids 14 and 15 were the poison/wither mist messages. mist effects are now inflicted by the server.
 		simpleNetworkWrapper = NetworkRegistry.INSTANCE.newSimpleChannel("treasure2_channel");
-		simpleNetworkWrapper.registerMessage(PoisonMistMessageHandlerOnServer.class, PoisonMistMessageToServer.class,
-				PARTICLE_MESSAGE_ID, Side.SERVER);
-		simpleNetworkWrapper.registerMessage(WitherMistMessageHandlerOnServer.class, WitherMistMessageToServer.class,
-				15, Side.SERVER);
 		simpleNetworkWrapper.registerMessage(CharmMessageHandlerOnClient.class, CharmMessageToClient.class,
 				25, Side.CLIENT);
 
@@ -271,6 +266,8 @@ public class Treasure extends AbstractMod {
 		event.registerServerCommand(new SpawnWitherTreeCommand());
 		event.registerServerCommand(new SpawnRuinsCommand());
 		event.registerServerCommand(new SpawnCharmCommand());		
+		event.registerServerCommand(new BenchmarkCommand());
+		event.registerServerCommand(new LocateCommand());
 	}
 
 	/**
@@ -292,6 +289,9 @@ public class Treasure extends AbstractMod {
 		WORLD_GENERATORS.put(WorldGeneratorType.WITHER_TREE, new WitherTreeWorldGenerator());
 		WORLD_GENERATORS.put(WorldGeneratorType.GEM, new GemOreWorldGenerator());
 
+		// apply the deferred placements of a chunk before the generators run on it
+		GameRegistry.registerWorldGenerator(DeferredPlacementBuffer.getInstance(), DeferredPlacementBuffer.GENERATOR_WEIGHT);
+
 		int genWeight = 0;
 		for (Entry<WorldGeneratorType, ITreasureWorldGenerator> gen : WORLD_GENERATORS.entrySet()) {
 			GameRegistry.registerWorldGenerator(gen.getValue(), genWeight++);
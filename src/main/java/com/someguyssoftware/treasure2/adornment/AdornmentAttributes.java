@@ -0,0 +1,85 @@
+/*
+ * This file is part of  Treasure2.
+ * Copyright (c) 2021, Mark Gottschling (gottsch)
+ * 
+ * All rights reserved.
+ * 
+ * Treasure2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * Treasure2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Treasure2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package com.someguyssoftware.treasure2.adornment;
+
+import com.someguyssoftware.treasure2.enums.Rarity;
+import com.someguyssoftware.treasure2.item.Adornment;
+
+import net.minecraft.util.ResourceLocation;
+
+/**
+ * The immutable selection attributes of a registered adornment, as read from the charmable capability of its default stack.
+ */
+public final class AdornmentAttributes {
+	private final Adornment adornment;
+	private final ResourceLocation material;
+	private final boolean hasGem;
+	private final int maxCharmLevel;
+	private final Rarity rarity;
+	private final AdornmentSize size;
+
+	/**
+	 * 
+	 * @param adornment
+	 * @param material
+	 * @param hasGem
+	 * @param maxCharmLevel
+	 * @param rarity the rarity of the max charm level. may be null.
+	 * @param size
+	 */
+	public AdornmentAttributes(Adornment adornment, ResourceLocation material, boolean hasGem, int maxCharmLevel, Rarity rarity, AdornmentSize size) {
+		this.adornment = adornment;
+		this.material = material;
+		this.hasGem = hasGem;
+		this.maxCharmLevel = maxCharmLevel;
+		this.rarity = rarity;
+		this.size = size;
+	}
+
+	public Adornment getAdornment() {
+		return adornment;
+	}
+
+	public ResourceLocation getMaterial() {
+		return material;
+	}
+
+	public boolean hasGem() {
+		return hasGem;
+	}
+
+	public int getMaxCharmLevel() {
+		return maxCharmLevel;
+	}
+
+	public Rarity getRarity() {
+		return rarity;
+	}
+
+	public AdornmentSize getSize() {
+		return size;
+	}
+
+	@Override
+	public String toString() {
+		return "AdornmentAttributes [adornment=" + adornment.getRegistryName() + ", material=" + material + ", hasGem=" + hasGem
+				+ ", maxCharmLevel=" + maxCharmLevel + ", rarity=" + rarity + ", size=" + size.getName() + "]";
+	}
+}
@@ -25,10 +25,13 @@ import static com.someguyssoftware.treasure2.capability.TreasureCapabilities.RUN
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.EnumMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Random;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -50,6 +53,9 @@ import com.someguyssoftware.treasure2.item.TreasureItems;
 import com.someguyssoftware.treasure2.material.CharmableMaterial;
 import com.someguyssoftware.treasure2.util.ResourceLocationUtil;
 
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import net.minecraft.init.Items;
 import net.minecraft.item.ItemStack;
 import net.minecraft.util.ResourceLocation;
 
@@ -65,6 +71,9 @@ public class TreasureAdornmentRegistry {
 	public static final Map<Key, Adornment> REGISTRY = Maps.newHashMap();
 	private static final Multimap<AdornmentType, Adornment> BY_TYPE = ArrayListMultimap.create();
 	private static final Multimap<ResourceLocation, Adornment> BY_MATERIAL = ArrayListMultimap.create();
+	private static final Adornment[] NO_ADORNMENTS = new Adornment[0];
+	// the attributes and selection index of the registered adornments, compiled on first use (when the capabilities are registered)
+	private static volatile AttributeIndex attributeIndex;
 	
 	public static final AdornmentSize STANDARD = new AdornmentSize("standard");
 	public static final AdornmentSize GREAT = new AdornmentSize("great") {
@@ -108,6 +117,7 @@ public class TreasureAdornmentRegistry {
 		REGISTRY.put(key, adornment);
 		BY_TYPE.put(key.getType(), adornment);
 		BY_MATERIAL.put(key.getMaterial(), adornment);
+		attributeIndex = null;
 	}
 	
 	public static Optional<Adornment> get(AdornmentType type, AdornmentSize size, ResourceLocation material, ResourceLocation source) {
@@ -147,6 +157,68 @@ public class TreasureAdornmentRegistry {
 		return getByMaterial(material.getName());
 	}
 	
+	/**
+	 * 
+	 * @param adornment
+	 * @return the precomputed attributes of the registered adornment
+	 */
+	public static Optional<AdornmentAttributes> getAttributes(Adornment adornment) {
+		return getAttributeIndex().getAttributes(adornment);
+	}
+
+	/**
+	 * Selects a random adornment of the material, with or without a gem, whose max charm level is of the rarity or is the level.
+	 * The candidates are precomputed arrays, so no stacks or lists are created.
+	 * @param random
+	 * @param material
+	 * @param hasGem
+	 * @param rarity may be null
+	 * @param level
+	 * @return
+	 */
+	public static Optional<Adornment> select(Random random, ResourceLocation material, boolean hasGem, Rarity rarity, int level) {
+		return getAttributeIndex().select(random, material, hasGem, rarity, level);
+	}
+
+	/**
+	 * 
+	 * @return
+	 */
+	private static AttributeIndex getAttributeIndex() {
+		AttributeIndex index = attributeIndex;
+		if (index == null) {
+			index = compileAttributeIndex();
+		}
+		return index;
+	}
+
+	/**
+	 * Reads the attributes of each adornment from its default stack - once, instead of per loot roll.
+	 * NOTE adornments are indexed per material in registration order, so the selection is stable for a given random.
+	 * @return
+	 */
+	private static synchronized AttributeIndex compileAttributeIndex() {
+		if (attributeIndex == null) {
+			List<AdornmentAttributes> attributesList = new ArrayList<>();
+			for (Map.Entry<ResourceLocation, Collection<Adornment>> entry : BY_MATERIAL.asMap().entrySet()) {
+				for (Adornment adornment : entry.getValue()) {
+					ItemStack stack = new ItemStack(adornment);
+					if (!stack.hasCapability(CHARMABLE, null)) {
+						continue;
+					}
+					ICharmableCapability cap = stack.getCapability(CHARMABLE, null);
+					boolean hasGem = !Items.AIR.getRegistryName().equals(cap.getSourceItem());
+					attributesList.add(new AdornmentAttributes(adornment, entry.getKey(), hasGem, cap.getMaxCharmLevel(),
+							TreasureCharms.LEVEL_RARITY.get(cap.getMaxCharmLevel()), adornment.getSize()));
+				}
+			}
+			AttributeIndex index = AttributeIndex.of(attributesList);
+			Treasure.LOGGER.debug("compiled adornment attributes -> {} adornments of {} materials", index.attributes.size(), index.groups.size());
+			attributeIndex = index;
+		}
+		return attributeIndex;
+	}
+
 	/**
 	 * 
 	 * @param baseStack
@@ -262,6 +334,98 @@ public class TreasureAdornmentRegistry {
 		return Optional.empty();
 	}
 		
+	/*
+	 * the compiled attributes, and the adornments of each material and gem/no-gem by rarity and by max charm level
+	 */
+	static class AttributeIndex {
+		private final Map<Adornment, AdornmentAttributes> attributes = Maps.newIdentityHashMap();
+		// [0] without gems, [1] with gems
+		private final Map<ResourceLocation, AttributeGroup[]> groups = Maps.newHashMap();
+
+		/**
+		 * 
+		 * @param attributesList the attributes of the adornments, in the order they are to be indexed
+		 * @return
+		 */
+		static AttributeIndex of(List<AdornmentAttributes> attributesList) {
+			AttributeIndex index = new AttributeIndex();
+			Map<ResourceLocation, List<AdornmentAttributes>> byMaterial = new LinkedHashMap<>();
+			for (AdornmentAttributes attributes : attributesList) {
+				index.attributes.put(attributes.getAdornment(), attributes);
+				byMaterial.computeIfAbsent(attributes.getMaterial(), m -> new ArrayList<>()).add(attributes);
+			}
+			for (Map.Entry<ResourceLocation, List<AdornmentAttributes>> entry : byMaterial.entrySet()) {
+				AttributeGroup[] groups = new AttributeGroup[] {new AttributeGroup(), new AttributeGroup()};
+				for (int gem = 0; gem < groups.length; gem++) {
+					AttributeGroup group = groups[gem];
+					Map<Rarity, List<Adornment>> byRarity = new EnumMap<>(Rarity.class);
+					Int2ObjectMap<List<Adornment>> byLevel = new Int2ObjectOpenHashMap<>();
+					for (AdornmentAttributes attributes : entry.getValue()) {
+						if (attributes.hasGem() != (gem == 1)) {
+							continue;
+						}
+						if (attributes.getRarity() != null) {
+							byRarity.computeIfAbsent(attributes.getRarity(), r -> new ArrayList<>()).add(attributes.getAdornment());
+						}
+						List<Adornment> levelList = byLevel.get(attributes.getMaxCharmLevel());
+						if (levelList == null) {
+							levelList = new ArrayList<>();
+							byLevel.put(attributes.getMaxCharmLevel(), levelList);
+						}
+						levelList.add(attributes.getAdornment());
+					}
+					byRarity.forEach((rarity, list) -> group.byRarity.put(rarity, list.toArray(NO_ADORNMENTS)));
+					for (Int2ObjectMap.Entry<List<Adornment>> levelEntry : byLevel.int2ObjectEntrySet()) {
+						group.byLevel.put(levelEntry.getIntKey(), levelEntry.getValue().toArray(NO_ADORNMENTS));
+					}
+				}
+				index.groups.put(entry.getKey(), groups);
+			}
+			return index;
+		}
+
+		public Optional<AdornmentAttributes> getAttributes(Adornment adornment) {
+			return Optional.ofNullable(attributes.get(adornment));
+		}
+
+		private AttributeGroup getGroup(ResourceLocation material, boolean hasGem) {
+			AttributeGroup[] materialGroups = groups.get(material);
+			return materialGroups == null ? null : materialGroups[hasGem ? 1 : 0];
+		}
+
+		/**
+		 * 
+		 * @see TreasureAdornmentRegistry#select(Random, ResourceLocation, boolean, Rarity, int)
+		 */
+		public Optional<Adornment> select(Random random, ResourceLocation material, boolean hasGem, Rarity rarity, int level) {
+			AttributeGroup group = getGroup(material, hasGem);
+			if (group == null) {
+				return Optional.empty();
+			}
+			Adornment[] byRarity = rarity == null ? null : group.byRarity.get(rarity);
+			if (byRarity == null) {
+				byRarity = NO_ADORNMENTS;
+			}
+			Adornment[] byLevel = group.byLevel.get(level);
+			// the adornments of the level all share the level's rarity, so either all of them are already candidates by rarity or none are
+			if (byLevel == null || (rarity != null && rarity == TreasureCharms.LEVEL_RARITY.get(level))) {
+				byLevel = NO_ADORNMENTS;
+			}
+
+			int count = byRarity.length + byLevel.length;
+			if (count == 0) {
+				return Optional.empty();
+			}
+			int index = random.nextInt(count);
+			return Optional.of(index < byRarity.length ? byRarity[index] : byLevel[index - byRarity.length]);
+		}
+	}
+
+	private static class AttributeGroup {
+		private final Map<Rarity, Adornment[]> byRarity = new EnumMap<>(Rarity.class);
+		private final Int2ObjectMap<Adornment[]> byLevel = new Int2ObjectOpenHashMap<>();
+	}
+
 	public static class Key {
 		private AdornmentType type;
 		private AdornmentSize size;
@@ -19,11 +19,16 @@
  */
 package com.someguyssoftware.treasure2.api;
 
+import com.someguyssoftware.treasure2.locate.LocateQuery;
+import com.someguyssoftware.treasure2.locate.LocateResult;
+import com.someguyssoftware.treasure2.locate.TreasureLocator;
 import com.someguyssoftware.treasure2.loot.TreasureLootTableRegistry;
 import com.someguyssoftware.treasure2.registry.TreasureDecayRegistry;
 import com.someguyssoftware.treasure2.registry.TreasureMetaRegistry;
 import com.someguyssoftware.treasure2.registry.TreasureTemplateRegistry;
 
+import net.minecraft.world.World;
+
 /**
  * 
  * @author Mark Gottschling on Dec 25, 2021
@@ -50,4 +55,15 @@ public class TreasureApi {
 	public static void registerDecays(String modID) {
 		TreasureDecayRegistry.register(modID);
 	}
+
+	/**
+	 * Locates the nearest treasure sites of the world that match the query. Must be called from the server thread.
+	 * ex. TreasureApi.locate(world, new LocateQuery(coords).setRarities(EnumSet.of(Rarity.EPIC)).setLimit(3))
+	 * @param world
+	 * @param query
+	 * @return
+	 */
+	public static LocateResult locate(World world, LocateQuery query) {
+		return TreasureLocator.getInstance().locate(world, query);
+	}
 }
\ No newline at end of file
@@ -0,0 +1,96 @@
+/**
+ * 
+ */
+package com.someguyssoftware.treasure2.biome;
+
+import java.util.BitSet;
+import java.util.List;
+
+import com.someguyssoftware.gottschcore.biome.BiomeHelper;
+import com.someguyssoftware.gottschcore.biome.BiomeTypeHolder;
+import com.someguyssoftware.treasure2.Treasure;
+import com.someguyssoftware.treasure2.biome.TreasureBiomeHelper.Result;
+
+import net.minecraft.world.biome.Biome;
+import net.minecraftforge.fml.common.registry.ForgeRegistries;
+
+/**
+ * The biome white/black lists and type white/black lists of a generator config, compiled into a bitset indexed by biome ID.
+ * The bitset is compiled on the first query (when all the biomes and their types are registered) and is read-only afterwards,
+ * so testing a biome is a single bit test instead of walking the lists and the BiomeDictionary.
+ * NOTE a new instance is created each time the config is (re)loaded.
+ */
+public class BiomeEligibility {
+	private final List<Biome> whiteList;
+	private final List<Biome> blackList;
+	private final List<BiomeTypeHolder> typeWhiteList;
+	private final List<BiomeTypeHolder> typeBlackList;
+
+	private volatile BitSet allowed;
+
+	/**
+	 * 
+	 * @param whiteList
+	 * @param blackList
+	 * @param typeWhiteList
+	 * @param typeBlackList
+	 */
+	public BiomeEligibility(List<Biome> whiteList, List<Biome> blackList, List<BiomeTypeHolder> typeWhiteList, List<BiomeTypeHolder> typeBlackList) {
+		this.whiteList = whiteList;
+		this.blackList = blackList;
+		this.typeWhiteList = typeWhiteList;
+		this.typeBlackList = typeBlackList;
+	}
+
+	/**
+	 * 
+	 * @param biome
+	 * @return false if the biome is not allowed, or is not registered
+	 */
+	public boolean isAllowed(Biome biome) {
+		BitSet bits = allowed;
+		if (bits == null) {
+			bits = compile();
+		}
+		// NOTE an unregistered biome has an id of -1, which BitSet.get() rejects
+		int id = Biome.getIdForBiome(biome);
+		return id >= 0 && bits.get(id);
+	}
+
+	/**
+	 * 
+	 * @return
+	 */
+	private synchronized BitSet compile() {
+		if (allowed == null) {
+			BitSet bits = new BitSet(256);
+			int count = 0;
+			for (Biome biome : ForgeRegistries.BIOMES.getValuesCollection()) {
+				int id = Biome.getIdForBiome(biome);
+				if (id >= 0 && test(biome)) {
+					bits.set(id);
+					count++;
+				}
+			}
+			Treasure.LOGGER.debug("compiled biome eligibility -> {} allowed biomes", count);
+			allowed = bits;
+		}
+		return allowed;
+	}
+
+	/**
+	 * The white list takes precedence over the black list, and both take precedence over the biome types.
+	 * @param biome
+	 * @return
+	 */
+	private boolean test(Biome biome) {
+		Result result = TreasureBiomeHelper.isBiomeAllowed(biome, whiteList, blackList);
+		if (result == Result.BLACK_LISTED) {
+			return false;
+		}
+		else if (result == Result.WHITE_LISTED) {
+			return true;
+		}
+		return BiomeHelper.isBiomeAllowed(biome, typeWhiteList, typeBlackList);
+	}
+}
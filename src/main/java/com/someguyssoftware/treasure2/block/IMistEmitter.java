@@ -0,0 +1,34 @@
+/**
+ * 
+ */
+package com.someguyssoftware.treasure2.block;
+
+import javax.annotation.Nullable;
+
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.potion.Potion;
+import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.util.math.BlockPos;
+
+/**
+ * A block that emits a harmful mist. The mist volume and effect are used by the server to inflict the effect
+ * on players within the mist, independently of the (cosmetic) client particles.
+ */
+public interface IMistEmitter extends IMistSupport {
+
+	/**
+	 * 
+	 * @param state
+	 * @param pos
+	 * @return the volume, in world coordinates, that is covered by the mist
+	 */
+	AxisAlignedBB getMistVolume(IBlockState state, BlockPos pos);
+
+	/**
+	 * 
+	 * @param state
+	 * @return the effect to inflict on players within the mist, or null if the mist is harmless
+	 */
+	@Nullable
+	Potion getMistEffect(IBlockState state);
+}
@@ -0,0 +1,255 @@
+/**
+ * 
+ */
+package com.someguyssoftware.treasure2.block;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import javax.annotation.Nullable;
+
+import com.someguyssoftware.treasure2.util.PackedCoordsUtil;
+
+import it.unimi.dsi.fastutil.longs.Long2ByteMap;
+import it.unimi.dsi.fastutil.longs.Long2ByteOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockTorch;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.util.SoundCategory;
+import net.minecraft.util.SoundEvent;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.IWorldEventListener;
+import net.minecraft.world.World;
+
+/**
+ * Caches the number of torches around the mist supporting blocks, so that the torch prevention check of each
+ * particle (or mist effect) is a lookup instead of a scan of the surrounding cube.
+ * Cached counts are invalidated when a torch is placed or removed nearby, or when the chunk is unloaded.
+ * NOTE each world is only accessed from its own thread.
+ */
+public class TorchDensityCache {
+	/*
+	 * the radius of the cube that is scanned for torches
+	 */
+	public static final int RADIUS = 3;
+	/*
+	 * the count at which the mist is prevented. counting stops here.
+	 */
+	public static final int MAX_TORCHES = 3;
+
+	private static TorchDensityCache instance = new TorchDensityCache();
+
+	private final Map<World, WorldCache> worlds = Collections.synchronizedMap(new WeakHashMap<>());
+
+	/**
+	 * 
+	 */
+	private TorchDensityCache() {}
+
+	/**
+	 * 
+	 * @return
+	 */
+	public static TorchDensityCache getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Starts listening to the block changes of the world.
+	 * @param world
+	 */
+	public void onWorldLoad(World world) {
+		WorldCache cache = new WorldCache();
+		WorldCache previous = worlds.put(world, cache);
+		if (previous != null) {
+			world.removeEventListener(previous);
+		}
+		world.addEventListener(cache);
+	}
+
+	/**
+	 * 
+	 * @param world
+	 */
+	public void onWorldUnload(World world) {
+		WorldCache cache = worlds.remove(world);
+		if (cache != null) {
+			world.removeEventListener(cache);
+		}
+	}
+
+	/**
+	 * 
+	 * @param world
+	 * @param chunkX
+	 * @param chunkZ
+	 */
+	public void onChunkUnload(World world, int chunkX, int chunkZ) {
+		invalidate(world, chunkX, chunkZ);
+	}
+
+	/**
+	 * Drops the cached counts of the chunk and its neighbours (whose counts may include blocks of the chunk).
+	 * Used for the block changes that don't notify the listeners, ex. a SectionBlockWriter commit.
+	 * @param world
+	 * @param chunkX
+	 * @param chunkZ
+	 */
+	public void invalidate(World world, int chunkX, int chunkZ) {
+		WorldCache cache = worlds.get(world);
+		if (cache != null) {
+			for (int x = chunkX - 1; x <= chunkX + 1; x++) {
+				for (int z = chunkZ - 1; z <= chunkZ + 1; z++) {
+					cache.chunks.remove(ChunkPos.asLong(x, z));
+				}
+			}
+		}
+	}
+
+	/**
+	 * 
+	 * @param world
+	 * @param x
+	 * @param y
+	 * @param z
+	 * @return the number of torches, up to MAX_TORCHES, within RADIUS of the coords.
+	 */
+	public int getTorchCount(World world, int x, int y, int z) {
+		WorldCache cache = worlds.get(world);
+		if (cache == null) {
+			// the world is not being tracked - don't cache
+			return countTorches(world, x, y, z);
+		}
+
+		long chunkKey = ChunkPos.asLong(x >> 4, z >> 4);
+		long key = PackedCoordsUtil.pack(x, y, z);
+		Long2ByteMap counts = cache.chunks.get(chunkKey);
+		if (counts != null && counts.containsKey(key)) {
+			return counts.get(key);
+		}
+
+		// if all the blocks in the immediate area are loaded
+		if (!world.isAreaLoaded(new BlockPos(x - RADIUS, y - RADIUS, z - RADIUS), new BlockPos(x + RADIUS, y + RADIUS, z + RADIUS))) {
+			return 0;
+		}
+		int count = countTorches(world, x, y, z);
+		if (counts == null) {
+			counts = new Long2ByteOpenHashMap();
+			cache.chunks.put(chunkKey, counts);
+		}
+		counts.put(key, (byte)count);
+		return count;
+	}
+
+	/**
+	 * 
+	 * @param world
+	 * @param x
+	 * @param y
+	 * @param z
+	 * @return
+	 */
+	private static int countTorches(World world, int x, int y, int z) {
+		int numberOfTorches = 0;
+		// use a MutatableBlockPos instead of Cube\Coords or BlockPos to say the
+		// recreation of many objects
+		BlockPos.MutableBlockPos mbp = new BlockPos.MutableBlockPos();
+		for (int x1 = -RADIUS; x1 <= RADIUS; ++x1) {
+			for (int y1 = -RADIUS; y1 <= RADIUS; ++y1) {
+				for (int z1 = -RADIUS; z1 <= RADIUS; ++z1) {
+					Block inspectBlock = world.getBlockState(mbp.setPos(x + x1, y + y1, z + z1)).getBlock();
+					if (inspectBlock instanceof BlockTorch) {
+						numberOfTorches++;
+						if (numberOfTorches >= MAX_TORCHES) {
+							return numberOfTorches;
+						}
+					}
+				}
+			}
+		}
+		return numberOfTorches;
+	}
+
+	/**
+	 * The cached counts of a world, keyed by chunk then position.
+	 * Listens to the block changes of the world to invalidate the counts around a changed torch.
+	 */
+	private static class WorldCache implements IWorldEventListener {
+		private final Long2ObjectMap<Long2ByteMap> chunks = new Long2ObjectOpenHashMap<>();
+
+		@Override
+		public void notifyBlockUpdate(World world, BlockPos pos, IBlockState oldState, IBlockState newState, int flags) {
+			if (chunks.isEmpty()) {
+				return;
+			}
+			if (!(oldState.getBlock() instanceof BlockTorch) && !(newState.getBlock() instanceof BlockTorch)) {
+				return;
+			}
+			// remove the counts that include the position
+			for (int chunkX = (pos.getX() - RADIUS) >> 4; chunkX <= (pos.getX() + RADIUS) >> 4; chunkX++) {
+				for (int chunkZ = (pos.getZ() - RADIUS) >> 4; chunkZ <= (pos.getZ() + RADIUS) >> 4; chunkZ++) {
+					Long2ByteMap counts = chunks.get(ChunkPos.asLong(chunkX, chunkZ));
+					if (counts == null) {
+						continue;
+					}
+					LongIterator iterator = counts.keySet().iterator();
+					while (iterator.hasNext()) {
+						long key = iterator.nextLong();
+						if (isWithinRadius(BlockPos.fromLong(key), pos)) {
+							iterator.remove();
+						}
+					}
+				}
+			}
+		}
+
+		private static boolean isWithinRadius(BlockPos pos1, BlockPos pos2) {
+			return Math.abs(pos1.getX() - pos2.getX()) <= RADIUS
+					&& Math.abs(pos1.getY() - pos2.getY()) <= RADIUS
+					&& Math.abs(pos1.getZ() - pos2.getZ()) <= RADIUS;
+		}
+
+		@Override
+		public void notifyLightSet(BlockPos pos) {}
+
+		@Override
+		public void markBlockRangeForRenderUpdate(int x1, int y1, int z1, int x2, int y2, int z2) {}
+
+		@Override
+		public void playSoundToAllNearExcept(@Nullable EntityPlayer player, SoundEvent sound, SoundCategory category,
+				double x, double y, double z, float volume, float pitch) {}
+
+		@Override
+		public void playRecord(SoundEvent sound, BlockPos pos) {}
+
+		@Override
+		public void spawnParticle(int particleID, boolean ignoreRange, double xCoord, double yCoord, double zCoord,
+				double xSpeed, double ySpeed, double zSpeed, int... parameters) {}
+
+		@Override
+		public void spawnParticle(int id, boolean ignoreRange, boolean minimiseParticleLevel, double x, double y,
+				double z, double xSpeed, double ySpeed, double zSpeed, int... parameters) {}
+
+		@Override
+		public void onEntityAdded(Entity entity) {}
+
+		@Override
+		public void onEntityRemoved(Entity entity) {}
+
+		@Override
+		public void broadcastSound(int soundID, BlockPos pos, int data) {}
+
+		@Override
+		public void playEvent(EntityPlayer player, int type, BlockPos blockPos, int data) {}
+
+		@Override
+		public void sendBlockBreakProgress(int breakerId, BlockPos pos, int progress) {}
+	}
+}
@@ -26,7 +26,9 @@ import net.minecraft.block.state.BlockStateContainer;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.client.Minecraft;
 import net.minecraft.init.Items;
+import net.minecraft.init.MobEffects;
 import net.minecraft.item.Item;
+import net.minecraft.potion.Potion;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.EnumFacing;
 import net.minecraft.util.IStringSerializable;
@@ -43,7 +45,7 @@ import net.minecraftforge.fml.relauncher.SideOnly;
  *
  */
 public class WitherLogSoulBlock extends CardinalDirectionFacadeBlock
-		implements /* IFogSupport, */IMistSupport, ITreasureBlock, ITileEntityProvider {
+		implements /* IFogSupport, */IMistEmitter, ITreasureBlock, ITileEntityProvider {
 
 	public static final PropertyEnum<Appearance> APPEARANCE = PropertyEnum.create("appearance", Appearance.class);
 
@@ -153,6 +155,22 @@ public class WitherLogSoulBlock extends CardinalDirectionFacadeBlock
 		Minecraft.getMinecraft().effectRenderer.addEffect(mistParticle);
 	}
 
+	/**
+	 * The volume matches the spread of the particles created in randomDisplayTick(), from where
+	 * they are created down to where they settle.
+	 */
+	@Override
+	public AxisAlignedBB getMistVolume(IBlockState state, BlockPos pos) {
+		// face mist is created 2 blocks down as the face is up the trunk
+		double y = state.getValue(APPEARANCE) == Appearance.FACE ? pos.getY() - 1.875D : pos.getY();
+		return new AxisAlignedBB(pos.getX() - 2D, y - 1D, pos.getZ() - 2D, pos.getX() + 3D, y + 0.5D, pos.getZ() + 3D);
+	}
+
+	@Override
+	public Potion getMistEffect(IBlockState state) {
+		return state.getValue(APPEARANCE) == Appearance.FACE ? MobEffects.WITHER : MobEffects.POISON;
+	}
+
 	/**
 	 * 
 	 */
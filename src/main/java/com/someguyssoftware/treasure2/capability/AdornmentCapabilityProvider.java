@@ -65,15 +65,15 @@ public class AdornmentCapabilityProvider implements ICapabilitySerializable<NBTT
 		return null;
 	}
 	
+	/**
+	 * NOTE the snapshots are shared by the capabilities, but the returned compound belongs to the caller (ex. the stack) - so copies.
+	 */
 	@Override
 	public NBTTagCompound serializeNBT() {
-		NBTTagCompound charmableTag = (NBTTagCompound)TreasureCapabilities.CHARMABLE.getStorage().writeNBT(TreasureCapabilities.CHARMABLE, charmableCap, null);
-		NBTTagCompound runestonesTag = (NBTTagCompound)TreasureCapabilities.RUNESTONES.getStorage().writeNBT(TreasureCapabilities.RUNESTONES, runestonesCap, null);
-		NBTTagCompound durabilityTag = (NBTTagCompound)TreasureCapabilities.DURABILITY.getStorage().writeNBT(TreasureCapabilities.DURABILITY, durabilityCap, null);
 		NBTTagCompound tag = new NBTTagCompound();
-		tag.setTag("charmable", charmableTag);
-		tag.setTag("runestones", runestonesTag);
-		tag.setTag("durability", durabilityTag);
+		tag.setTag("charmable", charmableCap.getSnapshot().copy());
+		tag.setTag("runestones", runestonesCap.getSnapshot().copy());
+		tag.setTag("durability", durabilityCap.getSnapshot().copy());
 		return tag;
 	}
 
@@ -82,14 +82,17 @@ public class AdornmentCapabilityProvider implements ICapabilitySerializable<NBTT
 		if (nbt.hasKey("charmable")) {
 			NBTTagCompound tag = nbt.getCompoundTag("charmable");
 			TreasureCapabilities.CHARMABLE.getStorage().readNBT(TreasureCapabilities.CHARMABLE, charmableCap, null, tag);
+			charmableCap.setSnapshot(tag);
 		}
 		if (nbt.hasKey("runestones")) {
 			NBTTagCompound tag = nbt.getCompoundTag("runestones");
 			TreasureCapabilities.RUNESTONES.getStorage().readNBT(TreasureCapabilities.RUNESTONES, runestonesCap, null, tag);
+			runestonesCap.setSnapshot(tag);
 		}
 		if (nbt.hasKey("durability")) {
 			NBTTagCompound tag = nbt.getCompoundTag("durability");
 			TreasureCapabilities.DURABILITY.getStorage().readNBT(TreasureCapabilities.DURABILITY, durabilityCap, null, tag);
+			durabilityCap.setSnapshot(tag);
 		}
 	}
 }
@@ -39,6 +39,7 @@ import com.someguyssoftware.treasure2.material.TreasureCharmableMaterials;
 import net.minecraft.client.util.ITooltipFlag;
 import net.minecraft.init.Items;
 import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.text.TextFormatting;
 import net.minecraft.util.text.translation.I18n;
@@ -107,6 +108,12 @@ public class CharmableCapability implements ICharmableCapability {
 	private int maxImbueSize;
 	private int maxInnateSize;
 
+	// incremented by the setters - see getVersion()
+	private long modCount;
+	// counts the changes of the charm entities
+	private final VersionCounter entityVersions = new VersionCounter();
+	private final SnapshotCache snapshotCache = new SnapshotCache();
+
 	public static class SortByLevel implements Comparator<ICharmEntity> {
 		@Override
 		public int compare(ICharmEntity e1, ICharmEntity e2) {
@@ -389,6 +396,7 @@ public class CharmableCapability implements ICharmableCapability {
 	@Override
 	public void addMaxSocketSize(int increment) {
 		this.maxSocketSize = getMaxSocketSize() + increment;
+		modCount++;
 	}
 	
 	/*
@@ -435,6 +443,7 @@ public class CharmableCapability implements ICharmableCapability {
 
 	public void setCharmEntities(Multimap<InventoryType, ICharmEntity> charmEntities) {
 		this.charmEntities = charmEntities;
+		modCount++;
 	}
 
 	@Override
@@ -445,6 +454,7 @@ public class CharmableCapability implements ICharmableCapability {
 	@Override
 	public void setSource(boolean source) {
 		this.source = source;
+		modCount++;
 	}
 
 	@Override
@@ -455,6 +465,7 @@ public class CharmableCapability implements ICharmableCapability {
 	@Override
 	public void setExecuting(boolean executing) {
 		this.executing = executing;
+		modCount++;
 	}
 
 	@Override
@@ -465,6 +476,7 @@ public class CharmableCapability implements ICharmableCapability {
 	@Override
 	public void setBindable(boolean bindable) {
 		this.bindable = bindable;
+		modCount++;
 	}
 
 	@Override
@@ -475,6 +487,7 @@ public class CharmableCapability implements ICharmableCapability {
 	@Override
 	public void setSocketable(boolean socketable) {
 		this.socketable = socketable;
+		modCount++;
 	}
 
 	@Override
@@ -485,6 +498,7 @@ public class CharmableCapability implements ICharmableCapability {
 	@Override
 	public void setImbuing(boolean imbuing) {
 		this.imbuing = imbuing;
+		modCount++;
 	}
 
 	@Override
@@ -495,6 +509,7 @@ public class CharmableCapability implements ICharmableCapability {
 	@Override
 	public void setImbuable(boolean imbuable) {
 		this.imbuable = imbuable;
+		modCount++;
 	}
 
 	@Override
@@ -505,6 +520,7 @@ public class CharmableCapability implements ICharmableCapability {
 	@Override
 	public void setInnate(boolean innate) {
 		this.innate = innate;
+		modCount++;
 	}
 
 	public ResourceLocation getBaseMaterial() {
@@ -513,6 +529,7 @@ public class CharmableCapability implements ICharmableCapability {
 
 	public void setBaseMaterial(ResourceLocation baseMaterial) {
 		this.baseMaterial = baseMaterial;
+		modCount++;
 	}
 
 	public ResourceLocation getSourceItem() {
@@ -521,6 +538,7 @@ public class CharmableCapability implements ICharmableCapability {
 
 	public void setSourceItem(ResourceLocation sourceItem) {
 		this.sourceItem = sourceItem;
+		modCount++;
 	}
 
 	@Override
@@ -539,6 +557,7 @@ public class CharmableCapability implements ICharmableCapability {
 
 	public void setNamedByMaterial(boolean namedByMaterial) {
 		this.namedByMaterial = namedByMaterial;
+		modCount++;
 	}
 
 	public boolean isNamedByCharm() {
@@ -547,10 +566,12 @@ public class CharmableCapability implements ICharmableCapability {
 
 	public void setNamedByCharm(boolean namedByCharm) {
 		this.namedByCharm = namedByCharm;
+		modCount++;
 	}
 
 	public void setMaxSocketSize(int size) {
 		this.maxSocketSize = size;
+		modCount++;
 	}
 	
 	public int getMaxSocketSize() {
@@ -588,7 +609,29 @@ public class CharmableCapability implements ICharmableCapability {
 	@Override
 	public void setLevelModifier(ILevelModifier levelModifier) {
 		this.levelModifier = levelModifier;
+		modCount++;
 	}
 
+	@Override
+	public long getVersion() {
+		// NOTE the charm entities are also modified in place (ex. mana), and added/removed through the multimap
+		return modCount + entityVersions.count(charmEntities.values(), ICharmEntity::getVersion);
+	}
 
+	@Override
+	public NBTTagCompound getSnapshot() {
+		long version = getVersion();
+		NBTTagCompound tag = snapshotCache.get(version);
+		if (tag == null) {
+			tag = (NBTTagCompound) TreasureCapabilities.CHARMABLE.getStorage().writeNBT(TreasureCapabilities.CHARMABLE, this, null);
+			snapshotCache.put(version, tag);
+		}
+		return tag;
+	}
+
+	@Override
+	public void setSnapshot(NBTTagCompound tag) {
+		// the caller keeps the compound, ex. as a child of the stack's nbt
+		snapshotCache.put(getVersion(), tag.copy());
+	}
 }
@@ -65,13 +65,15 @@ public class CharmableCapabilityProvider implements ICapabilitySerializable<NBTT
 
 	@Override
 	public NBTTagCompound serializeNBT() {
-		NBTTagCompound tag = (NBTTagCompound)TreasureCapabilities.CHARMABLE.getStorage().writeNBT(TreasureCapabilities.CHARMABLE, charmableCap, null);
-		return tag;
+		// the snapshot is shared, the result belongs to the caller
+		return charmableCap.getSnapshot().copy();
 	}
 
 	@Override
 	public void deserializeNBT(NBTTagCompound nbt) {
 		TreasureCapabilities.CHARMABLE.getStorage().readNBT(TreasureCapabilities.CHARMABLE, charmableCap, null, nbt);
+		// ex. a copied stack - the copy is read from the snapshot of the original
+		charmableCap.setSnapshot(nbt);
 	}
 
 }
@@ -26,6 +26,7 @@ import com.someguyssoftware.treasure2.material.CharmableMaterial;
 
 import net.minecraft.client.util.ITooltipFlag;
 import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.util.text.TextFormatting;
 import net.minecraft.util.text.translation.I18n;
 import net.minecraft.world.World;
@@ -49,6 +50,10 @@ public class DurabilityCapability implements IDurabilityCapability  {
 	
 	// the remaining repairs available
 	private int repairs;
+
+	// incremented by the setters - see getVersion()
+	private long modCount;
+	private final SnapshotCache snapshotCache = new SnapshotCache();
 	
 	/**
 	 * 
@@ -117,6 +122,7 @@ public class DurabilityCapability implements IDurabilityCapability  {
         else {
             this.durability = maxDamage;
         }
+		modCount++;
 	}
 
 	@Override
@@ -127,6 +133,7 @@ public class DurabilityCapability implements IDurabilityCapability  {
 	@Override
 	public void setMaxDurability(int maxDurability) {
 		this.maxDurability = maxDurability;
+		modCount++;
 	}
 
 	@Override
@@ -137,6 +144,7 @@ public class DurabilityCapability implements IDurabilityCapability  {
 	@Override
 	public void setInfinite(boolean infinite) {
 		this.infinite = infinite;
+		modCount++;
 	}
 
 	@Override
@@ -147,6 +155,7 @@ public class DurabilityCapability implements IDurabilityCapability  {
 	@Override
 	public void setMaxRepairs(int maxRepairs) {
 		this.maxRepairs = maxRepairs;
+		modCount++;
 	}
 
 	@Override
@@ -157,6 +166,7 @@ public class DurabilityCapability implements IDurabilityCapability  {
 	@Override
 	public void setRepairs(int repairs) {
 		this.repairs = repairs;
+		modCount++;
 	}
 
 	@Override
@@ -164,4 +174,26 @@ public class DurabilityCapability implements IDurabilityCapability  {
 		return "DurabilityCapability [maxDurability=" + maxDurability + ", durability=" + durability + ", infinite="
 				+ infinite + ", maxRepairs=" + maxRepairs + ", repairs=" + repairs + "]";
 	}
+
+	@Override
+	public long getVersion() {
+		return modCount;
+	}
+
+	@Override
+	public NBTTagCompound getSnapshot() {
+		long version = getVersion();
+		NBTTagCompound tag = snapshotCache.get(version);
+		if (tag == null) {
+			tag = (NBTTagCompound) TreasureCapabilities.DURABILITY.getStorage().writeNBT(TreasureCapabilities.DURABILITY, this, null);
+			snapshotCache.put(version, tag);
+		}
+		return tag;
+	}
+
+	@Override
+	public void setSnapshot(NBTTagCompound tag) {
+		// the caller keeps the compound, ex. as a child of the stack's nbt
+		snapshotCache.put(getVersion(), tag.copy());
+	}
 }
@@ -21,8 +21,8 @@ public class DurabilityCapabilityProvider implements ICapabilityProvider, ICapab
 	 */
 	@Override
 	public NBTTagCompound serializeNBT() {
-		NBTTagCompound tag = (NBTTagCompound)TreasureCapabilities.DURABILITY.getStorage().writeNBT(TreasureCapabilities.DURABILITY, instance, null);
-		return tag;
+		// the snapshot is shared, the result belongs to the caller
+		return instance.getSnapshot().copy();
 	}
 
 	/**
@@ -31,6 +31,7 @@ public class DurabilityCapabilityProvider implements ICapabilityProvider, ICapab
 	@Override
 	public void deserializeNBT(NBTTagCompound nbt) {		
 		TreasureCapabilities.DURABILITY.getStorage().readNBT(TreasureCapabilities.DURABILITY, this.instance, null, nbt);
+		this.instance.setSnapshot(nbt);
 	}
 
 	@Override
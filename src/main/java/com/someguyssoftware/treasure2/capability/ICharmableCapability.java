@@ -28,6 +28,7 @@ import com.someguyssoftware.treasure2.charm.ICharmEntity;
 
 import net.minecraft.client.util.ITooltipFlag;
 import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.world.World;
 
@@ -142,6 +143,24 @@ public interface ICharmableCapability {
 
 	void transferTo(ItemStack dest, InventoryType sourceType, InventoryType destType);
 
+	/**
+	 * 
+	 * @return a counter that is incremented whenever a property of the capability or of one of its charm entities changes (never a hash)
+	 */
+	long getVersion();
+
+	/**
+	 * The serialised capability, only rebuilt when the version changed. NOTE must not be modified.
+	 * @return
+	 */
+	NBTTagCompound getSnapshot();
+
+	/**
+	 * Records the compound the capability was just read from as its snapshot.
+	 * @param tag
+	 */
+	void setSnapshot(NBTTagCompound tag);
+
 	void copyTo(ItemStack source);
 
 	boolean hasCharmType(ItemStack source, ItemStack dest, InventoryType sourceType, InventoryType destType);
@@ -23,6 +23,7 @@ import java.util.List;
 
 import net.minecraft.client.util.ITooltipFlag;
 import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.world.World;
 
 /**
@@ -56,4 +57,22 @@ public interface IDurabilityCapability {
 	public void setRepairs(int repairs);
 
 	public void appendHoverText(ItemStack stack, World world, List<String> tooltip, ITooltipFlag flag);
+
+	/**
+	 * 
+	 * @return a counter that is incremented whenever a property of the capability changes
+	 */
+	long getVersion();
+
+	/**
+	 * The serialised capability, only rebuilt when the version changed. NOTE must not be modified.
+	 * @return
+	 */
+	NBTTagCompound getSnapshot();
+
+	/**
+	 * Records the compound the capability was just read from as its snapshot.
+	 * @param tag
+	 */
+	void setSnapshot(NBTTagCompound tag);
 }
\ No newline at end of file
@@ -8,6 +8,7 @@ import com.someguyssoftware.treasure2.rune.IRuneEntity;
 
 import net.minecraft.client.util.ITooltipFlag;
 import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.world.World;
 
 public interface IRunestonesCapability /*extends IMagicsInventorySupportCapability*/ {
@@ -49,4 +50,22 @@ public interface IRunestonesCapability /*extends IMagicsInventorySupportCapabili
 	void copyTo(ItemStack stack);
 	
 	void transferTo(ItemStack stack, InventoryType sourceType, InventoryType destType);	
+
+	/**
+	 * 
+	 * @return a counter that is incremented whenever a property of the capability or of one of its runestone entities changes (never a hash)
+	 */
+	long getVersion();
+
+	/**
+	 * The serialised capability, only rebuilt when the version changed. NOTE must not be modified.
+	 * @return
+	 */
+	NBTTagCompound getSnapshot();
+
+	/**
+	 * Records the compound the capability was just read from as its snapshot.
+	 * @param tag
+	 */
+	void setSnapshot(NBTTagCompound tag);
 }
@@ -0,0 +1,222 @@
+/*
+ * This file is part of  Treasure2.
+ * Copyright (c) 2021, Mark Gottschling (gottsch)
+ * 
+ * All rights reserved.
+ * 
+ * Treasure2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * Treasure2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Treasure2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package com.someguyssoftware.treasure2.capability;
+
+import static com.someguyssoftware.treasure2.capability.TreasureCapabilities.CHARMABLE;
+import static com.someguyssoftware.treasure2.capability.TreasureCapabilities.DURABILITY;
+import static com.someguyssoftware.treasure2.capability.TreasureCapabilities.RUNESTONES;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+import it.unimi.dsi.fastutil.objects.Object2ObjectLinkedOpenHashMap;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
+
+/**
+ * Memoises the outputs of the charming table and anvil recipes, by a fingerprint of their input stacks.
+ * The fingerprint of a stack is its item, damage, count and tag, plus the snapshot compounds of its charmable, runestones
+ * and durability capabilities, so an output is only rebuilt (stacks copied, capabilities transferred, runes applied)
+ * when one of the inputs actually changed. The fingerprints are compared by content, so two stacks share an output
+ * only if they are equal. A recipe with no output is memoised as an empty stack.
+ * NOTE used by both the server and the client threads. The outputs are held as masters - callers always receive a copy.
+ */
+public final class RecipeResultCache {
+	public static final int MAX_RESULTS = 64;
+
+	// the number of parts in the fingerprint of a single stack
+	private static final int STRIDE = 6;
+
+	private static RecipeResultCache instance = new RecipeResultCache();
+
+	private final Object2ObjectLinkedOpenHashMap<Key, ItemStack> results = new Object2ObjectLinkedOpenHashMap<>();
+
+	// metrics
+	private long hits;
+	private long misses;
+
+	/**
+	 * A cache of its own, ex. to benchmark the recipes without touching the shared cache of the anvil.
+	 */
+	public RecipeResultCache() {}
+
+	/**
+	 * 
+	 * @return
+	 */
+	public static RecipeResultCache getInstance() {
+		return instance;
+	}
+
+	/**
+	 * 
+	 * @param recipe
+	 * @param recipeOutput builds the output of the recipe, or an empty stack if there is none
+	 * @param inputs
+	 * @return a copy of the output of the recipe for the inputs
+	 */
+	public ItemStack get(String recipe, Supplier<ItemStack> recipeOutput, ItemStack... inputs) {
+		return get(recipe, 0, recipeOutput, inputs);
+	}
+
+	/**
+	 * 
+	 * @param recipe
+	 * @param index distinguishes the variants of the recipe that have the same inputs (ex. the charm slot)
+	 * @param recipeOutput builds the output of the recipe, or an empty stack if there is none
+	 * @param inputs
+	 * @return a copy of the output of the recipe for the inputs
+	 */
+	public ItemStack get(String recipe, int index, Supplier<ItemStack> recipeOutput, ItemStack... inputs) {
+		Key key = new Key(recipe, index, fingerprint(inputs));
+		ItemStack output;
+		synchronized (this) {
+			output = results.getAndMoveToLast(key);
+			if (output != null) {
+				hits++;
+			}
+			else {
+				misses++;
+			}
+		}
+		if (output == null) {
+			// built outside of the lock - the recipes can be slow, and the client and server threads share the cache
+			output = recipeOutput.get();
+			if (output == null) {
+				output = ItemStack.EMPTY;
+			}
+			synchronized (this) {
+				results.putAndMoveToLast(key.retain(), output);
+				if (results.size() > MAX_RESULTS) {
+					results.removeFirst();
+				}
+			}
+		}
+		return output.isEmpty() ? ItemStack.EMPTY : output.copy();
+	}
+
+	/**
+	 * 
+	 * @param stacks
+	 * @return
+	 */
+	private static Object[] fingerprint(ItemStack[] stacks) {
+		Object[] fingerprint = new Object[stacks.length * STRIDE];
+		for (int i = 0; i < stacks.length; i++) {
+			ItemStack stack = stacks[i];
+			if (stack == null || stack.isEmpty()) {
+				continue;
+			}
+			int offset = i * STRIDE;
+			fingerprint[offset] = (long) Item.getIdFromItem(stack.getItem()) << 32 | (stack.getItemDamage() & 0xFFFFFFFFL);
+			fingerprint[offset + 1] = stack.getCount();
+			// NOTE the stack's own tag - copied by retain() if the key is kept
+			fingerprint[offset + 2] = stack.getTagCompound();
+			// the snapshots are never modified, so they are held as they are
+			if (stack.hasCapability(CHARMABLE, null)) {
+				fingerprint[offset + 3] = stack.getCapability(CHARMABLE, null).getSnapshot();
+			}
+			if (stack.hasCapability(RUNESTONES, null)) {
+				fingerprint[offset + 4] = stack.getCapability(RUNESTONES, null).getSnapshot();
+			}
+			if (stack.hasCapability(DURABILITY, null)) {
+				fingerprint[offset + 5] = stack.getCapability(DURABILITY, null).getSnapshot();
+			}
+		}
+		return fingerprint;
+	}
+
+	/**
+	 * 
+	 */
+	public synchronized void clear() {
+		results.clear();
+	}
+
+	public synchronized int size() {
+		return results.size();
+	}
+
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * 
+	 * @return the ratio of lookups that were served from the cache
+	 */
+	public synchronized double getHitRate() {
+		long lookups = hits + misses;
+		return lookups == 0 ? 0D : (double) hits / lookups;
+	}
+
+	/**
+	 * 
+	 */
+	private static final class Key {
+		private final String recipe;
+		private final int index;
+		private final Object[] fingerprint;
+		private final int hash;
+
+		public Key(String recipe, int index, Object[] fingerprint) {
+			this.recipe = recipe;
+			this.index = index;
+			this.fingerprint = fingerprint;
+			this.hash = (recipe.hashCode() * 31 + index) * 31 + Arrays.hashCode(fingerprint);
+		}
+
+		/**
+		 * 
+		 * @return the key, with copies of the stack tags so that it doesn't change with the stacks
+		 */
+		public Key retain() {
+			Object[] retained = fingerprint.clone();
+			for (int offset = 2; offset < retained.length; offset += STRIDE) {
+				if (retained[offset] != null) {
+					retained[offset] = ((NBTTagCompound) retained[offset]).copy();
+				}
+			}
+			return new Key(recipe, index, retained);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return hash == other.hash && index == other.index && recipe.equals(other.recipe) && Arrays.equals(fingerprint, other.fingerprint);
+		}
+	}
+}
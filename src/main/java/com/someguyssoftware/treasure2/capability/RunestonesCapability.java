@@ -33,6 +33,7 @@ import com.someguyssoftware.treasure2.rune.RuneEntity;
 
 import net.minecraft.client.util.ITooltipFlag;
 import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.util.text.TextFormatting;
 import net.minecraft.util.text.translation.I18n;
 import net.minecraft.world.World;
@@ -58,6 +59,12 @@ public class RunestonesCapability implements IRunestonesCapability {
 	private int maxImbueSize;
 	private int maxInnateSize;
 
+	// incremented by the setters - see getVersion()
+	private long modCount;
+	// counts the runes added, removed or modified
+	private final VersionCounter entityVersions = new VersionCounter();
+	private final SnapshotCache snapshotCache = new SnapshotCache();
+
 	public RunestonesCapability(int maxInnateSize, int maxImbueSize, int maxSocketSize) {
 		this.maxInnateSize = maxInnateSize;
 		this.maxImbueSize = maxImbueSize;
@@ -281,6 +288,7 @@ public class RunestonesCapability implements IRunestonesCapability {
 	@Override
 	public void setBindable(boolean bindable) {
 		this.bindable = bindable;
+		modCount++;
 	}
 
 	@Override
@@ -291,6 +299,7 @@ public class RunestonesCapability implements IRunestonesCapability {
 	@Override
 	public void setSocketable(boolean socketable) {
 		this.socketable = socketable;
+		modCount++;
 	}
 
 	public int getMaxSocketSize() {
@@ -304,4 +313,26 @@ public class RunestonesCapability implements IRunestonesCapability {
 	public int getMaxInnateSize() {
 		return maxInnateSize;
 	}
+
+	@Override
+	public long getVersion() {
+		return modCount + entityVersions.count(runestoneEntities.values(), IRuneEntity::getVersion);
+	}
+
+	@Override
+	public NBTTagCompound getSnapshot() {
+		long version = getVersion();
+		NBTTagCompound tag = snapshotCache.get(version);
+		if (tag == null) {
+			tag = (NBTTagCompound) TreasureCapabilities.RUNESTONES.getStorage().writeNBT(TreasureCapabilities.RUNESTONES, this, null);
+			snapshotCache.put(version, tag);
+		}
+		return tag;
+	}
+
+	@Override
+	public void setSnapshot(NBTTagCompound tag) {
+		// the caller keeps the compound, ex. as a child of the stack's nbt
+		snapshotCache.put(getVersion(), tag.copy());
+	}
 }
@@ -65,13 +65,14 @@ public class RunestonesCapabilityProvider implements ICapabilitySerializable<NBT
 
 	@Override
 	public NBTTagCompound serializeNBT() {
-		NBTTagCompound tag = (NBTTagCompound)TreasureCapabilities.RUNESTONES.getStorage().writeNBT(TreasureCapabilities.RUNESTONES, runestonesCap, null);
-		return tag;
+		// the snapshot is shared, the result belongs to the caller
+		return runestonesCap.getSnapshot().copy();
 	}
 
 	@Override
 	public void deserializeNBT(NBTTagCompound nbt) {
 		TreasureCapabilities.RUNESTONES.getStorage().readNBT(TreasureCapabilities.RUNESTONES, runestonesCap, null, nbt);
+		runestonesCap.setSnapshot(nbt);
 	}
 
 }
@@ -0,0 +1,84 @@
+/*
+ * This file is part of  Treasure2.
+ * Copyright (c) 2021, Mark Gottschling (gottsch)
+ * 
+ * All rights reserved.
+ * 
+ * Treasure2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * Treasure2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Treasure2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package com.someguyssoftware.treasure2.capability;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import net.minecraft.nbt.NBTTagCompound;
+
+/**
+ * Memoises the last serialised compound of a capability instance, by the capability's version.
+ * Vanilla serialises the capabilities of a stack every time it compares, copies or syncs it (ex. every container tick),
+ * so the compound is only rebuilt when a charm, rune or durability value actually changed.
+ * NOTE the compound is shared - it must not be modified. It is only handed out to be written (ex. to a packet), never to be kept:
+ * the capabilities copy the compound they are given (setSnapshot()), and the providers return a copy from serializeNBT(),
+ * as the caller owns the result. The share tags are written from the network threads, so the snapshot is replaced as a whole.
+ */
+public final class SnapshotCache {
+	private static final AtomicLong HITS = new AtomicLong();
+	private static final AtomicLong MISSES = new AtomicLong();
+
+	private volatile Snapshot snapshot;
+
+	/**
+	 * 
+	 * @param version the current version of the capability
+	 * @return the compound of the version, or null if it has to be rebuilt
+	 */
+	public NBTTagCompound get(long version) {
+		Snapshot snapshot = this.snapshot;
+		if (snapshot != null && snapshot.version == version) {
+			HITS.incrementAndGet();
+			return snapshot.tag;
+		}
+		MISSES.incrementAndGet();
+		return null;
+	}
+
+	/**
+	 * 
+	 * @param version
+	 * @param tag the compound of the version (written by, or read by, the capability storage)
+	 */
+	public void put(long version, NBTTagCompound tag) {
+		this.snapshot = new Snapshot(version, tag);
+	}
+
+	public static long getHits() {
+		return HITS.get();
+	}
+
+	public static long getMisses() {
+		return MISSES.get();
+	}
+
+	/**
+	 * 
+	 */
+	private static final class Snapshot {
+		private final long version;
+		private final NBTTagCompound tag;
+
+		public Snapshot(long version, NBTTagCompound tag) {
+			this.version = version;
+			this.tag = tag;
+		}
+	}
+}
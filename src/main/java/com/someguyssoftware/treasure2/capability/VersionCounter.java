@@ -0,0 +1,87 @@
+/*
+ * This file is part of  Treasure2.
+ * Copyright (c) 2021, Mark Gottschling (gottsch)
+ * 
+ * All rights reserved.
+ * 
+ * Treasure2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * Treasure2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Treasure2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package com.someguyssoftware.treasure2.capability;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.function.ToLongFunction;
+
+/**
+ * A counter that is incremented whenever a collection differs from the last time it was counted - for the state that is
+ * modified in place rather than through setters (ex. the charm entities of a charmable capability, or the applied-to list of a rune).
+ * The collection is compared element by element with a copy of the last one (by equals(), or by reference and version for the
+ * entities), so unlike a hash of the collection, a change is never missed.
+ * NOTE the counter only moves when it is read, which is enough for the snapshots - they are only built when they are read.
+ */
+public final class VersionCounter {
+	private static final Object[] NONE = new Object[0];
+
+	private Object[] elements = NONE;
+	private long[] versions = new long[0];
+	private long count;
+
+	/**
+	 * 
+	 * @param values compared by equals()
+	 * @return the count, incremented if the values differ from the last call
+	 */
+	public synchronized long count(Collection<?> values) {
+		if (!isSame(values, null)) {
+			elements = values.toArray();
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * 
+	 * @param entities compared by reference, and by their versions
+	 * @param version the version of an entity
+	 * @return the count, incremented if the entities, or one of their versions, differ from the last call
+	 */
+	public synchronized <E> long count(Collection<E> entities, ToLongFunction<E> version) {
+		if (!isSame(entities, version)) {
+			elements = entities.toArray();
+			versions = new long[elements.length];
+			int i = 0;
+			for (E entity : entities) {
+				versions[i++] = version.applyAsLong(entity);
+			}
+			count++;
+		}
+		return count;
+	}
+
+	private <E> boolean isSame(Collection<E> current, ToLongFunction<E> version) {
+		if (current.size() != elements.length) {
+			return false;
+		}
+		Iterator<E> iterator = current.iterator();
+		for (int i = 0; i < elements.length; i++) {
+			E element = iterator.next();
+			if (version == null ? !Objects.equals(element, elements[i])
+					: element != elements[i] || version.applyAsLong(element) != versions[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
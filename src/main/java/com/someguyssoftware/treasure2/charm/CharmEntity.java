@@ -47,6 +47,9 @@ public class CharmEntity implements ICharmEntity {
 	
 	private int recharges;
 	private int maxRecharges;
+
+	// incremented by every setter - see getVersion()
+	private long version;
 	
 	/**
 	 * 
@@ -100,6 +103,18 @@ public class CharmEntity implements ICharmEntity {
 	}
 	
 	// TODO probably add a update(Consumer<>) just in case someone wants to update something
+
+	@Override
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * Subclasses call this from the setters of their own saved properties.
+	 */
+	protected void markModified() {
+		version++;
+	}
 	
 	/**
 	 * 
@@ -142,6 +157,7 @@ public class CharmEntity implements ICharmEntity {
 	@Override
 	public void setCharm(ICharm charm) {
 		this.charm = charm;
+		markModified();
 	}
 
 	@Override
@@ -152,6 +168,7 @@ public class CharmEntity implements ICharmEntity {
 	@Override
 	public void setMana(double value) {
 		this.mana = value;
+		markModified();
 	}
 
 	@Override
@@ -162,6 +179,7 @@ public class CharmEntity implements ICharmEntity {
 	@Override
 	public void setDuration(int duration) {
 		this.duration = duration;
+		markModified();
 	}
 
 	@Override
@@ -172,6 +190,7 @@ public class CharmEntity implements ICharmEntity {
 	@Override
 	public void setFrequency(double frequency) {
 		this.frequency = frequency;
+		markModified();
 	}
 
 	@Override
@@ -189,6 +208,7 @@ public class CharmEntity implements ICharmEntity {
 	@Override
 	public void setRange(double range) {
 		this.range = range;
+		markModified();
 	}
 
 	@Override
@@ -199,6 +219,7 @@ public class CharmEntity implements ICharmEntity {
 	@Override
 	public void setCooldown(double cooldown) {
 		this.cooldown = cooldown;
+		markModified();
 	}
 
 	@Override
@@ -209,6 +230,7 @@ public class CharmEntity implements ICharmEntity {
 	@Override
 	public void setAmount(double amount) {
 		this.amount = amount;
+		markModified();
 	}
 
 	@Override
@@ -219,6 +241,7 @@ public class CharmEntity implements ICharmEntity {
 	@Override
 	public void setCostEvaluator(ICostEvaluator costEvaluator) {
 		this.costEvaluator = costEvaluator;
+		markModified();
 	}
 
 	@Override
@@ -229,6 +252,7 @@ public class CharmEntity implements ICharmEntity {
 	@Override
 	public void setMaxMana(double maxMana) {
 		this.maxMana = maxMana;
+		markModified();
 	}
 
 	@Override
@@ -239,6 +263,7 @@ public class CharmEntity implements ICharmEntity {
 	@Override
 	public void setExclusive(boolean exclusive) {
 		this.exclusive = exclusive;
+		markModified();
 	}
 
 	@Override
@@ -249,6 +274,7 @@ public class CharmEntity implements ICharmEntity {
 	@Override
 	public void setRecharges(int recharges) {
 		this.recharges = recharges;
+		markModified();
 	}
 
 	@Override
@@ -259,5 +285,6 @@ public class CharmEntity implements ICharmEntity {
 	@Override
 	public void setMaxRecharges(int maxRecharges) {
 		this.maxRecharges = maxRecharges;
+		markModified();
 	}
 }
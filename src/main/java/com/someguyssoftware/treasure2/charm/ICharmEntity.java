@@ -78,6 +78,12 @@ public interface ICharmEntity {
 	
 	void update(ICharmEntity entity);
 
+	/**
+	 * 
+	 * @return a counter that is incremented whenever a saved property of the entity changes
+	 */
+	long getVersion();
+
 	/**
 	 * 
 	 * @param nbt
@@ -26,6 +26,7 @@ import java.util.List;
 import com.someguyssoftware.gottschcore.positional.Coords;
 import com.someguyssoftware.gottschcore.positional.ICoords;
 import com.someguyssoftware.treasure2.Treasure;
+import com.someguyssoftware.treasure2.capability.VersionCounter;
 import com.someguyssoftware.treasure2.charm.ICharm;
 
 import net.minecraft.nbt.NBTTagCompound;
@@ -37,6 +38,8 @@ import net.minecraft.nbt.NBTTagList;
  */
 public class IlluminationCharmEntity extends CharmEntity {
 	private List<ICoords> coordsList;
+	// counts the changes of the coords list
+	private final VersionCounter coordsVersions = new VersionCounter();
 
 	/**
 	 * 
@@ -143,6 +146,18 @@ public class IlluminationCharmEntity extends CharmEntity {
 	 */
 	public void setCoordsList(List<ICoords> blockList) {
 		this.coordsList = blockList;
+		markModified();
+	}
+
+	/**
+	 * NOTE the coords list is modified in place by the charm, so its changes are counted as well.
+	 */
+	@Override
+	public long getVersion() {
+		List<ICoords> list = getCoordsList();
+		synchronized (list) {
+			return super.getVersion() + coordsVersions.count(list);
+		}
 	}
 
 	@Override
@@ -72,6 +72,7 @@ public class LifeStrikeCharmEntity extends CharmEntity {
 
 	public void setLifeCost(double lifeCost) {
 		this.lifeCost = lifeCost;
+		markModified();
 	}
 
 	@Override
@@ -85,5 +85,6 @@ public class ShieldingCharmEntity extends CharmEntity implements ICooldownCharmE
 	@Override
 	public void setCooldownEnd(double cooldownEnd) {
 		this.cooldownEnd = cooldownEnd;
+		markModified();
 	}	
 }
@@ -20,12 +20,16 @@
 package com.someguyssoftware.treasure2.charm;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Random;
 import java.util.function.Predicate;
 
+import com.someguyssoftware.gottschcore.random.RandomHelper;
+import com.someguyssoftware.treasure2.Treasure;
 import com.someguyssoftware.treasure2.enums.Rarity;
 
 import net.minecraft.util.ResourceLocation;
@@ -34,15 +38,30 @@ public class TreasureCharmRegistry {
     private static final Map<ResourceLocation, ICharm> REGISTRY = new HashMap<>();
     private static final Map<Integer, List<ICharm>> REGISTRY_BY_LEVEL = new HashMap<>();
     private static final Map<Rarity, List<ICharm>> REGISTRY_BY_RARITY = new HashMap<>();
+    /*
+     * network ids, assigned in registration order. charms are registered in the same order on
+     * both the server and client so the ids can be used in place of the charm names in messages.
+     */
+    private static final List<ICharm> REGISTRY_BY_ID = new ArrayList<>();
+    private static final Map<ResourceLocation, Integer> IDS = new HashMap<>();
+
+    private static final ICharm[] NO_CHARMS = new ICharm[0];
+    // the sampling index of the registered charms, compiled on first use
+    private static volatile CharmIndex charmIndex;
 
     /**
-     * 
+     * Registers the charm. A charm that is already registered (by name) is ignored.
      * @param charm
      */
     public static void register(ICharm charm) {
-        if (!REGISTRY.containsKey(charm.getName())) {
-            REGISTRY.put(charm.getName(), charm);
+        if (REGISTRY.containsKey(charm.getName())) {
+            return;
         }
+        REGISTRY.put(charm.getName(), charm);
+        IDS.put(charm.getName(), REGISTRY_BY_ID.size());
+        REGISTRY_BY_ID.add(charm);
+        charmIndex = null;
+
         if (!REGISTRY_BY_LEVEL.containsKey(Integer.valueOf(charm.getLevel()))) {
         	List<ICharm> charmList = new ArrayList<>();
         	charmList.add(charm);
@@ -74,6 +93,28 @@ public class TreasureCharmRegistry {
         return Optional.empty();
     }
     
+    /**
+     * 
+     * @param charm
+     * @return the network id of the charm, or -1 if the charm is not registered
+     */
+    public static int getId(ICharm charm) {
+        Integer id = IDS.get(charm.getName());
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * 
+     * @param id
+     * @return
+     */
+    public static Optional<ICharm> getById(int id) {
+        if (id >= 0 && id < REGISTRY_BY_ID.size()) {
+            return Optional.of(REGISTRY_BY_ID.get(id));
+        }
+        return Optional.empty();
+    }
+
     /**
      * @param level
      * @return
@@ -114,6 +155,120 @@ public class TreasureCharmRegistry {
 		return Optional.of(charms);
 	}
 	
+    /**
+     * Selects a random charm of the rarity.
+     * @param random
+     * @param rarity
+     * @param includeCurses
+     * @return
+     */
+    public static Optional<ICharm> sample(Random random, Rarity rarity, boolean includeCurses) {
+        CharmIndex index = getCharmIndex();
+        ICharm[] charms = index.charmsByRarity[rarity.ordinal()];
+        ICharm[] curses = includeCurses ? index.cursesByRarity[rarity.ordinal()] : NO_CHARMS;
+        return sample(random, charms, curses, curses.length);
+    }
+
+    /**
+     * Selects a random charm of the level.
+     * @param random
+     * @param level
+     * @param includeCurses
+     * @return
+     */
+    public static Optional<ICharm> sampleByLevel(Random random, int level, boolean includeCurses) {
+        CharmIndex index = getCharmIndex();
+        if (level < 0 || level >= index.charmsByLevel.length) {
+            return Optional.empty();
+        }
+        ICharm[] curses = includeCurses ? index.cursesByLevel[level] : NO_CHARMS;
+        return sample(random, index.charmsByLevel[level], curses, curses.length);
+    }
+
+    /**
+     * Selects a random charm of the level, where each curse of the level is a candidate with the curse probability.
+     * NOTE the number of candidate curses is drawn directly (one probability check per curse), and as the candidate curses
+     * are then equally likely, a curse is selected uniformly from all the curses of the level.
+     * @param random
+     * @param level
+     * @param curseProbability
+     * @return
+     */
+    public static Optional<ICharm> sampleByLevel(Random random, int level, double curseProbability) {
+        CharmIndex index = getCharmIndex();
+        if (level < 0 || level >= index.charmsByLevel.length) {
+            return Optional.empty();
+        }
+        ICharm[] curses = curseProbability > 0.0 ? index.cursesByLevel[level] : NO_CHARMS;
+        int curseCount = 0;
+        for (int i = 0; i < curses.length; i++) {
+            if (RandomHelper.checkProbability(random, curseProbability)) {
+                curseCount++;
+            }
+        }
+        return sample(random, index.charmsByLevel[level], curses, curseCount);
+    }
+
+    /**
+     * Selects a random charm (not curse) of the level or lower.
+     * @param random
+     * @param maxLevel
+     * @return
+     */
+    public static Optional<ICharm> sampleUpToLevel(Random random, int maxLevel) {
+        CharmIndex index = getCharmIndex();
+        int count = maxLevel < 0 ? 0 : index.charmCountUpToLevel[Math.min(maxLevel, index.charmCountUpToLevel.length - 1)];
+        return count == 0 ? Optional.empty() : Optional.of(index.charmsInLevelOrder[random.nextInt(count)]);
+    }
+
+    /**
+     * 
+     * @param random
+     * @param charms
+     * @param curses
+     * @param curseCount the number of candidate curses
+     * @return
+     */
+    private static Optional<ICharm> sample(Random random, ICharm[] charms, ICharm[] curses, int curseCount) {
+        int count = charms.length + curseCount;
+        if (count == 0) {
+            return Optional.empty();
+        }
+        int index = random.nextInt(count);
+        return Optional.of(index < charms.length ? charms[index] : curses[curseCount == curses.length ? index - charms.length : random.nextInt(curses.length)]);
+    }
+
+    /**
+     * 
+     * @return
+     */
+    private static CharmIndex getCharmIndex() {
+        CharmIndex index = charmIndex;
+        if (index == null) {
+            index = compileCharmIndex();
+        }
+        return index;
+    }
+
+    /**
+     * 
+     * @return
+     */
+    private static synchronized CharmIndex compileCharmIndex() {
+        if (charmIndex == null) {
+            // NOTE in registration order, so the sampling is stable for a given random
+            List<ICharm> charms = new ArrayList<>();
+            int maxLevel = 0;
+            for (ICharm charm : REGISTRY_BY_ID) {
+                charms.add(charm);
+                maxLevel = Math.max(maxLevel, charm.getLevel());
+            }
+            charmIndex = new CharmIndex(charms, maxLevel);
+            Treasure.LOGGER.debug("compiled charm index -> {} charms, max level -> {}", charms.size(), maxLevel);
+        }
+        return charmIndex;
+    }
+
     /**
      * 
      * @return
@@ -121,4 +276,51 @@ public class TreasureCharmRegistry {
     public static List<ICharm> values() {
     	return new ArrayList<ICharm>(REGISTRY.values());
     }
+
+    /*
+     * the charms (not curses) and the curses, by level and by rarity ordinal,
+     * and the charms ordered by level with the count of charms up to each level
+     */
+    private static class CharmIndex {
+        private final ICharm[][] charmsByLevel;
+        private final ICharm[][] cursesByLevel;
+        private final ICharm[][] charmsByRarity;
+        private final ICharm[][] cursesByRarity;
+        private final ICharm[] charmsInLevelOrder;
+        private final int[] charmCountUpToLevel;
+
+        public CharmIndex(List<ICharm> charms, int maxLevel) {
+            charmsByLevel = new ICharm[maxLevel + 1][];
+            cursesByLevel = new ICharm[maxLevel + 1][];
+            for (int level = 0; level <= maxLevel; level++) {
+                charmsByLevel[level] = filter(charms, level, null, false);
+                cursesByLevel[level] = filter(charms, level, null, true);
+            }
+            Rarity[] rarities = Rarity.values();
+            charmsByRarity = new ICharm[rarities.length][];
+            cursesByRarity = new ICharm[rarities.length][];
+            for (Rarity rarity : rarities) {
+                charmsByRarity[rarity.ordinal()] = filter(charms, -1, rarity, false);
+                cursesByRarity[rarity.ordinal()] = filter(charms, -1, rarity, true);
+            }
+
+            List<ICharm> levelOrder = new ArrayList<>();
+            charmCountUpToLevel = new int[maxLevel + 1];
+            for (int level = 0; level <= maxLevel; level++) {
+                levelOrder.addAll(Arrays.asList(charmsByLevel[level]));
+                charmCountUpToLevel[level] = levelOrder.size();
+            }
+            charmsInLevelOrder = levelOrder.toArray(NO_CHARMS);
+        }
+
+        private static ICharm[] filter(List<ICharm> charms, int level, Rarity rarity, boolean curse) {
+            List<ICharm> result = new ArrayList<>();
+            for (ICharm charm : charms) {
+                if (charm.isCurse() == curse && (level < 0 || charm.getLevel() == level) && (rarity == null || charm.getRarity() == rarity)) {
+                    result.add(charm);
+                }
+            }
+            return result.isEmpty() ? NO_CHARMS : result.toArray(NO_CHARMS);
+        }
+    }
 }
@@ -5,6 +5,7 @@ package com.someguyssoftware.treasure2.chest;
 
 import com.someguyssoftware.gottschcore.positional.ICoords;
 import com.someguyssoftware.treasure2.enums.Rarity;
+import com.someguyssoftware.treasure2.enums.WorldGeneratorType;
 
 /**
  * @author Mark Gottschling on Jan 22, 2018
@@ -13,6 +14,9 @@ import com.someguyssoftware.treasure2.enums.Rarity;
 public class ChestInfo {
 	private ICoords coords;
 	private Rarity rarity;
+	private int dimensionID;
+	// the generator of the chest, or null if it is unknown (ex. registered by an older version)
+	private WorldGeneratorType generatorType;
 	
 	/**
 	 * 
@@ -25,8 +29,31 @@ public class ChestInfo {
 	 * @param coords
 	 */
 	public ChestInfo(Rarity rarity, ICoords coords) {
+		this(rarity, coords, 0);
+	}
+	
+	/**
+	 * 
+	 * @param rarity
+	 * @param coords
+	 * @param dimensionID
+	 */
+	public ChestInfo(Rarity rarity, ICoords coords, int dimensionID) {
 		setRarity(rarity);
 		setCoords(coords);
+		setDimensionID(dimensionID);
+	}
+
+	/**
+	 * 
+	 * @param rarity
+	 * @param coords
+	 * @param dimensionID
+	 * @param generatorType
+	 */
+	public ChestInfo(Rarity rarity, ICoords coords, int dimensionID, WorldGeneratorType generatorType) {
+		this(rarity, coords, dimensionID);
+		setGeneratorType(generatorType);
 	}
 	
 	/**
@@ -56,4 +83,32 @@ public class ChestInfo {
 	public void setRarity(Rarity rarity) {
 		this.rarity = rarity;
 	}
+
+	/**
+	 * @return the dimensionID
+	 */
+	public int getDimensionID() {
+		return dimensionID;
+	}
+
+	/**
+	 * @param dimensionID the dimensionID to set
+	 */
+	public void setDimensionID(int dimensionID) {
+		this.dimensionID = dimensionID;
+	}
+
+	/**
+	 * @return the generatorType
+	 */
+	public WorldGeneratorType getGeneratorType() {
+		return generatorType;
+	}
+
+	/**
+	 * @param generatorType the generatorType to set
+	 */
+	public void setGeneratorType(WorldGeneratorType generatorType) {
+		this.generatorType = generatorType;
+	}
 }
@@ -21,8 +21,6 @@ package com.someguyssoftware.treasure2.client.gui;
 
 import static com.someguyssoftware.treasure2.Treasure.LOGGER;
 
-import java.util.Random;
-
 import com.someguyssoftware.treasure2.Treasure;
 import com.someguyssoftware.treasure2.client.gui.inventory.CharmingTableGui;
 import com.someguyssoftware.treasure2.client.gui.inventory.CompressorChestGui;
@@ -34,7 +32,6 @@ import com.someguyssoftware.treasure2.client.gui.inventory.SkullChestGui;
 import com.someguyssoftware.treasure2.client.gui.inventory.StandardChestGui;
 import com.someguyssoftware.treasure2.client.gui.inventory.StrongboxChestGui;
 import com.someguyssoftware.treasure2.client.gui.inventory.WitherChestGui;
-import com.someguyssoftware.treasure2.generator.chest.IChestGenerator;
 import com.someguyssoftware.treasure2.inventory.CharmingTableContainer;
 import com.someguyssoftware.treasure2.inventory.CompressorChestContainer;
 import com.someguyssoftware.treasure2.inventory.JewelerBenchContainer;
@@ -49,6 +46,8 @@ import com.someguyssoftware.treasure2.inventory.StrongboxChestContainer;
 import com.someguyssoftware.treasure2.inventory.WitherChestContainer;
 import com.someguyssoftware.treasure2.item.KeyRingItem;
 import com.someguyssoftware.treasure2.item.PouchItem;
+import com.someguyssoftware.treasure2.loot.LootPreRollCache;
+import com.someguyssoftware.treasure2.tileentity.AbstractTreasureChestTileEntity;
 import com.someguyssoftware.treasure2.tileentity.ITreasureChestTileEntity;
 
 import net.minecraft.entity.player.EntityPlayer;
@@ -97,12 +96,10 @@ public class GuiHandler implements IGuiHandler {
 			if (chestTileEntity.isSealed()) {
 				chestTileEntity.setSealed(false);
                 LOGGER.debug("chest gen type -> {}", chestTileEntity.getGenerationContext().getChestGeneratorType()); 
-                // construct the chest generator used to create the tile entity
-                IChestGenerator chestGenerator = chestTileEntity.getGenerationContext().getChestGeneratorType().getChestGenerator();
                 LOGGER.debug("chest gen  -> {}", chestTileEntity.getGenerationContext().getChestGeneratorType().getChestGenerator().getClass().getSimpleName());
                 
-                // fill the chest with loot
-                chestGenerator.fillChest(world, new Random(), tileEntity, chestTileEntity.getGenerationContext().getLootRarity(), player);
+                // fill the chest with loot, pre-rolled if it is ready
+                LootPreRollCache.getInstance().fillChest(world, (AbstractTreasureChestTileEntity) tileEntity, player);
 
 			}
 		}
@@ -0,0 +1,321 @@
+/*
+ * This file is part of  Treasure2.
+ * Copyright (c) 2021, Mark Gottschling (gottsch)
+ * 
+ * All rights reserved.
+ * 
+ * Treasure2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * Treasure2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Treasure2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package com.someguyssoftware.treasure2.command;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import com.someguyssoftware.gottschcore.positional.Coords;
+import com.someguyssoftware.gottschcore.positional.ICoords;
+import com.someguyssoftware.gottschcore.world.WorldInfo;
+import com.someguyssoftware.treasure2.Treasure;
+import com.someguyssoftware.treasure2.capability.ICharmableCapability;
+import com.someguyssoftware.treasure2.capability.IDurabilityCapability;
+import com.someguyssoftware.treasure2.capability.IRunestonesCapability;
+import com.someguyssoftware.treasure2.capability.RecipeResultCache;
+import com.someguyssoftware.treasure2.capability.SnapshotCache;
+import com.someguyssoftware.treasure2.capability.TreasureCapabilities;
+import com.someguyssoftware.treasure2.eventhandler.AnvilEventHandler;
+import com.someguyssoftware.treasure2.generator.ColumnProfiles;
+
+import net.minecraft.command.CommandBase;
+import net.minecraft.command.CommandException;
+import net.minecraft.command.ICommandSender;
+import net.minecraft.command.WrongUsageException;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.item.ItemStack;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.text.TextComponentString;
+import net.minecraft.world.World;
+import net.minecraftforge.event.AnvilUpdateEvent;
+
+/**
+ * Micro-benchmarks of the cached paths against the uncached paths they replace.
+ * ex. /t2-benchmark sharetags 10000 - with an adornment, charm, runestone or key in the main hand.
+ * ex. /t2-benchmark recipes 1000 - with the left anvil input in the main hand and the right input in the off hand.
+ * ex. /t2-benchmark columns 20 - the surface and footprint checks of the generators on the loaded chunks around the player.
+ */
+public class BenchmarkCommand extends CommandBase {
+	private static final String SHARE_TAGS = "sharetags";
+	private static final String RECIPES = "recipes";
+	private static final String COLUMNS = "columns";
+	private static final int DEFAULT_ITERATIONS = 10000;
+	private static final int DEFAULT_COLUMN_ITERATIONS = 20;
+	private static final int COLUMN_RADIUS = 2;
+
+	@Override
+	public String getName() {
+		return "t2-benchmark";
+	}
+
+	@Override
+	public String getUsage(ICommandSender var1) {
+		return "/t2-benchmark <sharetags | recipes | columns> [iterations]: compares the cached and uncached paths.";
+	}
+
+	@Override
+	public int getRequiredPermissionLevel() {
+		return 2;
+	}
+
+	@Override
+	public void execute(MinecraftServer server, ICommandSender commandSender, String[] args) throws CommandException {
+		if (args.length < 1) {
+			throw new WrongUsageException(getUsage(commandSender));
+		}
+		int iterations = args.length > 1 ? parseInt(args[1], 1) : (COLUMNS.equals(args[0]) ? DEFAULT_COLUMN_ITERATIONS : DEFAULT_ITERATIONS);
+
+		if (SHARE_TAGS.equals(args[0])) {
+			if (!(commandSender.getCommandSenderEntity() instanceof EntityPlayer)) {
+				return;
+			}
+			benchmarkShareTags(commandSender, ((EntityPlayer) commandSender.getCommandSenderEntity()).getHeldItemMainhand(), iterations);
+		}
+		else if (RECIPES.equals(args[0])) {
+			if (!(commandSender.getCommandSenderEntity() instanceof EntityPlayer)) {
+				return;
+			}
+			EntityPlayer player = (EntityPlayer) commandSender.getCommandSenderEntity();
+			benchmarkRecipes(commandSender, player.getHeldItemMainhand(), player.getHeldItemOffhand(), iterations);
+		}
+		else if (COLUMNS.equals(args[0])) {
+			benchmarkColumns(commandSender, commandSender.getEntityWorld(), commandSender.getPosition(), iterations);
+		}
+		else {
+			throw new WrongUsageException(getUsage(commandSender));
+		}
+	}
+
+	/**
+	 * Serialises the capabilities of the stack with the capability storages (uncached) and with the
+	 * capability snapshots (cached), and the share tag of the stack.
+	 * @param commandSender
+	 * @param stack
+	 * @param iterations
+	 */
+	private void benchmarkShareTags(ICommandSender commandSender, ItemStack stack, int iterations) {
+		if (stack.isEmpty()) {
+			send(commandSender, "Hold an item with capabilities in the main hand.");
+			return;
+		}
+		long hits = SnapshotCache.getHits();
+		long misses = SnapshotCache.getMisses();
+
+		if (stack.hasCapability(TreasureCapabilities.CHARMABLE, null)) {
+			ICharmableCapability cap = stack.getCapability(TreasureCapabilities.CHARMABLE, null);
+			report(commandSender, "charmable", iterations,
+					() -> TreasureCapabilities.CHARMABLE.getStorage().writeNBT(TreasureCapabilities.CHARMABLE, cap, null),
+					() -> cap.getSnapshot());
+		}
+		if (stack.hasCapability(TreasureCapabilities.RUNESTONES, null)) {
+			IRunestonesCapability cap = stack.getCapability(TreasureCapabilities.RUNESTONES, null);
+			report(commandSender, "runestones", iterations,
+					() -> TreasureCapabilities.RUNESTONES.getStorage().writeNBT(TreasureCapabilities.RUNESTONES, cap, null),
+					() -> cap.getSnapshot());
+		}
+		if (stack.hasCapability(TreasureCapabilities.DURABILITY, null)) {
+			IDurabilityCapability cap = stack.getCapability(TreasureCapabilities.DURABILITY, null);
+			report(commandSender, "durability", iterations,
+					() -> TreasureCapabilities.DURABILITY.getStorage().writeNBT(TreasureCapabilities.DURABILITY, cap, null),
+					() -> cap.getSnapshot());
+		}
+		// the whole share tag, as vanilla requests it when it syncs the stack (the cached path only)
+		long nanos = time(iterations, () -> stack.getItem().getNBTShareTag(stack));
+		send(commandSender, String.format("share tag: %.1f ns/op", (double) nanos / iterations));
+
+		send(commandSender, String.format("snapshot cache: %d hits, %d misses", SnapshotCache.getHits() - hits, SnapshotCache.getMisses() - misses));
+	}
+
+	/**
+	 * Runs the anvil update of the stacks with an empty recipe result cache (uncached) and with the memoised
+	 * output (cached), and reports the hit rate of the shared cache up to the benchmark.
+	 * NOTE the handler is called directly, with a cache of its own - posting the event would run every other mod's anvil handler,
+	 * and clearing the shared cache would evict the outputs of the players at the anvils.
+	 * @param commandSender
+	 * @param left
+	 * @param right
+	 * @param iterations
+	 */
+	private void benchmarkRecipes(ICommandSender commandSender, ItemStack left, ItemStack right, int iterations) {
+		if (left.isEmpty() || right.isEmpty()) {
+			send(commandSender, "Hold the left anvil input in the main hand and the right input in the off hand.");
+			return;
+		}
+		RecipeResultCache shared = RecipeResultCache.getInstance();
+		// the hit rate of play
+		String stats = String.format("recipe result cache: %d hits, %d misses (%.1f%% hit rate), %d results",
+				shared.getHits(), shared.getMisses(), shared.getHitRate() * 100, shared.size());
+
+		AnvilEventHandler handler = new AnvilEventHandler(Treasure.instance.getInstance());
+		RecipeResultCache cache = new RecipeResultCache();
+		report(commandSender, "anvil", iterations,
+				() -> {
+					cache.clear();
+					handler.onAnvilUpdate(new AnvilUpdateEvent(left, right, "", 0), cache);
+				},
+				() -> handler.onAnvilUpdate(new AnvilUpdateEvent(left, right, "", 0), cache));
+
+		send(commandSender, stats);
+	}
+
+	/**
+	 * Runs the surface and footprint checks of the generators on the chunks around the position, with WorldInfo (uncached)
+	 * and with fresh column profiles per chunk (cached), and reports the blocks read per chunk by each.
+	 * NOTE WorldInfo isn't instrumented - its reads are counted from the lengths of its walks and the areas of its footprints.
+	 * @param commandSender
+	 * @param world
+	 * @param pos
+	 * @param iterations
+	 */
+	private void benchmarkColumns(ICommandSender commandSender, World world, BlockPos pos, int iterations) {
+		// the checks of world generation, before the benchmark adds to them
+		String stats = String.format("world generation: %d populations, %d checks, %d world reads (%d uncached), %d section reads",
+				ColumnProfiles.getPopulationCount(), ColumnProfiles.getProbeCount(), ColumnProfiles.getWorldReadCount(),
+				ColumnProfiles.getUncachedReadCount(), ColumnProfiles.getSectionReadCount());
+
+		// the footprints reach into the +x, +z neighbours, which must be loaded as they would be during population
+		List<ChunkPos> chunks = new ArrayList<>();
+		for (int chunkX = (pos.getX() >> 4) - COLUMN_RADIUS; chunkX <= (pos.getX() >> 4) + COLUMN_RADIUS; chunkX++) {
+			for (int chunkZ = (pos.getZ() >> 4) - COLUMN_RADIUS; chunkZ <= (pos.getZ() >> 4) + COLUMN_RADIUS; chunkZ++) {
+				if (world.getChunkProvider().getLoadedChunk(chunkX, chunkZ) != null
+						&& world.getChunkProvider().getLoadedChunk(chunkX + 1, chunkZ) != null
+						&& world.getChunkProvider().getLoadedChunk(chunkX, chunkZ + 1) != null
+						&& world.getChunkProvider().getLoadedChunk(chunkX + 1, chunkZ + 1) != null) {
+					chunks.add(new ChunkPos(chunkX, chunkZ));
+				}
+			}
+		}
+		if (chunks.isEmpty()) {
+			send(commandSender, "No loaded chunks around the player.");
+			return;
+		}
+		Runnable uncached = () -> chunks.forEach(chunk -> probeColumns(world, chunk));
+		Runnable cached = () -> {
+			for (ChunkPos chunk : chunks) {
+				// a fresh profile per chunk, as in a population
+				ColumnProfiles.clear(world);
+				ColumnProfiles.begin(world, chunk.x, chunk.z);
+				try {
+					probeColumns(world, chunk);
+				}
+				finally {
+					ColumnProfiles.end(world);
+				}
+			}
+		};
+		// warm up
+		time(iterations, uncached);
+		time(iterations, cached);
+
+		long uncachedNanos = time(iterations, uncached);
+		long probes = ColumnProfiles.getProbeCount();
+		long worldReads = ColumnProfiles.getWorldReadCount();
+		long sectionReads = ColumnProfiles.getSectionReadCount();
+		long uncachedReads = ColumnProfiles.getUncachedReadCount();
+		long cachedNanos = time(iterations, cached);
+		ColumnProfiles.clear(world);
+
+		double count = (double) iterations * chunks.size();
+		send(commandSender, String.format("columns (%d chunks): %.1f checks/chunk", chunks.size(), (ColumnProfiles.getProbeCount() - probes) / count));
+		send(commandSender, String.format("before: %.1f world reads/chunk, %.1f us/chunk",
+				(ColumnProfiles.getUncachedReadCount() - uncachedReads) / count, uncachedNanos / count / 1000));
+		send(commandSender, String.format("after: %.1f world reads/chunk + %.1f section reads/chunk, %.1f us/chunk",
+				(ColumnProfiles.getWorldReadCount() - worldReads) / count, (ColumnProfiles.getSectionReadCount() - sectionReads) / count,
+				cachedNanos / count / 1000));
+		send(commandSender, stats);
+	}
+
+	/**
+	 * The checks that the generators make on a chunk - a chest marker, a ruin footprint at a few heights, a well and
+	 * a submerged chest.
+	 * @param world
+	 * @param chunk
+	 */
+	private static void probeColumns(World world, ChunkPos chunk) {
+		ICoords coords = new Coords(chunk.getXStart() + 8, 0, chunk.getZStart() + 8);
+		coords = coords.withY(world.getHeight(coords.getX(), coords.getZ()));
+
+		ICoords surfaceCoords = ColumnProfiles.getDryLandSurfaceCoords(world, coords);
+		if (WorldInfo.isValidY(surfaceCoords)) {
+			ColumnProfiles.isSolidBase(world, surfaceCoords, 2, 2, 50);
+			for (int y = 0; y < 3; y++) {
+				ColumnProfiles.isSolidBase(world, surfaceCoords.down(y), 12, 12, 45);
+			}
+			ColumnProfiles.isAirBase(world, surfaceCoords.up(1), 12, 12, 30);
+		}
+
+		ICoords wellCoords = ColumnProfiles.getDryLandSurfaceCoords(world, coords.withY(255));
+		if (WorldInfo.isValidY(wellCoords)) {
+			ColumnProfiles.isSolidBase(world, wellCoords, 3, 3, 50);
+		}
+
+		ColumnProfiles.getOceanFloorSurfaceCoords(world, coords);
+	}
+
+	/**
+	 * 
+	 * @param commandSender
+	 * @param name
+	 * @param iterations
+	 * @param uncached
+	 * @param cached
+	 */
+	private void report(ICommandSender commandSender, String name, int iterations, Runnable uncached, Runnable cached) {
+		// warm up
+		time(iterations, uncached);
+		time(iterations, cached);
+
+		long uncachedNanos = time(iterations, uncached);
+		long cachedNanos = time(iterations, cached);
+		String message = String.format("%s: uncached %.1f ns/op, cached %.1f ns/op (x%.1f)", name,
+				(double) uncachedNanos / iterations, (double) cachedNanos / iterations, (double) uncachedNanos / Math.max(1, cachedNanos));
+		send(commandSender, message);
+	}
+
+	private static long time(int iterations, Runnable runnable) {
+		long start = System.nanoTime();
+		for (int i = 0; i < iterations; i++) {
+			runnable.run();
+		}
+		return System.nanoTime() - start;
+	}
+
+	private static void send(ICommandSender commandSender, String message) {
+		Treasure.LOGGER.info("[benchmark] {}", message);
+		commandSender.sendMessage(new TextComponentString(message));
+	}
+
+	/**
+	 * Get a list of options for when the user presses the TAB key
+	 */
+	@Override
+	public List<String> getTabCompletions(MinecraftServer server, ICommandSender sender, String[] args, @Nullable BlockPos targetPos) {
+		if (args.length == 1) {
+			return getListOfStringsMatchingLastWord(args, Arrays.asList(SHARE_TAGS, RECIPES, COLUMNS));
+		}
+		return Collections.emptyList();
+	}
+}
@@ -0,0 +1,177 @@
+/*
+ * This file is part of  Treasure2.
+ * Copyright (c) 2021, Mark Gottschling (gottsch)
+ * 
+ * All rights reserved.
+ * 
+ * Treasure2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * Treasure2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Treasure2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package com.someguyssoftware.treasure2.command;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.CommandLineParser;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+
+import com.someguyssoftware.gottschcore.positional.Coords;
+import com.someguyssoftware.treasure2.api.TreasureApi;
+import com.someguyssoftware.treasure2.enums.Rarity;
+import com.someguyssoftware.treasure2.enums.WorldGeneratorType;
+import com.someguyssoftware.treasure2.locate.LocateQuery;
+import com.someguyssoftware.treasure2.locate.LocateResult;
+import com.someguyssoftware.treasure2.locate.TreasureSite;
+
+import net.minecraft.command.CommandBase;
+import net.minecraft.command.ICommandSender;
+import net.minecraft.command.WrongUsageException;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.text.TextComponentString;
+
+/**
+ * Locates the nearest treasure sites - registered, and predicted by the placement grid (when it is enabled).
+ * ex. /t2-locate -type surfaceChest -rarity epic,legendary -count 5
+ */
+public class LocateCommand extends CommandBase {
+	private static final String TYPE_ARG = "type";
+	private static final String RARITY_ARG = "rarity";
+	private static final String COUNT_ARG = "count";
+	private static final String RADIUS_ARG = "radius";
+	private static final String BOX_ARG = "box";
+	private static final String REGISTERED_ARG = "registered";
+
+	private static final List<WorldGeneratorType> TYPES = Arrays.asList(WorldGeneratorType.SURFACE_CHEST, WorldGeneratorType.SUBMERGED_CHEST,
+			WorldGeneratorType.WELL, WorldGeneratorType.WITHER_TREE);
+
+	@Override
+	public String getName() {
+		return "t2-locate";
+	}
+
+	@Override
+	public String getUsage(ICommandSender var1) {
+		return "/t2-locate [-type <type,...> -rarity <rarity,...> -count <count> -radius <blocks> -box <x1,z1,x2,z2> -registered]: locates the nearest Treasure! sites.";
+	}
+
+	@Override
+	public int getRequiredPermissionLevel() {
+		return 2;
+	}
+
+	@Override
+	public void execute(MinecraftServer server, ICommandSender commandSender, String[] args) throws WrongUsageException {
+		LocateQuery query = new LocateQuery(new Coords(commandSender.getPosition()));
+		try {
+			// create the parser
+			CommandLineParser parser = new DefaultParser();
+
+			// create Options object
+			Options options = new Options();
+			options.addOption(TYPE_ARG, true, "");
+			options.addOption(RARITY_ARG, true, "");
+			options.addOption(COUNT_ARG, true, "");
+			options.addOption(RADIUS_ARG, true, "");
+			options.addOption(BOX_ARG, true, "");
+			options.addOption(REGISTERED_ARG, false, "");
+			// parse the command line arguments
+			CommandLine line = parser.parse(options, args);
+
+			if (line.hasOption(TYPE_ARG)) {
+				Set<WorldGeneratorType> types = EnumSet.noneOf(WorldGeneratorType.class);
+				for (String name : line.getOptionValue(TYPE_ARG).split(",")) {
+					types.add(TYPES.stream().filter(type -> type.getValue().equalsIgnoreCase(name)).findFirst()
+							.orElseThrow(() -> new IllegalArgumentException("unknown type " + name)));
+				}
+				query.setGeneratorTypes(types);
+			}
+			if (line.hasOption(RARITY_ARG)) {
+				Set<Rarity> rarities = EnumSet.noneOf(Rarity.class);
+				for (String name : line.getOptionValue(RARITY_ARG).split(",")) {
+					rarities.add(Rarity.valueOf(name.toUpperCase()));
+				}
+				query.setRarities(rarities);
+			}
+			if (line.hasOption(COUNT_ARG)) {
+				query.setLimit(Integer.parseInt(line.getOptionValue(COUNT_ARG)));
+			}
+			if (line.hasOption(RADIUS_ARG)) {
+				query.setMaxRadius(Integer.parseInt(line.getOptionValue(RADIUS_ARG)));
+			}
+			if (line.hasOption(BOX_ARG)) {
+				String[] box = line.getOptionValue(BOX_ARG).split(",");
+				if (box.length != 4) {
+					throw new IllegalArgumentException("expected x1,z1,x2,z2");
+				}
+				query.setBounds(new AxisAlignedBB(Integer.parseInt(box[0]), 0, Integer.parseInt(box[1]),
+						Integer.parseInt(box[2]), 255, Integer.parseInt(box[3])));
+			}
+			query.setIncludePredicted(!line.hasOption(REGISTERED_ARG));
+		}
+		catch(ParseException | IllegalArgumentException e) {
+			throw new WrongUsageException(getUsage(commandSender));
+		}
+
+		LocateResult result = TreasureApi.locate(commandSender.getEntityWorld(), query);
+		if (result.getSites().isEmpty()) {
+			send(commandSender, "No Treasure! sites found.");
+		}
+		for (TreasureSite site : result.getSites()) {
+			send(commandSender, String.format("%s %s @ %s (%d blocks)%s",
+					site.getRarity() == null ? "" : site.getRarity().name(),
+					site.getGeneratorType() == null ? "chest" : site.getGeneratorType().getValue(),
+					site.getCoords().toShortString(),
+					(int) Math.sqrt(site.getDistanceSq(query.getOrigin())),
+					site.isPredicted() ? " [predicted]" : "").trim());
+		}
+		if (!result.isComplete()) {
+			send(commandSender, "Search time ran out - there may be nearer sites.");
+		}
+	}
+
+	/**
+	 * 
+	 * @param commandSender
+	 * @param message
+	 */
+	private void send(ICommandSender commandSender, String message) {
+		commandSender.sendMessage(new TextComponentString(message));
+	}
+
+	/**
+	 * Get a list of options for when the user presses the TAB key
+	 */
+	@Override
+	public List<String> getTabCompletions(MinecraftServer server, ICommandSender sender, String[] args,
+			@Nullable BlockPos targetPos) {
+		if (args.length > 1) {
+			if (args[args.length - 2].equals("-" + TYPE_ARG)) {
+				return getListOfStringsMatchingLastWord(args, TYPES);
+			}
+			else if (args[args.length - 2].equals("-" + RARITY_ARG)) {
+				return getListOfStringsMatchingLastWord(args, Rarity.getNames());
+			}
+		}
+		return getListOfStringsMatchingLastWord(args, "-" + TYPE_ARG, "-" + RARITY_ARG, "-" + COUNT_ARG, "-" + RADIUS_ARG, "-" + BOX_ARG, "-" + REGISTERED_ARG);
+	}
+}
@@ -8,6 +8,7 @@ import java.util.List;
 
 import com.someguyssoftware.gottschcore.biome.BiomeHelper;
 import com.someguyssoftware.gottschcore.biome.BiomeTypeHolder;
+import com.someguyssoftware.treasure2.biome.BiomeEligibility;
 import com.someguyssoftware.treasure2.biome.TreasureBiomeHelper;
 
 import net.minecraft.world.biome.Biome;
@@ -39,6 +40,7 @@ public class BiomesConfig implements IBiomesConfig {
 	@Ignore public List<Biome> blackList = new ArrayList<>(5);
 	@Ignore public List<BiomeTypeHolder> typeWhiteList = new ArrayList<>(5);
 	@Ignore public List<BiomeTypeHolder> typeBlackList = new ArrayList<>(5);
+	@Ignore public BiomeEligibility eligibility = new BiomeEligibility(whiteList, blackList, typeWhiteList, typeBlackList);
 	
 	/**
 	 * 
@@ -58,6 +60,17 @@ public class BiomesConfig implements IBiomesConfig {
 		this.blackList = TreasureBiomeHelper.loadBiomesList(this.rawBiomeBlackList);
 		BiomeHelper.loadBiomeList(this.rawBiomeTypeWhiteList, this.typeWhiteList);
 		BiomeHelper.loadBiomeList(this.rawBiomeTypeBlackList, this.typeBlackList);	
+		// recompile the lists
+		this.eligibility = new BiomeEligibility(whiteList, blackList, typeWhiteList, typeBlackList);
+	}
+	
+	/**
+	 * 
+	 * @param biome
+	 * @return true if the biome passes the white/black lists and the type white/black lists
+	 */
+	public boolean isBiomeAllowed(Biome biome) {
+		return eligibility.isAllowed(biome);
 	}
 	
 	@Override
@@ -29,6 +29,12 @@ public interface IChestConfig {
 	public List<Biome> getBiomeBlackList();
 	public List<BiomeTypeHolder> getBiomeTypeWhiteList();
 	public List<BiomeTypeHolder> getBiomeTypeBlackList();
+	/**
+	 * Tests the biome against the compiled white/black lists and type white/black lists.
+	 * @param biome
+	 * @return
+	 */
+	public boolean isBiomeAllowed(Biome biome);
 
 	int getMinDepth();
 	int getMaxDepth();
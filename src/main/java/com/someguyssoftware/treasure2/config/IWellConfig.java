@@ -25,4 +25,10 @@ public interface IWellConfig {
 	public List<Biome> getBiomeBlackList();
 	public List<BiomeTypeHolder> getBiomeTypeWhiteList();
 	public List<BiomeTypeHolder> getBiomeTypeBlackList();
+	/**
+	 * Tests the biome against the compiled white/black lists and type white/black lists.
+	 * @param biome
+	 * @return
+	 */
+	public boolean isBiomeAllowed(Biome biome);
 }
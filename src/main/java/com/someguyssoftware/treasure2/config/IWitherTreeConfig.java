@@ -31,6 +31,12 @@ public interface IWitherTreeConfig {
 	public List<Biome> getBiomeBlackList();	
 	public List<BiomeTypeHolder> getBiomeTypeWhiteList();
 	public List<BiomeTypeHolder> getBiomeTypeBlackList();
+	/**
+	 * Tests the biome against the compiled white/black lists and type white/black lists.
+	 * @param biome
+	 * @return
+	 */
+	public boolean isBiomeAllowed(Biome biome);
 
 
 }
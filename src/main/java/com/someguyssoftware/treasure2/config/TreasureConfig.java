@@ -16,6 +16,8 @@ import com.someguyssoftware.gottschcore.config.ILoggerConfig;
 import com.someguyssoftware.treasure2.Treasure;
 import com.someguyssoftware.treasure2.enums.Rarity;
 
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.world.biome.Biome;
 import net.minecraftforge.common.config.Config;
@@ -554,6 +556,18 @@ public class TreasureConfig implements IConfig, ILoggerConfig {
 			@RangeInt(min = 0, max = 100)
 			public int surfaceChestProbability = 15;
 
+			@Comment({ "The size, in chunks, of a placement grid cell. Each cell has a single candidate chunk for a chest.",
+				"Only used when the placement grid is enabled." })
+			@Name("04. Placement grid spacing:")
+			@RangeInt(min = 1, max = 256)
+			public int placementSpacing = 6;
+
+			@Comment({ "The min. number of chunks between the candidate chunks of neighbouring placement grid cells.",
+				"Must be less than the spacing. Only used when the placement grid is enabled." })
+			@Name("05. Placement grid separation:")
+			@RangeInt(min = 0, max = 255)
+			public int placementSeparation = 2;
+
 			@Name("01 Common chest")
 			public ChestConfig commonChestProperties = new ChestConfig(
 					true, 75, 85, 6, 15, new String[] {}, new String[] { "ocean", "deep_ocean", "deep_frozen_ocean", "cold_ocean", "deep_cold_ocean", "lukewarm_ocean", "warm_ocean" },
@@ -658,6 +672,18 @@ public class TreasureConfig implements IConfig, ILoggerConfig {
 		@RangeDouble(min = 0.0, max = 100.0)
 		public double genProbability = 80.0;
 
+		@Comment({ "The size, in chunks, of a placement grid cell. Each cell has a single candidate chunk for a well.",
+			"Only used when the placement grid is enabled." })
+		@Name("04. Placement grid spacing:")
+		@RangeInt(min = 1, max = 256)
+		public int placementSpacing = 20;
+
+		@Comment({ "The min. number of chunks between the candidate chunks of neighbouring placement grid cells.",
+			"Must be less than the spacing. Only used when the placement grid is enabled." })
+		@Name("05. Placement grid separation:")
+		@RangeInt(min = 0, max = 255)
+		public int placementSeparation = 8;
+
 		@Name("biomes")
 		@Comment({ "Biome white and black list properties." })
 		public BiomesConfig biomes = new BiomesConfig(
@@ -708,6 +734,11 @@ public class TreasureConfig implements IConfig, ILoggerConfig {
 			return biomes.getTypeBlackList();
 		}
 
+		@Override
+		public boolean isBiomeAllowed(Biome biome) {
+			return biomes.isBiomeAllowed(biome);
+		}
+
 	}
 
 	/*
@@ -757,6 +788,18 @@ public class TreasureConfig implements IConfig, ILoggerConfig {
 		@Name("09. Min. distance per wither tree spawn:")
 		@RangeInt(min = 0, max = 32000)
 		public int minDistancePerWitherTree = 500;
+
+		@Comment({ "The size, in chunks, of a placement grid cell. Each cell has a single candidate chunk for a wither tree.",
+			"Only used when the placement grid is enabled." })
+		@Name("10. Placement grid spacing:")
+		@RangeInt(min = 1, max = 256)
+		public int placementSpacing = 28;
+
+		@Comment({ "The min. number of chunks between the candidate chunks of neighbouring placement grid cells.",
+			"Must be less than the spacing. Only used when the placement grid is enabled." })
+		@Name("11. Placement grid separation:")
+		@RangeInt(min = 0, max = 255)
+		public int placementSeparation = 10;
 		
 		// TODO add all other wither tree probabilities ie coarse dirt gen, etc.
 
@@ -830,6 +873,11 @@ public class TreasureConfig implements IConfig, ILoggerConfig {
 		public List<BiomeTypeHolder> getBiomeTypeBlackList() {
 			return biomes.getTypeBlackList();
 		}
+
+		@Override
+		public boolean isBiomeAllowed(Biome biome) {
+			return biomes.isBiomeAllowed(biome);
+		}
 	}
 
 	/*
@@ -1115,12 +1163,23 @@ public class TreasureConfig implements IConfig, ILoggerConfig {
 			@RangeInt(min = 0, max = 100)
 			public int surfaceStructureProbability = 25;
 
+			@Comment({ "Enable/Disable the placement grid for the chests, wells and wither trees.",
+				"When enabled, each dimension is divided into cells (see the placement grid spacing of each feature) and only a single chunk",
+				"per cell, derived from the world seed, is a candidate for the feature. The probability, biome and distance checks then apply",
+				"to the candidates only. Placement no longer depends on the order that chunks are generated in.",
+				"When disabled, the chunks per chest/well/tree counts are used." })
+			@Name("06. Enable placement grid:")
+			public boolean enablePlacementGrid = false;
+
 			@Name("05. Dimension white list:")
 			@Comment({
 			"Allowed Dimensions for generation.\nTreasure2 was designed for \"normal\" overworld-type dimensions.\nThis setting does not use any wildcards (*). You must explicitly set the dimensions that are allowed." })
 			public Integer[] rawDimensionsWhiteList = new Integer[] { 0 };
 			@Ignore
 			public List<Integer> dimensionsWhiteList = new ArrayList<>(3);
+			// the white list as a primitive set, for testing without boxing
+			@Ignore
+			public IntSet dimensionsWhiteListSet = new IntOpenHashSet();
 
 			/**
 			 * 
@@ -1128,6 +1187,22 @@ public class TreasureConfig implements IConfig, ILoggerConfig {
 			public void init() {
 				TreasureConfig.WORLD_GEN.getGeneralProperties().dimensionsWhiteList = Arrays
 						.asList(TreasureConfig.WORLD_GEN.getGeneralProperties().rawDimensionsWhiteList);
+				IntSet dimensions = new IntOpenHashSet();
+				for (Integer dimension : TreasureConfig.WORLD_GEN.getGeneralProperties().rawDimensionsWhiteList) {
+					if (dimension != null) {
+						dimensions.add(dimension.intValue());
+					}
+				}
+				TreasureConfig.WORLD_GEN.getGeneralProperties().dimensionsWhiteListSet = dimensions;
+			}
+
+			/**
+			 * 
+			 * @param dimensionID
+			 * @return true if the dimension is in the white list
+			 */
+			public boolean isDimensionAllowed(int dimensionID) {
+				return dimensionsWhiteListSet.contains(dimensionID);
 			}
 
 			public List<Integer> getDimensionsWhiteList() {
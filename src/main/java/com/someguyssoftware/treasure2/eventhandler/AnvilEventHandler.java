@@ -34,6 +34,7 @@ import com.someguyssoftware.treasure2.capability.ICharmableCapability;
 import com.someguyssoftware.treasure2.capability.IDurabilityCapability;
 import com.someguyssoftware.treasure2.capability.IRunestonesCapability;
 import com.someguyssoftware.treasure2.capability.InventoryType;
+import com.someguyssoftware.treasure2.capability.RecipeResultCache;
 import com.someguyssoftware.treasure2.capability.TreasureCapabilities;
 import com.someguyssoftware.treasure2.item.Adornment;
 import com.someguyssoftware.treasure2.item.KeyItem;
@@ -50,6 +51,14 @@ import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
  *
  */
 public class AnvilEventHandler {
+	// the recipe names of the memoised outputs
+	private static final String KEY_MERGE_RECIPE = "anvil:key_merge";
+	private static final String BIND_CHARM_RECIPE = "anvil:bind_charm";
+	private static final String IMBUE_CHARM_RECIPE = "anvil:imbue_charm";
+	private static final String BIND_RUNESTONE_RECIPE = "anvil:bind_runestone";
+	private static final String ADD_GEM_RECIPE = "anvil:add_gem";
+	private static final String REPAIR_ADORNMENT_RECIPE = "anvil:repair_adornment";
+
 	// reference to the mod.
 	private IMod mod;
 
@@ -62,6 +71,15 @@ public class AnvilEventHandler {
 
 	@SubscribeEvent
 	public void onAnvilUpdate(AnvilUpdateEvent event) {
+		onAnvilUpdate(event, RecipeResultCache.getInstance());
+	}
+
+	/**
+	 * 
+	 * @param event
+	 * @param cache the cache of the recipe outputs
+	 */
+	public void onAnvilUpdate(AnvilUpdateEvent event, RecipeResultCache cache) {
 		ItemStack leftStack = event.getLeft();
 		ItemStack rightStack = event.getRight();
 
@@ -71,33 +89,8 @@ public class AnvilEventHandler {
 					&& rightStack.hasCapability(DURABILITY, null)) {
 
 				event.setCost(1);
-				DurabilityCapability leftItemCap = (DurabilityCapability) leftStack.getCapability(DURABILITY, null);
-				DurabilityCapability rightItemCap = (DurabilityCapability) rightStack.getCapability(DURABILITY, null);
-
-				if (leftItemCap != null && rightItemCap != null) {
-					int leftRemainingUses = leftItemCap.getDurability() - leftStack.getItemDamage();
-					int rightRemainingUses = rightItemCap.getDurability() - rightStack.getItemDamage();
-					ItemStack outputItem = new ItemStack(leftStack.getItem());
-
-					DurabilityCapability outputItemCap = (DurabilityCapability) outputItem.getCapability(DURABILITY, null);
-
-					int remainingUses = leftRemainingUses + rightRemainingUses;
-					if (remainingUses > Math.max(leftItemCap.getDurability(), rightItemCap.getDurability())) {
-						//						if (logger.isDebugEnabled()) {
-						//							logger.debug("output has greater uses -> {} than emd -> {} - update emd", remainingUses, Math.max(leftItemCap.getEffectiveMaxDamage(), rightItemCap.getEffectiveMaxDamage()));
-						//						}
-						outputItemCap.setDurability(Math.max(leftItemCap.getDurability(), rightItemCap.getDurability()) + leftStack.getMaxDamage());
-						outputItem.setItemDamage(leftStack.getItemDamage() + rightStack.getItemDamage());
-					}
-					else {
-						if (remainingUses < Math.min(leftItemCap.getDurability(), rightItemCap.getDurability())) {
-							outputItemCap.setDurability(Math.min(leftItemCap.getDurability(), rightItemCap.getDurability()));
-						}
-						else {
-							outputItemCap.setDurability(Math.max(leftItemCap.getDurability(), rightItemCap.getDurability()));
-						}
-						outputItem.setItemDamage(outputItemCap.getDurability() - remainingUses);
-					}
+				ItemStack outputItem = cache.get(KEY_MERGE_RECIPE, () -> mergeKeys(leftStack, rightStack), leftStack, rightStack);
+				if (!outputItem.isEmpty()) {
 					event.setOutput(outputItem);
 				}
 			}
@@ -108,11 +101,14 @@ public class AnvilEventHandler {
 				&& leftStack.getCapability(CHARMABLE, null).isSocketable()
 				&& rightStack.getCapability(CHARMABLE, null).isBindable()) {
 			event.setCost(2);
-			leftStack.getCapability(RUNESTONES, null).getEntities(InventoryType.INNATE).forEach(entity -> {
-				Treasure.LOGGER.debug("binding charm: sourceStack.appliedTo -> {}", entity.getAppliedTo());
-			});
-			Optional<ItemStack> outStack = transferCapabilities(rightStack, leftStack, InventoryType.INNATE, InventoryType.SOCKET);
-			if (outStack.isPresent()) {
+			ItemStack outputStack = cache.get(BIND_CHARM_RECIPE, () -> {
+				leftStack.getCapability(RUNESTONES, null).getEntities(InventoryType.INNATE).forEach(entity -> {
+					Treasure.LOGGER.debug("binding charm: sourceStack.appliedTo -> {}", entity.getAppliedTo());
+				});
+				Optional<ItemStack> outStack = transferCapabilities(rightStack, leftStack, InventoryType.INNATE, InventoryType.SOCKET);
+				if (!outStack.isPresent()) {
+					return ItemStack.EMPTY;
+				}
 				if (outStack.get().hasCapability(RUNESTONES, null)) {
 					outStack.get().getCapability(RUNESTONES, null).getEntities(InventoryType.SOCKET).forEach(entity -> {
 						Treasure.LOGGER.debug("binding charm: is applied -> {}", entity.isApplied());
@@ -126,7 +122,10 @@ public class AnvilEventHandler {
 						});
 					});
 				}
-				event.setOutput(outStack.get());
+				return outStack.get();
+			}, leftStack, rightStack);
+			if (!outputStack.isEmpty()) {
+				event.setOutput(outputStack);
 			}
 		}
 
@@ -134,14 +133,20 @@ public class AnvilEventHandler {
 		else if (leftStack.hasCapability(CHARMABLE, null) && leftStack.getCapability(CHARMABLE, null).isImbuable()
 				&& rightStack.hasCapability(CHARMABLE, null) && rightStack.getCapability(CHARMABLE, null).isImbuing()) {
 			event.setCost(2);
-			Optional<ItemStack> outStack = transferCapabilities(rightStack, leftStack, InventoryType.INNATE, InventoryType.IMBUE);
-			if (outStack.isPresent()) {
+			ItemStack outputStack = cache.get(IMBUE_CHARM_RECIPE, () -> {
+				Optional<ItemStack> outStack = transferCapabilities(rightStack, leftStack, InventoryType.INNATE, InventoryType.IMBUE);
+				if (!outStack.isPresent()) {
+					return ItemStack.EMPTY;
+				}
 				if (outStack.get().hasCapability(RUNESTONES, null)) {
 					outStack.get().getCapability(RUNESTONES, null).getEntities(InventoryType.IMBUE).forEach(entity -> {
 						entity.getRunestone().apply(outStack.get(), entity);
 					});
 				}
-				event.setOutput(outStack.get());
+				return outStack.get();
+			}, leftStack, rightStack);
+			if (!outputStack.isEmpty()) {
+				event.setOutput(outputStack);
 			}
 		}
 		// add bindable (runestone) to socketable (ex. adornment)
@@ -149,11 +154,14 @@ public class AnvilEventHandler {
 				&& leftStack.getCapability(RUNESTONES, null).isSocketable()
 				&& rightStack.getCapability(RUNESTONES, null).isBindable()) {
 			event.setCost(2);
-			rightStack.getCapability(RUNESTONES, null).getEntities(InventoryType.INNATE).forEach(entity -> {
-				Treasure.LOGGER.debug("rightStack.appliedTo -> {}", entity.getAppliedTo());
-			});
-			Optional<ItemStack> stack = transferCapabilities(rightStack, leftStack, InventoryType.INNATE, InventoryType.SOCKET);
-			if (stack.isPresent()) {
+			ItemStack outputStack = cache.get(BIND_RUNESTONE_RECIPE, () -> {
+				rightStack.getCapability(RUNESTONES, null).getEntities(InventoryType.INNATE).forEach(entity -> {
+					Treasure.LOGGER.debug("rightStack.appliedTo -> {}", entity.getAppliedTo());
+				});
+				Optional<ItemStack> stack = transferCapabilities(rightStack, leftStack, InventoryType.INNATE, InventoryType.SOCKET);
+				if (!stack.isPresent()) {
+					return ItemStack.EMPTY;
+				}
 				AtomicBoolean isStackValid = new AtomicBoolean(true);
 				stack.get().getCapability(RUNESTONES, null).getEntities(InventoryType.SOCKET).forEach(entity -> {
 					Treasure.LOGGER.debug("is applied -> {}", entity.isApplied());
@@ -178,9 +186,10 @@ public class AnvilEventHandler {
 					//						Treasure.logger.debug("runestone not applied.");
 					//					}
 				});
-				if (isStackValid.get()) {
-					event.setOutput(stack.get());
-				}
+				return isStackValid.get() ? stack.get() : ItemStack.EMPTY;
+			}, leftStack, rightStack);
+			if (!outputStack.isEmpty()) {
+				event.setOutput(outputStack);
 			}
 		}		
 		// add gem to adornment
@@ -194,12 +203,18 @@ public class AnvilEventHandler {
 				event.setMaterialCost(1);
 
 				// build the output item, duplicating the left stack (adornment) with the right stack as the source item
-				Optional<Adornment> adornment = getAdornment(leftStack, rightStack);
-				Treasure.LOGGER.debug("adornment -> {}", adornment.get().getRegistryName());
-				if (adornment.isPresent()) {
-					ItemStack outputStack = copyStack(leftStack, new ItemStack(adornment.get()));
-					ICharmableCapability outputCap = outputStack.getCapability(CHARMABLE, null);
+				ItemStack outputStack = cache.get(ADD_GEM_RECIPE, () -> {
+					Optional<Adornment> adornment = getAdornment(leftStack, rightStack);
+					if (!adornment.isPresent()) {
+						return ItemStack.EMPTY;
+					}
+					Treasure.LOGGER.debug("adornment -> {}", adornment.get().getRegistryName());
+					ItemStack stack = copyStack(leftStack, new ItemStack(adornment.get()));
+					ICharmableCapability outputCap = stack.getCapability(CHARMABLE, null);
 					outputCap.setHighestLevel(cap.getHighestLevel());
+					return stack;
+				}, leftStack, rightStack);
+				if (!outputStack.isEmpty()) {
 					event.setOutput(outputStack);
 				}
 			}
@@ -214,24 +229,70 @@ public class AnvilEventHandler {
 		else if (leftStack.getItem() instanceof Adornment && rightStack.getItem() instanceof Adornment) {
 			event.setCost(1);
 			event.setMaterialCost(1);
-			Treasure.LOGGER.debug("both are adornments");
-			IDurabilityCapability leftcap = leftStack.getCapability(DURABILITY, null);
-			Treasure.LOGGER.debug("leftStack current durability-> {}, max -> {}", leftcap.getDurability() - leftStack.getItemDamage(), leftcap.getMaxDurability());
-			// create a new stack with full health/item damage.
-			ItemStack outputStack = copyStack(leftStack, new ItemStack(leftStack.getItem()));
-			IDurabilityCapability cap = outputStack.getCapability(DURABILITY, null);
-			if (cap.getRepairs() > 0 && outputStack.getItemDamage() > 0) {
-				// reset to full health (no item damage)
-				outputStack.setItemDamage(0);
-				// update repairs
-				cap.setRepairs(cap.getRepairs() - 1);
+			// NOTE the output doesn't depend on the right stack
+			ItemStack outputStack = cache.get(REPAIR_ADORNMENT_RECIPE, () -> {
+				Treasure.LOGGER.debug("both are adornments");
+				IDurabilityCapability leftcap = leftStack.getCapability(DURABILITY, null);
+				Treasure.LOGGER.debug("leftStack current durability-> {}, max -> {}", leftcap.getDurability() - leftStack.getItemDamage(), leftcap.getMaxDurability());
+				// create a new stack with full health/item damage.
+				ItemStack stack = copyStack(leftStack, new ItemStack(leftStack.getItem()));
+				IDurabilityCapability cap = stack.getCapability(DURABILITY, null);
+				if (cap.getRepairs() > 0 && stack.getItemDamage() > 0) {
+					// reset to full health (no item damage)
+					stack.setItemDamage(0);
+					// update repairs
+					cap.setRepairs(cap.getRepairs() - 1);
+					Treasure.LOGGER.debug("repairs -> {}, max repairs -> {}", cap.getRepairs(), cap.getMaxRepairs());
+					Treasure.LOGGER.debug("current durability-> {}, max -> {}", cap.getDurability() - stack.getItemDamage(), cap.getMaxDurability());
+					return stack;
+				}
+				return ItemStack.EMPTY;
+			}, leftStack);
+			if (!outputStack.isEmpty()) {
 				event.setOutput(outputStack);
-				Treasure.LOGGER.debug("repairs -> {}, max repairs -> {}", cap.getRepairs(), cap.getMaxRepairs());
-				Treasure.LOGGER.debug("current durability-> {}, max -> {}", cap.getDurability() - outputStack.getItemDamage(), cap.getMaxDurability());
 			}
 		}
 	}
 
+	/**
+	 * Merges the remaining uses of the right key into the left key.
+	 * @param leftStack
+	 * @param rightStack
+	 * @return the merged key, or an empty stack
+	 */
+	private static ItemStack mergeKeys(ItemStack leftStack, ItemStack rightStack) {
+		DurabilityCapability leftItemCap = (DurabilityCapability) leftStack.getCapability(DURABILITY, null);
+		DurabilityCapability rightItemCap = (DurabilityCapability) rightStack.getCapability(DURABILITY, null);
+		if (leftItemCap == null || rightItemCap == null) {
+			return ItemStack.EMPTY;
+		}
+
+		int leftRemainingUses = leftItemCap.getDurability() - leftStack.getItemDamage();
+		int rightRemainingUses = rightItemCap.getDurability() - rightStack.getItemDamage();
+		ItemStack outputItem = new ItemStack(leftStack.getItem());
+
+		DurabilityCapability outputItemCap = (DurabilityCapability) outputItem.getCapability(DURABILITY, null);
+
+		int remainingUses = leftRemainingUses + rightRemainingUses;
+		if (remainingUses > Math.max(leftItemCap.getDurability(), rightItemCap.getDurability())) {
+			//						if (logger.isDebugEnabled()) {
+			//							logger.debug("output has greater uses -> {} than emd -> {} - update emd", remainingUses, Math.max(leftItemCap.getEffectiveMaxDamage(), rightItemCap.getEffectiveMaxDamage()));
+			//						}
+			outputItemCap.setDurability(Math.max(leftItemCap.getDurability(), rightItemCap.getDurability()) + leftStack.getMaxDamage());
+			outputItem.setItemDamage(leftStack.getItemDamage() + rightStack.getItemDamage());
+		}
+		else {
+			if (remainingUses < Math.min(leftItemCap.getDurability(), rightItemCap.getDurability())) {
+				outputItemCap.setDurability(Math.min(leftItemCap.getDurability(), rightItemCap.getDurability()));
+			}
+			else {
+				outputItemCap.setDurability(Math.max(leftItemCap.getDurability(), rightItemCap.getDurability()));
+			}
+			outputItem.setItemDamage(outputItemCap.getDurability() - remainingUses);
+		}
+		return outputItem;
+	}
+
 	/**
 	 * 
 	 * @param source
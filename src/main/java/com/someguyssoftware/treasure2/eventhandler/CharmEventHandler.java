@@ -20,9 +20,10 @@
 package com.someguyssoftware.treasure2.eventhandler;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.WeakHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import com.someguyssoftware.gottschcore.positional.Coords;
@@ -35,7 +36,7 @@ import com.someguyssoftware.treasure2.capability.TreasureCapabilities;
 import com.someguyssoftware.treasure2.charm.CharmContext;
 import com.someguyssoftware.treasure2.charm.ICharm;
 import com.someguyssoftware.treasure2.charm.ICharmEntity;
-import com.someguyssoftware.treasure2.network.CharmMessageToClient;
+import com.someguyssoftware.treasure2.network.CharmSyncBuffer;
 
 import net.minecraft.block.Block;
 import net.minecraft.block.state.IBlockState;
@@ -50,6 +51,8 @@ import net.minecraftforge.event.entity.living.LivingHurtEvent;
 import net.minecraftforge.event.world.BlockEvent;
 import net.minecraftforge.fml.common.eventhandler.Event;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent.Phase;
+import net.minecraftforge.fml.common.gameevent.TickEvent.ServerTickEvent;
 
 /**
  * 
@@ -58,6 +61,14 @@ import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
  */
 public class CharmEventHandler {
 	private IEquipmentCharmHandler equipmentCharmHandler;
+	
+	/*
+	 * the charm cache of each player. weakly keyed so that logged out and respawned player entities are released.
+	 * NOTE only accessed from the server thread.
+	 */
+	private final Map<EntityPlayer, PlayerCharmCache> charmCaches = new WeakHashMap<>();
+	private final Random random = new Random();
+	private final CharmSyncBuffer syncBuffer = new CharmSyncBuffer();
 
 	/**
 	 * 
@@ -67,6 +78,17 @@ public class CharmEventHandler {
 		equipmentCharmHandler = handler;
 	}
 
+	/**
+	 * Send the charm updates of the tick to the clients.
+	 * @param event
+	 */
+	@SubscribeEvent
+	public void onServerTick(ServerTickEvent event) {
+		if (event.phase == Phase.END) {
+			syncBuffer.flush();
+		}
+	}
+
 	/**
 	 * 
 	 * @param event
@@ -162,54 +184,34 @@ public class CharmEventHandler {
 	 * @param player
 	 */
 	private void processCharms(Event event, EntityPlayerMP player) {
-		/*
-		 * a list of charm contexts to execute
-		 */
-		List<CharmContext> charmsToExecute;
-
-		// gather all charms
-		charmsToExecute = gatherCharms(event, player);
+		PlayerCharmCache cache = charmCaches.get(player);
+		if (cache == null) {
+			cache = new PlayerCharmCache();
+			charmCaches.put(player, cache);
+		}
 
-		// sort charms
-		Collections.sort(charmsToExecute, CharmContext.priorityComparator);
+		// get the sorted charms that are registered to the event
+		List<CharmContext> charmsToExecute = cache.get(player, getEquipmentCharmHandler(), event.getClass());
+		if (charmsToExecute.isEmpty()) {
+			return;
+		}
 
 		// execute charms
-		executeCharms(event, player, charmsToExecute);
-	}
-
-	/**
-	 * Examine and collect  all Charms (not CharmEntity nor CharmItems) that the player has in valid slots.
-	 * @param event
-	 * @param player
-	 * @return
-	 */
-	private List<CharmContext> gatherCharms(Event event, EntityPlayerMP player) {
-		final List<CharmContext> contexts = new ArrayList<>(5);
-
-		// check each hand
-		for (EnumHand hand : EnumHand.values()) {
-			ItemStack heldStack = player.getHeldItem(hand);
-			if (heldStack.hasCapability(TreasureCapabilities.CHARMABLE, null)) {
-				contexts.addAll(getCharmsFromStack(event, hand, -1, heldStack, false));
-			}
+		if (executeCharms(event, player, charmsToExecute)) {
+			// charms were removed or stacks were used up, so the cached indices are no longer valid
+			cache.invalidate();
 		}
-
-		// check equipment slots
-		List<CharmContext> equipmentContexts = getEquipmentCharmHandler().handleEquipmentCharms(event, player);
-		contexts.addAll(equipmentContexts);
-
-		return contexts;
 	}
 
 	/**
-	 * 
-	 * @param event
+	 * Collect all the executing charms of the stack, regardless of the event they are registered to.
 	 * @param hand
+	 * @param slot
 	 * @param itemStack
 	 * @param isPouch
 	 * @return
 	 */
-	private List<CharmContext> getCharmsFromStack(Event event, EnumHand hand, int slot, ItemStack itemStack, boolean isPouch) {
+	static List<CharmContext> getCharmsFromStack(EnumHand hand, int slot, ItemStack itemStack, boolean isPouch) {
 		final List<CharmContext> contexts = new ArrayList<>(5);
 		ICharmableCapability cap = itemStack.getCapability(TreasureCapabilities.CHARMABLE, null);
 		if (cap.isExecuting()) {
@@ -217,9 +219,6 @@ public class CharmEventHandler {
 				AtomicInteger index = new AtomicInteger();
 				for (int i = 0; i < cap.getCharmEntities().get(type).size(); i++) {
 					ICharmEntity entity = ((List<ICharmEntity>)cap.getCharmEntities().get(type)).get(i);
-					if (!entity.getCharm().getRegisteredEvent().equals(event.getClass())) {
-						continue;
-					}
 					index.set(i);
 					CharmContext context = new CharmContext.Builder().with($ -> {
 						$.hand = hand;
@@ -244,18 +243,21 @@ public class CharmEventHandler {
 	 * @param player
 	 * @param contexts
 	 */
-	private static void executeCharms(Event event, EntityPlayerMP player, List<CharmContext> contexts) {
+	private boolean executeCharms(Event event, EntityPlayerMP player, List<CharmContext> contexts) {
 		/*
 		 * a list of charm types that are non-stackable that should not be executed more than once.
 		 */
 		final List<String> executeOnceCharmTypes = new ArrayList<>(5);
+		boolean isChanged = false;
+		Coords coords = new Coords(player.getPosition());
 
-		contexts.forEach(context -> {
+		for (int contextIndex = 0; contextIndex < contexts.size(); contextIndex++) {
+			CharmContext context = contexts.get(contextIndex);
 			ICharm charm = (ICharm)context.getEntity().getCharm();
 			if (!charm.isEffectStackable()) {
 				// check if this charm type is already in the monitored list
 				if (executeOnceCharmTypes.contains(charm.getType())) {
-					return;
+					continue;
 				}
 				else {
 					// add the charm type to the monitored list
@@ -264,14 +266,15 @@ public class CharmEventHandler {
 			}
 
 			// if charm is executable and executes successfully
-			if (context.getEntity().getCharm().update(player.world, new Random(), new Coords(player.getPosition()), player, event, context.getEntity())) {
+			if (context.getEntity().getCharm().update(player.world, random, coords, player, event, context.getEntity())) {
 				// TODO handle the durability of the adornment
 				processUsage(player.world, player, event, context);
+				if (context.getItemStack().isEmpty()) {
+					isChanged = true;
+				}
 
-				// send state message to client
-				CharmMessageToClient message = new CharmMessageToClient(player.getUUID(player.getGameProfile()).toString(), context);
-				//				Treasure.logger.debug("Message to client -> {}", message);
-				Treasure.simpleNetworkWrapper.sendTo(message, player);
+				// buffer the state for the client. sent at the end of the tick
+				syncBuffer.add(player, context);
 			}
 
 			// remove if innate and empty
@@ -289,8 +292,10 @@ public class CharmEventHandler {
 					&& context.getEntity().getMana() <= 0.0 ) {
 				Treasure.LOGGER.debug("charm is empty without any recharges -> remove");
 				context.getCapability().remove(context.getType(), context.getIndex());
+				isChanged = true;
 			}
-		});
+		}
+		return isChanged;
 	}
 
 	private static void processUsage(World world, EntityPlayerMP player, Event event, CharmContext context) {
@@ -24,7 +24,7 @@ import java.util.List;
 import com.someguyssoftware.treasure2.charm.CharmContext;
 
 import net.minecraft.entity.player.EntityPlayerMP;
-import net.minecraftforge.fml.common.eventhandler.Event;
+import net.minecraft.item.ItemStack;
 
 
 /**
@@ -34,5 +34,25 @@ import net.minecraftforge.fml.common.eventhandler.Event;
  */
 public interface IEquipmentCharmHandler {
 
-	public List<CharmContext> handleEquipmentCharms(Event event, EntityPlayerMP player);
+	/**
+	 * Collects the contexts of all the executing charms in the equipment slots,
+	 * regardless of the event the charms are registered to.
+	 * @param player
+	 * @return
+	 */
+	public List<CharmContext> handleEquipmentCharms(EntityPlayerMP player);
+	
+	/**
+	 * 
+	 * @return the number of equipment slots examined by the handler
+	 */
+	public int getEquipmentSlotCount();
+	
+	/**
+	 * Used to detect changes to the equipment slots.
+	 * @param player
+	 * @param index
+	 * @return the stack in the equipment slot at index
+	 */
+	public ItemStack getEquipmentStack(EntityPlayerMP player, int index);
 }
\ No newline at end of file
@@ -0,0 +1,189 @@
+/*
+ * This file is part of  Treasure2.
+ * Copyright (c) 2021, Mark Gottschling (gottsch)
+ * 
+ * All rights reserved.
+ * 
+ * Treasure2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * Treasure2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Treasure2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package com.someguyssoftware.treasure2.eventhandler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.someguyssoftware.treasure2.capability.ICharmableCapability;
+import com.someguyssoftware.treasure2.capability.TreasureCapabilities;
+import com.someguyssoftware.treasure2.charm.CharmContext;
+
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.EnumHand;
+
+/**
+ * Caches the charm contexts of a player, indexed by the event class the charms are registered to and sorted by priority.
+ * The cache is rebuilt only when the stacks in the hands or equipment slots change.
+ */
+public class PlayerCharmCache {
+	private static final EnumHand[] HANDS = EnumHand.values();
+
+	private final Map<Class<?>, List<CharmContext>> contextsByEvent = new HashMap<>();
+
+	// the signature of the watched slots at the time of the last build
+	private final SlotSignature signature = new SlotSignature();
+	private boolean valid;
+
+	/**
+	 * Returns the charm contexts registered to the event class, rebuilding the cache first if the player's slots have changed.
+	 * @param player
+	 * @param handler
+	 * @param eventClass
+	 * @return a sorted, read-only list. empty if no charm is registered to the event.
+	 */
+	public List<CharmContext> get(EntityPlayerMP player, IEquipmentCharmHandler handler, Class<?> eventClass) {
+		if (!valid || hasChanged(player, handler)) {
+			rebuild(player, handler);
+		}
+		List<CharmContext> contexts = contextsByEvent.get(eventClass);
+		return contexts == null ? Collections.emptyList() : contexts;
+	}
+
+	/**
+	 * Forces a rebuild on the next access. ex. when a charm is removed from a capability,
+	 * the indices held by the cached contexts are no longer valid.
+	 */
+	public void invalidate() {
+		valid = false;
+	}
+
+	/**
+	 * 
+	 * @param player
+	 * @param handler
+	 * @return
+	 */
+	private boolean hasChanged(EntityPlayerMP player, IEquipmentCharmHandler handler) {
+		int size = getSlotCount(handler);
+		if (size != signature.size()) {
+			return true;
+		}
+		for (int i = 0; i < size; i++) {
+			ItemStack stack = getStack(player, handler, i);
+			if (!signature.matches(i, stack, getCharmCount(stack))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * 
+	 * @param player
+	 * @param handler
+	 */
+	private void rebuild(EntityPlayerMP player, IEquipmentCharmHandler handler) {
+		contextsByEvent.clear();
+
+		// record the signature
+		int size = getSlotCount(handler);
+		signature.resize(size);
+		for (int i = 0; i < size; i++) {
+			ItemStack stack = getStack(player, handler, i);
+			signature.record(i, stack, getCharmCount(stack));
+		}
+
+		// gather all charms
+		List<CharmContext> contexts = new ArrayList<>();
+		for (EnumHand hand : HANDS) {
+			ItemStack heldStack = player.getHeldItem(hand);
+			if (heldStack.hasCapability(TreasureCapabilities.CHARMABLE, null)) {
+				contexts.addAll(CharmEventHandler.getCharmsFromStack(hand, -1, heldStack, false));
+			}
+		}
+		contexts.addAll(handler.handleEquipmentCharms(player));
+
+		// index by event
+		for (CharmContext context : contexts) {
+			contextsByEvent.computeIfAbsent(context.getEntity().getCharm().getRegisteredEvent(), k -> new ArrayList<>()).add(context);
+		}
+		// sort by priority once
+		for (List<CharmContext> list : contextsByEvent.values()) {
+			Collections.sort(list, CharmContext.priorityComparator);
+		}
+		valid = true;
+	}
+
+	private static int getSlotCount(IEquipmentCharmHandler handler) {
+		return HANDS.length + handler.getEquipmentSlotCount();
+	}
+
+	private static ItemStack getStack(EntityPlayerMP player, IEquipmentCharmHandler handler, int index) {
+		if (index == 0) {
+			return player.getHeldItemMainhand();
+		}
+		else if (index == 1) {
+			return player.getHeldItemOffhand();
+		}
+		return handler.getEquipmentStack(player, index - HANDS.length);
+	}
+
+	/**
+	 * 
+	 * @param stack
+	 * @return the number of charms of the stack, negated if the capability is not executing, or 0 if not charmable
+	 */
+	private static int getCharmCount(ItemStack stack) {
+		if (stack.isEmpty() || !stack.hasCapability(TreasureCapabilities.CHARMABLE, null)) {
+			return 0;
+		}
+		ICharmableCapability cap = stack.getCapability(TreasureCapabilities.CHARMABLE, null);
+		int count = cap.getCharmEntities().size() + 1;
+		return cap.isExecuting() ? count : -count;
+	}
+
+	/**
+	 * The stacks of the watched slots and their charm counts. The stacks are compared by identity
+	 * and the charm counts detect in-place changes to the charmable capability.
+	 */
+	static final class SlotSignature {
+		private ItemStack[] stacks = new ItemStack[0];
+		private int[] charmCounts = new int[0];
+
+		int size() {
+			return stacks.length;
+		}
+
+		/**
+		 * 
+		 * @param size the number of watched slots. the recorded slots are cleared if it has changed.
+		 */
+		void resize(int size) {
+			if (size != stacks.length) {
+				stacks = new ItemStack[size];
+				charmCounts = new int[size];
+			}
+		}
+
+		void record(int index, ItemStack stack, int charmCount) {
+			stacks[index] = stack;
+			charmCounts[index] = charmCount;
+		}
+
+		boolean matches(int index, ItemStack stack, int charmCount) {
+			return stack == stacks[index] && charmCount == charmCounts[index];
+		}
+	}
+}
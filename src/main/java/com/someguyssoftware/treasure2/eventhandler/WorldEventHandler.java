@@ -8,13 +8,20 @@ import java.util.Map.Entry;
 import com.someguyssoftware.gottschcore.mod.IMod;
 import com.someguyssoftware.gottschcore.world.WorldInfo;
 import com.someguyssoftware.treasure2.Treasure;
+import com.someguyssoftware.treasure2.block.TorchDensityCache;
 import com.someguyssoftware.treasure2.enums.WorldGeneratorType;
+import com.someguyssoftware.treasure2.generator.ColumnProfiles;
+import com.someguyssoftware.treasure2.loot.LootPreRollCache;
 import com.someguyssoftware.treasure2.loot.TreasureLootTableRegistry;
 import com.someguyssoftware.treasure2.persistence.GenDataPersistence;
+import com.someguyssoftware.treasure2.registry.AnimatedChestRegistry;
 import com.someguyssoftware.treasure2.registry.ChestRegistry;
+import com.someguyssoftware.treasure2.registry.ProximityTriggerRegistry;
 import com.someguyssoftware.treasure2.registry.TreasureDecayRegistry;
 import com.someguyssoftware.treasure2.registry.TreasureMetaRegistry;
 import com.someguyssoftware.treasure2.registry.TreasureTemplateRegistry;
+import com.someguyssoftware.treasure2.wish.WishingWellRegistry;
+import com.someguyssoftware.treasure2.worldgen.DeferredPlacementBuffer;
 import com.someguyssoftware.treasure2.worldgen.ITreasureWorldGenerator;
 
 import net.minecraft.util.ResourceLocation;
@@ -26,9 +33,13 @@ import net.minecraft.world.storage.loot.LootTableList;
 import net.minecraft.world.storage.loot.RandomValueRange;
 import net.minecraft.world.storage.loot.conditions.LootCondition;
 import net.minecraftforge.event.LootTableLoadEvent;
+import net.minecraftforge.event.world.ChunkEvent;
 import net.minecraftforge.event.world.WorldEvent;
 import net.minecraftforge.fml.common.eventhandler.EventPriority;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent.Phase;
+import net.minecraftforge.fml.common.gameevent.TickEvent.WorldTickEvent;
+import net.minecraftforge.fml.relauncher.Side;
 
 /**
  * @author Mark Gottschling on Jun 29, 2018
@@ -50,6 +61,13 @@ public class WorldEventHandler {
 	public void onWorldLoad(WorldEvent.Load event) {
 		Treasure.LOGGER.debug("In world load event for dimension {}", event.getWorld().provider.getDimension());
 
+		// track torch changes for the mist (client and server)
+		TorchDensityCache.getInstance().onWorldLoad(event.getWorld());
+		// track the wishing well blocks (server)
+		if (WorldInfo.isServerSide(event.getWorld())) {
+			WishingWellRegistry.getInstance().onWorldLoad(event.getWorld());
+		}
+
 		/*
 		 * On load of dimension 0 (overworld), initialize the loot table's context and other static loot tables
 		 */
@@ -84,15 +102,51 @@ public class WorldEventHandler {
 			/*
 			 * un-load the chest registry
 			 */
-			Treasure.LOGGER.debug("Chest registry size BEFORE cleaning -> {}", ChestRegistry.getInstance().getValues().size());
+			Treasure.LOGGER.debug("Chest registry size BEFORE cleaning -> {}", ChestRegistry.getInstance().size());
 			ChestRegistry.getInstance().clear();	
-			Treasure.LOGGER.debug("Chest registry size AFTER cleaning -> {}", ChestRegistry.getInstance().getValues().size());
+			Treasure.LOGGER.debug("Chest registry size AFTER cleaning -> {}", ChestRegistry.getInstance().size());
 
 			GenDataPersistence.get(world);			
-			Treasure.LOGGER.debug("Chest registry size after world event load -> {}", ChestRegistry.getInstance().getValues().size());
+			Treasure.LOGGER.debug("Chest registry size after world event load -> {}", ChestRegistry.getInstance().size());
 		}	
 	}
 
+	@SubscribeEvent
+	public void onWorldUnload(WorldEvent.Unload event) {
+		ProximityTriggerRegistry.getInstance().clear(event.getWorld());
+		AnimatedChestRegistry.getInstance().clear(event.getWorld());
+		TorchDensityCache.getInstance().onWorldUnload(event.getWorld());
+		WishingWellRegistry.getInstance().onWorldUnload(event.getWorld());
+		LootPreRollCache.getInstance().onWorldUnload(event.getWorld());
+		DeferredPlacementBuffer.getInstance().onWorldUnload(event.getWorld());
+		ColumnProfiles.clear(event.getWorld());
+	}
+
+	@SubscribeEvent
+	public void onChunkLoad(ChunkEvent.Load event) {
+		DeferredPlacementBuffer.getInstance().onChunkLoad(event.getWorld(), event.getChunk());
+	}
+
+	@SubscribeEvent
+	public void onChunkUnload(ChunkEvent.Unload event) {
+		TorchDensityCache.getInstance().onChunkUnload(event.getWorld(), event.getChunk().x, event.getChunk().z);
+		WishingWellRegistry.getInstance().onChunkUnload(event.getWorld(), event.getChunk().x, event.getChunk().z);
+	}
+
+	/**
+	 * Evaluate the proximity triggers (ex. proximity spawners), tick the animating chests, roll the requested chest loot and apply the deferred placements of the server world.
+	 * @param event
+	 */
+	@SubscribeEvent
+	public void onWorldTick(WorldTickEvent event) {
+		if (event.side == Side.SERVER && event.phase == Phase.END) {
+			ProximityTriggerRegistry.getInstance().tick(event.world);
+			AnimatedChestRegistry.getInstance().tick(event.world);
+			LootPreRollCache.getInstance().tick(event.world);
+			DeferredPlacementBuffer.getInstance().tick(event.world);
+		}
+	}
+
 	@SubscribeEvent
 	public void lootLoad(LootTableLoadEvent event) {
 		if (event.getName().toString().equals(LootTableList.CHESTS_SIMPLE_DUNGEON.toString()/*"minecraft:chests/simple_dungeon"*/)) {
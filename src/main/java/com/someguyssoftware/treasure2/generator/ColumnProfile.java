@@ -0,0 +1,265 @@
+/**
+ * 
+ */
+package com.someguyssoftware.treasure2.generator;
+
+import java.util.Arrays;
+
+import net.minecraft.block.material.Material;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+
+/**
+ * The surface of the 256 columns of a chunk, read once from the chunk's section storage - each column the first time it is
+ * checked. Per column it holds where the
+ * dry land walk and the solid surface (ocean floor) walk stop, whether the dry land walk stopped on a liquid, and a solid / air
+ * mask of the layers around the surface, so that the footprint checks of the generators don't read the world block by block.
+ * The walks skip the same blocks as WorldInfo.getDryLandSurfaceCoords() and SurfaceRuinGenerator.getSolidSurfaceCoords().
+ * NOTE a profile is a snapshot - see ColumnProfiles for when it is discarded.
+ */
+public final class ColumnProfile {
+	public static final int NONE = -1;
+	/*
+	 * the masked layers, from MASK_BELOW blocks below the surface block to (7 - MASK_BELOW) blocks above it
+	 */
+	private static final int MASK_BELOW = 4;
+
+	private final World world;
+	private final Chunk chunk;
+	// the top of the walks
+	private final int top;
+	// the height map of the chunk when it was profiled
+	private final int[] heightMap;
+	// the y of the block that the dry land walk stops on, or NONE
+	private final short[] dryLandY = new short[256];
+	// the y of the block that the solid surface walk stops on, or NONE
+	private final short[] floorY = new short[256];
+	// true if the dry land walk stopped on a liquid
+	private final boolean[] liquid = new boolean[256];
+	// the y of the first masked layer
+	private final short[] maskY = new short[256];
+	private final byte[] solidMask = new byte[256];
+	private final byte[] airMask = new byte[256];
+	private final boolean[] profiled = new boolean[256];
+	private final BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+
+	/**
+	 * 
+	 * @param world
+	 * @param chunk
+	 */
+	private ColumnProfile(World world, Chunk chunk) {
+		this.world = world;
+		this.chunk = chunk;
+		this.top = chunk.getTopFilledSegment() + 15;
+		this.heightMap = Arrays.copyOf(chunk.getHeightMap(), chunk.getHeightMap().length);
+	}
+
+	/**
+	 * NOTE the columns are read when they are first checked.
+	 * @param world
+	 * @param chunk
+	 * @return the profile of the chunk
+	 */
+	public static ColumnProfile build(World world, Chunk chunk) {
+		return new ColumnProfile(world, chunk);
+	}
+
+	/**
+	 * 
+	 * @param x
+	 * @param z
+	 * @return the index of the column, profiled
+	 */
+	private int column(int x, int z) {
+		int index = z << 4 | x;
+		if (!profiled[index]) {
+			profile(x, z, index);
+			profiled[index] = true;
+		}
+		return index;
+	}
+
+	/**
+	 * Walks down the column once for both walks - everything above the dry land stop is passable for the dry land walk,
+	 * and only logs are passable for it and not for the solid surface walk.
+	 * @param x
+	 * @param z
+	 * @param index
+	 */
+	private void profile(int x, int z, int index) {
+		int dryLand = NONE;
+		int floor = NONE;
+		boolean isLiquid = false;
+		int y = top;
+		for (; y > 0; y--) {
+			IBlockState state = read(x, y, z);
+			pos.setPos((chunk.x << 4) + x, y, (chunk.z << 4) + z);
+			if (floor == NONE && !isSolidSurfacePassable(state, pos)) {
+				floor = y;
+			}
+			if (state.getMaterial().isLiquid()) {
+				dryLand = y;
+				isLiquid = true;
+				break;
+			}
+			if (!isDryLandPassable(state, pos)) {
+				dryLand = y;
+				break;
+			}
+		}
+		// continue the solid surface walk through the liquid
+		for (y--; floor == NONE && y > 0; y--) {
+			IBlockState state = read(x, y, z);
+			pos.setPos((chunk.x << 4) + x, y, (chunk.z << 4) + z);
+			if (!isSolidSurfacePassable(state, pos)) {
+				floor = y;
+			}
+		}
+		dryLandY[index] = (short) dryLand;
+		floorY[index] = (short) floor;
+		liquid[index] = isLiquid;
+
+		// mask the layers around the surface that a structure would stand on
+		int surface = (dryLand != NONE && !isLiquid) ? dryLand : floor;
+		int first = Math.max(0, surface - MASK_BELOW);
+		maskY[index] = (short) first;
+		for (int layer = 0; layer < 8 && first + layer < 256; layer++) {
+			IBlockState state = read(x, first + layer, z);
+			pos.setPos((chunk.x << 4) + x, first + layer, (chunk.z << 4) + z);
+			if (state.getMaterial().isSolid()) {
+				solidMask[index] |= 1 << layer;
+			}
+			if (state.getBlock().isAir(state, world, pos)) {
+				airMask[index] |= 1 << layer;
+			}
+		}
+	}
+
+	/**
+	 * 
+	 * @param state
+	 * @param pos
+	 * @return true if the dry land walk continues past the block
+	 */
+	private boolean isDryLandPassable(IBlockState state, BlockPos pos) {
+		return state.getMaterial() == Material.AIR || state.getBlock().isReplaceable(world, pos)
+				|| state.getMaterial() == Material.LEAVES || state.getBlock().isWood(world, pos)
+				|| state.getBlock().isBurning(world, pos);
+	}
+
+	/**
+	 * 
+	 * @param state
+	 * @param pos
+	 * @return true if the solid surface walk continues past the block
+	 */
+	private boolean isSolidSurfacePassable(IBlockState state, BlockPos pos) {
+		return state.getMaterial() == Material.AIR || state.getBlock().isReplaceable(world, pos)
+				|| state.getMaterial() == Material.LEAVES || state.getMaterial().isLiquid()
+				|| state.getBlock().isBurning(world, pos);
+	}
+
+	/**
+	 * Reads the block straight from the section storage.
+	 * @param x
+	 * @param y
+	 * @param z
+	 * @return
+	 */
+	private IBlockState read(int x, int y, int z) {
+		ColumnProfiles.countSectionRead();
+		ExtendedBlockStorage section = chunk.getBlockStorageArray()[y >> 4];
+		return section == Chunk.NULL_BLOCK_STORAGE ? Blocks.AIR.getDefaultState() : section.get(x, y & 15, z);
+	}
+
+	/**
+	 * 
+	 * @param chunk the chunk that is loaded at the profile's position
+	 * @return true if the profile is of the chunk and the chunk's height map hasn't changed since (ex. another mod built on it)
+	 */
+	public boolean isValid(Chunk chunk) {
+		return this.chunk == chunk && Arrays.equals(heightMap, chunk.getHeightMap());
+	}
+
+	/**
+	 * 
+	 * @param x the local x (0-15)
+	 * @param z the local z (0-15)
+	 * @return the y of the block that the dry land walk stops on, or NONE
+	 */
+	public int getDryLandY(int x, int z) {
+		return dryLandY[column(x, z)];
+	}
+
+	/**
+	 * 
+	 * @param x
+	 * @param z
+	 * @return true if the dry land walk stops on a liquid (there is no dry land)
+	 */
+	public boolean isLiquid(int x, int z) {
+		return liquid[column(x, z)];
+	}
+
+	/**
+	 * 
+	 * @param x
+	 * @param z
+	 * @return the y of the block that the solid surface walk stops on (ex. the ocean floor), or NONE
+	 */
+	public int getFloorY(int x, int z) {
+		return floorY[column(x, z)];
+	}
+
+	/**
+	 * 
+	 * @param x
+	 * @param z
+	 * @return the number of blocks from the top of the liquid down to the floor, or 0 if the column is dry
+	 */
+	public int getLiquidDepth(int x, int z) {
+		int index = column(x, z);
+		return liquid[index] && floorY[index] != NONE ? dryLandY[index] - floorY[index] : 0;
+	}
+
+	/**
+	 * 
+	 * @param x
+	 * @param y
+	 * @param z
+	 * @return true if the block's material is solid. read from the storage if the layer isn't masked.
+	 */
+	public boolean isSolid(int x, int y, int z) {
+		int index = column(x, z);
+		int layer = y - maskY[index];
+		if (layer >= 0 && layer < 8) {
+			return (solidMask[index] & 1 << layer) != 0;
+		}
+		return y >= 0 && y < 256 && read(x, y, z).getMaterial().isSolid();
+	}
+
+	/**
+	 * 
+	 * @param x
+	 * @param y
+	 * @param z
+	 * @return true if the block is air. read from the storage if the layer isn't masked.
+	 */
+	public boolean isAir(int x, int y, int z) {
+		int index = column(x, z);
+		int layer = y - maskY[index];
+		if (layer >= 0 && layer < 8) {
+			return (airMask[index] & 1 << layer) != 0;
+		}
+		if (y < 0 || y >= 256) {
+			return true;
+		}
+		IBlockState state = read(x, y, z);
+		return state.getBlock().isAir(state, world, pos.setPos((chunk.x << 4) + x, y, (chunk.z << 4) + z));
+	}
+}
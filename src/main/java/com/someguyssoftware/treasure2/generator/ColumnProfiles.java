@@ -0,0 +1,390 @@
+/**
+ * 
+ */
+package com.someguyssoftware.treasure2.generator;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import com.someguyssoftware.gottschcore.positional.ICoords;
+import com.someguyssoftware.gottschcore.world.WorldInfo;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+
+/**
+ * The surface and footprint checks of the treasure generators, answered from the column profiles of the chunks being populated.
+ * A chunk is profiled the first time one of its columns is checked, and the profile is shared by all the treasure generators
+ * that run on the same chunk population. The profiles are discarded when the next chunk population begins.
+ * A profile is dropped as soon as its chunk is written to by a SectionBlockWriter, a template or a deferred placement, and is
+ * rebuilt if the chunk's height map no longer matches (ex. another mod's generator ran in between).
+ * NOTE the height map doesn't see the blocks that don't block light (ex. chests, skeletons, spawners), so the generators that
+ * write with World.setBlockState() invalidate the profile themselves.
+ * Outside of a population, or when a check can't be answered from a profile (ex. a walk that starts below the surface, or a chunk
+ * that isn't loaded), the check falls back to WorldInfo.
+ * NOTE only used by the server worlds.
+ */
+public final class ColumnProfiles {
+	private static final Map<World, Population> POPULATIONS = Collections.synchronizedMap(new WeakHashMap<>());
+
+	// metrics
+	private static long populationCount;
+	private static long probeCount;
+	private static long worldReadCount;
+	private static long sectionReadCount;
+	private static long uncachedReadCount;
+
+	private ColumnProfiles() {}
+
+	/**
+	 * Begins (or re-enters) the population of the chunk. Must be paired with end(), in a finally block.
+	 * @param world
+	 * @param chunkX
+	 * @param chunkZ
+	 */
+	public static void begin(World world, int chunkX, int chunkZ) {
+		Population population = POPULATIONS.get(world);
+		if (population == null) {
+			population = new Population();
+			POPULATIONS.put(world, population);
+		}
+		long key = ChunkPos.asLong(chunkX, chunkZ);
+		if (population.chunk != key) {
+			population.chunk = key;
+			population.profiles.clear();
+			populationCount++;
+		}
+		population.depth++;
+	}
+
+	/**
+	 * 
+	 * @param world
+	 */
+	public static void end(World world) {
+		Population population = POPULATIONS.get(world);
+		if (population != null && population.depth > 0) {
+			population.depth--;
+		}
+	}
+
+	/**
+	 * Drops the profile of the chunk of the block. Called when a block is written during a population.
+	 * @param world
+	 * @param pos
+	 */
+	public static void invalidate(World world, BlockPos pos) {
+		Population population = POPULATIONS.get(world);
+		if (population != null && !population.profiles.isEmpty()) {
+			population.profiles.remove(ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4));
+		}
+	}
+
+	/**
+	 * Drops the profiles of the chunks of the area.
+	 * @param world
+	 * @param from
+	 * @param to
+	 */
+	public static void invalidate(World world, BlockPos from, BlockPos to) {
+		Population population = POPULATIONS.get(world);
+		if (population == null || population.profiles.isEmpty()) {
+			return;
+		}
+		for (int chunkX = Math.min(from.getX(), to.getX()) >> 4; chunkX <= Math.max(from.getX(), to.getX()) >> 4; chunkX++) {
+			for (int chunkZ = Math.min(from.getZ(), to.getZ()) >> 4; chunkZ <= Math.max(from.getZ(), to.getZ()) >> 4; chunkZ++) {
+				population.profiles.remove(ChunkPos.asLong(chunkX, chunkZ));
+			}
+		}
+	}
+
+	/**
+	 * 
+	 * @param world
+	 */
+	public static void clear(World world) {
+		POPULATIONS.remove(world);
+	}
+
+	/**
+	 * Same as WorldInfo.getDryLandSurfaceCoords().
+	 * @param world
+	 * @param coords
+	 * @return the coords above the dry land surface, or EMPTY_COORDS if the surface is liquid
+	 */
+	public static ICoords getDryLandSurfaceCoords(World world, ICoords coords) {
+		ColumnProfile profile = getProfile(world, coords.getX(), coords.getZ());
+		if (profile != null) {
+			int x = coords.getX() & 15;
+			int z = coords.getZ() & 15;
+			int stop = profile.getDryLandY(x, z);
+			// the walk begins with the block below the coords
+			if (stop != ColumnProfile.NONE && coords.getY() - 1 >= stop) {
+				probeCount++;
+				uncachedReadCount += coords.getY() - stop;
+				return profile.isLiquid(x, z) ? WorldInfo.EMPTY_COORDS : coords.withY(stop + 1);
+			}
+		}
+		ICoords surfaceCoords = WorldInfo.getDryLandSurfaceCoords(world, coords);
+		countWalk(profile != null, coords, surfaceCoords);
+		return surfaceCoords;
+	}
+
+	/**
+	 * Same as WorldInfo.getOceanFloorSurfaceCoords().
+	 * @param world
+	 * @param coords
+	 * @return the coords above the ocean floor (or the solid surface)
+	 */
+	public static ICoords getOceanFloorSurfaceCoords(World world, ICoords coords) {
+		ICoords surfaceCoords = findSolidSurfaceCoords(world, coords);
+		if (surfaceCoords == null) {
+			surfaceCoords = WorldInfo.getOceanFloorSurfaceCoords(world, coords);
+			countWalk(isActive(world), coords, surfaceCoords);
+		}
+		return surfaceCoords;
+	}
+
+	/**
+	 * The solid surface walk, answered from the profile.
+	 * @param world
+	 * @param coords
+	 * @return the coords above the first solid block below the coords, or null if the profile can't answer
+	 */
+	public static ICoords findSolidSurfaceCoords(World world, ICoords coords) {
+		ColumnProfile profile = getProfile(world, coords.getX(), coords.getZ());
+		if (profile == null) {
+			return null;
+		}
+		int stop = profile.getFloorY(coords.getX() & 15, coords.getZ() & 15);
+		if (stop == ColumnProfile.NONE || coords.getY() - 1 < stop) {
+			return null;
+		}
+		probeCount++;
+		uncachedReadCount += coords.getY() - stop;
+		return coords.withY(stop + 1);
+	}
+
+	/**
+	 * Same as WorldInfo.isSolidBase() - the percent of the blocks below the footprint that are solid.
+	 * @param world
+	 * @param coords
+	 * @param width
+	 * @param depth
+	 * @param percentRequired
+	 * @return
+	 */
+	public static boolean isSolidBase(World world, ICoords coords, int width, int depth, double percentRequired) {
+		ColumnProfile[] profiles = getProfiles(world, coords, width, depth);
+		if (profiles == null) {
+			countFootprint(world, width, depth);
+			return WorldInfo.isSolidBase(world, coords, width, depth, percentRequired);
+		}
+		probeCount++;
+		uncachedReadCount += width * depth;
+		int y = coords.getY() - 1;
+		int count = countColumns(profiles, coords, width, depth, (profile, x, z) -> profile.isSolid(x, y, z));
+		return (double) count / (width * depth) * 100 >= percentRequired;
+	}
+
+	/**
+	 * Same as WorldInfo.isAirBase() - the percent of the blocks of the footprint that are air.
+	 * @param world
+	 * @param coords
+	 * @param width
+	 * @param depth
+	 * @param percentRequired
+	 * @return
+	 */
+	public static boolean isAirBase(World world, ICoords coords, int width, int depth, double percentRequired) {
+		ColumnProfile[] profiles = getProfiles(world, coords, width, depth);
+		if (profiles == null) {
+			countFootprint(world, width, depth);
+			return WorldInfo.isAirBase(world, coords, width, depth, percentRequired);
+		}
+		probeCount++;
+		uncachedReadCount += width * depth;
+		int y = coords.getY();
+		int count = countColumns(profiles, coords, width, depth, (profile, x, z) -> profile.isAir(x, y, z));
+		return (double) count / (width * depth) * 100 >= percentRequired;
+	}
+
+	/**
+	 * Fetches (and validates) the profile of each chunk of the footprint once, instead of once per column.
+	 * @param world
+	 * @param coords
+	 * @param width
+	 * @param depth
+	 * @return the profiles of the chunks of the footprint, by chunk x then chunk z, or null if a chunk can't be profiled
+	 */
+	private static ColumnProfile[] getProfiles(World world, ICoords coords, int width, int depth) {
+		if (width <= 0 || depth <= 0) {
+			return null;
+		}
+		int minChunkX = coords.getX() >> 4;
+		int maxChunkX = (coords.getX() + width - 1) >> 4;
+		int minChunkZ = coords.getZ() >> 4;
+		int maxChunkZ = (coords.getZ() + depth - 1) >> 4;
+		ColumnProfile[] profiles = new ColumnProfile[(maxChunkX - minChunkX + 1) * (maxChunkZ - minChunkZ + 1)];
+		int index = 0;
+		for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+			for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+				ColumnProfile profile = getProfile(world, chunkX << 4, chunkZ << 4);
+				if (profile == null) {
+					return null;
+				}
+				profiles[index++] = profile;
+			}
+		}
+		return profiles;
+	}
+
+	/**
+	 * Counts the columns of the footprint that pass the test, a chunk at a time.
+	 * @param profiles the profiles of the chunks of the footprint, from getProfiles()
+	 * @param coords
+	 * @param width
+	 * @param depth
+	 * @param test tests a column, with the coords relative to its chunk
+	 * @return the number of columns that passed
+	 */
+	private static int countColumns(ColumnProfile[] profiles, ICoords coords, int width, int depth, ColumnTest test) {
+		int maxX = coords.getX() + width - 1;
+		int maxZ = coords.getZ() + depth - 1;
+		int count = 0;
+		int index = 0;
+		for (int chunkX = coords.getX() >> 4; chunkX <= maxX >> 4; chunkX++) {
+			for (int chunkZ = coords.getZ() >> 4; chunkZ <= maxZ >> 4; chunkZ++) {
+				ColumnProfile profile = profiles[index++];
+				for (int x = Math.max(coords.getX(), chunkX << 4); x <= Math.min(maxX, (chunkX << 4) + 15); x++) {
+					for (int z = Math.max(coords.getZ(), chunkZ << 4); z <= Math.min(maxZ, (chunkZ << 4) + 15); z++) {
+						if (test.test(profile, x & 15, z & 15)) {
+							count++;
+						}
+					}
+				}
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * 
+	 * @param world
+	 * @param blockX
+	 * @param blockZ
+	 * @return the profile of the chunk of the block, or null if the world isn't populating or the chunk isn't loaded
+	 */
+	private static ColumnProfile getProfile(World world, int blockX, int blockZ) {
+		Population population = POPULATIONS.get(world);
+		if (population == null || population.depth == 0) {
+			return null;
+		}
+		int chunkX = blockX >> 4;
+		int chunkZ = blockZ >> 4;
+		// never load or generate a chunk - WorldInfo decides what to do with it
+		Chunk chunk = world.getChunkProvider().getLoadedChunk(chunkX, chunkZ);
+		if (chunk == null) {
+			return null;
+		}
+		long key = ChunkPos.asLong(chunkX, chunkZ);
+		ColumnProfile profile = population.profiles.get(key);
+		if (profile == null || !profile.isValid(chunk)) {
+			profile = ColumnProfile.build(world, chunk);
+			population.profiles.put(key, profile);
+		}
+		return profile;
+	}
+
+	static void countSectionRead() {
+		sectionReadCount++;
+	}
+
+	private static boolean isActive(World world) {
+		Population population = POPULATIONS.get(world);
+		return population != null && population.depth > 0;
+	}
+
+	/**
+	 * Counts a walk that was answered by WorldInfo - one block read per block walked.
+	 * @param active
+	 * @param coords
+	 * @param surfaceCoords
+	 */
+	private static void countWalk(boolean active, ICoords coords, ICoords surfaceCoords) {
+		if (active) {
+			long reads = surfaceCoords == null || surfaceCoords == WorldInfo.EMPTY_COORDS ? 1 : Math.max(1, coords.getY() - surfaceCoords.getY() + 1);
+			probeCount++;
+			worldReadCount += reads;
+			uncachedReadCount += reads;
+		}
+	}
+
+	private static void countFootprint(World world, int width, int depth) {
+		if (isActive(world)) {
+			probeCount++;
+			worldReadCount += Math.max(0, width * depth);
+			uncachedReadCount += Math.max(0, width * depth);
+		}
+	}
+
+	/**
+	 * 
+	 * @return the number of chunk populations that checked their columns
+	 */
+	public static long getPopulationCount() {
+		return populationCount;
+	}
+
+	/**
+	 * 
+	 * @return the number of surface and footprint checks
+	 */
+	public static long getProbeCount() {
+		return probeCount;
+	}
+
+	/**
+	 * 
+	 * @return the number of blocks read from the world by the checks that fell back to WorldInfo
+	 */
+	public static long getWorldReadCount() {
+		return worldReadCount;
+	}
+
+	/**
+	 * 
+	 * @return the number of blocks read from the section storage by the profiles
+	 */
+	public static long getSectionReadCount() {
+		return sectionReadCount;
+	}
+
+	/**
+	 * 
+	 * @return the number of blocks that WorldInfo would have read for the same checks
+	 */
+	public static long getUncachedReadCount() {
+		return uncachedReadCount;
+	}
+
+	/**
+	 * The profiles of the chunk being populated.
+	 */
+	private static class Population {
+		// NOTE not a chunk that can populate
+		private long chunk = Long.MIN_VALUE;
+		private int depth;
+		private final Long2ObjectMap<ColumnProfile> profiles = new Long2ObjectOpenHashMap<>();
+	}
+
+	@FunctionalInterface
+	private interface ColumnTest {
+		boolean test(ColumnProfile profile, int x, int z);
+	}
+}
@@ -3,7 +3,6 @@
  */
 package com.someguyssoftware.treasure2.generator;
 
-import java.util.List;
 import java.util.Random;
 
 import com.someguyssoftware.gottschcore.cube.Cube;
@@ -16,7 +15,6 @@ import com.someguyssoftware.treasure2.Treasure;
 import com.someguyssoftware.treasure2.block.AbstractChestBlock;
 import com.someguyssoftware.treasure2.block.SkeletonBlock;
 import com.someguyssoftware.treasure2.block.TreasureBlocks;
-import com.someguyssoftware.treasure2.chest.ChestInfo;
 import com.someguyssoftware.treasure2.registry.ChestRegistry;
 import com.someguyssoftware.treasure2.registry.TreasureTemplateRegistry;
 import com.someguyssoftware.treasure2.tileentity.AbstractTreasureChestTileEntity;
@@ -91,7 +89,7 @@ public class GenUtil {
 		Cube cube = new Cube(world, coords);
 		if (cube.isAir())
 			return false;
-		world.setBlockState(coords.toPos(), block.getDefaultState());
+		SectionBlockWriter.setBlockState(world, coords.toPos(), block.getDefaultState());
 		return true;
 	}
 
@@ -107,7 +105,7 @@ public class GenUtil {
 		Cube cube = new Cube(world, coords);
 		if (cube.isAir())
 			return false;
-		world.setBlockState(coords.toPos(), blockState);
+		SectionBlockWriter.setBlockState(world, coords.toPos(), blockState);
 		return true;
 	}
 
@@ -182,6 +180,7 @@ public class GenUtil {
 			BlockPos pos = coords.toPos();
 			// create and place the chest
 			// world.setBlockState(pos, chest.getStateFromMeta(meta), 3);
+			ColumnProfiles.invalidate(world, pos);
 			world.setBlockState(pos, chest.getDefaultState().withProperty(FACING, facing), 3);
 			Treasure.LOGGER.debug("placed chest -> {} into world at coords -> {} with prop -> {}",
 					chest.getClass().getSimpleName(), coords.toShortString(), facing);
@@ -197,6 +196,7 @@ public class GenUtil {
 
 			if (te == null) {
 				// remove the chest block
+				ColumnProfiles.invalidate(world, pos);
 				world.setBlockState(pos, Blocks.AIR.getDefaultState());
 				Treasure.LOGGER.warn("Unable to create ChestConfig's TileEntity, removing ChestConfig.");
 				return false;
@@ -242,6 +242,8 @@ public class GenUtil {
 					.withProperty(SkeletonBlock.FACING, facing.getOpposite())
 					.withProperty(SkeletonBlock.PART, SkeletonBlock.EnumPartType.BOTTOM);
 
+			ColumnProfiles.invalidate(world, coords.toPos());
+			ColumnProfiles.invalidate(world, coords2.toPos());
 			world.setBlockState(coords.toPos(), skeletonState, 3);
 			world.setBlockState(coords2.toPos(),
 					skeletonState.withProperty(SkeletonBlock.PART, SkeletonBlock.EnumPartType.TOP), 3);
@@ -269,7 +271,7 @@ public class GenUtil {
 
 			spawnCoords = new Coords(surfaceCoords.getX(), ySpawn, surfaceCoords.getZ());
 			// get floor pos (if in a cavern or tunnel etc)
-			spawnCoords = WorldInfo.getDryLandSurfaceCoords(world, spawnCoords);
+			spawnCoords = ColumnProfiles.getDryLandSurfaceCoords(world, spawnCoords);
 		}
 		return spawnCoords;
 	}
@@ -335,7 +337,7 @@ public class GenUtil {
 //				world.setBlockState(replaceCoords.toPos(), Blocks.PLANKS.getDefaultState(), 1);
 				blockState = Blocks.LOG.getDefaultState();
 
-			world.setBlockState(replaceCoords.toPos(), blockState, 3);
+			SectionBlockWriter.setBlockState(world, replaceCoords.toPos(), blockState);
 		}
 	}
 
@@ -349,7 +351,7 @@ public class GenUtil {
 		final int ABOVE_CHEST_SIZE = 3; // above chests are always fill with logs, sand, and planks
 		final int BELOW_SURFACE_SIZE = 5; // the number of blocks below the surface
 		for (int i = coords.getY() + (ABOVE_CHEST_SIZE + 1); i <= surfaceCoords.getY() - BELOW_SURFACE_SIZE; i++) {
-			world.setBlockState(new BlockPos(coords.getX(), i, coords.getZ()), Blocks.AIR.getDefaultState(), 3);
+			SectionBlockWriter.setBlockState(world, new BlockPos(coords.getX(), i, coords.getZ()), Blocks.AIR.getDefaultState());
 		}
 	}
 
@@ -361,28 +363,7 @@ public class GenUtil {
 	 * @return
 	 */
 	public static boolean isRegisteredChestWithinDistance(World world, ICoords coords, int minDistance) {
-
-		double minDistanceSq = minDistance * minDistance;
-
-		// get a list of chests
-		List<ChestInfo> infos = ChestRegistry.getInstance().getValues();
-
-		if (infos == null || infos.size() == 0) {
-			Treasure.LOGGER
-					.debug("Unable to locate the ChestConfig Registry or the Registry doesn't contain any values");
-			return false;
-		}
-
-		Treasure.LOGGER.debug("Min distance Sq -> {}", minDistanceSq);
-		for (ChestInfo info : infos) {
-			// calculate the distance to the poi
-			double distance = coords.getDistanceSq(info.getCoords());
-			Treasure.LOGGER.debug("ChestConfig dist^2: " + distance);
-			if (distance < minDistanceSq) {
-				return true;
-			}
-		}
-		return false;
+		return ChestRegistry.getInstance().isWithin(world.provider.getDimension(), coords, minDistance);
 	}
 
 }
\ No newline at end of file
@@ -0,0 +1,120 @@
+/**
+ * 
+ */
+package com.someguyssoftware.treasure2.generator;
+
+import java.util.Random;
+
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+
+/**
+ * Derives the random streams of world generation (and loot) from the world seed, so that the same seed always produces
+ * the same treasure, regardless of the order the chunks are generated in, the other world generators, or the thread.
+ * Each stream is independent: it is seeded with a hash of the world seed, the stream and the chunk/block coords, and is
+ * never shared, so it is safe to use from any thread.
+ */
+public final class GenerationRandom {
+
+	/**
+	 * The independent streams. NOTE each stream is salted by its name, so streams can be added or reordered
+	 * without changing the output of the existing ones.
+	 */
+	public enum Stream {
+		SURFACE_CHEST,
+		SUBMERGED_CHEST,
+		WELL,
+		WITHER_TREE,
+		GEM_ORE,
+		CHEST_LOOT,
+		WISHING_WELL,
+		SPAWNER;
+
+		private final long salt = mix(name().hashCode());
+	}
+
+	private GenerationRandom() {}
+
+	/**
+	 * 
+	 * @param world
+	 * @param stream
+	 * @param chunkX
+	 * @param chunkZ
+	 * @return a new random of the stream for the chunk
+	 */
+	public static Random forChunk(World world, Stream stream, int chunkX, int chunkZ) {
+		return new Random(seed(world.getSeed(), stream, chunkX, 0, chunkZ));
+	}
+
+	/**
+	 * 
+	 * @param world
+	 * @param stream
+	 * @param pos
+	 * @return a new random of the stream for the block position
+	 */
+	public static Random forPos(World world, Stream stream, BlockPos pos) {
+		return forPos(world.getSeed(), stream, pos);
+	}
+
+	/**
+	 * 
+	 * @param worldSeed
+	 * @param stream
+	 * @param pos
+	 * @return
+	 */
+	public static Random forPos(long worldSeed, Stream stream, BlockPos pos) {
+		return new Random(seed(worldSeed, stream, pos.getX(), pos.getY(), pos.getZ()));
+	}
+
+	/**
+	 * For repeated events at the same position (ex. tossing coins into a wishing well).
+	 * @param world
+	 * @param stream
+	 * @param pos
+	 * @param salt ex. the world time
+	 * @return a new random of the stream for the block position and salt
+	 */
+	public static Random forPos(World world, Stream stream, BlockPos pos, long salt) {
+		return new Random(mix(seed(world.getSeed(), stream, pos.getX(), pos.getY(), pos.getZ()) + salt));
+	}
+
+	/**
+	 * Splits an independent stream off the random (ex. one per supporting tree of a grove).
+	 * @param random
+	 * @return
+	 */
+	public static Random split(Random random) {
+		return new Random(mix(random.nextLong()));
+	}
+
+	/**
+	 * 
+	 * @param worldSeed
+	 * @param stream
+	 * @param x
+	 * @param y
+	 * @param z
+	 * @return
+	 */
+	public static long seed(long worldSeed, Stream stream, int x, int y, int z) {
+		long seed = mix(worldSeed ^ stream.salt);
+		seed = mix(seed + x);
+		seed = mix(seed + y);
+		return mix(seed + z);
+	}
+
+	/**
+	 * The SplitMix64 finalizer - spreads every bit of the input over the output.
+	 * @param value
+	 * @return
+	 */
+	private static long mix(long value) {
+		value += 0x9E3779B97F4A7C15L;
+		value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+		value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+		return value ^ (value >>> 31);
+	}
+}
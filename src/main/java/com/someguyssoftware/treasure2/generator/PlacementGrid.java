@@ -0,0 +1,187 @@
+/**
+ * 
+ */
+package com.someguyssoftware.treasure2.generator;
+
+import com.someguyssoftware.treasure2.generator.GenerationRandom.Stream;
+
+import net.minecraft.util.math.ChunkPos;
+
+/**
+ * Seeded placement of the treasure features, like vanilla's structure spacing. Each dimension is divided into square cells of
+ * spacing x spacing chunks, and each cell has a single candidate chunk, derived from the world seed and the stream of the
+ * generator. The candidate is at least separation chunks from the (next) cell's edge, so candidates of neighbouring cells are
+ * never closer than separation chunks.
+ * Whether a chunk is a candidate depends on nothing but the seed and its coords - not on the order the chunks are generated in -
+ * so the candidates can be predicted (ex. located) without generating any terrain.
+ * The min. distance between the features is enforced the same way: each cell also has a seeded precedence, and a candidate only
+ * generates if no candidate of higher precedence within the distance attempts to generate, whatever the order of the chunks.
+ */
+public final class PlacementGrid {
+	/*
+	 * the y of the cell seeds, so that a cell never shares its seed with the chunk of the same coords
+	 */
+	private static final int CELL_Y = Integer.MIN_VALUE;
+	/*
+	 * the y of the precedence seeds
+	 */
+	private static final int PRECEDENCE_Y = Integer.MIN_VALUE + 1;
+
+	private final Stream stream;
+	private final int spacing;
+	private final int separation;
+
+	/**
+	 * 
+	 * @param stream the stream of the generator, ex. SURFACE_CHEST
+	 * @param spacing the size of a cell, in chunks
+	 * @param separation the min. number of chunks between the candidates of neighbouring cells. capped to leave room in the cell.
+	 */
+	public PlacementGrid(Stream stream, int spacing, int separation) {
+		this.stream = stream;
+		this.spacing = Math.max(1, spacing);
+		this.separation = Math.max(0, Math.min(separation, this.spacing - 1));
+	}
+
+	/**
+	 * 
+	 * @param worldSeed
+	 * @param chunkX
+	 * @param chunkZ
+	 * @return true if the chunk is the candidate of its cell
+	 */
+	public boolean isCandidate(long worldSeed, int chunkX, int chunkZ) {
+		ChunkPos candidate = getCandidate(worldSeed, getCell(chunkX), getCell(chunkZ));
+		return candidate.x == chunkX && candidate.z == chunkZ;
+	}
+
+	/**
+	 * 
+	 * @param worldSeed
+	 * @param cellX
+	 * @param cellZ
+	 * @return the candidate chunk of the cell
+	 */
+	public ChunkPos getCandidate(long worldSeed, int cellX, int cellZ) {
+		int range = spacing - separation;
+		long seed = GenerationRandom.seed(worldSeed, stream, cellX, CELL_Y, cellZ);
+		int offsetX = Math.floorMod((int) seed, range);
+		int offsetZ = Math.floorMod((int) (seed >>> 32), range);
+		return new ChunkPos(cellX * spacing + offsetX, cellZ * spacing + offsetZ);
+	}
+
+	/**
+	 * Tests if the candidate chunk takes precedence over every other candidate within the distance that attempts to generate.
+	 * NOTE a candidate yields to a candidate of higher precedence, even if that one yields in turn, so that the result depends
+	 * on the seed alone and any two generated candidates are at least the distance apart.
+	 * @param worldSeed
+	 * @param chunkX
+	 * @param chunkZ
+	 * @param distance the min. distance, in blocks, between the centres of the candidate chunks
+	 * @param attempts tests if a candidate chunk attempts to generate, ex. ITreasureWorldGenerator.isAttempting()
+	 * @return true if no candidate of higher precedence within the distance attempts to generate
+	 */
+	public boolean hasPrecedence(long worldSeed, int chunkX, int chunkZ, int distance, ChunkPredicate attempts) {
+		int cellX = getCell(chunkX);
+		int cellZ = getCell(chunkZ);
+		long precedence = getPrecedence(worldSeed, cellX, cellZ);
+		return !anyWithin(worldSeed, chunkX, chunkZ, distance, (otherCellX, otherCellZ) -> {
+			long other = getPrecedence(worldSeed, otherCellX, otherCellZ);
+			return other > precedence
+					|| (other == precedence && (otherCellX < cellX || (otherCellX == cellX && otherCellZ < cellZ)));
+		}, attempts);
+	}
+
+	/**
+	 * Tests if any candidate of this grid within the distance of the chunk attempts to generate, regardless of precedence.
+	 * Used to give a feature (ex. surface chests) precedence over the features of another grid (ex. wither trees).
+	 * @param worldSeed
+	 * @param chunkX
+	 * @param chunkZ
+	 * @param distance the min. distance, in blocks, between the centres of the chunks
+	 * @param attempts tests if a candidate chunk attempts to generate
+	 * @return true if a candidate within the distance attempts to generate
+	 */
+	public boolean isCandidateWithin(long worldSeed, int chunkX, int chunkZ, int distance, ChunkPredicate attempts) {
+		return anyWithin(worldSeed, chunkX, chunkZ, distance, (otherCellX, otherCellZ) -> true, attempts);
+	}
+
+	/**
+	 * 
+	 * @param worldSeed
+	 * @param cellX
+	 * @param cellZ
+	 * @return the seeded precedence of the cell
+	 */
+	public long getPrecedence(long worldSeed, int cellX, int cellZ) {
+		return GenerationRandom.seed(worldSeed, stream, cellX, PRECEDENCE_Y, cellZ);
+	}
+
+	/*
+	 * NOTE the cells are tested first, so that attempts (the expensive test) is only called for the candidates that matter.
+	 */
+	private boolean anyWithin(long worldSeed, int chunkX, int chunkZ, int distance, CellPredicate cells, ChunkPredicate attempts) {
+		if (distance <= 0) {
+			return false;
+		}
+		long distanceSq = (long) distance * distance;
+		int chunks = (distance + 15) >> 4;
+		for (int cellX = getCell(chunkX - chunks); cellX <= getCell(chunkX + chunks); cellX++) {
+			for (int cellZ = getCell(chunkZ - chunks); cellZ <= getCell(chunkZ + chunks); cellZ++) {
+				ChunkPos candidate = getCandidate(worldSeed, cellX, cellZ);
+				if (candidate.x == chunkX && candidate.z == chunkZ) {
+					continue;
+				}
+				long x = (long) (candidate.x - chunkX) << 4;
+				long z = (long) (candidate.z - chunkZ) << 4;
+				if (x * x + z * z < distanceSq && cells.test(cellX, cellZ) && attempts.test(candidate.x, candidate.z)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * 
+	 * @param chunk
+	 * @return the cell coord of the chunk coord
+	 */
+	public int getCell(int chunk) {
+		return Math.floorDiv(chunk, spacing);
+	}
+
+	public Stream getStream() {
+		return stream;
+	}
+
+	public int getSpacing() {
+		return spacing;
+	}
+
+	public int getSeparation() {
+		return separation;
+	}
+
+	/**
+	 * 
+	 * @param spacing
+	 * @param separation
+	 * @return true if the grid was created from (or capped to the same) spacing and separation, ex. to test if a cached grid
+	 * is still current with the config
+	 */
+	public boolean hasSpacing(int spacing, int separation) {
+		int cappedSpacing = Math.max(1, spacing);
+		return this.spacing == cappedSpacing && this.separation == Math.max(0, Math.min(separation, cappedSpacing - 1));
+	}
+
+	@FunctionalInterface
+	public interface ChunkPredicate {
+		boolean test(int chunkX, int chunkZ);
+	}
+
+	@FunctionalInterface
+	private interface CellPredicate {
+		boolean test(int cellX, int cellZ);
+	}
+}
@@ -0,0 +1,227 @@
+/**
+ * 
+ */
+package com.someguyssoftware.treasure2.generator;
+
+import com.someguyssoftware.treasure2.Treasure;
+import com.someguyssoftware.treasure2.block.TorchDensityCache;
+import com.someguyssoftware.treasure2.wish.WishingWellRegistry;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.shorts.Short2ObjectMap;
+import it.unimi.dsi.fastutil.shorts.Short2ObjectOpenHashMap;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.network.Packet;
+import net.minecraft.network.play.server.SPacketChunkData;
+import net.minecraft.server.management.PlayerChunkMapEntry;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+import net.minecraft.world.WorldServer;
+import net.minecraft.world.chunk.Chunk;
+
+/**
+ * A world generation block writer. Blocks are written straight into the chunk storage, so that the generator
+ * reads back what it has written, and the changes are collected per chunk section. The relighting and client sync that
+ * World.setBlockState() performs for every block is done once, when the writer is committed: the blocks whose light
+ * changed are relit, and each chunk sends its changed sections to the watching players in a single packet.
+ * Like vanilla world generation (flag 2), neighbours are not notified. Neither are the world event listeners, so the caches that
+ * listen to the block changes (the torch densities and the wishing wells) are invalidated for the changed chunks on commit.
+ * NOTE writers are re-entrant - begin() returns the active writer of the world (ex. a wither tree building its pit)
+ * and only the outermost commit() applies the changes.
+ */
+public class SectionBlockWriter {
+	// the active writer of the (server) thread
+	private static final ThreadLocal<SectionBlockWriter> ACTIVE = new ThreadLocal<>();
+
+	private final World world;
+	// the writer that was active when this one began (of another world), restored on commit
+	private final SectionBlockWriter previous;
+	private final Long2ObjectMap<ChunkChanges> chunks = new Long2ObjectOpenHashMap<>();
+	private int depth;
+	private int writeCount;
+
+	/**
+	 * 
+	 * @param world
+	 * @param previous
+	 */
+	private SectionBlockWriter(World world, SectionBlockWriter previous) {
+		this.world = world;
+		this.previous = previous;
+	}
+
+	/**
+	 * Begins (or re-enters) the writer of the world. Must be paired with commit(), in a finally block.
+	 * @param world
+	 * @return
+	 */
+	public static SectionBlockWriter begin(World world) {
+		SectionBlockWriter writer = ACTIVE.get();
+		if (writer == null || writer.world != world) {
+			writer = new SectionBlockWriter(world, writer);
+			ACTIVE.set(writer);
+		}
+		writer.depth++;
+		return writer;
+	}
+
+	/**
+	 * Sets the block with the active writer of the world, or with World.setBlockState() (flag 3) if there isn't one.
+	 * @param world
+	 * @param pos
+	 * @param state
+	 * @return
+	 */
+	public static boolean setBlockState(World world, BlockPos pos, IBlockState state) {
+		SectionBlockWriter writer = ACTIVE.get();
+		if (writer != null && writer.world == world) {
+			return writer.set(pos, state);
+		}
+		ColumnProfiles.invalidate(world, pos);
+		return world.setBlockState(pos, state, 3);
+	}
+
+	/**
+	 * 
+	 * @param pos
+	 * @param state
+	 * @return true if the block changed
+	 */
+	public boolean set(BlockPos pos, IBlockState state) {
+		if (world.isOutsideBuildHeight(pos)) {
+			return false;
+		}
+		writeCount++;
+		Chunk chunk = world.getChunkFromBlockCoords(pos);
+		// NOTE returns null if the state didn't change
+		IBlockState original = chunk.setBlockState(pos, state);
+		if (original == null) {
+			return false;
+		}
+		ColumnProfiles.invalidate(world, pos);
+
+		long key = ChunkPos.asLong(chunk.x, chunk.z);
+		ChunkChanges changes = chunks.get(key);
+		if (changes == null) {
+			changes = new ChunkChanges(chunk);
+			chunks.put(key, changes);
+		}
+		changes.add(pos, original);
+		return true;
+	}
+
+	/**
+	 * Relights the changed blocks and syncs the changed sections to the clients. Only the outermost commit applies the changes.
+	 */
+	public void commit() {
+		if (--depth > 0) {
+			return;
+		}
+		if (previous != null) {
+			ACTIVE.set(previous);
+		}
+		else {
+			ACTIVE.remove();
+		}
+
+		int changeCount = 0;
+		int sectionCount = 0;
+		for (ChunkChanges changes : chunks.values()) {
+			changeCount += changes.relight(world);
+			sectionCount += Integer.bitCount(changes.sectionMask);
+			changes.sync(world);
+			TorchDensityCache.getInstance().invalidate(world, changes.chunk.x, changes.chunk.z);
+			WishingWellRegistry.getInstance().invalidate(world, changes.chunk.x, changes.chunk.z, changes.sectionMask);
+		}
+		if (writeCount > 0) {
+			Treasure.LOGGER.debug("committed {} block writes -> {} changes in {} sections of {} chunks", writeCount, changeCount, sectionCount, chunks.size());
+		}
+		chunks.clear();
+		writeCount = 0;
+	}
+
+	/**
+	 * The changes of a single chunk - the original state of each changed block, by section.
+	 */
+	private static class ChunkChanges {
+		private final Chunk chunk;
+		@SuppressWarnings("unchecked")
+		private final Short2ObjectMap<IBlockState>[] sections = new Short2ObjectMap[16];
+		private int sectionMask;
+
+		public ChunkChanges(Chunk chunk) {
+			this.chunk = chunk;
+		}
+
+		public void add(BlockPos pos, IBlockState original) {
+			int sectionY = pos.getY() >> 4;
+			Short2ObjectMap<IBlockState> section = sections[sectionY];
+			if (section == null) {
+				section = new Short2ObjectOpenHashMap<>();
+				sections[sectionY] = section;
+				sectionMask |= 1 << sectionY;
+			}
+			short index = (short)((pos.getY() & 15) << 8 | (pos.getZ() & 15) << 4 | (pos.getX() & 15));
+			// keep the state from before the first write
+			if (!section.containsKey(index)) {
+				section.put(index, original);
+			}
+		}
+
+		/**
+		 * Relights the blocks whose light opacity or light value differs from the original state.
+		 * NOTE a block that was changed several times is only relit once, and not at all if it ended the same as it started.
+		 * @param world
+		 * @return the number of changed blocks
+		 */
+		public int relight(World world) {
+			int count = 0;
+			BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+			for (int sectionY = 0; sectionY < sections.length; sectionY++) {
+				Short2ObjectMap<IBlockState> section = sections[sectionY];
+				if (section == null) {
+					continue;
+				}
+				for (Short2ObjectMap.Entry<IBlockState> entry : section.short2ObjectEntrySet()) {
+					int index = entry.getShortKey();
+					pos.setPos((chunk.x << 4) + (index & 15), (sectionY << 4) + (index >> 8 & 15), (chunk.z << 4) + (index >> 4 & 15));
+					IBlockState original = entry.getValue();
+					IBlockState state = chunk.getBlockState(pos);
+					if (original.getLightOpacity(world, pos) != state.getLightOpacity(world, pos)
+							|| original.getLightValue(world, pos) != state.getLightValue(world, pos)) {
+						world.checkLight(pos.toImmutable());
+					}
+					count++;
+				}
+			}
+			return count;
+		}
+
+		/**
+		 * Sends the changed sections, and their tile entities, to the players watching the chunk.
+		 * @param world
+		 */
+		public void sync(World world) {
+			if (!(world instanceof WorldServer)) {
+				return;
+			}
+			PlayerChunkMapEntry entry = ((WorldServer)world).getPlayerChunkMap().getEntry(chunk.x, chunk.z);
+			if (entry == null || !entry.isSentToPlayers()) {
+				// no one is watching - the chunk will be sent whole
+				return;
+			}
+			entry.sendPacket(new SPacketChunkData(chunk, sectionMask));
+			for (TileEntity tileEntity : chunk.getTileEntityMap().values()) {
+				if ((sectionMask & 1 << (tileEntity.getPos().getY() >> 4)) != 0) {
+					Packet<?> packet = tileEntity.getUpdatePacket();
+					if (packet != null) {
+						entry.sendPacket(packet);
+					}
+				}
+			}
+		}
+	}
+}
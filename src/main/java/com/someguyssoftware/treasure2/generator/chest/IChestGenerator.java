@@ -35,6 +35,7 @@ import com.someguyssoftware.treasure2.generator.marker.StructureMarkerGenerator;
 import com.someguyssoftware.treasure2.item.LockItem;
 import com.someguyssoftware.treasure2.item.TreasureItems;
 import com.someguyssoftware.treasure2.lock.LockState;
+import com.someguyssoftware.treasure2.loot.LootRoll;
 import com.someguyssoftware.treasure2.loot.TreasureLootTableMaster2;
 import com.someguyssoftware.treasure2.loot.TreasureLootTableRegistry;
 import com.someguyssoftware.treasure2.tileentity.AbstractTreasureChestTileEntity;
@@ -181,17 +182,49 @@ public interface IChestGenerator {
 	}
 
 	/**
-	 * 
+	 * Rolls the loot of the chest and commits it to the chest's inventory.
 	 * @param world
 	 * @param random
 	 * @param tileEntity
 	 * @param lootRarity
 	 */
 	default public void fillChest(final World world, Random random, final TileEntity tileEntity, final Rarity rarity, EntityPlayer player) {
-		Optional<LootTableShell> lootTableShell = null;
 		ResourceLocation lootTableResourceLocation = ((AbstractTreasureChestTileEntity)tileEntity).getLootTable();
-		Treasure.LOGGER.debug("chest has loot table property of -> {}", lootTableResourceLocation);
+		Optional<LootRoll> roll = rollLoot(world, random, lootTableResourceLocation, rarity, buildLootContext(world, player));
+		if (roll.isPresent()) {
+			commitLoot(tileEntity, roll.get());
+		}
+	}
 
+	/**
+	 * 
+	 * @param world
+	 * @param player
+	 * @return the loot context of the player, or the shared context if there isn't a player
+	 */
+	default public LootContext buildLootContext(final World world, EntityPlayer player) {
+		if (player == null) {
+			return TreasureLootTableRegistry.getLootTableMaster().getContext();
+		}
+		return new LootContext.Builder((WorldServer) world)
+				.withLuck(player.getLuck())
+				.withPlayer(player)
+				.build();
+	}
+
+	/**
+	 * Rolls the loot of a chest without touching the chest, so that it can be rolled ahead of time.
+	 * NOTE must be called on the server thread - the loot functions create item stacks, which fire the capability events.
+	 * @param world
+	 * @param random
+	 * @param lootTableResourceLocation the loot table property of the chest. may be null.
+	 * @param rarity
+	 * @param lootContext
+	 * @return
+	 */
+	default public Optional<LootRoll> rollLoot(final World world, Random random, ResourceLocation lootTableResourceLocation, final Rarity rarity, LootContext lootContext) {
+		Optional<LootTableShell> lootTableShell = null;
+		Treasure.LOGGER.debug("chest has loot table property of -> {}", lootTableResourceLocation);
 		if (lootTableResourceLocation == null) {
 			lootTableShell = selectLootTable2(random, rarity);
 		}
@@ -205,14 +238,14 @@ public interface IChestGenerator {
 		}
 		else {
 			Treasure.LOGGER.debug("Unable to select a LootTable for rarity -> {}", rarity);
-			return;
+			return Optional.empty();
 		}
 		Treasure.LOGGER.debug("loot table resource -> {}", lootTableResourceLocation); 
 		
 		LootTable lootTable = world.getLootTableManager().getLootTableFromLocation(lootTableResourceLocation);
 		if (lootTable == null) {
 			LOGGER.warn("Unable to select a lootTable.");
-			return;
+			return Optional.empty();
 		}		
 		Treasure.LOGGER.debug("selected loot table -> {} from resource -> {}", lootTable, lootTableResourceLocation);
 		
@@ -233,18 +266,6 @@ public interface IChestGenerator {
 			LOGGER.debug("# of pools -> {}", lootPoolShells.size());
 		}
 		
-		// setup context
-		LootContext lootContext = null;
-		if (player == null) {
-			lootContext = TreasureLootTableRegistry.getLootTableMaster().getContext();
-		}
-		else {
-			lootContext = new LootContext.Builder((WorldServer) world)
-				.withLuck(player.getLuck())
-				.withPlayer(player)
-				.build();
-		}
-		
 		for (LootPoolShell pool : lootPoolShells) {
 			LOGGER.debug("processing pool -> {}", pool.getName());
 			// go get the vanilla managed pool
@@ -275,16 +296,27 @@ public interface IChestGenerator {
 			itemStacks.addAll(TreasureLootTableRegistry.getLootTableMaster().getInjectedLootItems(world, random, injectLootTableShells.get(), lootContext));
 		}
 		
-		// add the treasure items to the chest
-		fillInventory((IInventory) tileEntity, random, treasureStacks);
-		
 		// shuffle the items list
 		Collections.shuffle(itemStacks, random);
-		
+
+		return Optional.of(new LootRoll(lootTableResourceLocation, treasureStacks, itemStacks.stream().limit(lootItemSize).collect(Collectors.toList()), random.nextLong()));
+	}
+
+	/**
+	 * Fills the chest with the rolled loot - the treasure items, then the other items.
+	 * @param tileEntity
+	 * @param roll
+	 */
+	default public void commitLoot(final TileEntity tileEntity, LootRoll roll) {
+		Random random = new Random(roll.getCommitSeed());
+		// add the treasure items to the chest
+		fillInventory((IInventory) tileEntity, random, new ArrayList<>(roll.getTreasureStacks()));
+
 		// fill the chest with items
-		fillInventory((IInventory) tileEntity, random, itemStacks.stream().limit(lootItemSize).collect(Collectors.toList()));
+		fillInventory((IInventory) tileEntity, random, new ArrayList<>(roll.getItemStacks()));
 	}
 
+
 	/**
 	 * 
 	 * @param inventory
@@ -405,18 +437,10 @@ public interface IChestGenerator {
 
 		// select the loot table by rarity
 		List<LootTableShell> tables = buildLootTableList2(rarity);
-		if (tables !=null)LOGGER.debug("tables size -> {}", tables.size());
 		
 		// select a random table from the list
 		if (tables != null && !tables.isEmpty()) {
-			int index = 0;
-			if (tables.size() == 1) {
-				lootTableShell = tables.get(0);
-			} else {
-				index = RandomHelper.randomInt(random, 0, tables.size() - 1);
-				lootTableShell = tables.get(index);
-			}
-			LOGGER.debug("Selected loot table shell index --> {}", index);
+			lootTableShell = LootTableIndex.select(random, tables);
 		}
 		return Optional.ofNullable(lootTableShell);
 	}
@@ -432,18 +456,10 @@ public interface IChestGenerator {
 
 		// select the loot table by rarity
 		List<LootTableShell> tables = buildLootTableList2(rarity);
-		if (tables !=null)LOGGER.debug("tables size -> {}", tables.size());
 		
 		// select a random table from the list
 		if (tables != null && !tables.isEmpty()) {
-			int index = 0;
-			if (tables.size() == 1) {
-				lootTableShell = tables.get(0);
-			} else {
-				index = RandomHelper.randomInt(factory.get(), 0, tables.size() - 1);
-				lootTableShell = tables.get(index);
-			}
-			LOGGER.debug("Selected loot table shell index --> {}", index);
+			lootTableShell = LootTableIndex.select(factory.get(), tables);
 		}
 		return Optional.ofNullable(lootTableShell);	
     }
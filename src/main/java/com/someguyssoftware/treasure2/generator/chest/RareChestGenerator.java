@@ -43,11 +43,8 @@ public class RareChestGenerator implements IChestGenerator {
 	
 	@Override
 	public List<LootTableShell> buildLootTableList2(final Rarity chestRarity) {
-		// get all loot tables by column key
-		List<LootTableShell> tables = new ArrayList<>();
-		tables.addAll(TreasureLootTableRegistry.getLootTableMaster().getLootTableByRarity(Rarity.SCARCE));
-		tables.addAll(TreasureLootTableRegistry.getLootTableMaster().getLootTableByRarity(Rarity.RARE));
-		return tables;
+		// get all loot tables of both rarities (pre-combined by the index)
+		return TreasureLootTableRegistry.getLootTableMaster().getLootTableByRarity(Rarity.SCARCE, Rarity.RARE);
 	}	
 	
 	/**
@@ -46,11 +46,8 @@ public class ScarceChestGenerator implements IChestGenerator {
 	 */
 	@Override
 	public List<LootTableShell> buildLootTableList2(final Rarity chestRarity) {
-		// get all loot tables by column key
-		List<LootTableShell> tables = new ArrayList<>();
-		tables.addAll(TreasureLootTableRegistry.getLootTableMaster().getLootTableByRarity(Rarity.UNCOMMON));
-		tables.addAll(TreasureLootTableRegistry.getLootTableMaster().getLootTableByRarity(Rarity.SCARCE));
-		return tables;
+		// get all loot tables of both rarities (pre-combined by the index)
+		return TreasureLootTableRegistry.getLootTableMaster().getLootTableByRarity(Rarity.UNCOMMON, Rarity.SCARCE);
 	}	
 	
 	/**
@@ -18,6 +18,7 @@ import com.someguyssoftware.treasure2.block.ITreasureBlock;
 import com.someguyssoftware.treasure2.block.SkeletonBlock;
 import com.someguyssoftware.treasure2.block.TreasureBlocks;
 import com.someguyssoftware.treasure2.config.TreasureConfig;
+import com.someguyssoftware.treasure2.generator.ColumnProfiles;
 import com.someguyssoftware.treasure2.generator.GenUtil;
 import com.someguyssoftware.treasure2.generator.GeneratorData;
 import com.someguyssoftware.treasure2.generator.GeneratorResult;
@@ -55,7 +56,7 @@ public class GravestoneMarkerGenerator implements IMarkerGenerator<GeneratorResu
 		int z = coords.getZ();
 
 		// for the number of markers configured
-		int numberOfMarkers = RandomHelper.randomInt(
+		int numberOfMarkers = RandomHelper.randomInt(random,
 				TreasureConfig.WORLD_GEN.getMarkerProperties().minGravestonesPerChest,
 				TreasureConfig.WORLD_GEN.getMarkerProperties().maxGravestonesPerChest);
 		// calculate the grid size
@@ -89,7 +90,7 @@ public class GravestoneMarkerGenerator implements IMarkerGenerator<GeneratorResu
 			}
 
 			// get a valid surface location
-			spawnCoords = WorldInfo.getDryLandSurfaceCoords(world, spawnCoords);
+			spawnCoords = ColumnProfiles.getDryLandSurfaceCoords(world, spawnCoords);
 			if (spawnCoords == null) {
 				LOGGER.debug(String.format("Not a valid surface @ %s", coords));
 				continue;
@@ -134,6 +135,7 @@ public class GravestoneMarkerGenerator implements IMarkerGenerator<GeneratorResu
 				LOGGER.debug("should be placing skeleton block -> {}", spawnCoords.toShortString());
 				GenUtil.placeSkeleton(world, random, spawnCoords);
 			} else {
+				ColumnProfiles.invalidate(world, spawnCoords.toPos());
 				world.setBlockState(spawnCoords.toPos(), marker.getDefaultState().withProperty(AbstractChestBlock.FACING, facing));
 			}
 
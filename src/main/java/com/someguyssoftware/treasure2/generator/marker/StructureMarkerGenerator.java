@@ -9,12 +9,12 @@ import java.util.Random;
 import com.someguyssoftware.gottschcore.measurement.Quantity;
 import com.someguyssoftware.gottschcore.positional.Coords;
 import com.someguyssoftware.gottschcore.positional.ICoords;
-import com.someguyssoftware.gottschcore.world.WorldInfo;
 import com.someguyssoftware.gottschcore.world.gen.structure.BlockContext;
 import com.someguyssoftware.gottschcore.world.gen.structure.GottschTemplate;
 import com.someguyssoftware.gottschcore.world.gen.structure.StructureMarkers;
 import com.someguyssoftware.treasure2.Treasure;
 import com.someguyssoftware.treasure2.block.TreasureBlocks;
+import com.someguyssoftware.treasure2.generator.ColumnProfiles;
 import com.someguyssoftware.treasure2.generator.GenUtil;
 import com.someguyssoftware.treasure2.generator.GeneratorData;
 import com.someguyssoftware.treasure2.generator.GeneratorResult;
@@ -95,7 +95,7 @@ public class StructureMarkerGenerator implements IMarkerGenerator<GeneratorResul
 				
 		// if offset is 2 or less, then determine if the solid ground percentage is valid
 		if (offset >= -2) {
-			if (!WorldInfo.isSolidBase(world, spawnCoords, transformedSize.getX(), transformedSize.getZ(), 70)) {
+			if (!ColumnProfiles.isSolidBase(world, spawnCoords, transformedSize.getX(), transformedSize.getZ(), 70)) {
 				Treasure.LOGGER.debug("Coords -> [{}] does not meet {}% solid base requirements for size -> {} x {}", 70, spawnCoords.toShortString(), transformedSize.getX(), transformedSize.getY());
 				 GeneratorResult<GeneratorData> genResult = new GravestoneMarkerGenerator().generate(world, random, coords);
 				 return genResult;
@@ -116,6 +116,7 @@ public class StructureMarkerGenerator implements IMarkerGenerator<GeneratorResul
 		// populate vanilla spawners
 		for (BlockContext c : spawnerContexts) {
 			ICoords c2 = spawnCoords.add(c.getCoords());
+			ColumnProfiles.invalidate(world, c2.toPos());
 			world.setBlockState(c2.toPos(), Blocks.MOB_SPAWNER.getDefaultState());
 			TileEntityMobSpawner te = (TileEntityMobSpawner) world.getTileEntity(c2.toPos());
 			ResourceLocation r = DungeonHooks.getRandomDungeonMob(random);
@@ -125,6 +126,7 @@ public class StructureMarkerGenerator implements IMarkerGenerator<GeneratorResul
 		// populate proximity spawners
 		for (BlockContext c : proximityContexts) {
 			ICoords c2 = spawnCoords.add(c.getCoords());
+	    	ColumnProfiles.invalidate(world, c2.toPos());
 	    	world.setBlockState(c2.toPos(), TreasureBlocks.PROXIMITY_SPAWNER.getDefaultState());
 	    	ProximitySpawnerTileEntity te = (ProximitySpawnerTileEntity) world.getTileEntity(c2.toPos());
 	    	ResourceLocation r = DungeonHooks.getRandomDungeonMob(random);
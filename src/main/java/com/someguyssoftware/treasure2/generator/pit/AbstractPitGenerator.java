@@ -12,6 +12,7 @@ import com.someguyssoftware.treasure2.block.TreasureBlocks;
 import com.someguyssoftware.treasure2.generator.ChestGeneratorData;
 import com.someguyssoftware.treasure2.generator.GenUtil;
 import com.someguyssoftware.treasure2.generator.GeneratorResult;
+import com.someguyssoftware.treasure2.generator.SectionBlockWriter;
 import com.someguyssoftware.treasure2.tileentity.ProximitySpawnerTileEntity;
 
 import net.minecraft.block.Block;
@@ -309,7 +310,7 @@ public abstract class AbstractPitGenerator implements IPitGenerator<GeneratorRes
 	 * @param spawnCoords
 	 */
 	public void spawnRandomMob(World world, Random random, ICoords spawnCoords) {
-    	world.setBlockState(spawnCoords.toPos(), TreasureBlocks.PROXIMITY_SPAWNER.getDefaultState());
+    	SectionBlockWriter.setBlockState(world, spawnCoords.toPos(), TreasureBlocks.PROXIMITY_SPAWNER.getDefaultState());
     	ProximitySpawnerTileEntity te = (ProximitySpawnerTileEntity) world.getTileEntity(spawnCoords.toPos());
     	ResourceLocation r = DungeonHooks.getRandomDungeonMob(random);
     	te.setMobName(r);
@@ -10,6 +10,7 @@ import com.someguyssoftware.treasure2.block.TreasureBlocks;
 import com.someguyssoftware.treasure2.generator.ChestGeneratorData;
 import com.someguyssoftware.treasure2.generator.GenUtil;
 import com.someguyssoftware.treasure2.generator.GeneratorResult;
+import com.someguyssoftware.treasure2.generator.SectionBlockWriter;
 import com.someguyssoftware.treasure2.tileentity.ProximitySpawnerTileEntity;
 
 import net.minecraft.block.Block;
@@ -142,7 +143,7 @@ public class BigBottomMobTrapPitGenerator extends AbstractPitGenerator {
 	public ICoords buildTrapLayer(final World world, final Random random, final ICoords coords, final Block block) {
   	
 		// spawn random registered mobs on either side of the chest
-    	world.setBlockState(coords.add(-1, 0, 0).toPos(), TreasureBlocks.PROXIMITY_SPAWNER.getDefaultState());
+    	SectionBlockWriter.setBlockState(world, coords.add(-1, 0, 0).toPos(), TreasureBlocks.PROXIMITY_SPAWNER.getDefaultState());
     	ProximitySpawnerTileEntity te = (ProximitySpawnerTileEntity) world.getTileEntity(coords.add(-1, 0, 0).toPos());
     	ResourceLocation r = DungeonHooks.getRandomDungeonMob(random);
     	te.setMobName(r);
@@ -151,7 +152,7 @@ public class BigBottomMobTrapPitGenerator extends AbstractPitGenerator {
     	te.setSpawnRange(1.5D);
     	Treasure.LOGGER.debug("placed proximity spawner @ {}", coords.add(-1,0,0).toShortString());
     	
-    	world.setBlockState(coords.add(1, 0, 0).toPos(), TreasureBlocks.PROXIMITY_SPAWNER.getDefaultState());
+    	SectionBlockWriter.setBlockState(world, coords.add(1, 0, 0).toPos(), TreasureBlocks.PROXIMITY_SPAWNER.getDefaultState());
     	te = (ProximitySpawnerTileEntity) world.getTileEntity(coords.add(1, 0, 0).toPos());
     	r = DungeonHooks.getRandomDungeonMob(random);
     	te.setMobName(r);
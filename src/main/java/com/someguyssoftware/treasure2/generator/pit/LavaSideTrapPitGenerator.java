@@ -131,7 +131,7 @@ public class LavaSideTrapPitGenerator extends AbstractPitGenerator {
 		// for a number of blocks to replace
 		for (int i =0; i < MAX_REPLACES; i++) {
 			// randomly select a coord from the array
-			int x = RandomHelper.randomInt(0, matrix.length-1);
+			int x = RandomHelper.randomInt(random, 0, matrix.length-1);
 			GenUtil.replaceWithBlockState(world, matrix[x], block.getDefaultState());
 		}		
 		return coords;
@@ -14,6 +14,7 @@ import com.someguyssoftware.treasure2.block.TreasureBlocks;
 import com.someguyssoftware.treasure2.generator.ChestGeneratorData;
 import com.someguyssoftware.treasure2.generator.GenUtil;
 import com.someguyssoftware.treasure2.generator.GeneratorResult;
+import com.someguyssoftware.treasure2.generator.SectionBlockWriter;
 import com.someguyssoftware.treasure2.generator.TemplateGeneratorData;
 import com.someguyssoftware.treasure2.meta.StructureArchetype;
 import com.someguyssoftware.treasure2.meta.StructureType;
@@ -214,7 +215,7 @@ public class StructurePitGenerator extends AbstractPitGenerator {
 			// populate vanilla spawners
 			for (BlockContext c : spawnerContexts) {
 //				ICoords c2 = roomCoords.add(c);
-				world.setBlockState(c.getCoords().toPos(), Blocks.MOB_SPAWNER.getDefaultState());
+				SectionBlockWriter.setBlockState(world, c.getCoords().toPos(), Blocks.MOB_SPAWNER.getDefaultState());
 				TileEntityMobSpawner te = (TileEntityMobSpawner) world.getTileEntity(c.getCoords().toPos());
 				ResourceLocation r = DungeonHooks.getRandomDungeonMob(random);
 				te.getSpawnerBaseLogic().setEntityId(r);
@@ -224,7 +225,7 @@ public class StructurePitGenerator extends AbstractPitGenerator {
 			// populate proximity spawners
 			for (BlockContext c : proximityContexts) {
 //				ICoords c2 = roomCoords.add(c);
-		    	world.setBlockState(c.getCoords().toPos(), TreasureBlocks.PROXIMITY_SPAWNER.getDefaultState());
+		    	SectionBlockWriter.setBlockState(world, c.getCoords().toPos(), TreasureBlocks.PROXIMITY_SPAWNER.getDefaultState());
 		    	ProximitySpawnerTileEntity te = (ProximitySpawnerTileEntity) world.getTileEntity(c.getCoords().toPos());
 		    	ResourceLocation r = DungeonHooks.getRandomDungeonMob(random);
 		    	te.setMobName(r);
@@ -18,6 +18,7 @@ import com.someguyssoftware.gottschcore.world.gen.structure.IDecayRuleSet;
 import com.someguyssoftware.gottschcore.world.gen.structure.StructureMarkers;
 import com.someguyssoftware.treasure2.Treasure;
 import com.someguyssoftware.treasure2.generator.ChestGeneratorData;
+import com.someguyssoftware.treasure2.generator.ColumnProfiles;
 import com.someguyssoftware.treasure2.generator.GenUtil;
 import com.someguyssoftware.treasure2.generator.GeneratorResult;
 import com.someguyssoftware.treasure2.generator.TemplateGeneratorData;
@@ -104,7 +105,13 @@ public class SurfaceRuinGenerator implements IRuinGenerator<GeneratorResult<Ches
 		/**
 		 * Environment Checks
 		 */
-		actualSpawnCoords = WorldInfo.getDryLandSurfaceCoords(world, actualSpawnCoords);
+		// the template is placed in a single pass, so it can't be deferred - the whole footprint must be in generated chunks,
+		// otherwise both the checks and the placement would cascade chunk generation.
+		if (!world.isAreaLoaded(actualSpawnCoords.toPos(), actualSpawnCoords.add(templateSize.getX(), 0, templateSize.getZ()).toPos())) {
+			Treasure.LOGGER.debug("Coords -> [{}] template footprint {} x {} is not within generated chunks", originalSpawnCoords.toShortString(), templateSize.getX(), templateSize.getZ());
+			return result.fail();
+		}
+		actualSpawnCoords = ColumnProfiles.getDryLandSurfaceCoords(world, actualSpawnCoords);
 		Treasure.LOGGER.debug("surface coords -> {}", actualSpawnCoords.toShortString());
 		if (actualSpawnCoords == WorldInfo.EMPTY_COORDS) {
 			return result.fail();
@@ -113,7 +120,7 @@ public class SurfaceRuinGenerator implements IRuinGenerator<GeneratorResult<Ches
 		// check if it has % land base
 		for (int i = 0; i < 3; i++) {
 			Treasure.LOGGER.debug("finding solid base index -> {} at coords -> {}", i, actualSpawnCoords.toShortString());
-			if (!WorldInfo.isSolidBase(world, actualSpawnCoords, templateSize.getX(), templateSize.getZ(), REQUIRED_BASE_SIZE)) {
+			if (!ColumnProfiles.isSolidBase(world, actualSpawnCoords, templateSize.getX(), templateSize.getZ(), REQUIRED_BASE_SIZE)) {
 				if (i == 2) {
 					Treasure.LOGGER.debug("Coords -> [{}] does not meet {}% solid base requirements for size -> {} x {}", originalSpawnCoords.toShortString(), REQUIRED_BASE_SIZE, templateSize.getX(), templateSize.getZ());
 					return result.fail();
@@ -131,7 +138,7 @@ public class SurfaceRuinGenerator implements IRuinGenerator<GeneratorResult<Ches
 		
 		// check if the plane above the actual spawn coords is % air
 		Treasure.LOGGER.debug("checking for {} % air at coords -> {} for dimensions -> {} x {}", REQUIRED_AIR_SIZE, actualSpawnCoords.add(0, 1, 0), templateSize.getX(), templateSize.getZ());
-		if (!WorldInfo.isAirBase(world, actualSpawnCoords.add(0, 1, 0), templateSize.getX(), templateSize.getZ(), REQUIRED_AIR_SIZE)) {
+		if (!ColumnProfiles.isAirBase(world, actualSpawnCoords.add(0, 1, 0), templateSize.getX(), templateSize.getZ(), REQUIRED_AIR_SIZE)) {
 			Treasure.LOGGER.debug("Coords -> [{}] does not meet {} % air base requirements for size -> {} x {}", originalSpawnCoords.toShortString(), REQUIRED_AIR_SIZE, templateSize.getX(), templateSize.getZ());
 			return result.fail();
 		}
@@ -248,6 +255,10 @@ public class SurfaceRuinGenerator implements IRuinGenerator<GeneratorResult<Ches
 	 * @return
 	 */
 	public static ICoords getSolidSurfaceCoords(final World world, final ICoords coords) {
+		ICoords profiledCoords = ColumnProfiles.findSolidSurfaceCoords(world, coords);
+		if (profiledCoords != null) {
+			return profiledCoords;
+		}
 		boolean isSurfaceBlock = false;
 		ICoords newCoords = coords;
 		
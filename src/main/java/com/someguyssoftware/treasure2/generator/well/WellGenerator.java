@@ -12,6 +12,7 @@ import com.someguyssoftware.gottschcore.random.RandomHelper;
 import com.someguyssoftware.gottschcore.world.WorldInfo;
 import com.someguyssoftware.treasure2.Treasure;
 import com.someguyssoftware.treasure2.config.IWellConfig;
+import com.someguyssoftware.treasure2.generator.ColumnProfiles;
 import com.someguyssoftware.treasure2.generator.GeneratorData;
 import com.someguyssoftware.treasure2.generator.GeneratorResult;
 import com.someguyssoftware.treasure2.generator.TemplateGeneratorData;
@@ -79,7 +80,7 @@ public class WellGenerator implements IWellGenerator<GeneratorResult<GeneratorDa
 		 */
 		// 1. determine y-coord of land surface for the actual spawn coords
 //		actualSpawnCoords = WorldInfo.getDryLandSurfaceCoords(world, new Coords(actualSpawnCoords.getX(), 255, actualSpawnCoords.getZ()));
-		actualSpawnCoords = WorldInfo.getDryLandSurfaceCoords(world, actualSpawnCoords.withY(255));
+		actualSpawnCoords = ColumnProfiles.getDryLandSurfaceCoords(world, actualSpawnCoords.withY(255));
 		if (actualSpawnCoords == null || actualSpawnCoords == WorldInfo.EMPTY_COORDS) {
 			Treasure.LOGGER.debug("Returning due to marker coords == null or EMPTY_COORDS");
 			return result.fail(); 
@@ -87,7 +88,7 @@ public class WellGenerator implements IWellGenerator<GeneratorResult<GeneratorDa
 		Treasure.LOGGER.debug("actual spawn coords after dry land surface check -> {}", actualSpawnCoords);
 		
 		// 2. check if it has 50% land
-		if (!WorldInfo.isSolidBase(world, actualSpawnCoords, 3, 3, 50)) {
+		if (!ColumnProfiles.isSolidBase(world, actualSpawnCoords, 3, 3, 50)) {
 			Treasure.LOGGER.debug("Coords [{}] does not meet solid base requires for {} x {}", actualSpawnCoords.toShortString(), 3, 3);
 			return result.fail();
 		}	
@@ -140,7 +141,7 @@ public class WellGenerator implements IWellGenerator<GeneratorResult<GeneratorDa
 		
 		// north of well
 		for (int widthIndex = 0; widthIndex <= width + 1; widthIndex++) {
-			if (RandomHelper.randomInt(0, 1) == 0) {
+			if (RandomHelper.randomInt(random, 0, 1) == 0) {
 //				ICoords decoCoords = startCoords.add(widthIndex, 0, 0);
 				addDecoration(world, random, startCoords.add(widthIndex, 0, 0));
 			}
@@ -149,7 +150,7 @@ public class WellGenerator implements IWellGenerator<GeneratorResult<GeneratorDa
 		// south of well
 		startCoords = coords.add(-1, 0, depth);
 		for (int widthIndex = 0; widthIndex <= width + 1; widthIndex++) {
-			if (RandomHelper.randomInt(0,  1) == 0) {
+			if (RandomHelper.randomInt(random, 0, 1) == 0) {
 				addDecoration(world, random, startCoords.add(widthIndex, 0, 0));
 			}
 		}
@@ -157,7 +158,7 @@ public class WellGenerator implements IWellGenerator<GeneratorResult<GeneratorDa
 		// west of well
 		startCoords = coords.add(-1, 0, 0);
 		for (int depthIndex = 0; depthIndex < depth-1; depthIndex++) {
-			if (RandomHelper.randomInt(0,  1) == 0) {
+			if (RandomHelper.randomInt(random, 0, 1) == 0) {
 				addDecoration(world, random, startCoords.add(0, 0, depthIndex));
 			}
 		}
@@ -165,7 +166,7 @@ public class WellGenerator implements IWellGenerator<GeneratorResult<GeneratorDa
 		// east of well
 		startCoords = coords.add(width, 0, 0);
 		for (int depthIndex = 0; depthIndex < depth-1; depthIndex++) {
-			if (RandomHelper.randomInt(0,  1) == 0) {
+			if (RandomHelper.randomInt(random, 0, 1) == 0) {
 				addDecoration(world, random, startCoords.add(0, 0, depthIndex));
 			}
 		}
@@ -174,7 +175,7 @@ public class WellGenerator implements IWellGenerator<GeneratorResult<GeneratorDa
 	@Override
 	public void addDecoration(World world, Random random, ICoords coords) {
 		IBlockState blockState = null;
-		ICoords markerCoords = WorldInfo.getDryLandSurfaceCoords(world, coords);
+		ICoords markerCoords = ColumnProfiles.getDryLandSurfaceCoords(world, coords);
 		
 		if (markerCoords == null || markerCoords == WorldInfo.EMPTY_COORDS) {
 			Treasure.LOGGER.debug("Returning due to marker coords == null or EMPTY_COORDS");
@@ -189,35 +190,36 @@ public class WellGenerator implements IWellGenerator<GeneratorResult<GeneratorDa
 		markerCube = new Cube(world, markerCoords.add(0, -1, 0));
 //		Treasure.logger.debug("Marker on block: {}", markerCube.getState());
 		if (markerCube.equalsBlock(Blocks.GRASS)) {
-			blockState = getDecorationBlockState(world, Blocks.RED_FLOWER);
+			blockState = getDecorationBlockState(world, random, Blocks.RED_FLOWER);
 		}
 		else if (markerCube.equalsBlock(Blocks.DIRT)) {
 			DirtType dirtType = markerCube.getState().getValue(BlockDirt.VARIANT);
 			if (dirtType == DirtType.DIRT) {
-				blockState = getDecorationBlockState(world, Blocks.RED_FLOWER);
+				blockState = getDecorationBlockState(world, random, Blocks.RED_FLOWER);
 			}
 			else if (dirtType == DirtType.PODZOL) {
 //				Treasure.logger.debug("On podzol block");
 				Block mushBlock = random.nextInt(2) == 0 ? Blocks.BROWN_MUSHROOM : Blocks.RED_MUSHROOM;
-				blockState = getDecorationBlockState(world, mushBlock);
+				blockState = getDecorationBlockState(world, random, mushBlock);
 			}
 			else {
 //				Treasure.logger.debug("On coarse dirt block");
 //				Block grassBlock = Blocks.TALLGRASS;
 //				blockState = grassBlock.getDefaultState().withProperty(BlockTallGrass.TYPE, BlockTallGrass.EnumType.values()[meta]);			
-				blockState = getDecorationBlockState(world, Blocks.TALLGRASS);
+				blockState = getDecorationBlockState(world, random, Blocks.TALLGRASS);
 			}
 		}
 		else if (markerCube.equalsBlock(Blocks.MYCELIUM)) {
 //			Treasure.logger.debug("On mycelium block");
 			Block mushBlock = random.nextInt(2) == 0 ? Blocks.BROWN_MUSHROOM : Blocks.RED_MUSHROOM;
-			blockState = getDecorationBlockState(world, mushBlock);					
+			blockState = getDecorationBlockState(world, random, mushBlock);					
 		}
 		else {
 //			Treasure.logger.debug("On other block");
-			blockState = getDecorationBlockState(world, Blocks.TALLGRASS);
+			blockState = getDecorationBlockState(world, random, Blocks.TALLGRASS);
 	}				
 		// set the block state
+		ColumnProfiles.invalidate(world, coords.toPos());
 		world.setBlockState(coords.toPos(), blockState, 3);
 //		Treasure.logger.debug("Generating blockstate: {}", blockState);
 	}
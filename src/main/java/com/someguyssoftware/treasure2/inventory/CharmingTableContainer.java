@@ -33,6 +33,7 @@ import com.someguyssoftware.treasure2.block.TreasureBlocks;
 import com.someguyssoftware.treasure2.capability.ICharmableCapability;
 import com.someguyssoftware.treasure2.capability.IRunestonesCapability;
 import com.someguyssoftware.treasure2.capability.InventoryType;
+import com.someguyssoftware.treasure2.capability.RecipeResultCache;
 import com.someguyssoftware.treasure2.capability.TreasureCapabilities;
 import com.someguyssoftware.treasure2.charm.ICharmEntity;
 import com.someguyssoftware.treasure2.charm.TreasureCharms;
@@ -82,6 +83,14 @@ import net.minecraft.world.World;
  * @return
  */
 public class CharmingTableContainer extends Container {
+	// the recipe names of the memoised outputs
+	private static final String SOCKET_CHARM_RECIPE = "charming_table:socket_charm";
+	private static final String IMBUE_CHARM_RECIPE = "charming_table:imbue_charm";
+	private static final String SOCKET_RUNESTONE_RECIPE = "charming_table:socket_runestone";
+	private static final String RECHARGE_CHARM_RECIPE = "charming_table:recharge_charm";
+	private static final String RECHARGE_SOCKET_CHARM_RECIPE = "charming_table:recharge_socket_charm";
+	private static final String REMOVE_SOCKET_CHARM_RECIPE = "charming_table:remove_socket_charm";
+	private static final String REMOVE_RUNESTONE_RECIPE = "charming_table:remove_runestone";
 
 	// TODO redo this into several inventories for each type of input/output
 
@@ -461,7 +470,7 @@ public class CharmingTableContainer extends Container {
 	}
 
 	/**
-	 * Main method
+	 * Main method. The outputs are memoised by the RecipeResultCache, so unchanged inputs don't rebuild them.
 	 */
 	public void updateOutput() {
 		this.maximumCost = 0;
@@ -485,6 +494,7 @@ public class CharmingTableContainer extends Container {
 			 * setup
 			 */
 			this.maximumCost = 1;
+			RecipeResultCache cache = RecipeResultCache.getInstance();
 
 			// get the inputs
 			ItemStack itemStack2 = this.inputSlots.getStackInSlot(1);
@@ -565,14 +575,20 @@ public class CharmingTableContainer extends Container {
 				// check that there is room to add charms
 				if (cap.getCharmEntities().get(InventoryType.SOCKET).size() < cap.getMaxSocketSize()) {
 					// build the output item, add the charm to the adornment
-					Optional<ItemStack> outStack = TreasureAdornmentRegistry.transferCapabilities(itemStack2, itemStack, InventoryType.INNATE, InventoryType.SOCKET);
-					if (outStack.isPresent()) {
+					ItemStack outputStack = cache.get(SOCKET_CHARM_RECIPE, () -> {
+						Optional<ItemStack> outStack = TreasureAdornmentRegistry.transferCapabilities(itemStack2, itemStack, InventoryType.INNATE, InventoryType.SOCKET);
+						if (!outStack.isPresent()) {
+							return ItemStack.EMPTY;
+						}
 						if (outStack.get().hasCapability(RUNESTONES, null)) {
 							outStack.get().getCapability(RUNESTONES, null).getEntities(InventoryType.SOCKET).forEach(entity -> {
 								entity.getRunestone().apply(outStack.get(), entity);
 							});
 						}
-						this.outputSlot.setInventorySlotContents(0, outStack.get());    					
+						return outStack.get();
+					}, itemStack, itemStack2);
+					if (!outputStack.isEmpty()) {
+						this.outputSlot.setInventorySlotContents(0, outputStack);
 					}
 				}            
 			}
@@ -591,14 +607,20 @@ public class CharmingTableContainer extends Container {
 				// check that there is room to add charms
 				if (cap.getCharmEntities().get(InventoryType.IMBUE).size() < cap.getMaxImbueSize()) {
 					// build the output item, add the charm book to the adornment
-					Optional<ItemStack> outStack = TreasureAdornmentRegistry.transferCapabilities(itemStack2, itemStack, InventoryType.INNATE, InventoryType.IMBUE);
-					if (outStack.isPresent()) {
+					ItemStack outputStack = cache.get(IMBUE_CHARM_RECIPE, () -> {
+						Optional<ItemStack> outStack = TreasureAdornmentRegistry.transferCapabilities(itemStack2, itemStack, InventoryType.INNATE, InventoryType.IMBUE);
+						if (!outStack.isPresent()) {
+							return ItemStack.EMPTY;
+						}
 						if (outStack.get().hasCapability(RUNESTONES, null)) {
 							outStack.get().getCapability(RUNESTONES, null).getEntities(InventoryType.SOCKET).forEach(entity -> {
 								entity.getRunestone().apply(outStack.get(), entity);
 							});
 						}
-						this.outputSlot.setInventorySlotContents(0, outStack.get());    					
+						return outStack.get();
+					}, itemStack, itemStack2);
+					if (!outputStack.isEmpty()) {
+						this.outputSlot.setInventorySlotContents(0, outputStack);
 					}
 				}  
 			}
@@ -613,8 +635,11 @@ public class CharmingTableContainer extends Container {
 				IRunestonesCapability cap = itemStack.getCapability(RUNESTONES, null);
 				// check that there is room to add charms
 				if (cap.getEntities(InventoryType.SOCKET).size() < cap.getMaxSize(InventoryType.SOCKET)) {
-					Optional<ItemStack> stack = TreasureAdornmentRegistry.transferCapabilities(itemStack2, itemStack, InventoryType.INNATE, InventoryType.SOCKET);
-					if (stack.isPresent()) {
+					ItemStack outputStack = cache.get(SOCKET_RUNESTONE_RECIPE, () -> {
+						Optional<ItemStack> stack = TreasureAdornmentRegistry.transferCapabilities(itemStack2, itemStack, InventoryType.INNATE, InventoryType.SOCKET);
+						if (!stack.isPresent()) {
+							return ItemStack.EMPTY;
+						}
 						AtomicBoolean isStackValid = new AtomicBoolean(true);
 						stack.get().getCapability(RUNESTONES, null).getEntities(InventoryType.SOCKET).forEach(entity -> {
 							if (!entity.getRunestone().isValid(stack.get())) {
@@ -623,9 +648,10 @@ public class CharmingTableContainer extends Container {
 							}
 							entity.getRunestone().apply(stack.get(), entity);
 						});
-						if (isStackValid.get()) {
-							this.outputSlot.setInventorySlotContents(0, stack.get());
-						}
+						return isStackValid.get() ? stack.get() : ItemStack.EMPTY;
+					}, itemStack, itemStack2);
+					if (!outputStack.isEmpty()) {
+						this.outputSlot.setInventorySlotContents(0, outputStack);
 					}
 				}
 			}
@@ -637,16 +663,22 @@ public class CharmingTableContainer extends Container {
 			else if (itemStack.hasCapability(CHARMABLE, null) 
 					&& itemStack.getCapability(CHARMABLE, null).isBindable()
 					&& TreasureCharmableMaterials.isSourceItemRegistered(itemStack2.getItem().getRegistryName())) {
-				// make a copy of CharmItem
-				ItemStack stack = TreasureCharms.copyStack(itemStack, itemStack);
-				ICharmableCapability cap = stack.getCapability(CHARMABLE, null);
-				// get the charm
-				ICharmEntity entity = ((List<ICharmEntity>) cap.getCharmEntities().get(InventoryType.INNATE)).get(0);
-				if (entity.getRecharges() > 0 && entity.getMana() < entity.getMaxMana()) {
-					entity.setRecharges(entity.getRecharges() - 1);
-					entity.setMana(entity.getMaxMana());
-					// TODO apply runes
-					this.outputSlot.setInventorySlotContents(0, stack);
+				ItemStack outputStack = cache.get(RECHARGE_CHARM_RECIPE, () -> {
+					// make a copy of CharmItem
+					ItemStack stack = TreasureCharms.copyStack(itemStack, itemStack);
+					ICharmableCapability cap = stack.getCapability(CHARMABLE, null);
+					// get the charm
+					ICharmEntity entity = ((List<ICharmEntity>) cap.getCharmEntities().get(InventoryType.INNATE)).get(0);
+					if (entity.getRecharges() > 0 && entity.getMana() < entity.getMaxMana()) {
+						entity.setRecharges(entity.getRecharges() - 1);
+						entity.setMana(entity.getMaxMana());
+						// TODO apply runes
+						return stack;
+					}
+					return ItemStack.EMPTY;
+				}, itemStack, itemStack2);
+				if (!outputStack.isEmpty()) {
+					this.outputSlot.setInventorySlotContents(0, outputStack);
 				}
 			}
 			/*
@@ -660,55 +692,73 @@ public class CharmingTableContainer extends Container {
 							&& !this.charmInputSlots2.getStackInSlot(i).isEmpty()
 							&& TreasureCharmableMaterials.isSourceItemRegistered(this.charmInputSlots2.getStackInSlot(i).getItem().getRegistryName())) {
 
-						// make a copy of the adornment stack
-						ItemStack stack = TreasureAdornmentRegistry.copyStack(itemStack, itemStack);
-						ICharmableCapability cap = stack.getCapability(CHARMABLE, null);
-						
-						// get the charm
-						ICharmEntity entity = ((List<ICharmEntity>) cap.getCharmEntities().get(InventoryType.SOCKET)).get(i);
-						if (entity.getRecharges() > 0 && entity.getMana() < entity.getMaxMana()) {
-							entity.setRecharges(entity.getRecharges() - 1);
-							entity.setMana(entity.getMaxMana());
-							// TODO apply runes
-							this.charmOutputSlots[i].setInventorySlotContents(0, stack);
-						}						
+						int index = i;
+						ItemStack outputStack = cache.get(RECHARGE_SOCKET_CHARM_RECIPE, index, () -> {
+							// make a copy of the adornment stack
+							ItemStack stack = TreasureAdornmentRegistry.copyStack(itemStack, itemStack);
+							ICharmableCapability cap = stack.getCapability(CHARMABLE, null);
+
+							// get the charm
+							ICharmEntity entity = ((List<ICharmEntity>) cap.getCharmEntities().get(InventoryType.SOCKET)).get(index);
+							if (entity.getRecharges() > 0 && entity.getMana() < entity.getMaxMana()) {
+								entity.setRecharges(entity.getRecharges() - 1);
+								entity.setMana(entity.getMaxMana());
+								// TODO apply runes
+								return stack;
+							}
+							return ItemStack.EMPTY;
+						}, itemStack, this.charmInputSlots2.getStackInSlot(i));
+						if (!outputStack.isEmpty()) {
+							this.charmOutputSlots[i].setInventorySlotContents(0, outputStack);
+						}
 					}
 					else if (!this.charmInputSlots1.getStackInSlot(i).isEmpty()
 							&& !this.charmInputSlots2.getStackInSlot(i).isEmpty()
 							&& this.charmInputSlots2.getStackInSlot(i).getItem() == TreasureItems.TREASURE_TOOL) {
 
-						// make a copy of the adornment stack
-						ItemStack stack = itemStack.copy();
-						ItemStack newStack = TreasureAdornmentRegistry.copyStack(itemStack, stack);
-						ICharmableCapability cap = newStack.getCapability(CHARMABLE, null);
-						// remove the charm
-						cap.remove(InventoryType.SOCKET, i);
-						// apply any runes
-						if (newStack.hasCapability(RUNESTONES, null)) {
-							newStack.getCapability(RUNESTONES, null).getEntities(InventoryType.SOCKET).forEach(entity -> {
-								entity.getRunestone().apply(newStack, entity);
-							});
-						}
-						this.charmOutputSlots[i].setInventorySlotContents(0, newStack);
+						int index = i;
+						ItemStack outputStack = cache.get(REMOVE_SOCKET_CHARM_RECIPE, index, () -> {
+							// make a copy of the adornment stack
+							ItemStack stack = itemStack.copy();
+							ItemStack newStack = TreasureAdornmentRegistry.copyStack(itemStack, stack);
+							ICharmableCapability cap = newStack.getCapability(CHARMABLE, null);
+							// remove the charm
+							cap.remove(InventoryType.SOCKET, index);
+							// apply any runes
+							if (newStack.hasCapability(RUNESTONES, null)) {
+								newStack.getCapability(RUNESTONES, null).getEntities(InventoryType.SOCKET).forEach(entity -> {
+									entity.getRunestone().apply(newStack, entity);
+								});
+							}
+							return newStack;
+						}, itemStack);
+						this.charmOutputSlots[i].setInventorySlotContents(0, outputStack);
 					}
 				}
 			}
 			// remove runestone check
 			else if (runeStack != ItemStack.EMPTY && (runeStack2.getItem() == TreasureItems.TREASURE_TOOL)) {
-				// make a copy of the adornment stack
-				ItemStack stack = itemStack.copy();
-				stack = TreasureAdornmentRegistry.copyStack(itemStack, stack);
-				IRunestonesCapability cap = stack.getCapability(RUNESTONES, null);
-				if (cap != null) {
-					// get the rune entity
-					IRuneEntity entity = runeStack.getCapability(RUNESTONES, null).getEntities(InventoryType.INNATE).get(0);
-					// remove the entity from adornment
-					if (cap.remove(InventoryType.SOCKET, entity)) {
-						// undo the effects
-						entity.getRunestone().undo(stack, entity);
+				/*
+				 * NOTE the rune input stack is rebuilt from the adornment on every update (new capabilities, new version),
+				 * so it is keyed by its item instead of being fingerprinted.
+				 */
+				ItemStack outputStack = cache.get(REMOVE_RUNESTONE_RECIPE, Item.getIdFromItem(runeStack.getItem()), () -> {
+					// make a copy of the adornment stack
+					ItemStack stack = itemStack.copy();
+					stack = TreasureAdornmentRegistry.copyStack(itemStack, stack);
+					IRunestonesCapability cap = stack.getCapability(RUNESTONES, null);
+					if (cap != null) {
+						// get the rune entity
+						IRuneEntity entity = runeStack.getCapability(RUNESTONES, null).getEntities(InventoryType.INNATE).get(0);
+						// remove the entity from adornment
+						if (cap.remove(InventoryType.SOCKET, entity)) {
+							// undo the effects
+							entity.getRunestone().undo(stack, entity);
+						}
 					}
-				}				
-				this.runeOutputSlot.setInventorySlotContents(0, stack);
+					return stack;
+				}, itemStack);
+				this.runeOutputSlot.setInventorySlotContents(0, outputStack);
 			}
 		}
 	}
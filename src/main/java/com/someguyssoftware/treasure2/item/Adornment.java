@@ -177,22 +177,11 @@ public class Adornment extends ModItem {
 	@Override
     public NBTTagCompound getNBTShareTag(ItemStack stack) {
 //		Treasure.logger.debug("writing share tag");
-		// read cap -> write nbt
-		NBTTagCompound charmableTag;
-		charmableTag = (NBTTagCompound) CAPABILITY_STORAGE.writeNBT(
-				TreasureCapabilities.CHARMABLE,
-				stack.getCapability(TreasureCapabilities.CHARMABLE, null),
-				null);
-		NBTTagCompound runestonesTag;
-		runestonesTag = (NBTTagCompound) RUNESTONES_STORAGE.writeNBT(
-				TreasureCapabilities.RUNESTONES,
-				stack.getCapability(TreasureCapabilities.RUNESTONES, null),
-				null);		
-		NBTTagCompound durabilityTag = (NBTTagCompound) DURABILITY_STORAGE.writeNBT(
-				TreasureCapabilities.DURABILITY,
-				stack.getCapability(TreasureCapabilities.DURABILITY, null),
-				null);
-		
+		// read cap -> write nbt (each cap snapshot is only rebuilt if the cap changed)
+		NBTTagCompound charmableTag = stack.getCapability(TreasureCapabilities.CHARMABLE, null).getSnapshot();
+		NBTTagCompound runestonesTag = stack.getCapability(TreasureCapabilities.RUNESTONES, null).getSnapshot();
+		NBTTagCompound durabilityTag = stack.getCapability(TreasureCapabilities.DURABILITY, null).getSnapshot();
+
 		NBTTagCompound tag = new NBTTagCompound();
 		tag.setTag("charmable", charmableTag);
 		tag.setTag("runestones", runestonesTag);
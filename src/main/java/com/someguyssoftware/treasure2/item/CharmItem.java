@@ -111,13 +111,7 @@ public class CharmItem extends ModItem {
 	 */
 	@Override
     public NBTTagCompound getNBTShareTag(ItemStack stack) {
-		NBTTagCompound charmableTag;
-		charmableTag = (NBTTagCompound) CAPABILITY_STORAGE.writeNBT(
-				TreasureCapabilities.CHARMABLE,
-				stack.getCapability(TreasureCapabilities.CHARMABLE, null),
-				null);
-		
-		return charmableTag;
+		return stack.getCapability(TreasureCapabilities.CHARMABLE, null).getSnapshot();
     }
 
     @Override
@@ -25,6 +25,7 @@ import com.someguyssoftware.treasure2.enums.Category;
 import com.someguyssoftware.treasure2.enums.Rarity;
 import com.someguyssoftware.treasure2.lock.LockState;
 import com.someguyssoftware.treasure2.tileentity.AbstractTreasureChestTileEntity;
+import com.someguyssoftware.treasure2.tileentity.ITreasureChestTileEntity;
 
 import net.minecraft.block.Block;
 import net.minecraft.client.util.ITooltipFlag;
@@ -122,12 +123,8 @@ public class KeyItem extends ModItem implements IKeyEffects {
 	 */
 	@Override
     public NBTTagCompound getNBTShareTag(ItemStack stack) {
-		NBTTagCompound nbt = null;
-		// read effective max damage cap -> write nbt
-		nbt = (NBTTagCompound) CAPABILITY_STORAGE.writeNBT(
-				TreasureCapabilities.DURABILITY, 
-				stack.getCapability(TreasureCapabilities.DURABILITY, null), null);
-		return nbt;
+		// read effective max damage cap -> write nbt (only rebuilt if the durability changed)
+		return stack.getCapability(TreasureCapabilities.DURABILITY, null).getSnapshot();
 	}
 	
     @Override
@@ -285,7 +282,7 @@ public class KeyItem extends ModItem implements IKeyEffects {
 						lockState.setLock(null);
 						
 						// update the client
-                        chestTileEntity.sendUpdates();
+                        chestTileEntity.sendUpdates(ITreasureChestTileEntity.SYNC_LOCK_STATES);
                         if(!breaksLock(lock)) {
                             // spawn the lock
                             if (TreasureConfig.KEYS_LOCKS.enableLockDrops) {
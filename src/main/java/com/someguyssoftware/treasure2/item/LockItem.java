@@ -17,6 +17,7 @@ import com.someguyssoftware.treasure2.enums.Category;
 import com.someguyssoftware.treasure2.enums.Rarity;
 import com.someguyssoftware.treasure2.lock.LockState;
 import com.someguyssoftware.treasure2.tileentity.AbstractTreasureChestTileEntity;
+import com.someguyssoftware.treasure2.tileentity.ITreasureChestTileEntity;
 
 import net.minecraft.block.Block;
 import net.minecraft.client.util.ITooltipFlag;
@@ -163,7 +164,7 @@ public class LockItem extends ModItem {
 		for (LockState lockState : tileEntity.getLockStates()) {
 			if (lockState != null && lockState.getLock() == null) {
 				lockState.setLock(lock);
-				tileEntity.sendUpdates();
+				tileEntity.sendUpdates(ITreasureChestTileEntity.SYNC_LOCK_STATES);
 				// decrement item in hand
 				heldItem.shrink(1);
 				lockedAdded = true;
@@ -27,7 +27,6 @@ import java.util.Optional;
 import java.util.Random;
 import java.util.UUID;
 
-import com.someguyssoftware.gottschcore.cube.Cube;
 import com.someguyssoftware.gottschcore.item.ModItem;
 import com.someguyssoftware.gottschcore.loot.LootPoolShell;
 import com.someguyssoftware.gottschcore.loot.LootTableShell;
@@ -36,17 +35,18 @@ import com.someguyssoftware.gottschcore.positional.ICoords;
 import com.someguyssoftware.gottschcore.random.RandomHelper;
 import com.someguyssoftware.gottschcore.world.WorldInfo;
 import com.someguyssoftware.treasure2.Treasure;
-import com.someguyssoftware.treasure2.block.IWishingWellBlock;
 import com.someguyssoftware.treasure2.enums.Pearls;
 import com.someguyssoftware.treasure2.enums.Rarity;
+import com.someguyssoftware.treasure2.generator.GenerationRandom;
+import com.someguyssoftware.treasure2.generator.GenerationRandom.Stream;
 import com.someguyssoftware.treasure2.item.wish.IWishable;
 import com.someguyssoftware.treasure2.loot.TreasureLootTableMaster2.SpecialLootTables;
 import com.someguyssoftware.treasure2.loot.TreasureLootTableRegistry;
+import com.someguyssoftware.treasure2.wish.WishingWellRegistry;
 
 import net.minecraft.client.util.ITooltipFlag;
 import net.minecraft.entity.item.EntityItem;
 import net.minecraft.entity.player.EntityPlayer;
-import net.minecraft.init.Blocks;
 import net.minecraft.init.Items;
 import net.minecraft.inventory.InventoryHelper;
 import net.minecraft.item.ItemStack;
@@ -111,34 +111,21 @@ public class PearlItem extends ModItem implements IWishable {
 			return super.onEntityItemUpdate(entityItem);
 		}
 		
+		// check when the item enters water, and then periodically while it stays in the water
+		if (!WishingWellRegistry.isCheckDue(entityItem)) {
+			return super.onEntityItemUpdate(entityItem);
+		}
+
 		// get the position
 		ICoords coords = new Coords(entityItem.getPosition());
-		Cube cube = new Cube(world, coords);
-		int numWishingWellBlocks = 0;
-		// check if in water
-		if (cube.equalsBlock(Blocks.WATER)) {
-			// check if the water block is adjacent to 2 wishing well blocks
-			ICoords checkCoords = coords.add(-1, 0, -1);
-			for (int z = 0; z < 3; z++) {
-				for (int x = 0; x < 3; x++) {
-					Cube checkCube = new Cube(world, checkCoords);
-					if (checkCube.toBlock() instanceof IWishingWellBlock) {
-						numWishingWellBlocks++;
-					}					
-					if (numWishingWellBlocks >= 2) {
-						break;
-					}
-				}
-			}
-
-			if (numWishingWellBlocks >=2) {
-				Random random = new Random();
-				for (int itemIndex = 0; itemIndex < entityItemStack.getCount(); itemIndex++) {
-					// generate an item for each item in the stack
-					generateLootItem(world, random, entityItem, coords);
-				}
-				return true;
+		// check if the water block is adjacent to 2 wishing well blocks
+		if (WishingWellRegistry.getInstance().isWishingWell(world, coords.toPos())) {
+			Random random = GenerationRandom.forPos(world, Stream.WISHING_WELL, coords.toPos(), world.getTotalWorldTime());
+			for (int itemIndex = 0; itemIndex < entityItemStack.getCount(); itemIndex++) {
+				// generate an item for each item in the stack
+				generateLootItem(world, random, entityItem, coords);
 			}
+			return true;
 		}
 		
 		return super.onEntityItemUpdate(entityItem);
@@ -235,7 +222,7 @@ public class PearlItem extends ModItem implements IWishable {
 		}
 			
 			// select one item randomly
-			stack = itemStacks.get(RandomHelper.randomInt(0, itemStacks.size()-1));
+			stack = itemStacks.get(RandomHelper.randomInt(random, 0, itemStacks.size()-1));
 
 		}				
 		
@@ -123,13 +123,7 @@ public class RunestoneItem extends ModItem {
 	@Override
     public NBTTagCompound getNBTShareTag(ItemStack stack) {
 //		Treasure.logger.debug("writing share tag");
-		NBTTagCompound tag;
-		tag = (NBTTagCompound) CAPABILITY_STORAGE.writeNBT(
-				TreasureCapabilities.RUNESTONES,
-				stack.getCapability(TreasureCapabilities.RUNESTONES, null),
-				null);
-		
-		return tag;
+		return stack.getCapability(TreasureCapabilities.RUNESTONES, null).getSnapshot();
     }
 
     @Override
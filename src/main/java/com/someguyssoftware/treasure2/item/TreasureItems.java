@@ -559,11 +559,7 @@ public class TreasureItems {
 			SILVER_COIN = new WealthItem(Treasure.MODID, TreasureConfig.SILVER_COIN_ID) {
 				@Override
 				public List<LootTableShell> getLootTables() {
-					Treasure.LOGGER.debug("getting silver loot tables");
-					List<LootTableShell> lootTables = new ArrayList<>();
-					lootTables.addAll(TreasureLootTableRegistry.getLootTableMaster().getLootTableByRarity(Rarity.UNCOMMON));
-					lootTables.addAll(TreasureLootTableRegistry.getLootTableMaster().getLootTableByRarity(Rarity.SCARCE));
-					return lootTables;
+					return TreasureLootTableRegistry.getLootTableMaster().getLootTableByRarity(Rarity.UNCOMMON, Rarity.SCARCE);
 				}
 				@Override
 				public ItemStack getDefaultLootKey (Random random) {
@@ -574,10 +570,7 @@ public class TreasureItems {
 			GOLD_COIN = new WealthItem(Treasure.MODID, TreasureConfig.GOLD_COIN_ID) {
 				@Override
 				public List<LootTableShell> getLootTables() {
-					List<LootTableShell> lootTables = new ArrayList<>();
-					lootTables.addAll(/*TreasureLootTableRegistry.getLootTableMaster()*/TreasureLootTableRegistry.getLootTableMaster().getLootTableByRarity(Rarity.SCARCE));
-					lootTables.addAll(/*TreasureLootTableRegistry.getLootTableMaster()*/TreasureLootTableRegistry.getLootTableMaster().getLootTableByRarity(Rarity.RARE));
-					return lootTables;
+					return TreasureLootTableRegistry.getLootTableMaster().getLootTableByRarity(Rarity.SCARCE, Rarity.RARE);
 				}
 				@Override
 				public ItemStack getDefaultLootKey (Random random) {
@@ -0,0 +1,186 @@
+/*
+ * This file is part of  Treasure2.
+ * Copyright (c) 2021, Mark Gottschling (gottsch)
+ * 
+ * All rights reserved.
+ * 
+ * Treasure2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * Treasure2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Treasure2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package com.someguyssoftware.treasure2.locate;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import com.someguyssoftware.gottschcore.positional.ICoords;
+import com.someguyssoftware.treasure2.enums.Rarity;
+import com.someguyssoftware.treasure2.enums.WorldGeneratorType;
+
+import net.minecraft.util.math.AxisAlignedBB;
+
+/**
+ * A query of the TreasureLocator: the nearest N sites to the origin, optionally of some generator types and rarities,
+ * optionally within a bounding box (only x and z are used). The setters return the query, so they can be chained.
+ * ex. new LocateQuery(coords).setRarities(EnumSet.of(Rarity.EPIC)).setLimit(3)
+ */
+public class LocateQuery {
+	public static final int DEFAULT_LIMIT = 1;
+	public static final int DEFAULT_MAX_RADIUS = 8192;
+	public static final long DEFAULT_TIME_BUDGET = TimeUnit.MILLISECONDS.toNanos(50);
+
+	private final ICoords origin;
+	private Set<WorldGeneratorType> generatorTypes = EnumSet.noneOf(WorldGeneratorType.class);
+	private Set<Rarity> rarities = EnumSet.noneOf(Rarity.class);
+	private AxisAlignedBB bounds;
+	private int limit = DEFAULT_LIMIT;
+	private int maxRadius = DEFAULT_MAX_RADIUS;
+	private boolean includePredicted = true;
+	private long timeBudget = DEFAULT_TIME_BUDGET;
+
+	/**
+	 * 
+	 * @param origin
+	 */
+	public LocateQuery(ICoords origin) {
+		this.origin = origin;
+	}
+
+	/**
+	 * 
+	 * @param type
+	 * @param rarity
+	 * @return true if a site of the type and rarity matches the query
+	 */
+	public boolean matches(WorldGeneratorType type, Rarity rarity) {
+		return (generatorTypes.isEmpty() || generatorTypes.contains(type))
+				&& (rarities.isEmpty() || rarities.contains(rarity));
+	}
+
+	/**
+	 * 
+	 * @param coords
+	 * @return true if the coords are within the bounds (if any) and the max. radius of the origin
+	 */
+	public boolean isWithin(ICoords coords) {
+		if (bounds != null && (coords.getX() < bounds.minX || coords.getX() > bounds.maxX
+				|| coords.getZ() < bounds.minZ || coords.getZ() > bounds.maxZ)) {
+			return false;
+		}
+		double x = (double) coords.getX() - origin.getX();
+		double z = (double) coords.getZ() - origin.getZ();
+		return x * x + z * z <= (double) maxRadius * maxRadius;
+	}
+
+	public ICoords getOrigin() {
+		return origin;
+	}
+
+	public Set<WorldGeneratorType> getGeneratorTypes() {
+		return generatorTypes;
+	}
+
+	/**
+	 * 
+	 * @param generatorTypes the types to locate, or empty for all types
+	 * @return
+	 */
+	public LocateQuery setGeneratorTypes(Set<WorldGeneratorType> generatorTypes) {
+		this.generatorTypes = generatorTypes.isEmpty() ? EnumSet.noneOf(WorldGeneratorType.class) : EnumSet.copyOf(generatorTypes);
+		return this;
+	}
+
+	public Set<Rarity> getRarities() {
+		return rarities;
+	}
+
+	/**
+	 * 
+	 * @param rarities the rarities to locate, or empty for all rarities. NOTE sites without a rarity (ex. wells) only match all rarities.
+	 * @return
+	 */
+	public LocateQuery setRarities(Set<Rarity> rarities) {
+		this.rarities = rarities.isEmpty() ? EnumSet.noneOf(Rarity.class) : EnumSet.copyOf(rarities);
+		return this;
+	}
+
+	public AxisAlignedBB getBounds() {
+		return bounds;
+	}
+
+	/**
+	 * 
+	 * @param bounds the box to locate within, or null
+	 * @return
+	 */
+	public LocateQuery setBounds(AxisAlignedBB bounds) {
+		this.bounds = bounds;
+		return this;
+	}
+
+	public int getLimit() {
+		return limit;
+	}
+
+	/**
+	 * 
+	 * @param limit the max. number of sites to locate
+	 * @return
+	 */
+	public LocateQuery setLimit(int limit) {
+		this.limit = Math.max(1, limit);
+		return this;
+	}
+
+	public int getMaxRadius() {
+		return maxRadius;
+	}
+
+	/**
+	 * 
+	 * @param maxRadius the max. distance, in blocks, of a site from the origin
+	 * @return
+	 */
+	public LocateQuery setMaxRadius(int maxRadius) {
+		this.maxRadius = Math.max(0, maxRadius);
+		return this;
+	}
+
+	public boolean isIncludePredicted() {
+		return includePredicted;
+	}
+
+	/**
+	 * 
+	 * @param includePredicted true to include the sites predicted by the placement grid (when it is enabled)
+	 * @return
+	 */
+	public LocateQuery setIncludePredicted(boolean includePredicted) {
+		this.includePredicted = includePredicted;
+		return this;
+	}
+
+	public long getTimeBudget() {
+		return timeBudget;
+	}
+
+	/**
+	 * 
+	 * @param timeBudget the max. time, in nanoseconds, to spend on the query. the sites found so far are returned when it runs out.
+	 * @return
+	 */
+	public LocateQuery setTimeBudget(long timeBudget) {
+		this.timeBudget = Math.max(0, timeBudget);
+		return this;
+	}
+}
@@ -0,0 +1,56 @@
+/*
+ * This file is part of  Treasure2.
+ * Copyright (c) 2021, Mark Gottschling (gottsch)
+ * 
+ * All rights reserved.
+ * 
+ * Treasure2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * Treasure2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Treasure2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package com.someguyssoftware.treasure2.locate;
+
+import java.util.List;
+
+/**
+ * The result of a LocateQuery: the sites found, nearest first.
+ */
+public class LocateResult {
+	private final List<TreasureSite> sites;
+	private final boolean complete;
+
+	/**
+	 * 
+	 * @param sites
+	 * @param complete
+	 */
+	public LocateResult(List<TreasureSite> sites, boolean complete) {
+		this.sites = sites;
+		this.complete = complete;
+	}
+
+	/**
+	 * 
+	 * @return the sites, nearest first
+	 */
+	public List<TreasureSite> getSites() {
+		return sites;
+	}
+
+	/**
+	 * 
+	 * @return false if the time budget ran out before the search was complete - there may be nearer sites than the ones found
+	 */
+	public boolean isComplete() {
+		return complete;
+	}
+}
@@ -0,0 +1,188 @@
+/*
+ * This file is part of  Treasure2.
+ * Copyright (c) 2021, Mark Gottschling (gottsch)
+ * 
+ * All rights reserved.
+ * 
+ * Treasure2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * Treasure2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Treasure2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package com.someguyssoftware.treasure2.locate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Optional;
+
+import com.someguyssoftware.gottschcore.positional.Coords;
+import com.someguyssoftware.gottschcore.positional.ICoords;
+import com.someguyssoftware.treasure2.Treasure;
+import com.someguyssoftware.treasure2.chest.ChestInfo;
+import com.someguyssoftware.treasure2.config.TreasureConfig;
+import com.someguyssoftware.treasure2.enums.WorldGeneratorType;
+import com.someguyssoftware.treasure2.generator.PlacementGrid;
+import com.someguyssoftware.treasure2.registry.ChestRegistry;
+import com.someguyssoftware.treasure2.worldgen.ITreasureWorldGenerator;
+
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.IChunkProvider;
+
+/**
+ * Locates the treasure sites of a world: the registered (generated) sites from the ChestRegistry, and, when the placement grid
+ * is enabled, the sites predicted in the chunks that are not generated yet.
+ * Both searches expand outwards from the origin and stop once nothing nearer can be found, so the cost depends on the distance
+ * to the sites and not on the number of registered sites. The query's time budget is a hard stop - if it runs out, the sites found
+ * so far are returned and the result is flagged as incomplete.
+ * NOTE must be called from the server thread.
+ */
+public class TreasureLocator {
+	private static TreasureLocator instance = new TreasureLocator();
+
+	/**
+	 * 
+	 */
+	private TreasureLocator() {}
+
+	/**
+	 * 
+	 * @return
+	 */
+	public static TreasureLocator getInstance() {
+		return instance;
+	}
+
+	/**
+	 * 
+	 * @param world
+	 * @param query
+	 * @return the nearest sites that match the query, nearest first
+	 */
+	public LocateResult locate(World world, LocateQuery query) {
+		long startTime = System.nanoTime();
+		long deadline = startTime + query.getTimeBudget();
+		int dimensionID = world.provider.getDimension();
+		List<TreasureSite> sites = new ArrayList<>();
+
+		// the registered sites
+		List<ChestInfo> chests = new ArrayList<>();
+		boolean complete = ChestRegistry.getInstance().findNearest(dimensionID, query.getOrigin(), query.getLimit(), query.getMaxRadius(),
+				info -> query.matches(info.getGeneratorType(), info.getRarity()) && query.isWithin(info.getCoords()), deadline, chests);
+		for (ChestInfo info : chests) {
+			sites.add(new TreasureSite(info.getGeneratorType(), info.getRarity(), info.getCoords(), info.getDimensionID(), false));
+		}
+
+		// the predicted sites
+		if (query.isIncludePredicted() && TreasureConfig.WORLD_GEN.getGeneralProperties().enablePlacementGrid
+				&& TreasureConfig.WORLD_GEN.getGeneralProperties().isDimensionAllowed(dimensionID)) {
+			for (Entry<WorldGeneratorType, ITreasureWorldGenerator> entry : Treasure.WORLD_GENERATORS.entrySet()) {
+				if (!query.getGeneratorTypes().isEmpty() && !query.getGeneratorTypes().contains(entry.getKey())) {
+					continue;
+				}
+				PlacementGrid grid = entry.getValue().getPlacementGrid();
+				if (grid != null) {
+					complete &= predict(world, query, entry.getValue(), grid, deadline, sites);
+				}
+			}
+		}
+
+		Comparator<TreasureSite> byDistance = Comparator.comparingDouble(site -> site.getDistanceSq(query.getOrigin()));
+		sites.sort(byDistance);
+		if (sites.size() > query.getLimit()) {
+			sites = new ArrayList<>(sites.subList(0, query.getLimit()));
+		}
+		Treasure.LOGGER.debug("located {} sites @ {} in {} ms (complete: {})", sites.size(), query.getOrigin().toShortString(),
+				(System.nanoTime() - startTime) / 1000000.0, complete);
+		return new LocateResult(sites, complete);
+	}
+
+	/**
+	 * Predicts the sites of the generator in rings of grid cells around the origin. A cell has a single candidate chunk, so once the limit
+	 * is reached, the search stops at the first ring that is further away than the limit-th site.
+	 * @param world
+	 * @param query
+	 * @param generator
+	 * @param grid
+	 * @param deadline
+	 * @param sites
+	 * @return true if the search completed, false if the deadline was reached first
+	 */
+	private boolean predict(World world, LocateQuery query, ITreasureWorldGenerator generator, PlacementGrid grid, long deadline, List<TreasureSite> sites) {
+		ICoords origin = query.getOrigin();
+		int originX = grid.getCell(origin.getX() >> 4);
+		int originZ = grid.getCell(origin.getZ() >> 4);
+		int cellSize = grid.getSpacing() * 16;
+		int maxRing = query.getMaxRadius() / cellSize + 1;
+		List<TreasureSite> predicted = new ArrayList<>();
+		Comparator<TreasureSite> byDistance = Comparator.comparingDouble(site -> site.getDistanceSq(origin));
+
+		for (int ring = 0; ring <= maxRing; ring++) {
+			// a candidate of an unvisited cell is at least (ring - 1) cells away
+			if (predicted.size() >= query.getLimit()) {
+				predicted.sort(byDistance);
+				double bound = (double)(ring - 1) * cellSize;
+				if (predicted.get(query.getLimit() - 1).getDistanceSq(origin) <= bound * bound) {
+					break;
+				}
+			}
+			for (int cellX = originX - ring; cellX <= originX + ring; cellX++) {
+				// only the edge of the ring
+				int step = (cellX == originX - ring || cellX == originX + ring) ? 1 : Math.max(1, 2 * ring);
+				for (int cellZ = originZ - ring; cellZ <= originZ + ring; cellZ += step) {
+					if (System.nanoTime() > deadline) {
+						sites.addAll(predicted);
+						return false;
+					}
+					predictCell(world, query, generator, grid.getCandidate(world.getSeed(), cellX, cellZ), predicted);
+				}
+			}
+		}
+		sites.addAll(predicted);
+		return true;
+	}
+
+	/**
+	 * 
+	 * @param world
+	 * @param query
+	 * @param generator
+	 * @param candidate
+	 * @param predicted
+	 */
+	private void predictCell(World world, LocateQuery query, ITreasureWorldGenerator generator, ChunkPos candidate, List<TreasureSite> predicted) {
+		// cheap checks first - the prediction looks up the biome, and the candidates of the neighbouring cells
+		ICoords coords = new Coords((candidate.x << 4) + 8, 0, (candidate.z << 4) + 8);
+		if (!query.isWithin(coords) || isGenerated(world, candidate.x, candidate.z)) {
+			return;
+		}
+		Optional<TreasureSite> site = generator.predictSite(world, candidate.x, candidate.z);
+		if (site.isPresent() && query.matches(site.get().getGeneratorType(), site.get().getRarity())) {
+			predicted.add(site.get());
+		}
+	}
+
+	/**
+	 * A generated chunk's site (if any) is in the registry, and a chunk that is loaded but not populated is still to come.
+	 * @param world
+	 * @param chunkX
+	 * @param chunkZ
+	 * @return true if the treasure generators have already run in the chunk. never loads or generates the chunk.
+	 */
+	private static boolean isGenerated(World world, int chunkX, int chunkZ) {
+		IChunkProvider provider = world.getChunkProvider();
+		Chunk chunk = provider.getLoadedChunk(chunkX, chunkZ);
+		return chunk != null ? chunk.isTerrainPopulated() : provider.isChunkGeneratedAt(chunkX, chunkZ);
+	}
+}
@@ -0,0 +1,92 @@
+/*
+ * This file is part of  Treasure2.
+ * Copyright (c) 2021, Mark Gottschling (gottsch)
+ * 
+ * All rights reserved.
+ * 
+ * Treasure2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * Treasure2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Treasure2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package com.someguyssoftware.treasure2.locate;
+
+import com.someguyssoftware.gottschcore.positional.ICoords;
+import com.someguyssoftware.treasure2.enums.Rarity;
+import com.someguyssoftware.treasure2.enums.WorldGeneratorType;
+
+/**
+ * A located treasure site - either a registered (generated) site, or a site predicted by the placement grid.
+ */
+public class TreasureSite {
+	private final WorldGeneratorType generatorType;
+	private final Rarity rarity;
+	private final ICoords coords;
+	private final int dimensionID;
+	private final boolean predicted;
+
+	/**
+	 * 
+	 * @param generatorType the generator of the site, or null if it is unknown (ex. registered by an older version)
+	 * @param rarity the rarity of the site, or null if it doesn't have one (ex. a well)
+	 * @param coords
+	 * @param dimensionID
+	 * @param predicted
+	 */
+	public TreasureSite(WorldGeneratorType generatorType, Rarity rarity, ICoords coords, int dimensionID, boolean predicted) {
+		this.generatorType = generatorType;
+		this.rarity = rarity;
+		this.coords = coords;
+		this.dimensionID = dimensionID;
+		this.predicted = predicted;
+	}
+
+	/**
+	 * 
+	 * @param coords
+	 * @return the squared (horizontal) distance from the coords to the site
+	 */
+	public double getDistanceSq(ICoords coords) {
+		double x = (double) this.coords.getX() - coords.getX();
+		double z = (double) this.coords.getZ() - coords.getZ();
+		return x * x + z * z;
+	}
+
+	public WorldGeneratorType getGeneratorType() {
+		return generatorType;
+	}
+
+	public Rarity getRarity() {
+		return rarity;
+	}
+
+	public ICoords getCoords() {
+		return coords;
+	}
+
+	public int getDimensionID() {
+		return dimensionID;
+	}
+
+	/**
+	 * 
+	 * @return true if the site is predicted by the placement grid and not generated yet
+	 */
+	public boolean isPredicted() {
+		return predicted;
+	}
+
+	@Override
+	public String toString() {
+		return "TreasureSite [generatorType=" + generatorType + ", rarity=" + rarity + ", coords=" + coords.toShortString()
+				+ ", dimensionID=" + dimensionID + ", predicted=" + predicted + "]";
+	}
+}
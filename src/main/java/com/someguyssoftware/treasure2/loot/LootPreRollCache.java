@@ -0,0 +1,311 @@
+/*
+ * This file is part of  Treasure2.
+ * Copyright (c) 2021, Mark Gottschling (gottsch)
+ * 
+ * All rights reserved.
+ * 
+ * Treasure2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * Treasure2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Treasure2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package com.someguyssoftware.treasure2.loot;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+import java.util.WeakHashMap;
+
+import com.someguyssoftware.treasure2.Treasure;
+import com.someguyssoftware.treasure2.generator.GenerationRandom;
+import com.someguyssoftware.treasure2.generator.GenerationRandom.Stream;
+import com.someguyssoftware.treasure2.generator.chest.IChestGenerator;
+import com.someguyssoftware.treasure2.tileentity.AbstractTreasureChestTileEntity;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.world.World;
+
+/**
+ * Rolls the loot of sealed chests ahead of time, so that opening a chest for the first time only has to commit the rolled
+ * loot to its inventory.
+ * A roll is requested when a player comes within PROXIMITY of the chest, and is rolled on the server thread at the end of a
+ * later world tick, within TICK_BUDGET_NANOS per tick. It is taken when the chest is opened.
+ * If the roll is not ready, is empty or failed, or was rolled for another player (or the same player with another luck), the
+ * chest is rolled on open as before.
+ * NOTE the rolls use the chest's position-seeded random and the same loot context as a roll on open (the player and their luck),
+ * so a pre-rolled chest has the same loot as one rolled on open.
+ */
+public class LootPreRollCache {
+	/*
+	 * the distance from a sealed chest at which a player triggers the pre-roll
+	 */
+	public static final double PROXIMITY = 16D;
+	/*
+	 * the maximum number of rolls held per world. the oldest are discarded.
+	 */
+	public static final int MAX_ROLLS = 256;
+	/*
+	 * the time spent rolling per world tick. at least one roll is made per tick while there are requests.
+	 */
+	public static final long TICK_BUDGET_NANOS = 1_000_000L;
+
+	private static LootPreRollCache instance = new LootPreRollCache();
+
+	// the requested rolls, by world then chest position. NOTE only accessed from the server thread.
+	private final Map<World, WorldRolls> worlds = Collections.synchronizedMap(new WeakHashMap<>());
+
+	// metrics
+	private long requestCount;
+	private long rollCount;
+	private long hitCount;
+	private long missCount;
+	private long openNanos;
+
+	/**
+	 * 
+	 */
+	private LootPreRollCache() {}
+
+	/**
+	 * 
+	 * @return
+	 */
+	public static LootPreRollCache getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Requests the pre-roll of the chest for the player, if it is sealed and hasn't been requested already.
+	 * @param world
+	 * @param tileEntity
+	 * @param player
+	 */
+	public void request(World world, AbstractTreasureChestTileEntity tileEntity, EntityPlayer player) {
+		if (world.isRemote || player == null || !tileEntity.isSealed() || tileEntity.getGenerationContext() == null) {
+			return;
+		}
+		WorldRolls rolls = worlds.get(world);
+		if (rolls == null) {
+			rolls = new WorldRolls();
+			worlds.put(world, rolls);
+		}
+		long key = tileEntity.getPos().toLong();
+		if (rolls.rolls.containsKey(key)) {
+			return;
+		}
+		PreRoll preRoll = new PreRoll(tileEntity, player.getUniqueID(), player.getLuck());
+		rolls.rolls.put(key, preRoll);
+		rolls.pending.add(preRoll);
+		requestCount++;
+
+		if (rolls.rolls.size() > MAX_ROLLS) {
+			rolls.rolls.removeFirst().discarded = true;
+		}
+	}
+
+	/**
+	 * Rolls the requested chests of the world, until the tick budget is spent. Called once per tick of the world.
+	 * @param world
+	 */
+	public void tick(World world) {
+		WorldRolls rolls = worlds.get(world);
+		if (rolls == null || rolls.pending.isEmpty()) {
+			return;
+		}
+		long start = System.nanoTime();
+		do {
+			PreRoll preRoll = rolls.pending.poll();
+			if (preRoll.discarded) {
+				continue;
+			}
+			roll(world, rolls, preRoll);
+		} while (!rolls.pending.isEmpty() && System.nanoTime() - start < TICK_BUDGET_NANOS);
+	}
+
+	/**
+	 * 
+	 * @param world
+	 * @param rolls
+	 * @param preRoll
+	 */
+	private void roll(World world, WorldRolls rolls, PreRoll preRoll) {
+		AbstractTreasureChestTileEntity tileEntity = preRoll.tileEntity;
+		EntityPlayer player = world.getPlayerEntityByUUID(preRoll.playerId);
+		if (player == null || player.getLuck() != preRoll.luck || !tileEntity.isSealed() || tileEntity.getGenerationContext() == null) {
+			// the roll on open would differ
+			rolls.rolls.remove(tileEntity.getPos().toLong());
+			return;
+		}
+		IChestGenerator chestGenerator = tileEntity.getGenerationContext().getChestGeneratorType().getChestGenerator();
+		Random random = GenerationRandom.forPos(world, Stream.CHEST_LOOT, tileEntity.getPos());
+		try {
+			preRoll.roll = chestGenerator.rollLoot(world, random, tileEntity.getLootTable(), tileEntity.getGenerationContext().getLootRarity(),
+					chestGenerator.buildLootContext(world, player)).orElse(null);
+			rollCount++;
+			if (preRoll.roll == null) {
+				// nothing to keep - the chest is rolled on open
+				rolls.rolls.remove(tileEntity.getPos().toLong());
+			}
+		}
+		catch (Exception e) {
+			Treasure.LOGGER.warn("unable to pre-roll the loot of the chest at {}:", tileEntity.getPos(), e);
+			rolls.rolls.remove(tileEntity.getPos().toLong());
+		}
+	}
+
+	/**
+	 * Fills the sealed chest that is being opened, with its pre-rolled loot if it is ready, otherwise by rolling it now.
+	 * @param world
+	 * @param tileEntity
+	 * @param player
+	 */
+	public void fillChest(World world, AbstractTreasureChestTileEntity tileEntity, EntityPlayer player) {
+		long start = System.nanoTime();
+		IChestGenerator chestGenerator = tileEntity.getGenerationContext().getChestGeneratorType().getChestGenerator();
+
+		Optional<LootRoll> roll = take(world, tileEntity, player);
+		if (roll.isPresent()) {
+			hitCount++;
+		}
+		else {
+			missCount++;
+			Random random = GenerationRandom.forPos(world, Stream.CHEST_LOOT, tileEntity.getPos());
+			roll = chestGenerator.rollLoot(world, random, tileEntity.getLootTable(), tileEntity.getGenerationContext().getLootRarity(),
+					chestGenerator.buildLootContext(world, player));
+		}
+		if (roll.isPresent()) {
+			chestGenerator.commitLoot(tileEntity, roll.get());
+		}
+		openNanos += System.nanoTime() - start;
+	}
+
+	/**
+	 * 
+	 * @param world
+	 * @param tileEntity
+	 * @param player
+	 * @return the pre-rolled loot of the chest, or empty if it isn't ready, is empty or can't be used by the player
+	 */
+	private Optional<LootRoll> take(World world, AbstractTreasureChestTileEntity tileEntity, EntityPlayer player) {
+		PreRoll preRoll = discard(world, tileEntity);
+		if (preRoll == null || preRoll.roll == null) {
+			return Optional.empty();
+		}
+		// the roll was made with the player and the luck of the context
+		if (player == null || !player.getUniqueID().equals(preRoll.playerId) || player.getLuck() != preRoll.luck) {
+			return Optional.empty();
+		}
+		return Optional.of(preRoll.roll);
+	}
+
+	/**
+	 * Discards the roll of the chest. Called when the chest is opened, invalidated or its chunk is unloaded.
+	 * @param world
+	 * @param tileEntity
+	 * @return the discarded roll
+	 */
+	public PreRoll discard(World world, AbstractTreasureChestTileEntity tileEntity) {
+		WorldRolls rolls = worlds.get(world);
+		if (rolls == null) {
+			return null;
+		}
+		PreRoll preRoll = rolls.rolls.remove(tileEntity.getPos().toLong());
+		if (preRoll != null) {
+			preRoll.discarded = true;
+		}
+		return preRoll;
+	}
+
+	/**
+	 * 
+	 * @param world
+	 */
+	public void onWorldUnload(World world) {
+		worlds.remove(world);
+		long openCount = hitCount + missCount;
+		if (!world.isRemote && openCount > 0) {
+			Treasure.LOGGER.debug("loot pre-roll -> requested: {}, rolled: {}, opened: {}, hit rate: {}%, mean open latency: {} ms",
+					requestCount, rollCount, openCount, hitCount * 100 / openCount, String.format("%.3f", getMeanOpenLatencyNanos() / 1_000_000D));
+		}
+	}
+
+	/**
+	 * 
+	 * @return the number of pre-rolls requested
+	 */
+	public long getRequestCount() {
+		return requestCount;
+	}
+
+	/**
+	 * 
+	 * @return the number of pre-rolls rolled
+	 */
+	public long getRollCount() {
+		return rollCount;
+	}
+
+	/**
+	 * 
+	 * @return the number of chests opened with pre-rolled loot
+	 */
+	public long getHitCount() {
+		return hitCount;
+	}
+
+	/**
+	 * 
+	 * @return the number of chests opened that were rolled on open
+	 */
+	public long getMissCount() {
+		return missCount;
+	}
+
+	/**
+	 * 
+	 * @return the mean time to fill a chest on open
+	 */
+	public double getMeanOpenLatencyNanos() {
+		long openCount = hitCount + missCount;
+		return openCount == 0 ? 0D : (double)openNanos / openCount;
+	}
+
+	/**
+	 * The rolls of a single world.
+	 */
+	private static class WorldRolls {
+		private final Long2ObjectLinkedOpenHashMap<PreRoll> rolls = new Long2ObjectLinkedOpenHashMap<>();
+		// the rolls that are waiting for a tick, in request order
+		private final ArrayDeque<PreRoll> pending = new ArrayDeque<>();
+	}
+
+	/**
+	 * A requested roll, and the context it is rolled with.
+	 */
+	public static class PreRoll {
+		private final AbstractTreasureChestTileEntity tileEntity;
+		private final UUID playerId;
+		private final float luck;
+		// null until rolled. a roll that came up empty is not kept.
+		private LootRoll roll;
+		private boolean discarded;
+
+		private PreRoll(AbstractTreasureChestTileEntity tileEntity, UUID playerId, float luck) {
+			this.tileEntity = tileEntity;
+			this.playerId = playerId;
+			this.luck = luck;
+		}
+	}
+}
@@ -0,0 +1,71 @@
+/*
+ * This file is part of  Treasure2.
+ * Copyright (c) 2021, Mark Gottschling (gottsch)
+ * 
+ * All rights reserved.
+ * 
+ * Treasure2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * Treasure2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Treasure2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package com.someguyssoftware.treasure2.loot;
+
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.ResourceLocation;
+
+/**
+ * The loot rolled for a chest, ready to be committed to its inventory: the treasure (and charm) pool stacks,
+ * and the shuffled and limited stacks of the other pools and the injected tables.
+ * The slots are chosen when the roll is committed (the inventory may have changed), with a random seeded by the roll,
+ * so that committing the same roll always fills the same slots.
+ * NOTE the stacks are owned by the roll and must only be committed once.
+ */
+public final class LootRoll {
+	private final ResourceLocation lootTable;
+	private final List<ItemStack> treasureStacks;
+	private final List<ItemStack> itemStacks;
+	private final long commitSeed;
+
+	/**
+	 * 
+	 * @param lootTable
+	 * @param treasureStacks
+	 * @param itemStacks
+	 * @param commitSeed
+	 */
+	public LootRoll(ResourceLocation lootTable, List<ItemStack> treasureStacks, List<ItemStack> itemStacks, long commitSeed) {
+		this.lootTable = lootTable;
+		this.treasureStacks = ImmutableList.copyOf(treasureStacks);
+		this.itemStacks = ImmutableList.copyOf(itemStacks);
+		this.commitSeed = commitSeed;
+	}
+
+	public ResourceLocation getLootTable() {
+		return lootTable;
+	}
+
+	public List<ItemStack> getTreasureStacks() {
+		return treasureStacks;
+	}
+
+	public List<ItemStack> getItemStacks() {
+		return itemStacks;
+	}
+
+	public long getCommitSeed() {
+		return commitSeed;
+	}
+}
@@ -0,0 +1,206 @@
+/*
+ * This file is part of  Treasure2.
+ * Copyright (c) 2021, Mark Gottschling (gottsch)
+ * 
+ * All rights reserved.
+ * 
+ * Treasure2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * Treasure2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Treasure2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package com.someguyssoftware.treasure2.loot;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import javax.annotation.Nullable;
+
+import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableTable;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Table;
+import com.google.common.collect.Table.Cell;
+import com.someguyssoftware.gottschcore.loot.LootTableShell;
+import com.someguyssoftware.treasure2.enums.Rarity;
+import com.someguyssoftware.treasure2.loot.TreasureLootTableMaster2.ManagedTableType;
+import com.someguyssoftware.treasure2.loot.TreasureLootTableMaster2.SpecialLootTables;
+
+import net.minecraft.util.ResourceLocation;
+
+/**
+ * An immutable snapshot of the registered loot tables, indexed for selection.
+ * The lists of each (type, rarity), (type, key, rarity) and pair of chest rarities are built once when the master is frozen,
+ * so selecting a table is an array lookup plus a random index and never copies or allocates a list.
+ * NOTE a snapshot is never modified after construction. A reload builds a new snapshot that replaces this one.
+ */
+public final class LootTableIndex {
+	private static final Rarity[] RARITIES = Rarity.values();
+	private static final ManagedTableType[] TABLE_TYPES = ManagedTableType.values();
+
+	public static final LootTableIndex EMPTY = new LootTableIndex();
+
+	/*
+	 * [table type ordinal][rarity ordinal] -> all the tables of the rarity, regardless of key
+	 */
+	private final List<List<LootTableShell>> byRarity;
+
+	/*
+	 * [rarity1 ordinal][rarity2 ordinal] -> the chest tables of rarity1 followed by those of rarity2
+	 */
+	private final List<List<LootTableShell>> chestsByRarityPair;
+
+	private final Map<ManagedTableType, ImmutableTable<String, Rarity, List<LootTableShell>>> byKeyRarity;
+	private final Map<ResourceLocation, LootTableShell> byResourceLocation;
+	private final Map<SpecialLootTables, LootTableShell> specials;
+
+	/**
+	 * 
+	 */
+	private LootTableIndex() {
+		this(HashBasedTable.create(), HashBasedTable.create(), ImmutableMap.of(), ImmutableMap.of());
+	}
+
+	/**
+	 * 
+	 * @param chests the chest tables by key and rarity, each in registration order
+	 * @param injects the inject tables by category and rarity, in registration order
+	 * @param resourceLocations
+	 * @param specials
+	 */
+	public LootTableIndex(Table<String, Rarity, ? extends Map<?, LootTableShell>> chests,
+			Table<String, Rarity, ? extends Map<?, LootTableShell>> injects,
+			Map<ResourceLocation, LootTableShell> resourceLocations,
+			Map<SpecialLootTables, LootTableShell> specials) {
+
+		Map<ManagedTableType, ImmutableTable<String, Rarity, List<LootTableShell>>> tables = new EnumMap<>(ManagedTableType.class);
+		tables.put(ManagedTableType.CHEST, freeze(chests));
+		tables.put(ManagedTableType.INJECT, freeze(injects));
+		this.byKeyRarity = Maps.immutableEnumMap(tables);
+
+		// flatten each rarity column
+		ImmutableList.Builder<List<LootTableShell>> byRarityBuilder = ImmutableList.builder();
+		for (ManagedTableType type : TABLE_TYPES) {
+			ImmutableTable<String, Rarity, List<LootTableShell>> table = this.byKeyRarity.get(type);
+			for (Rarity rarity : RARITIES) {
+				ImmutableList.Builder<LootTableShell> builder = ImmutableList.builder();
+				for (List<LootTableShell> shells : table.column(rarity).values()) {
+					builder.addAll(shells);
+				}
+				byRarityBuilder.add(builder.build());
+			}
+		}
+		this.byRarity = byRarityBuilder.build();
+
+		// combine the chest columns pairwise (ex. common + uncommon for the common chest generator)
+		ImmutableList.Builder<List<LootTableShell>> pairBuilder = ImmutableList.builder();
+		for (Rarity rarity1 : RARITIES) {
+			for (Rarity rarity2 : RARITIES) {
+				if (rarity1 == rarity2) {
+					pairBuilder.add(getLootTables(ManagedTableType.CHEST, rarity1));
+				}
+				else {
+					pairBuilder.add(ImmutableList.<LootTableShell>builder()
+							.addAll(getLootTables(ManagedTableType.CHEST, rarity1))
+							.addAll(getLootTables(ManagedTableType.CHEST, rarity2))
+							.build());
+				}
+			}
+		}
+		this.chestsByRarityPair = pairBuilder.build();
+
+		this.byResourceLocation = ImmutableMap.copyOf(resourceLocations);
+		this.specials = specials.isEmpty() ? ImmutableMap.of() : Maps.immutableEnumMap(specials);
+	}
+
+	/**
+	 * 
+	 * @param table
+	 * @return
+	 */
+	private static ImmutableTable<String, Rarity, List<LootTableShell>> freeze(Table<String, Rarity, ? extends Map<?, LootTableShell>> table) {
+		ImmutableTable.Builder<String, Rarity, List<LootTableShell>> builder = ImmutableTable.builder();
+		for (Cell<String, Rarity, ? extends Map<?, LootTableShell>> cell : table.cellSet()) {
+			builder.put(cell.getRowKey(), cell.getColumnKey(), ImmutableList.copyOf(cell.getValue().values()));
+		}
+		return builder.build();
+	}
+
+	/**
+	 * 
+	 * @param type
+	 * @param rarity
+	 * @return an immutable list of all the tables of the rarity
+	 */
+	public List<LootTableShell> getLootTables(ManagedTableType type, Rarity rarity) {
+		return byRarity.get(type.ordinal() * RARITIES.length + rarity.ordinal());
+	}
+
+	/**
+	 * 
+	 * @param rarity1
+	 * @param rarity2
+	 * @return an immutable list of the chest tables of both rarities
+	 */
+	public List<LootTableShell> getChestLootTables(Rarity rarity1, Rarity rarity2) {
+		return chestsByRarityPair.get(rarity1.ordinal() * RARITIES.length + rarity2.ordinal());
+	}
+
+	/**
+	 * 
+	 * @param type
+	 * @param key
+	 * @param rarity
+	 * @return an immutable list of the tables, or null if none were registered to the key and rarity
+	 */
+	@Nullable
+	public List<LootTableShell> getLootTables(ManagedTableType type, String key, Rarity rarity) {
+		return byKeyRarity.get(type).get(key, rarity);
+	}
+
+	/**
+	 * 
+	 * @param location
+	 * @return
+	 */
+	@Nullable
+	public LootTableShell getLootTable(ResourceLocation location) {
+		return byResourceLocation.get(location);
+	}
+
+	/**
+	 * 
+	 * @param table
+	 * @return
+	 */
+	@Nullable
+	public LootTableShell getSpecialLootTable(SpecialLootTables table) {
+		return specials.get(table);
+	}
+
+	/**
+	 * Selects a random table from the list.
+	 * @param random
+	 * @param shells
+	 * @return
+	 */
+	@Nullable
+	public static LootTableShell select(Random random, List<LootTableShell> shells) {
+		if (shells == null || shells.isEmpty()) {
+			return null;
+		}
+		return shells.size() == 1 ? shells.get(0) : shells.get(random.nextInt(shells.size()));
+	}
+}
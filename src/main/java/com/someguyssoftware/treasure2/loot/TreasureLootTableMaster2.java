@@ -28,10 +28,12 @@ import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.Random;
 import java.util.stream.Collectors;
 
 import org.apache.logging.log4j.LogManager;
@@ -76,9 +78,11 @@ public class TreasureLootTableMaster2 extends LootTableMaster2 {
 
 	
 	/*
-	 * Guava Table of LootTableShell for Chests based on LootTableManager-key and Rarity
+	 * Guava Table of LootTableShell for Chests based on LootTableManager-key and Rarity.
+	 * each cell maps the ResourceLocation to the shell, in registration order.
+	 * NOTE the registration tables are only used to build the index. lookups use the frozen index.
 	 */
-	private final Table<String, Rarity, List<LootTableShell>> CHEST_LOOT_TABLES_TABLE = HashBasedTable.create();
+	private final Table<String, Rarity, Map<ResourceLocation, LootTableShell>> CHEST_LOOT_TABLES_TABLE = HashBasedTable.create();
 	
 	/*
 	 * Map of LootTableShell for Chests base on ResourceLocation
@@ -93,7 +97,13 @@ public class TreasureLootTableMaster2 extends LootTableMaster2 {
 	/*
 	 * 
 	 */
-	private final Table<String, Rarity, List<LootTableShell>> INJECT_LOOT_TABLES_TABLE = HashBasedTable.create();
+	private final Table<String, Rarity, Map<ResourceLocation, LootTableShell>> INJECT_LOOT_TABLES_TABLE = HashBasedTable.create();
+
+	/*
+	 * the frozen, immutable index of the registered tables.
+	 * rebuilt by freeze() and swapped in as a whole, so readers never see a partially registered state.
+	 */
+	private volatile LootTableIndex index = LootTableIndex.EMPTY;
 	
 	/**
 	 * 
@@ -106,12 +116,13 @@ public class TreasureLootTableMaster2 extends LootTableMaster2 {
 		// initialize the maps
 		for (Rarity r : Rarity.values()) {
 			CHEST_LOOT_TABLES_RESOURCE_LOCATION_TABLE.put(CUSTOM_LOOT_TABLE_KEY, r, new ArrayList<ResourceLocation>());
-			CHEST_LOOT_TABLES_TABLE.put(CUSTOM_LOOT_TABLE_KEY, r, new ArrayList<LootTableShell>());
+			CHEST_LOOT_TABLES_TABLE.put(CUSTOM_LOOT_TABLE_KEY, r, new LinkedHashMap<>());
 		}
 	}
 
 	/**
-	 * 
+	 * Clears the registration tables only. The previous index stays published until freeze() replaces it,
+	 * so the lookups during a reload still see the old tables instead of none.
 	 */
 	@Override
 	public void clear() {
@@ -124,6 +135,23 @@ public class TreasureLootTableMaster2 extends LootTableMaster2 {
 		INJECT_LOOT_TABLES_TABLE.clear();
 		INJECT_LOOT_TABLES_RESOURCE_LOCATION_TABLE.clear();
 	}
+
+	/**
+	 * Builds an immutable index from the registered tables and publishes it, replacing the previous index atomically.
+	 * Call after registering (or reloading) tables.
+	 */
+	public synchronized void freeze() {
+		index = new LootTableIndex(CHEST_LOOT_TABLES_TABLE, INJECT_LOOT_TABLES_TABLE, CHEST_LOOT_TABLES_MAP, SPECIAL_LOOT_TABLES_MAP);
+		LOGGER.debug("froze loot tables -> {} tables", CHEST_LOOT_TABLES_MAP.size());
+	}
+
+	/**
+	 * 
+	 * @return the current immutable index of the tables
+	 */
+	public LootTableIndex getIndex() {
+		return index;
+	}
 	
 	/**
 	 * 
@@ -179,19 +207,14 @@ public class TreasureLootTableMaster2 extends LootTableMaster2 {
 			Path path = Paths.get(resourceLocation.getResourcePath());
 			// map the loot table resource location
 			Rarity key = Rarity.valueOf(path.getName(path.getNameCount()-2).toString().toUpperCase());
-			// add loot table to map
-			List<LootTableShell> shells = CHEST_LOOT_TABLES_TABLE.get(CUSTOM_LOOT_TABLE_KEY, key);
-			Optional<LootTableShell> shell = shells.stream().filter(s -> s.getResourceLocation().equals(resourceLocation)).findAny();
-			if (shell.isPresent()) {
+			// add loot table to map, replacing (and moving to the end) a table already registered with the resource location
+			Map<ResourceLocation, LootTableShell> shells = getOrCreate(CHEST_LOOT_TABLES_TABLE, CUSTOM_LOOT_TABLE_KEY, key);
+			if (shells.remove(resourceLocation) != null) {
 				LOGGER.debug("removing loot table shell from table -> {} {}", CUSTOM_LOOT_TABLE_KEY, key);
-				CHEST_LOOT_TABLES_TABLE.get(CUSTOM_LOOT_TABLE_KEY, key).remove(shell.get());
-				CHEST_LOOT_TABLES_MAP.remove(resourceLocation);
 			}
-			CHEST_LOOT_TABLES_TABLE.get(CUSTOM_LOOT_TABLE_KEY, key).add(lootTable.get());
+			shells.put(resourceLocation, lootTable.get());
 			LOGGER.debug("tabling loot table: {} {} -> {}", CUSTOM_LOOT_TABLE_KEY, key, resourceLocation);
 			CHEST_LOOT_TABLES_MAP.put(resourceLocation, lootTable.get());
-			Treasure.LOGGER.debug("tables table size -> {}", CHEST_LOOT_TABLES_TABLE.get(CUSTOM_LOOT_TABLE_KEY, key).size());
-			Treasure.LOGGER.debug("tables map @ {} -> {}", resourceLocation, CHEST_LOOT_TABLES_MAP.get(resourceLocation));
 		}
 		else {
 			LOGGER.debug("unable to load loot table from -> {}", resourceLocation);
@@ -306,21 +329,10 @@ public class TreasureLootTableMaster2 extends LootTableMaster2 {
 			keys.forEach(key -> {
 				LOGGER.debug("using inject key to table -> {}", key);
 				key = key.isEmpty() ? "general" : key;
-				// test if the resource location is already tabled
-				List<LootTableShell> shells = INJECT_LOOT_TABLES_TABLE.get(key, rarity);
-				if (shells != null) {
-					Optional<LootTableShell> shell = shells.stream().filter(s -> s.getResourceLocation().equals(resourceLocation)).findAny();
-					if (shell.isPresent()) {
-						INJECT_LOOT_TABLES_TABLE.get(key, rarity).remove(shell.get());
-					}
-				}
-				else {
-					// initialize
-					INJECT_LOOT_TABLES_TABLE.put(key, rarity, new ArrayList<LootTableShell>());
-				}
-
-				// add
-				INJECT_LOOT_TABLES_TABLE.get(key, rarity).add(lootTable.get());
+				// replace (and move to the end) if the resource location is already tabled
+				Map<ResourceLocation, LootTableShell> shells = getOrCreate(INJECT_LOOT_TABLES_TABLE, key, rarity);
+				shells.remove(resourceLocation);
+				shells.put(resourceLocation, lootTable.get());
 				LOGGER.debug("tabling inject loot table: {} {} -> {}", key, rarity, resourceLocation);
 			});
 
@@ -330,6 +342,22 @@ public class TreasureLootTableMaster2 extends LootTableMaster2 {
 		}
 	}
 
+	/**
+	 * 
+	 * @param table
+	 * @param key
+	 * @param rarity
+	 * @return
+	 */
+	private static Map<ResourceLocation, LootTableShell> getOrCreate(Table<String, Rarity, Map<ResourceLocation, LootTableShell>> table, String key, Rarity rarity) {
+		Map<ResourceLocation, LootTableShell> shells = table.get(key, rarity);
+		if (shells == null) {
+			shells = new LinkedHashMap<>();
+			table.put(key, rarity, shells);
+		}
+		return shells;
+	}
+
 	/**
 	 * 
 	 * @param resource
@@ -364,19 +392,20 @@ public class TreasureLootTableMaster2 extends LootTableMaster2 {
 	/**
 	 * 
 	 * @param rarity
-	 * @return
+	 * @return an immutable list of the chest tables of the rarity
 	 */
 	public List<LootTableShell> getLootTableByRarity(Rarity rarity) {
-		// get all loot tables by column key
-		List<LootTableShell> tables = new ArrayList<>();
-		Map<String, List<LootTableShell>> mapOfLootTables = CHEST_LOOT_TABLES_TABLE.column(rarity);
-		Treasure.LOGGER.debug("searching for {} {} -> {}", CUSTOM_LOOT_TABLE_KEY, rarity, CHEST_LOOT_TABLES_TABLE.get(CUSTOM_LOOT_TABLE_KEY, rarity));
-		// convert to a single list
-		for(Entry<String, List<LootTableShell>> n : mapOfLootTables.entrySet()) {
-			Treasure.LOGGER.debug("Adding table shell entry to loot table list -> {} {}: size {}", rarity, n.getKey(), n.getValue().size());
-			tables.addAll(n.getValue());
-		}
-		return tables;
+		return index.getLootTables(ManagedTableType.CHEST, rarity);
+	}
+
+	/**
+	 * 
+	 * @param rarity1
+	 * @param rarity2
+	 * @return an immutable list of the chest tables of both rarities
+	 */
+	public List<LootTableShell> getLootTableByRarity(Rarity rarity1, Rarity rarity2) {
+		return index.getChestLootTables(rarity1, rarity2);
 	}
 	
 	/**
@@ -385,7 +414,7 @@ public class TreasureLootTableMaster2 extends LootTableMaster2 {
 	 * @return
 	 */
 	public Optional<LootTableShell> getLootTableByResourceLocation(ResourceLocation location) {
-		LootTableShell lootTableShell = CHEST_LOOT_TABLES_MAP.get(location);
+		LootTableShell lootTableShell = index.getLootTable(location);
 		return Optional.ofNullable(lootTableShell);
 	}
 	
@@ -393,20 +422,10 @@ public class TreasureLootTableMaster2 extends LootTableMaster2 {
 	 * 
 	 * @param tableType
 	 * @param rarity
-	 * @return
+	 * @return an immutable list of the tables of the rarity
 	 */
 	public List<LootTableShell> getLootTableByRarity(ManagedTableType tableType, Rarity rarity) {
-		Treasure.LOGGER.debug("managed table type -> {}", tableType);
-		Table<String, Rarity, List<LootTableShell>> table = (tableType == ManagedTableType.CHEST) ? CHEST_LOOT_TABLES_TABLE : INJECT_LOOT_TABLES_TABLE;
-		// get all loot tables by column key
-		List<LootTableShell> tables = new ArrayList<>();
-		Map<String, List<LootTableShell>> mapOfLootTables = table.column(rarity);
-		// convert to a single list
-		for(Entry<String, List<LootTableShell>> n : mapOfLootTables.entrySet()) {
-			Treasure.LOGGER.debug("Adding table shell entry to loot table list -> {} {}: size {}", rarity, n.getKey(), n.getValue().size());
-			tables.addAll(n.getValue());
-		}
-		return tables;
+		return index.getLootTables(tableType, rarity);
 	}
 	
 	/**
@@ -414,13 +433,21 @@ public class TreasureLootTableMaster2 extends LootTableMaster2 {
 	 * @param tableType
 	 * @param key
 	 * @param rarity
-	 * @return
+	 * @return an immutable list of the tables, or null if none are registered to the key and rarity
 	 */
 	public List<LootTableShell> getLootTableByKeyRarity(ManagedTableType tableType, String key, Rarity rarity) {
-		Table<String, Rarity, List<LootTableShell>> table = (tableType == ManagedTableType.CHEST) ? CHEST_LOOT_TABLES_TABLE : INJECT_LOOT_TABLES_TABLE;
-		// get all loot tables by column key
-		List<LootTableShell> tables = table.get(key, rarity);
-		return tables;
+		return index.getLootTables(tableType, key, rarity);
+	}
+
+	/**
+	 * Selects a random table of the rarity without copying any list.
+	 * @param tableType
+	 * @param rarity
+	 * @param random
+	 * @return
+	 */
+	public Optional<LootTableShell> selectLootTable(ManagedTableType tableType, Rarity rarity, Random random) {
+		return Optional.ofNullable(LootTableIndex.select(random, index.getLootTables(tableType, rarity)));
 	}
 	
 	/**
@@ -445,10 +472,7 @@ public class TreasureLootTableMaster2 extends LootTableMaster2 {
 	 * @return
 	 */
 	public LootTableShell getSpecialLootTable(SpecialLootTables table) {
-		Treasure.LOGGER.debug("searching for special loot table --> {}", table);
-		
-		LootTableShell lootTable = SPECIAL_LOOT_TABLES_MAP.get(table);
-		return lootTable;
+		return index.getSpecialLootTable(table);
 	}
 	
 	/**
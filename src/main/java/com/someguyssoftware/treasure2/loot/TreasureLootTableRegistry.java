@@ -151,6 +151,9 @@ public final class TreasureLootTableRegistry {
 
 		lootTableMaster.registerInjects(modID, lootResources.getInjectResources());
 		lootTableMaster.registerInjectsFromWorldSave(modID, lootResources.getInjectLootTableFolderLocations());
+
+		// publish the registered tables
+		lootTableMaster.freeze();
 	}
 
 	public static List<String> getRegisteredMods() {
@@ -19,7 +19,6 @@
  */
 package com.someguyssoftware.treasure2.loot.function;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -36,7 +35,6 @@ import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonPrimitive;
 import com.google.gson.JsonSerializationContext;
-import com.someguyssoftware.gottschcore.random.RandomHelper;
 import com.someguyssoftware.treasure2.Treasure;
 import com.someguyssoftware.treasure2.capability.ICharmableCapability;
 import com.someguyssoftware.treasure2.capability.InventoryType;
@@ -118,72 +116,38 @@ public class CharmRandomly extends LootFunction {
 		ICharm charm = defaultCharm;
 
 		ICharmableCapability charmCap = stack.getCapability(TreasureCapabilities.CHARMABLE, null);
-		List<ICharm> tempCharms = new ArrayList<>();
 		int defaultLevel = charmCap.getMaxCharmLevel();
 
-		Optional<List<ICharm>> charmList = Optional.empty();
 		// select random level
 		int level = this.levels == null ? defaultLevel : this.levels.generateInt(rand);
 
 		// explicity charms list is empty
 		if (this.charms.isEmpty()) {
+			Optional<ICharm> selectedCharm;
 			// check the rarity property
 			if (rarity != null) {
 				// ensure that rarity isn't higher than rarity of adornment
+				Rarity effectiveRarity = rarity;
 				if (TreasureCharms.LEVEL_RARITY.get(charmCap.getMaxCharmLevel()).getCode() > rarity.getCode()) {
-					rarity = TreasureCharms.LEVEL_RARITY.get(charmCap.getMaxCharmLevel());
-				}				
-				charmList = TreasureCharmRegistry.get(rarity);
-				if (charmList.isPresent()) {
-					tempCharms.addAll(charmList.get());
-				}
-				else {
-					charm = defaultCharm;
+					effectiveRarity = TreasureCharms.LEVEL_RARITY.get(charmCap.getMaxCharmLevel());
 				}
+				selectedCharm = TreasureCharmRegistry.sample(rand, effectiveRarity, true);
 			}
 			// check the levels property
 			else if(levels != null) {
-				int lambdaLevel = level;
 				// TODO if level > cap's max level, then use the max level
 				double curseProb = this.curseChance != null ? this.levels.generateInt(rand) : 0D;
 				Treasure.LOGGER.debug("curse chance -> {}", curseProb);
 
-				// get all the charms from level
-				Optional<List<ICharm>> levelCharms;
-				if (curseProb > 0.0) {
-					levelCharms = TreasureCharmRegistry.getBy(c -> {
-						if (c.isCurse()) {
-							return c.getLevel() == lambdaLevel && RandomHelper.checkProbability(rand, curseProb);
-						}
-						else {
-							return c.getLevel() == lambdaLevel;
-						}
-					});
-				}
-				else {
-					// get all the charms from level
-					levelCharms = TreasureCharmRegistry.getBy(c -> {
-						return  c.getLevel() == lambdaLevel && !c.isCurse();
-					});
-				}
-
-				if (levelCharms.isPresent()) {
-					tempCharms.addAll(levelCharms.get());
-				}
+				// get a charm from level
+				selectedCharm = TreasureCharmRegistry.sampleByLevel(rand, level, curseProb);
 			}
 			else {
-				// if charms list is empty and levels are null, create a default list of minor charms
-				Optional<List<ICharm>> defaultCharms = TreasureCharmRegistry.getBy(c -> {
-					return c.getLevel() <= charmCap.getMaxCharmLevel() && !c.isCurse();
-				});
-				if (defaultCharms.isPresent()) {
-					tempCharms.addAll(defaultCharms.get());
-				}
+				// if charms list is empty and levels are null, use the minor charms
+				selectedCharm = TreasureCharmRegistry.sampleUpToLevel(rand, charmCap.getMaxCharmLevel());
 			}
-			Treasure.LOGGER.debug("temp charms size -> {}", tempCharms.size());
-			if (!tempCharms.isEmpty()) {
-				// select a charm randomly
-				charm = tempCharms.get(rand.nextInt(tempCharms.size()));
+			if (selectedCharm.isPresent()) {
+				charm = selectedCharm.get();
 				Treasure.LOGGER.debug("selected charm for item -> {}", charm.getName().toString());
 			}
 		}
@@ -23,7 +23,6 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.Random;
-import java.util.stream.Collectors;
 
 import com.google.gson.JsonArray;
 import com.google.gson.JsonDeserializationContext;
@@ -43,7 +42,6 @@ import com.someguyssoftware.treasure2.material.CharmableMaterial;
 import com.someguyssoftware.treasure2.material.TreasureCharmableMaterials;
 import com.someguyssoftware.treasure2.util.ResourceLocationUtil;
 
-import net.minecraft.init.Items;
 import net.minecraft.item.ItemStack;
 import net.minecraft.util.JsonUtils;
 import net.minecraft.util.ResourceLocation;
@@ -105,7 +103,6 @@ public class RandomAdornment extends LootFunction {
 
 	@Override
 	public ItemStack apply(ItemStack stack, Random rand, LootContext context) {
-		Random random = new Random();
 		Treasure.LOGGER.debug("incoming adornment -> {}", stack.getDisplayName());
 		// select material
 		CharmableMaterial material = null;
@@ -114,7 +111,7 @@ public class RandomAdornment extends LootFunction {
 			material = TreasureCharmableMaterials.getBaseMaterial(stack.getCapability(TreasureCapabilities.CHARMABLE, null).getBaseMaterial()).get();
 		}
 		else {
-			material = this.materials.get().get(random.nextInt(materials.get().size()));
+			material = this.materials.get().get(rand.nextInt(materials.get().size()));
 		}
 		Treasure.LOGGER.debug("selected material -> {}", material.getName());
 		
@@ -143,42 +140,17 @@ public class RandomAdornment extends LootFunction {
 		 *  and not level == maxCharmLevel
 		 */
 
-		final int lambdaLevel = level;
-		List<Adornment> adornmentsByMaterial = TreasureAdornmentRegistry.getByMaterial(material);
-		List<Adornment> 	adornments = adornmentsByMaterial.stream()
-			// filter for source items (gem/stone)
-			.filter(a -> {
-				ItemStack itemStack = new ItemStack(a);
-				boolean hasSource = itemStack.getCapability(TreasureCapabilities.CHARMABLE, null).getSourceItem() != Items.AIR.getRegistryName();
-				if (!hasGem && !hasSource) {
-					Treasure.LOGGER.debug("filter: keeping adornment -> {}", itemStack.getDisplayName());
-					return true;
-				}
-				else if (hasGem && hasSource) {
-					return true;
-				}
-				return false;
-			})
-			.filter(a -> {
-				ItemStack itemStack = new ItemStack(a);
-				if (rarity != null && rarity == TreasureCharms.LEVEL_RARITY.get(itemStack.getCapability(TreasureCapabilities.CHARMABLE, null).getMaxCharmLevel())) {
-					return true;
-				}
-				else if (itemStack.getCapability(TreasureCapabilities.CHARMABLE, null).getMaxCharmLevel() == lambdaLevel) {
-					return true;
-				}
-				return false;
-			})
-			.collect(Collectors.toList());
+		// select from the precomputed attributes of the adornments of the material
+		Optional<Adornment> selected = TreasureAdornmentRegistry.select(rand, material.getName(), hasGem, rarity, level);
 
 		// create a new adornment item
 		ItemStack adornment;
-		if (adornments == null || adornments.isEmpty()) {
+		if (!selected.isPresent()) {
 			Treasure.LOGGER.debug("no adornments match criteria, using incoming adornment -> {}", stack.getDisplayName());
 			adornment = stack;
 		}
 		else {
-			adornment = new ItemStack(adornments.get(random.nextInt(adornments.size())));
+			adornment = new ItemStack(selected.get());
 		}
 
 		Treasure.LOGGER.debug("selected adornment -> {}", adornment.getDisplayName());
@@ -19,7 +19,6 @@
  */
 package com.someguyssoftware.treasure2.loot.function;
 
-import java.util.List;
 import java.util.Optional;
 import java.util.Random;
 
@@ -90,7 +89,7 @@ public class RandomCharm extends LootFunction {
 		// default charm
 		ICharm defaultCharm = TreasureCharmRegistry.get(ResourceLocationUtil.create(Charm.Builder.makeName(HealingCharm.TYPE, 1))).get();
 		ICharm charm = this.defaultCharm == null ? defaultCharm : this.defaultCharm;
-		Optional<List<ICharm>> charms = Optional.empty();
+		Optional<ICharm> selectedCharm;
 
 		// select random level
 		int level = this.levels == null ? 1 : this.levels.generateInt(rand);
@@ -99,14 +98,10 @@ public class RandomCharm extends LootFunction {
 
 		Treasure.LOGGER.debug("rarity -> {}", rarity);
 		if (rarity != null) {
-			// get all the charms by rarity exluding curses
-			charms = TreasureCharmRegistry.getBy(c -> {
-				return  c.getRarity() == rarity && !c.isCurse();
-			});
-//			charms = TreasureCharmRegistry.get(rarity);
-			if (charms.isPresent()) {
-				Random random = new Random();
-				charm = charms.get().get(random.nextInt(charms.get().size()));
+			// select from the charms of the rarity exluding curses
+			selectedCharm = TreasureCharmRegistry.sample(rand, rarity, false);
+			if (selectedCharm.isPresent()) {
+				charm = selectedCharm.get();
 				// override level with that of the selected rarity charm
 				level = charm.getLevel();
 				Treasure.LOGGER.debug("selected charm -> {}, level -> {}", charm.getName(), charm.getLevel());
@@ -117,10 +112,9 @@ public class RandomCharm extends LootFunction {
 		}
 		else {
 			// select a charm by level
-			charms = TreasureCharmRegistry.get(level);
-			if (charms.isPresent()) {
-				Random random = new Random();
-				charm = charms.get().get(random.nextInt(charms.get().size()));
+			selectedCharm = TreasureCharmRegistry.sampleByLevel(rand, level, true);
+			if (selectedCharm.isPresent()) {
+				charm = selectedCharm.get();
 			}
 			else {
 				charm = defaultCharm;
@@ -53,10 +53,8 @@ public class RandomRunestone extends LootFunction {
 
 	@Override
 	public ItemStack apply(ItemStack stack, Random rand, LootContext context) {
-		Random random = new Random();
-
 		// randomly select a runestone
-		Item runestone = TreasureRunes.itemValues().get(random.nextInt(TreasureRunes.itemValues().size()));
+		Item runestone = TreasureRunes.itemValues().get(rand.nextInt(TreasureRunes.itemValues().size()));
 
 		return runestone == null ? stack : new ItemStack(runestone);
 	}
@@ -37,6 +37,7 @@ import com.someguyssoftware.gottschcore.positional.Coords;
 import com.someguyssoftware.gottschcore.positional.ICoords;
 import com.someguyssoftware.treasure2.Treasure;
 import com.someguyssoftware.treasure2.enums.Rarity;
+import com.someguyssoftware.treasure2.registry.ParallelResourceLoader;
 
 import net.minecraft.util.ResourceLocation;
 
@@ -90,12 +91,12 @@ public class TreasureMetaManager {
 		Treasure.LOGGER.debug("created meta folder");
 		List<ResourceLocation> resourceLocations = getMetaResourceLocations(modID, resourcePaths);
 		Treasure.LOGGER.debug("acquired resource locations -> {}", resourceLocations);
-		// load each ResourceLocation as Meta and map it.
-		resourceLocations.forEach(loc -> {
-			// need to test for world save version first
-			Treasure.LOGGER.debug("register metas -> loading meta resource loc -> {}", loc.toString());
-			tableMeta(loc, loadMeta(loc));
-		});
+		// load each ResourceLocation as Meta in parallel (tests for the world save version first)
+		List<Optional<StructureMeta>> metas = ParallelResourceLoader.loadAll("meta", resourceLocations, this::loadMeta);
+		// map them in order
+		for (int i = 0; i < resourceLocations.size(); i++) {
+			tableMeta(resourceLocations.get(i), metas.get(i));
+		}
 	}
 
 	private void createMetaFolder(File worldSaveFolder, String modID) {
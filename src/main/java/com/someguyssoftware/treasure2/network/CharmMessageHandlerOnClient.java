@@ -28,6 +28,7 @@ import com.someguyssoftware.treasure2.capability.InventoryType;
 import com.someguyssoftware.treasure2.capability.TreasureCapabilities;
 import com.someguyssoftware.treasure2.charm.ICharmEntity;
 import com.someguyssoftware.treasure2.integration.baubles.BaublesIntegration;
+import com.someguyssoftware.treasure2.network.CharmMessageToClient.CharmUpdate;
 
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.multiplayer.WorldClient;
@@ -86,44 +87,14 @@ public class CharmMessageHandlerOnClient implements IMessageHandler<CharmMessage
 	  void processMessage(WorldClient worldClient, CharmMessageToClient message) {
 		  Treasure.LOGGER.debug("received charm message -> {}", message);
 		  try {
-//	        EntityPlayer player = worldClient.getPlayerEntityByName(message.getPlayerName());
 	        EntityPlayer player = worldClient.getPlayerEntityByUUID(UUID.fromString(message.getPlayerName()));
-	        
-	        if (player != null) {
-//	        	Treasure.logger.debug("valid player -> {}", message.getPlayerName());
-	        	// check hands first
-	        	if (message.getHand() != null) {
-//		        	Treasure.logger.debug("valid hand -> {}", message.getHand());
-	        		// get the item for the hand
-	        		ItemStack heldItemStack = player.getHeldItem(message.getHand());
-	        		// determine what is being held in hand
-	        		if (heldItemStack != null) {
-//	        			Treasure.logger.debug("holding item -> {}", heldItemStack.getItem().getRegistryName());
-	        			if (heldItemStack.hasCapability(TreasureCapabilities.CHARMABLE, null)) {
-	        				updateCharms(heldItemStack, message, heldItemStack.getCapability(TreasureCapabilities.CHARMABLE, null));
-	        			}
-	        		}
-	        	}
-	        	else if (BaublesIntegration.BAUBLES_MOD_ID.equals(message.getSlotProviderId())) {
-//	        		Treasure.logger.debug("it is a baubles slot provider");
-	        		ItemStack stack = BaublesIntegration.getStackInSlot(player, message.getSlot());
-	        		
-//	        		if (stack != null) Treasure.logger.debug("item in baubles slot -> {} -> {}", message.getSlot(), stack.getItem().getRegistryName());
-	        		
-	        		if (stack != null && stack.hasCapability(TreasureCapabilities.CHARMABLE, null)) {
-//		        		Treasure.logger.debug("baubles item has charmable cap");
-	        			updateCharms(stack, message, stack.getCapability(TreasureCapabilities.CHARMABLE, null));
-	        		}
-	        	}
-	        	// hotbar
-	        	else {
-	        		ItemStack stack = player.inventory.getStackInSlot(message.getSlot());
-	        		if (stack != null /*&& stack.getItem() instanceof ICharmable*/) {
-	        			if (stack.hasCapability(TreasureCapabilities.CHARMABLE, null)) {
-	        				updateCharms(stack, message, stack.getCapability(TreasureCapabilities.CHARMABLE, null));
-	        			}
-	        		}
-	        	}	        	
+	        if (player == null) {
+	        	return;
+	        }
+	        // unpack the batch
+	        List<CharmUpdate> updates = message.getUpdates();
+	        for (int i = 0; i < updates.size(); i++) {
+	        	processUpdate(player, updates.get(i));
 	        }
 		  }
 		  catch(Exception e) {
@@ -131,37 +102,68 @@ public class CharmMessageHandlerOnClient implements IMessageHandler<CharmMessage
 		  }
 	  }
 
+	  /**
+	   * 
+	   * @param player
+	   * @param update
+	   */
+	  private void processUpdate(EntityPlayer player, CharmUpdate update) {
+		  // check hands first
+		  if (update.getHand() != null) {
+			  // get the item for the hand
+			  ItemStack heldItemStack = player.getHeldItem(update.getHand());
+			  // determine what is being held in hand
+			  if (heldItemStack != null) {
+				  if (heldItemStack.hasCapability(TreasureCapabilities.CHARMABLE, null)) {
+					  updateCharms(heldItemStack, update, heldItemStack.getCapability(TreasureCapabilities.CHARMABLE, null));
+				  }
+			  }
+		  }
+		  else if (BaublesIntegration.BAUBLES_MOD_ID.equals(update.getSlotProviderId())) {
+			  ItemStack stack = BaublesIntegration.getStackInSlot(player, update.getSlot());
+			  if (stack != null && stack.hasCapability(TreasureCapabilities.CHARMABLE, null)) {
+				  updateCharms(stack, update, stack.getCapability(TreasureCapabilities.CHARMABLE, null));
+			  }
+		  }
+		  // hotbar
+		  else {
+			  ItemStack stack = player.inventory.getStackInSlot(update.getSlot());
+			  if (stack != null) {
+				  if (stack.hasCapability(TreasureCapabilities.CHARMABLE, null)) {
+					  updateCharms(stack, update, stack.getCapability(TreasureCapabilities.CHARMABLE, null));
+				  }
+			  }
+		  }
+	  }
+
 	  /**
 	   * 
 	   * @param itemStack
-	   * @param message
+	   * @param update
 	   * @param capability
 	   */
-	private void updateCharms(ItemStack itemStack, CharmMessageToClient message, ICharmableCapability capability) {
-		// get the charm that is being sent
-		ResourceLocation charmName = new ResourceLocation(message.getCharmName());
+	private void updateCharms(ItemStack itemStack, CharmUpdate update, ICharmableCapability capability) {
+		// the charm that is being sent
+		ResourceLocation charmName = update.getEntity().getCharm().getName();
 		// cycle through the charm states to find the named charm
-		List<ICharmEntity> entityList = (List<ICharmEntity>) capability.getCharmEntities().get(message.getInventoryType());
-		if (entityList != null && !entityList.isEmpty() && entityList.size() > message.getIndex()) {
-			ICharmEntity entity = entityList.get(message.getIndex());
-//    		Treasure.logger.debug("looking for charm -> {} at index -> {}", entity, message.getIndex());
+		List<ICharmEntity> entityList = (List<ICharmEntity>) capability.getCharmEntities().get(update.getInventoryType());
+		if (entityList != null && !entityList.isEmpty() && entityList.size() > update.getIndex()) {
+			ICharmEntity entity = entityList.get(update.getIndex());
 			if (entity != null && entity.getCharm().getName().equals(charmName)) {
-//	        	Treasure.logger.debug("found charm, updating...");
 				// update entity properties
-				entity.update(message.getEntity());
+				entity.update(update.getEntity());
 				
 				// NOTE yes, remove innate charms from Adornments - they can't be recharged
-				if (message.getInventoryType() == InventoryType.INNATE && entity.getMana() <= 0.0) {
-					capability.remove(message.getInventoryType(), message.getIndex());
+				if (update.getInventoryType() == InventoryType.INNATE && entity.getMana() <= 0.0) {
+					capability.remove(update.getInventoryType(), update.getIndex());
 				}
 				// TODO probably need to remove imbue as well
 				
 
 				// update Durability 
 				if (itemStack.hasCapability(TreasureCapabilities.DURABILITY, null)) {
-					itemStack.setItemDamage(message.getItemDamage());
+					itemStack.setItemDamage(update.getItemDamage());
 				}
-//				break;
 			}
 		}
 	}
@@ -19,8 +19,10 @@
  */
 package com.someguyssoftware.treasure2.network;
 
-import java.util.Objects;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 import com.someguyssoftware.treasure2.Treasure;
 import com.someguyssoftware.treasure2.capability.InventoryType;
@@ -29,7 +31,7 @@ import com.someguyssoftware.treasure2.charm.ICharm;
 import com.someguyssoftware.treasure2.charm.ICharmEntity;
 import com.someguyssoftware.treasure2.charm.ICooldownCharmEntity;
 import com.someguyssoftware.treasure2.charm.TreasureCharmRegistry;
-import com.someguyssoftware.treasure2.util.ResourceLocationUtil;
+import com.someguyssoftware.treasure2.integration.baubles.BaublesIntegration;
 
 import io.netty.buffer.ByteBuf;
 import net.minecraft.util.EnumHand;
@@ -37,119 +39,76 @@ import net.minecraftforge.fml.common.network.ByteBufUtils;
 import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
 
 /**
+ * A batch of charm updates for a single player.
+ * Charms are identified by their registry id and the slot properties are written as bytes/varints instead of strings.
  * @author Mark Gottschling on Feb 17, 2020
  *
  */
 public class CharmMessageToClient implements IMessage {
+	private static final int VAR_INT_MAX_SIZE = 5;
+	private static final byte NONE = -1;
+	/*
+	 * the known slot providers, written by index. unknown providers are written as a string.
+	 */
+	private static final String[] SLOT_PROVIDERS = {"minecraft", "treasure2", BaublesIntegration.BAUBLES_MOD_ID};
+	private static final EnumHand[] HANDS = EnumHand.values();
+	private static final InventoryType[] INVENTORY_TYPES = InventoryType.values();
+
 	private boolean valid;
 	private String playerName;
-	private String charmName;
-	private ICharmEntity entity;
-	// location properties of charm(s) - who, what slot
-	private EnumHand hand;
-	private Integer slot;
-	private String slotProviderId;
-	private InventoryType inventoryType;
-	private int index;
-	private int itemDamage;
-	
+	private List<CharmUpdate> updates;
+
 	/**
 	 * 
-	 * @param uuid
-	 * @param context
+	 * @param playerName the uuid of the player
+	 * @param contexts
 	 */
-	public CharmMessageToClient(String playerName, CharmContext context) {
+	public CharmMessageToClient(String playerName, List<CharmContext> contexts) {
 		valid = true;
 		this.playerName = playerName;
-		this.charmName = context.getEntity().getCharm().getName().toString();
-		this.entity = context.getEntity();
-		this.hand = context.getHand();
-		this.slotProviderId = context.getSlotProviderId();
-		this.slot = context.getSlot();
-		this.inventoryType = context.getType();
-		this.index = context.getIndex();
-		this.itemDamage = context.getItemStack().getItemDamage();
+		this.updates = new ArrayList<>(contexts.size());
+		for (int i = 0; i < contexts.size(); i++) {
+			updates.add(new CharmUpdate(contexts.get(i)));
+		}
 	}
-		
+
 	/**
 	 * 
 	 */
 	public CharmMessageToClient() {
 		valid = false;
 	}
-	
-    // these methods may also be of use for your code:
-    // for Itemstacks - ByteBufUtils.readItemStack()
-    // for NBT tags ByteBufUtils.readTag();
-    // for Strings: ByteBufUtils.readUTF8String();
+
 	@Override
 	public void fromBytes(ByteBuf buf) {
-	    try {
-	    	this.playerName = ByteBufUtils.readUTF8String(buf);
-	    	this.charmName = ByteBufUtils.readUTF8String(buf);
-	    	// create the charm entity
-	    	Optional<ICharm> optionalCharm = TreasureCharmRegistry.get(ResourceLocationUtil.create(charmName));
-	    	if (!optionalCharm.isPresent()) {
-	    		throw new RuntimeException(String.format("Unable to find charm %s in registry.", charmName));
-	    	}
-	    	entity = optionalCharm.get().createEntity();
-	    	entity.setCharm(optionalCharm.get());
-	    	// get entity data
-	    	entity.setMana(buf.readDouble());	    	
-	    	// get class specific entity data
-	    	if (entity instanceof ICooldownCharmEntity) {
-	    		((ICooldownCharmEntity) entity).setCooldownEnd(buf.readDouble());
-	    	}
-	    	
-	    	String handStr = ByteBufUtils.readUTF8String(buf);
-	    	if (!handStr.isEmpty()) {
-	    		this.hand = EnumHand.valueOf(handStr);
-	    	}
-	    	this.slot = buf.readInt();
-	    	this.slotProviderId = ByteBufUtils.readUTF8String(buf);
-			String inventoryType = ByteBufUtils.readUTF8String(buf);
-			if (!inventoryType.isEmpty()) {
-				this.setInventoryType(InventoryType.valueOf(inventoryType.toUpperCase()));
+		try {
+			this.playerName = new UUID(buf.readLong(), buf.readLong()).toString();
+			int size = ByteBufUtils.readVarInt(buf, VAR_INT_MAX_SIZE);
+			this.updates = new ArrayList<>(size);
+			for (int i = 0; i < size; i++) {
+				CharmUpdate update = new CharmUpdate();
+				update.fromBytes(buf);
+				updates.add(update);
 			}
-			this.setIndex(buf.readInt());
-			this.setItemDamage(buf.readInt());
-	      } catch (RuntimeException e) {
-	        Treasure.LOGGER.error("Exception while reading CharmMessageToClient: ", e);
-	        return;
-	      }
-	      valid = true;
-		
+		} catch (RuntimeException e) {
+			Treasure.LOGGER.error("Exception while reading CharmMessageToClient: ", e);
+			return;
+		}
+		valid = true;
 	}
 
 	@Override
 	public void toBytes(ByteBuf buf) {
-	    if (!valid) {
-	    	return;
-	    }
-	    ByteBufUtils.writeUTF8String(buf, playerName);
-	    ByteBufUtils.writeUTF8String(buf, charmName);
-	    
-	    // write entity data
-	    buf.writeDouble(entity.getMana());
-	    // write specific entity data
-	    if (entity instanceof ICooldownCharmEntity) {
-	    	buf.writeDouble(((ICooldownCharmEntity) entity).getCooldownEnd());
-	    }
-	    
-	    String handStr = "";
-	    if (hand != null) {
-	    	handStr = hand.name();
-	    }
-	    ByteBufUtils.writeUTF8String(buf, handStr);	    
-	    buf.writeInt(this.slot);
-	    ByteBufUtils.writeUTF8String(buf, Objects.toString(slotProviderId, ""));
-		String typeAsString = "";
-		if (inventoryType != null) {
-			typeAsString = inventoryType.name().toLowerCase();
+		if (!valid) {
+			return;
+		}
+		UUID uuid = UUID.fromString(playerName);
+		buf.writeLong(uuid.getMostSignificantBits());
+		buf.writeLong(uuid.getLeastSignificantBits());
+		ByteBufUtils.writeVarInt(buf, updates.size(), VAR_INT_MAX_SIZE);
+		for (int i = 0; i < updates.size(); i++) {
+			updates.get(i).toBytes(buf);
 		}
-		ByteBufUtils.writeUTF8String(buf, typeAsString);
-		buf.writeInt(index);
-		buf.writeInt(this.itemDamage);
 	}
 
 	/**
@@ -157,13 +116,13 @@ public class CharmMessageToClient implements IMessage {
 	 * @return
 	 */
 	public boolean isMessageValid() {
-		if (charmName != null && playerName != null && entity != null) {
+		if (valid && playerName != null && updates != null) {
 			return true;
 		}
 		return false;
 	}
 
-	public boolean isMessageIsValid() {
+	public boolean isValid() {
 		return valid;
 	}
 
@@ -171,86 +130,150 @@ public class CharmMessageToClient implements IMessage {
 		this.valid = messageIsValid;
 	}
 
-	public ICharmEntity getEntity() {
-		return entity;
-	}
-	
 	public String getPlayerName() {
 		return playerName;
 	}
 
-	public EnumHand getHand() {
-		return hand;
+	public void setPlayerName(String playerName) {
+		this.playerName = playerName;
 	}
 
-	public Integer getSlot() {
-		return slot;
+	public List<CharmUpdate> getUpdates() {
+		return updates;
 	}
 
-	public String getCharmName() {
-		return charmName;
+	@Override
+	public String toString() {
+		return "CharmMessageToClient [valid=" + valid + ", playerName=" + playerName + ", updates=" + updates + "]";
 	}
 
-	public String getSlotProviderId() {
-		return slotProviderId;
-	}
+	/**
+	 * The state of a single charm entity and the location of its charm (who, what slot).
+	 * The state is copied on creation so that later changes to the charm entity are not sent.
+	 */
+	public static class CharmUpdate {
+		private ICharmEntity entity;
+		private EnumHand hand;
+		private int slot;
+		private String slotProviderId;
+		private InventoryType inventoryType;
+		private int index;
+		private int itemDamage;
 
-	public void setSlotProviderId(String slotProviderId) {
-		this.slotProviderId = slotProviderId;
-	}
+		/**
+		 * 
+		 */
+		private CharmUpdate() {}
 
-	public boolean isValid() {
-		return valid;
-	}
+		/**
+		 * 
+		 * @param context
+		 */
+		private CharmUpdate(CharmContext context) {
+			ICharm charm = context.getEntity().getCharm();
+			this.entity = charm.createEntity(context.getEntity());
+			this.hand = context.getHand();
+			this.slot = context.getSlot() == null ? -1 : context.getSlot();
+			this.slotProviderId = context.getSlotProviderId();
+			this.inventoryType = context.getType();
+			this.index = context.getIndex();
+			this.itemDamage = context.getItemStack().getItemDamage();
+		}
 
-	public void setPlayerName(String playerName) {
-		this.playerName = playerName;
-	}
+		private void fromBytes(ByteBuf buf) {
+			int id = ByteBufUtils.readVarInt(buf, VAR_INT_MAX_SIZE);
+			// create the charm entity
+			Optional<ICharm> optionalCharm = TreasureCharmRegistry.getById(id);
+			if (!optionalCharm.isPresent()) {
+				throw new RuntimeException(String.format("Unable to find charm id %s in registry.", id));
+			}
+			entity = optionalCharm.get().createEntity();
+			entity.setCharm(optionalCharm.get());
+			// get entity data
+			entity.setMana(buf.readDouble());
+			// get class specific entity data
+			if (entity instanceof ICooldownCharmEntity) {
+				((ICooldownCharmEntity) entity).setCooldownEnd(buf.readDouble());
+			}
 
-	public void setCharmName(String charmName) {
-		this.charmName = charmName;
-	}
+			byte handOrdinal = buf.readByte();
+			if (handOrdinal != NONE) {
+				this.hand = HANDS[handOrdinal];
+			}
+			// NOTE slot is offset by 1 as it may be -1 (no slot)
+			this.slot = ByteBufUtils.readVarInt(buf, VAR_INT_MAX_SIZE) - 1;
+			byte providerIndex = buf.readByte();
+			this.slotProviderId = providerIndex == NONE ? ByteBufUtils.readUTF8String(buf) : SLOT_PROVIDERS[providerIndex];
+			byte typeOrdinal = buf.readByte();
+			if (typeOrdinal != NONE) {
+				this.inventoryType = INVENTORY_TYPES[typeOrdinal];
+			}
+			this.index = ByteBufUtils.readVarInt(buf, VAR_INT_MAX_SIZE);
+			this.itemDamage = ByteBufUtils.readVarInt(buf, VAR_INT_MAX_SIZE);
+		}
 
-	public void setEntity(ICharmEntity entity) {
-		this.entity = entity;
-	}
+		private void toBytes(ByteBuf buf) {
+			ByteBufUtils.writeVarInt(buf, TreasureCharmRegistry.getId(entity.getCharm()), VAR_INT_MAX_SIZE);
+			// write entity data
+			buf.writeDouble(entity.getMana());
+			// write specific entity data
+			if (entity instanceof ICooldownCharmEntity) {
+				buf.writeDouble(((ICooldownCharmEntity) entity).getCooldownEnd());
+			}
 
-	public void setHand(EnumHand hand) {
-		this.hand = hand;
-	}
+			buf.writeByte(hand == null ? NONE : hand.ordinal());
+			ByteBufUtils.writeVarInt(buf, slot + 1, VAR_INT_MAX_SIZE);
+			int providerIndex = getSlotProviderIndex(slotProviderId);
+			buf.writeByte(providerIndex);
+			if (providerIndex == NONE) {
+				ByteBufUtils.writeUTF8String(buf, slotProviderId == null ? "" : slotProviderId);
+			}
+			buf.writeByte(inventoryType == null ? NONE : inventoryType.ordinal());
+			ByteBufUtils.writeVarInt(buf, index, VAR_INT_MAX_SIZE);
+			ByteBufUtils.writeVarInt(buf, itemDamage, VAR_INT_MAX_SIZE);
+		}
 
-	public void setSlot(Integer slot) {
-		this.slot = slot;
-	}
-	
-	public InventoryType getInventoryType() {
-		return inventoryType;
-	}
+		private static int getSlotProviderIndex(String slotProviderId) {
+			for (int i = 0; i < SLOT_PROVIDERS.length; i++) {
+				if (SLOT_PROVIDERS[i].equals(slotProviderId)) {
+					return i;
+				}
+			}
+			return NONE;
+		}
 
-	public void setInventoryType(InventoryType inventoryType) {
-		this.inventoryType = inventoryType;
-	}
+		public ICharmEntity getEntity() {
+			return entity;
+		}
 
-	public int getIndex() {
-		return index;
-	}
+		public EnumHand getHand() {
+			return hand;
+		}
 
-	public void setIndex(int index) {
-		this.index = index;
-	}
-	
-	@Override
-	public String toString() {
-		return "CharmMessageToClient [valid=" + valid + ", playerName=" + playerName + ", charmName=" + charmName
-				+ ", entity=" + entity + ", hand=" + hand + ", slot=" + slot + ", slotProviderId=" + slotProviderId
-				+ ", inventoryType=" + inventoryType + ", index=" + index + ", itemDamage=" + itemDamage + "]";
-	}
+		public int getSlot() {
+			return slot;
+		}
 
-	public int getItemDamage() {
-		return itemDamage;
-	}
+		public String getSlotProviderId() {
+			return slotProviderId;
+		}
 
-	public void setItemDamage(int itemDamage) {
-		this.itemDamage = itemDamage;
+		public InventoryType getInventoryType() {
+			return inventoryType;
+		}
+
+		public int getIndex() {
+			return index;
+		}
+
+		public int getItemDamage() {
+			return itemDamage;
+		}
+
+		@Override
+		public String toString() {
+			return "CharmUpdate [entity=" + entity + ", hand=" + hand + ", slot=" + slot + ", slotProviderId=" + slotProviderId
+					+ ", inventoryType=" + inventoryType + ", index=" + index + ", itemDamage=" + itemDamage + "]";
+		}
 	}
 }
@@ -0,0 +1,97 @@
+/*
+ * This file is part of  Treasure2.
+ * Copyright (c) 2021, Mark Gottschling (gottsch)
+ * 
+ * All rights reserved.
+ * 
+ * Treasure2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * Treasure2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Treasure2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package com.someguyssoftware.treasure2.network;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+
+import com.someguyssoftware.treasure2.Treasure;
+import com.someguyssoftware.treasure2.charm.CharmContext;
+
+import net.minecraft.entity.player.EntityPlayerMP;
+
+/**
+ * Buffers the charm updates of each player during a tick and sends them as a single CharmMessageToClient per player.
+ * Repeated updates to the same charm (same slot and index) within a tick are coalesced into the latest state.
+ * NOTE only accessed from the server thread.
+ */
+public class CharmSyncBuffer {
+	private final Map<EntityPlayerMP, List<CharmContext>> pending = new WeakHashMap<>();
+
+	/**
+	 * 
+	 * @param player
+	 * @param context
+	 */
+	public void add(EntityPlayerMP player, CharmContext context) {
+		List<CharmContext> contexts = pending.get(player);
+		if (contexts == null) {
+			contexts = new ArrayList<>(5);
+			pending.put(player, contexts);
+		}
+		// replace an earlier update to the same charm
+		for (int i = 0; i < contexts.size(); i++) {
+			if (isSameLocation(contexts.get(i), context)) {
+				contexts.set(i, context);
+				return;
+			}
+		}
+		contexts.add(context);
+	}
+
+	/**
+	 * Sends the buffered updates of each player. Called once at the end of the server tick.
+	 */
+	public void flush() {
+		if (pending.isEmpty()) {
+			return;
+		}
+		for (Map.Entry<EntityPlayerMP, List<CharmContext>> entry : pending.entrySet()) {
+			List<CharmContext> contexts = entry.getValue();
+			if (contexts.isEmpty()) {
+				continue;
+			}
+			EntityPlayerMP player = entry.getKey();
+			if (!player.hasDisconnected()) {
+				// NOTE the message copies the state of the charms, so the list can be reused
+				CharmMessageToClient message = new CharmMessageToClient(player.getUUID(player.getGameProfile()).toString(), contexts);
+				Treasure.simpleNetworkWrapper.sendTo(message, player);
+			}
+			contexts.clear();
+		}
+	}
+
+	/**
+	 * 
+	 * @param context1
+	 * @param context2
+	 * @return
+	 */
+	private static boolean isSameLocation(CharmContext context1, CharmContext context2) {
+		return context1.getIndex() == context2.getIndex()
+				&& context1.getType() == context2.getType()
+				&& context1.getHand() == context2.getHand()
+				&& Objects.equals(context1.getSlot(), context2.getSlot())
+				&& Objects.equals(context1.getSlotProviderId(), context2.getSlotProviderId());
+	}
+}
@@ -0,0 +1,130 @@
+/**
+ * 
+ */
+package com.someguyssoftware.treasure2.persistence;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.block.Block;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+
+/**
+ * The block placements of a single dimension that were deferred because their chunk was not generated or populated yet.
+ * Placements are held per chunk, in the order they were made, as packed ints: [pos (high), pos (low), block state ID, flags].
+ * NOTE the block state IDs are the same IDs that the chunks are saved with, so they are stable for the world.
+ */
+public class DeferredPlacements {
+	private static final String CHUNK_TAG_NAME = "chunk";
+	private static final String PLACEMENTS_TAG_NAME = "placements";
+	private static final int STRIDE = 4;
+
+	private final Long2ObjectMap<IntArrayList> chunks = new Long2ObjectOpenHashMap<>();
+	private int size;
+
+	/**
+	 * 
+	 * @param pos
+	 * @param state
+	 * @param flags
+	 */
+	public void add(BlockPos pos, IBlockState state, int flags) {
+		long key = ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4);
+		IntArrayList placements = chunks.get(key);
+		if (placements == null) {
+			placements = new IntArrayList(STRIDE * 16);
+			chunks.put(key, placements);
+		}
+		long packed = pos.toLong();
+		placements.add((int)(packed >>> 32));
+		placements.add((int)packed);
+		placements.add(Block.getStateId(state));
+		placements.add(flags);
+		size++;
+	}
+
+	/**
+	 * 
+	 * @param chunkX
+	 * @param chunkZ
+	 * @return
+	 */
+	public boolean contains(int chunkX, int chunkZ) {
+		return chunks.containsKey(ChunkPos.asLong(chunkX, chunkZ));
+	}
+
+	/**
+	 * Places the deferred blocks of the chunk into the world, in the order they were deferred, and removes them.
+	 * @param world
+	 * @param chunkX
+	 * @param chunkZ
+	 * @return the number of placements applied
+	 */
+	public int apply(World world, int chunkX, int chunkZ) {
+		IntArrayList placements = chunks.remove(ChunkPos.asLong(chunkX, chunkZ));
+		if (placements == null) {
+			return 0;
+		}
+		int count = placements.size() / STRIDE;
+		size -= count;
+		for (int i = 0; i < placements.size(); i += STRIDE) {
+			long packed = ((long)placements.getInt(i) << 32) | (placements.getInt(i + 1) & 0xFFFFFFFFL);
+			world.setBlockState(BlockPos.fromLong(packed), Block.getStateById(placements.getInt(i + 2)), placements.getInt(i + 3));
+		}
+		return count;
+	}
+
+	/**
+	 * 
+	 * @return the number of deferred placements
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * 
+	 * @return the number of chunks with deferred placements
+	 */
+	public int getChunkCount() {
+		return chunks.size();
+	}
+
+	/**
+	 * 
+	 * @param tagList
+	 */
+	public void readFromNBT(NBTTagList tagList) {
+		chunks.clear();
+		size = 0;
+		for (int i = 0; i < tagList.tagCount(); i++) {
+			NBTTagCompound chunkTag = tagList.getCompoundTagAt(i);
+			int[] placements = chunkTag.getIntArray(PLACEMENTS_TAG_NAME);
+			if (placements.length == 0 || placements.length % STRIDE != 0) {
+				continue;
+			}
+			chunks.put(chunkTag.getLong(CHUNK_TAG_NAME), new IntArrayList(placements));
+			size += placements.length / STRIDE;
+		}
+	}
+
+	/**
+	 * 
+	 * @return
+	 */
+	public NBTTagList writeToNBT() {
+		NBTTagList tagList = new NBTTagList();
+		for (Long2ObjectMap.Entry<IntArrayList> entry : chunks.long2ObjectEntrySet()) {
+			NBTTagCompound chunkTag = new NBTTagCompound();
+			chunkTag.setLong(CHUNK_TAG_NAME, entry.getLongKey());
+			chunkTag.setIntArray(PLACEMENTS_TAG_NAME, entry.getValue().toIntArray());
+			tagList.appendTag(chunkTag);
+		}
+		return tagList;
+	}
+}
@@ -3,25 +3,15 @@
  */
 package com.someguyssoftware.treasure2.persistence;
 
-import java.util.Map.Entry;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
-import com.someguyssoftware.gottschcore.positional.Coords;
 import com.someguyssoftware.treasure2.Treasure;
-import com.someguyssoftware.treasure2.chest.ChestInfo;
-import com.someguyssoftware.treasure2.enums.Rarity;
-import com.someguyssoftware.treasure2.enums.WorldGeneratorType;
 import com.someguyssoftware.treasure2.registry.ChestRegistry;
 import com.someguyssoftware.treasure2.registry.WitherTreeRegistry;
-import com.someguyssoftware.treasure2.worldgen.GemOreWorldGenerator;
-import com.someguyssoftware.treasure2.worldgen.SubmergedChestWorldGenerator;
-import com.someguyssoftware.treasure2.worldgen.SurfaceChestWorldGenerator;
-import com.someguyssoftware.treasure2.worldgen.WellWorldGenerator;
-import com.someguyssoftware.treasure2.worldgen.WitherTreeWorldGenerator;
 
 import net.minecraft.nbt.NBTTagCompound;
-import net.minecraft.nbt.NBTTagInt;
 import net.minecraft.nbt.NBTTagList;
-import net.minecraft.nbt.NBTTagString;
 import net.minecraft.world.World;
 import net.minecraft.world.storage.WorldSavedData;
 
@@ -34,25 +24,16 @@ public class GenDataPersistence extends WorldSavedData {
 	private static final String TREASURE_GEN_TAG_NAME = "treasureGenerator";
 	
 	public static final String GEN_DATA_KEY = "treasureGenData";
+	
+	// version 2 - compact registries format
+	private static final int VERSION = 2;
+	private static final String VERSION_TAG_NAME = "version";
 
-	private static final String SURFACE_CHEST_GEN_TAG_NAME = "surfaceChestGen";
-	private static final String SUBMERGED_CHEST_GEN_TAG_NAME = "submergedChestGen";
-	private static final String KEY_TAG_NAME = "key";
-	private static final String COUNT_TAG_NAME = "count";
-	private static final String CHUNKS_SINCE_LAST_CHEST_TAG_NAME = "chunksSinceLastChest";
-	private static final String CHUNKS_SINCE_LAST_RARITY_CHEST_TAG_NAME = "chunksSinceLastRarityChest";
-	private static final String CHEST_REGISTRY_TAG_NAME = "chestRegistry";
-	private static final String WITHER_TREE_REGISTRY_TAG_NAME ="witherTreeRegistry";
-	private static final String COORDS_TAG_NAME = "coords";
-
-	private static final String RARITY_TAG_NAME = "rarity";
 	private static final String DIMENSION_ID_TAG_NAME = "dimensionID";
 	private static final String DIMENSIONS_TAG_NAME = "dimensions";
-	private static final String BIOME_ID_TAG_NAME = "biomeID";
-	private static final String BIOMES_TAG_NAME = "biomes";
-	
-
 	
+	// the generation state of each dimension
+	private final Map<Integer, GenerationState> generationStates = new ConcurrentHashMap<>();
 	
 	/**
 	 * Empty constructor
@@ -76,82 +57,38 @@ public class GenDataPersistence extends WorldSavedData {
 	public void readFromNBT(NBTTagCompound tag) {
 		Treasure.LOGGER.debug("Loading Treasure! saved gen data...");
 
-		// get the world generators
-		SurfaceChestWorldGenerator surfaceChestGen = (SurfaceChestWorldGenerator) Treasure.WORLD_GENERATORS.get(WorldGeneratorType.SURFACE_CHEST);
-		SubmergedChestWorldGenerator submergedChestGen = (SubmergedChestWorldGenerator) Treasure.WORLD_GENERATORS.get(WorldGeneratorType.SUBMERGED_CHEST);
-		WellWorldGenerator wellGen = (WellWorldGenerator) Treasure.WORLD_GENERATORS.get(WorldGeneratorType.WELL);
-		WitherTreeWorldGenerator witherGen = (WitherTreeWorldGenerator) Treasure.WORLD_GENERATORS.get(WorldGeneratorType.WITHER_TREE);
-		GemOreWorldGenerator gemGen = (GemOreWorldGenerator) Treasure.WORLD_GENERATORS.get(WorldGeneratorType.GEM);
-
 		// treasure
 		NBTTagCompound treasureGen = tag.getCompoundTag(TREASURE_GEN_TAG_NAME);
-		NBTTagCompound surfaceTag = treasureGen.getCompoundTag(SURFACE_CHEST_GEN_TAG_NAME);
-		NBTTagCompound submergedTag = treasureGen.getCompoundTag(SUBMERGED_CHEST_GEN_TAG_NAME);
-	
-		///// Chests /////
-		/// Surface Chests ///
-		if (surfaceTag != null) {
-			surfaceChestGen.setChunksSinceLastChest(surfaceTag.getInteger(CHUNKS_SINCE_LAST_CHEST_TAG_NAME));
-			NBTTagList chunksSinceTagList = surfaceTag.getTagList(CHUNKS_SINCE_LAST_RARITY_CHEST_TAG_NAME, 10);
-			// load all the chunks since last rarity chest properites
-			for (int i = 0; i < chunksSinceTagList.tagCount(); i++) {
-				NBTTagCompound chunkTag = chunksSinceTagList.getCompoundTagAt(i);
-				int count = chunkTag.getInteger(COUNT_TAG_NAME);
-				String key = chunkTag.getString(KEY_TAG_NAME);
-				surfaceChestGen.getChunksSinceLastRarityChest().put(Rarity.valueOf(key), count);
+
+		///// Generation State /////
+		generationStates.clear();
+		if (treasureGen.hasKey(DIMENSIONS_TAG_NAME)) {
+			NBTTagList dimensionsTagList = treasureGen.getTagList(DIMENSIONS_TAG_NAME, 10);
+			for (int i = 0; i < dimensionsTagList.tagCount(); i++) {
+				NBTTagCompound dimTag = dimensionsTagList.getCompoundTagAt(i);
+				getGenerationState(dimTag.getInteger(DIMENSION_ID_TAG_NAME)).readFromNBT(dimTag);
 			}
 		}
-		
-		/// Submerged Chests ///
-		if (submergedTag != null) {
-			submergedChestGen.setChunksSinceLastChest(submergedTag.getInteger(CHUNKS_SINCE_LAST_CHEST_TAG_NAME));
-			NBTTagList chunksSinceTagList = submergedTag.getTagList(CHUNKS_SINCE_LAST_RARITY_CHEST_TAG_NAME, 10);
-			// load all the chunks since last rarity chest properites
-			for (int i = 0; i < chunksSinceTagList.tagCount(); i++) {
-				NBTTagCompound chunkTag = chunksSinceTagList.getCompoundTagAt(i);
-				int count = chunkTag.getInteger(COUNT_TAG_NAME);
-				String key = chunkTag.getString(KEY_TAG_NAME);
-				submergedChestGen.getChunksSinceLastRarityChest().put(Rarity.valueOf(key), count);
-			}
+		else {
+			// legacy format - the counters were not indexed by dimension, assign them to the overworld
+			getGenerationState(0).readFromNBT(treasureGen);
 		}
 		
-		///// Well /////
-		wellGen.setChunksSinceLastWell(treasureGen.getInteger("chunksSinceLastWell"));
-		
-		///// Wither Tree /////
-		witherGen.setChunksSinceLastTree(treasureGen.getInteger("chunksSinceLastTree"));
-		
-		///// Gem Ore /////
-		gemGen.setChunksSinceLastOre(treasureGen.getInteger("chunksSinceLastOre"));
-		
 		///// ChestConfig Registry /////
 		ChestRegistry chestRegistry = ChestRegistry.getInstance();
-		Treasure.LOGGER.debug("ChestConfig Registry size before loading -> {}", chestRegistry.getValues().size());
-		chestRegistry.clear();
-		// load the chest registry
-		NBTTagList chestRegistryTagList = treasureGen.getTagList(CHEST_REGISTRY_TAG_NAME, 10);
-		for (int i = 0; i < chestRegistryTagList.tagCount(); i++) {
-			NBTTagCompound chunkTag = chestRegistryTagList.getCompoundTagAt(i);
-			String key = chunkTag.getString(KEY_TAG_NAME);
-			String rarity = chunkTag.getString(RARITY_TAG_NAME);
-			NBTTagCompound coords = chunkTag.getCompoundTag(COORDS_TAG_NAME);
-			int x = coords.getInteger("x");
-			int y = coords.getInteger("y");
-			int z = coords.getInteger("z");
-			chestRegistry.register(key, new ChestInfo(Rarity.getByValue(rarity), new Coords(x, y, z)));
-		}
-		Treasure.LOGGER.debug("ChestConfig Registry size after loading -> {}", chestRegistry.getValues().size());
+		Treasure.LOGGER.debug("ChestConfig Registry size before loading -> {}", chestRegistry.size());
+		boolean isLegacy = chestRegistry.read(treasureGen);
+		Treasure.LOGGER.debug("ChestConfig Registry size after loading -> {}", chestRegistry.size());
 		
 		// Wither Tree Registry
 		WitherTreeRegistry witherTreeRegistry = WitherTreeRegistry.getInstance();
-		witherTreeRegistry.read(treasureGen);
-//		witherTreeRegistry.clear();
-//		NBTTagList witherTreeRegistryDimensionTagList = treasureGen.getTagList(WITHER_TREE_REGISTRY_TAG_NAME, 10);
-//		for (int index = 0; index < witherTreeRegistryDimensionTagList.tagCount(); index++) {
-//			NBTTagCompound dimTag = witherTreeRegistryDimensionTagList.getCompoundTagAt(index);
-//			int dimensionID = dimTag.getInteger(DIMENSION_ID_TAG_NAME);
-////			NBTTagList oasisRegistryTagList = dimTag.getTagList("registry", 10);
-//		}
+		isLegacy = witherTreeRegistry.read(treasureGen) || isLegacy;
+		
+		// migrate older saves to the compact format on the next save
+		if (isLegacy || treasureGen.getInteger(VERSION_TAG_NAME) < VERSION) {
+			Treasure.LOGGER.info("Migrating Treasure! saved gen data to version {}", VERSION);
+			markDirty();
+		}
 	}
 
 	/*
@@ -168,133 +105,24 @@ public class GenDataPersistence extends WorldSavedData {
 			
 			// add main treasure tag
 			tag.setTag(TREASURE_GEN_TAG_NAME, treasureGen);
-			
-			///// Chests //////
-			// get the chest world generators
-			SurfaceChestWorldGenerator surfaceChestGen = (SurfaceChestWorldGenerator) Treasure.WORLD_GENERATORS.get(WorldGeneratorType.SURFACE_CHEST);
-			SubmergedChestWorldGenerator submergedChestGen = (SubmergedChestWorldGenerator) Treasure.WORLD_GENERATORS.get(WorldGeneratorType.SUBMERGED_CHEST);
-			
-			// create a new compounds
-			NBTTagCompound surfaceTag = new NBTTagCompound();
-			NBTTagCompound submergedTag = new NBTTagCompound();
-			
-			/// Surface Chests ///
-			// add the surface chest gen last count to the treasure compound
-			surfaceTag.setInteger(CHUNKS_SINCE_LAST_CHEST_TAG_NAME, surfaceChestGen.getChunksSinceLastChest());			
-			
-			// TODO these 2 blocks could become one method
-			NBTTagList chunksSinceTagList = new NBTTagList();
-			for (Entry<Rarity, Integer> since : surfaceChestGen.getChunksSinceLastRarityChest().entrySet()) {
-				NBTTagCompound entry = new NBTTagCompound();
-				NBTTagString key = new NBTTagString(since.getKey().name());
-				NBTTagInt count = new NBTTagInt(since.getValue());
-				entry.setTag(KEY_TAG_NAME, key);
-				entry.setTag(COUNT_TAG_NAME, count);				
-				// add entry to list
-				chunksSinceTagList.appendTag(entry);
+			treasureGen.setInteger(VERSION_TAG_NAME, VERSION);
+			
+			///// Generation State /////
+			NBTTagList dimensionsTagList = new NBTTagList();
+			for (GenerationState state : generationStates.values()) {
+				NBTTagCompound dimTag = new NBTTagCompound();
+				dimTag.setInteger(DIMENSION_ID_TAG_NAME, state.getDimensionID());
+				state.writeToNBT(dimTag);
+				dimensionsTagList.appendTag(dimTag);
 			}
-			surfaceTag.setTag(CHUNKS_SINCE_LAST_RARITY_CHEST_TAG_NAME, chunksSinceTagList);
-			
-			/// Submerged Chests ///
-			// add the submerged chest gen last count to the treasure compound
-			submergedTag.setInteger(CHUNKS_SINCE_LAST_CHEST_TAG_NAME, submergedChestGen.getChunksSinceLastChest());			
-			chunksSinceTagList = new NBTTagList();
-			for (Entry<Rarity, Integer> since : submergedChestGen.getChunksSinceLastRarityChest().entrySet()) {
-				NBTTagCompound entry = new NBTTagCompound();
-				NBTTagString key = new NBTTagString(since.getKey().name());
-				NBTTagInt count = new NBTTagInt(since.getValue());
-				entry.setTag(KEY_TAG_NAME, key);
-				entry.setTag(COUNT_TAG_NAME, count);				
-				// add entry to list
-				chunksSinceTagList.appendTag(entry);
-			}			
-			submergedTag.setTag(CHUNKS_SINCE_LAST_RARITY_CHEST_TAG_NAME, chunksSinceTagList);
-			
-			// add chest gen tags to main tag
-			treasureGen.setTag(SURFACE_CHEST_GEN_TAG_NAME, surfaceTag);
-			treasureGen.setTag(SUBMERGED_CHEST_GEN_TAG_NAME, submergedTag);
-			
-			///// Well ////
-			// get the well world generator
-			WellWorldGenerator wellGen = (WellWorldGenerator) Treasure.WORLD_GENERATORS.get(WorldGeneratorType.WELL);
-			
-			// add the chest gen last count to the treasure compound
-			treasureGen.setInteger("chunksSinceLastWell", wellGen.getChunksSinceLastWell());
-			
-			//// Wither Tree /////
-			WitherTreeWorldGenerator witherGen = (WitherTreeWorldGenerator) Treasure.WORLD_GENERATORS.get(WorldGeneratorType.WITHER_TREE);
-			
-			// add the chest gen last count to the treasure compound
-			treasureGen.setInteger("chunksSinceLastTree", witherGen.getChunksSinceLastTree());
-			
-			//// Gem Ore ////
-			GemOreWorldGenerator gemGen = (GemOreWorldGenerator) Treasure.WORLD_GENERATORS.get(WorldGeneratorType.GEM);
-			treasureGen.setInteger("chunksSinceLastOre", gemGen.getChunksSinceLastOre());
+			treasureGen.setTag(DIMENSIONS_TAG_NAME, dimensionsTagList);
 			
 			///// ChestConfig Registry /////
-			NBTTagList chestRegistryTagList = new NBTTagList();
-			ChestRegistry chestRegistry = ChestRegistry.getInstance();
-			for (ChestInfo element : chestRegistry.getValues()) {
-				NBTTagCompound entry = new NBTTagCompound();
-				NBTTagString key = new NBTTagString(element.getCoords().toShortString());
-				NBTTagString rarity = new NBTTagString(element.getRarity().getValue());
-				NBTTagCompound coords = new NBTTagCompound();
-				NBTTagInt x = new NBTTagInt(element.getCoords().getX());
-				NBTTagInt y = new NBTTagInt(element.getCoords().getY());
-				NBTTagInt z = new NBTTagInt(element.getCoords().getZ());
-				
-				coords.setTag("x", x);
-				coords.setTag("y", y);
-				coords.setTag("z", z);
-				
-				entry.setTag(KEY_TAG_NAME, key);
-				entry.setTag(RARITY_TAG_NAME, rarity);
-				entry.setTag(COORDS_TAG_NAME, coords);
-				
-				// add entry to list
-				chestRegistryTagList.appendTag(entry);
-			}
-			// delete current tag
-			treasureGen.removeTag(CHEST_REGISTRY_TAG_NAME);
-			// add new values
-			treasureGen.setTag(CHEST_REGISTRY_TAG_NAME, chestRegistryTagList);
-			
+			// NOTE the registries only re-serialize if they have changed since the last save
+			ChestRegistry.getInstance().write(treasureGen);
 			
 			///// Wither Tree Registry (multi-dimensional) /////			
-			WitherTreeRegistry witherTreeRegistry = WitherTreeRegistry.getInstance();
-			witherTreeRegistry.write(treasureGen);
-			
-//			NBTTagList witherTreeRegistryDimensionTagList = new NBTTagList();
-//			for (Integer dimensionKey : witherTreeRegistry.getDimensionKeys()) {
-//				LinkedList<WitherTreeInfo> infoList = witherTreeRegistry.getDimensionEntry(dimensionKey);
-//				NBTTagCompound dimTag = new NBTTagCompound();
-//				dimTag.setInteger(DIMENSION_ID_TAG_NAME, dimensionKey);
-//				NBTTagList witherTreeRegistryTagList = new NBTTagList();
-//				for(WitherTreeInfo info : infoList) {
-//					NBTTagCompound infoTag = new NBTTagCompound();					
-//					NBTTagInt biomeID = new NBTTagInt(info.getBiomeID());
-//					NBTTagCompound coords = new NBTTagCompound();
-//					NBTTagInt x = new NBTTagInt(info.getCoords().getX());
-//					NBTTagInt y = new NBTTagInt(info.getCoords().getY());
-//					NBTTagInt z = new NBTTagInt(info.getCoords().getZ());
-//					
-//					coords.setTag("x", x);
-//					coords.setTag("y", y);
-//					coords.setTag("z", z);
-//
-//					infoTag.setTag(BIOME_ID_TAG_NAME, biomeID);
-//					infoTag.setTag(COORDS_TAG_NAME, coords);
-//					
-//					witherTreeRegistryTagList.appendTag(infoTag);
-//				}
-//				dimTag.setTag("registry", witherTreeRegistryTagList);
-//				witherTreeRegistryDimensionTagList.appendTag(dimTag);
-//			}
-//			// delete current tag
-//			treasureGen.removeTag(WITHER_TREE_REGISTRY_TAG_NAME);
-//			// add new values
-//			treasureGen.setTag(WITHER_TREE_REGISTRY_TAG_NAME, witherTreeRegistryDimensionTagList);
-			
+			WitherTreeRegistry.getInstance().write(treasureGen);
 		}
 		catch(Exception e) {
 			e.printStackTrace();
@@ -304,6 +132,15 @@ public class GenDataPersistence extends WorldSavedData {
 		return tag;
 	}
 
+	/**
+	 * Returns the generation state of the dimension, creating it if it does not exist.
+	 * @param dimensionID
+	 * @return
+	 */
+	public GenerationState getGenerationState(int dimensionID) {
+		return generationStates.computeIfAbsent(dimensionID, GenerationState::new);
+	}
+
 	/**
 	 * NOTE world.loadItemData is cached to a HashMap, so you don't have to worry about performing too many get()s that read from the disk.
 	 * @param world
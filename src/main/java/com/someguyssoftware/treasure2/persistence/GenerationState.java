@@ -0,0 +1,195 @@
+/**
+ *
+ */
+package com.someguyssoftware.treasure2.persistence;
+
+import com.someguyssoftware.treasure2.enums.Rarity;
+
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
+
+/**
+ * Holds the world generation counters and the deferred block placements for a single dimension.
+ * Each dimension owns its own instance, so generators running in different dimensions never share mutable state.
+ */
+public class GenerationState {
+	private static final String SURFACE_CHEST_GEN_TAG_NAME = "surfaceChestGen";
+	private static final String SUBMERGED_CHEST_GEN_TAG_NAME = "submergedChestGen";
+	private static final String KEY_TAG_NAME = "key";
+	private static final String COUNT_TAG_NAME = "count";
+	private static final String CHUNKS_SINCE_LAST_CHEST_TAG_NAME = "chunksSinceLastChest";
+	private static final String CHUNKS_SINCE_LAST_RARITY_CHEST_TAG_NAME = "chunksSinceLastRarityChest";
+	private static final String CHUNKS_SINCE_LAST_WELL_TAG_NAME = "chunksSinceLastWell";
+	private static final String CHUNKS_SINCE_LAST_TREE_TAG_NAME = "chunksSinceLastTree";
+	private static final String CHUNKS_SINCE_LAST_ORE_TAG_NAME = "chunksSinceLastOre";
+	private static final String DEFERRED_PLACEMENTS_TAG_NAME = "deferredPlacements";
+
+	private final int dimensionID;
+	private final ChestGenerationState surfaceChestState = new ChestGenerationState();
+	private final ChestGenerationState submergedChestState = new ChestGenerationState();
+	private int chunksSinceLastWell;
+	private int chunksSinceLastTree;
+	private int chunksSinceLastOre;
+	private final DeferredPlacements deferredPlacements = new DeferredPlacements();
+
+	/**
+	 *
+	 * @param dimensionID
+	 */
+	public GenerationState(int dimensionID) {
+		this.dimensionID = dimensionID;
+	}
+
+	/**
+	 * Reads the counters from the tag. Also used to read the legacy (single dimension) format
+	 * as the tag names are the same.
+	 * @param tag
+	 */
+	public void readFromNBT(NBTTagCompound tag) {
+		if (tag.hasKey(SURFACE_CHEST_GEN_TAG_NAME)) {
+			surfaceChestState.readFromNBT(tag.getCompoundTag(SURFACE_CHEST_GEN_TAG_NAME));
+		}
+		if (tag.hasKey(SUBMERGED_CHEST_GEN_TAG_NAME)) {
+			submergedChestState.readFromNBT(tag.getCompoundTag(SUBMERGED_CHEST_GEN_TAG_NAME));
+		}
+		chunksSinceLastWell = tag.getInteger(CHUNKS_SINCE_LAST_WELL_TAG_NAME);
+		chunksSinceLastTree = tag.getInteger(CHUNKS_SINCE_LAST_TREE_TAG_NAME);
+		chunksSinceLastOre = tag.getInteger(CHUNKS_SINCE_LAST_ORE_TAG_NAME);
+		deferredPlacements.readFromNBT(tag.getTagList(DEFERRED_PLACEMENTS_TAG_NAME, 10));
+	}
+
+	/**
+	 *
+	 * @param tag
+	 * @return
+	 */
+	public NBTTagCompound writeToNBT(NBTTagCompound tag) {
+		tag.setTag(SURFACE_CHEST_GEN_TAG_NAME, surfaceChestState.writeToNBT(new NBTTagCompound()));
+		tag.setTag(SUBMERGED_CHEST_GEN_TAG_NAME, submergedChestState.writeToNBT(new NBTTagCompound()));
+		tag.setInteger(CHUNKS_SINCE_LAST_WELL_TAG_NAME, chunksSinceLastWell);
+		tag.setInteger(CHUNKS_SINCE_LAST_TREE_TAG_NAME, chunksSinceLastTree);
+		tag.setInteger(CHUNKS_SINCE_LAST_ORE_TAG_NAME, chunksSinceLastOre);
+		tag.setTag(DEFERRED_PLACEMENTS_TAG_NAME, deferredPlacements.writeToNBT());
+		return tag;
+	}
+
+	public int getDimensionID() {
+		return dimensionID;
+	}
+
+	public ChestGenerationState getSurfaceChestState() {
+		return surfaceChestState;
+	}
+
+	public ChestGenerationState getSubmergedChestState() {
+		return submergedChestState;
+	}
+
+	public int getChunksSinceLastWell() {
+		return chunksSinceLastWell;
+	}
+
+	public void setChunksSinceLastWell(int chunksSinceLastWell) {
+		this.chunksSinceLastWell = chunksSinceLastWell;
+	}
+
+	public int incrementChunksSinceLastWell() {
+		return ++chunksSinceLastWell;
+	}
+
+	public int getChunksSinceLastTree() {
+		return chunksSinceLastTree;
+	}
+
+	public void setChunksSinceLastTree(int chunksSinceLastTree) {
+		this.chunksSinceLastTree = chunksSinceLastTree;
+	}
+
+	public int incrementChunksSinceLastTree() {
+		return ++chunksSinceLastTree;
+	}
+
+	public int getChunksSinceLastOre() {
+		return chunksSinceLastOre;
+	}
+
+	public void setChunksSinceLastOre(int chunksSinceLastOre) {
+		this.chunksSinceLastOre = chunksSinceLastOre;
+	}
+
+	public int incrementChunksSinceLastOre() {
+		return ++chunksSinceLastOre;
+	}
+
+	public DeferredPlacements getDeferredPlacements() {
+		return deferredPlacements;
+	}
+
+	/**
+	 * The chest counters of a chest world generator (surface or submerged).
+	 * Rarity counts are indexed by Rarity ordinal.
+	 */
+	public static class ChestGenerationState {
+		private int chunksSinceLastChest;
+		private final int[] chunksSinceLastRarityChest = new int[Rarity.values().length];
+
+		/**
+		 *
+		 * @param tag
+		 */
+		public void readFromNBT(NBTTagCompound tag) {
+			chunksSinceLastChest = tag.getInteger(CHUNKS_SINCE_LAST_CHEST_TAG_NAME);
+			NBTTagList chunksSinceTagList = tag.getTagList(CHUNKS_SINCE_LAST_RARITY_CHEST_TAG_NAME, 10);
+			// load all the chunks since last rarity chest properites
+			for (int i = 0; i < chunksSinceTagList.tagCount(); i++) {
+				NBTTagCompound chunkTag = chunksSinceTagList.getCompoundTagAt(i);
+				int count = chunkTag.getInteger(COUNT_TAG_NAME);
+				String key = chunkTag.getString(KEY_TAG_NAME);
+				chunksSinceLastRarityChest[Rarity.valueOf(key).ordinal()] = count;
+			}
+		}
+
+		/**
+		 *
+		 * @param tag
+		 * @return
+		 */
+		public NBTTagCompound writeToNBT(NBTTagCompound tag) {
+			tag.setInteger(CHUNKS_SINCE_LAST_CHEST_TAG_NAME, chunksSinceLastChest);
+			NBTTagList chunksSinceTagList = new NBTTagList();
+			for (Rarity rarity : Rarity.values()) {
+				NBTTagCompound entry = new NBTTagCompound();
+				entry.setString(KEY_TAG_NAME, rarity.name());
+				entry.setInteger(COUNT_TAG_NAME, chunksSinceLastRarityChest[rarity.ordinal()]);
+				// add entry to list
+				chunksSinceTagList.appendTag(entry);
+			}
+			tag.setTag(CHUNKS_SINCE_LAST_RARITY_CHEST_TAG_NAME, chunksSinceTagList);
+			return tag;
+		}
+
+		public int getChunksSinceLastChest() {
+			return chunksSinceLastChest;
+		}
+
+		public void setChunksSinceLastChest(int chunksSinceLastChest) {
+			this.chunksSinceLastChest = chunksSinceLastChest;
+		}
+
+		public int incrementChunksSinceLastChest() {
+			return ++chunksSinceLastChest;
+		}
+
+		public int getChunksSinceLastRarityChest(Rarity rarity) {
+			return chunksSinceLastRarityChest[rarity.ordinal()];
+		}
+
+		public void setChunksSinceLastRarityChest(Rarity rarity, int count) {
+			chunksSinceLastRarityChest[rarity.ordinal()] = count;
+		}
+
+		public void incrementChunksSinceLastRarityChest(Rarity rarity) {
+			chunksSinceLastRarityChest[rarity.ordinal()]++;
+		}
+	}
+}
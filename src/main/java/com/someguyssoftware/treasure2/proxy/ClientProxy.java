@@ -38,6 +38,7 @@ import com.someguyssoftware.treasure2.entity.monster.BoundSoulEntity;
 import com.someguyssoftware.treasure2.entity.monster.PirateMimicEntity;
 import com.someguyssoftware.treasure2.entity.monster.WoodMimicEntity;
 import com.someguyssoftware.treasure2.particle.MistTextureStitcher;
+import com.someguyssoftware.treasure2.registry.AnimatedChestRegistry;
 import com.someguyssoftware.treasure2.tileentity.AbstractTreasureChestTileEntity;
 import com.someguyssoftware.treasure2.tileentity.CardboardBoxTileEntity;
 import com.someguyssoftware.treasure2.tileentity.CauldronChestTileEntity;
@@ -75,6 +76,8 @@ import net.minecraftforge.fml.common.Mod;
 import net.minecraftforge.fml.common.Mod.EventHandler;
 import net.minecraftforge.fml.common.event.FMLPreInitializationEvent;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent.ClientTickEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent.Phase;
 import net.minecraftforge.fml.relauncher.Side;
 
 /**
@@ -84,6 +87,18 @@ import net.minecraftforge.fml.relauncher.Side;
 @Mod.EventBusSubscriber(modid=Treasure.MODID, value = Side.CLIENT)
 public class ClientProxy {
 
+	/**
+	 * Tick the animating chests of the client world (the world tick event is only fired for the server worlds).
+	 * @param event
+	 */
+	@SubscribeEvent
+	public static void onClientTick(ClientTickEvent event) {
+		Minecraft minecraft = Minecraft.getMinecraft();
+		if (event.phase == Phase.END && minecraft.world != null && !minecraft.isGamePaused()) {
+			AnimatedChestRegistry.getInstance().tick(minecraft.world);
+		}
+	}
+
 	@SuppressWarnings("deprecation")
 	@SubscribeEvent
 	public static void registerRenderers(@SuppressWarnings("rawtypes") final RegistryEvent.Register event) {
@@ -0,0 +1,117 @@
+/**
+ * 
+ */
+package com.someguyssoftware.treasure2.registry;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import com.someguyssoftware.treasure2.tileentity.AbstractTreasureChestTileEntity;
+
+import it.unimi.dsi.fastutil.objects.ReferenceLinkedOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ReferenceSet;
+import net.minecraft.world.World;
+
+/**
+ * Ticks the chests of each world that are animating (ex. a player is using the chest, or its lid is closing).
+ * The chest tile entities are not tickable - an idle chest (no players using it, the lid closed) costs nothing per tick.
+ * A chest is added when a player opens or closes it (on the server via the container, and on the client via the block event),
+ * and is removed once it is idle again.
+ * NOTE used by both the server and the client worlds.
+ */
+public class AnimatedChestRegistry {
+	/*
+	 * the interval at which the players using an open chest are recounted, in case a close was missed (ex. a disconnect)
+	 */
+	public static final int RECOUNT_INTERVAL = 200;
+
+	private static AnimatedChestRegistry instance = new AnimatedChestRegistry();
+
+	private final Map<World, ReferenceSet<AbstractTreasureChestTileEntity>> worlds = Collections.synchronizedMap(new WeakHashMap<>());
+
+	/**
+	 * 
+	 */
+	private AnimatedChestRegistry() {}
+
+	/**
+	 * 
+	 * @return
+	 */
+	public static AnimatedChestRegistry getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Adds the chest to the ticking chests of its world. Called when a player opens or closes the chest.
+	 * @param world
+	 * @param chest
+	 */
+	public void activate(World world, AbstractTreasureChestTileEntity chest) {
+		ReferenceSet<AbstractTreasureChestTileEntity> chests = worlds.get(world);
+		if (chests == null) {
+			chests = new ReferenceLinkedOpenHashSet<>();
+			worlds.put(world, chests);
+		}
+		chests.add(chest);
+	}
+
+	/**
+	 * Removes the chest from the ticking chests of its world. Called when the tile entity is invalidated or its chunk is unloaded.
+	 * @param world
+	 * @param chest
+	 */
+	public void deactivate(World world, AbstractTreasureChestTileEntity chest) {
+		ReferenceSet<AbstractTreasureChestTileEntity> chests = worlds.get(world);
+		if (chests != null) {
+			chests.remove(chest);
+		}
+	}
+
+	/**
+	 * Ticks the animating chests of the world, and drops the ones that are idle. Called once per tick of the world.
+	 * @param world
+	 */
+	public void tick(World world) {
+		ReferenceSet<AbstractTreasureChestTileEntity> chests = worlds.get(world);
+		if (chests == null || chests.isEmpty()) {
+			return;
+		}
+		boolean recount = !world.isRemote && world.getTotalWorldTime() % RECOUNT_INTERVAL == 0;
+		Iterator<AbstractTreasureChestTileEntity> iterator = chests.iterator();
+		while (iterator.hasNext()) {
+			AbstractTreasureChestTileEntity chest = iterator.next();
+			if (chest.isInvalid() || chest.getWorld() != world) {
+				iterator.remove();
+				continue;
+			}
+			if (recount && chest.numPlayersUsing != 0) {
+				chest.recountPlayersUsing();
+			}
+			chest.update();
+			if (!chest.isAnimating()) {
+				iterator.remove();
+			}
+		}
+	}
+
+	/**
+	 * 
+	 * @param world
+	 * @return the number of animating chests of the world
+	 */
+	public int size(World world) {
+		ReferenceSet<AbstractTreasureChestTileEntity> chests = worlds.get(world);
+		return chests == null ? 0 : chests.size();
+	}
+
+	/**
+	 * 
+	 * @param world
+	 */
+	public void clear(World world) {
+		worlds.remove(world);
+	}
+}
@@ -4,17 +4,27 @@
 package com.someguyssoftware.treasure2.registry;
 
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.HashSet;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Map.Entry;
+import java.util.function.Predicate;
 
 import com.google.common.collect.LinkedListMultimap;
 import com.google.common.collect.ListMultimap;
-import com.google.common.collect.Sets;
+import com.someguyssoftware.gottschcore.positional.Coords;
+import com.someguyssoftware.gottschcore.positional.ICoords;
 import com.someguyssoftware.treasure2.Treasure;
 import com.someguyssoftware.treasure2.chest.ChestInfo;
 import com.someguyssoftware.treasure2.config.TreasureConfig;
+import com.someguyssoftware.treasure2.enums.Rarity;
+import com.someguyssoftware.treasure2.enums.WorldGeneratorType;
+import com.someguyssoftware.treasure2.util.PackedCoordsUtil;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
 
 /**
  * 
@@ -23,16 +33,39 @@ import com.someguyssoftware.treasure2.config.TreasureConfig;
  */
 public class ChestRegistry {
 	private static final int MAX_SIZE = TreasureConfig.CHESTS.chestRegistrySize;
-	
+	private static final String CHEST_REGISTRY_TAG_NAME = "chestRegistry";
+	private static final String COORDS_TAG_NAME = "coords";
+	private static final String RARITY_TAG_NAME = "rarity";
+	private static final String DIMENSION_ID_TAG_NAME = "dimensionID";
+	private static final String KEY_TAG_NAME = "key";
+	private static final String GENERATOR_TAG_NAME = "generator";
+
+	/*
+	 * the size of a spatial index bucket, as a power of 2 of blocks (2^8 = 256 blocks = 16 chunks).
+	 */
+	private static final int BUCKET_SHIFT = 8;
+
 	private static ChestRegistry instance = new ChestRegistry();
 	// TODO this does not need to be a ListMultimap, can be just a LinkedList to preserve order
 	private ListMultimap<String, ChestInfo> registry;
+
+	/*
+	 * spatial index of the registry: dimension -> bucket key -> chests in bucket.
+	 * mirrors the registry and is only used for proximity queries.
+	 */
+	private Int2ObjectMap<Long2ObjectMap<List<ChestInfo>>> index;
+	
+	// true if the registry has changed since it was last written
+	private boolean dirty;
+	// the last written registry tag. reused as-is while the registry is not dirty.
+	private NBTTagCompound cachedTag;
 	
 	/**
 	 * 
 	 */
 	private ChestRegistry() {
 		registry = LinkedListMultimap.create();
+		index = new Int2ObjectOpenHashMap<>();
 	}
 	
 	/**
@@ -57,7 +90,7 @@ public class ChestRegistry {
 	 * @param key
 	 * @param info
 	 */
-	public synchronized void register(final String key, final ChestInfo info) {	
+	public synchronized void register(final String key, final ChestInfo info) {
 		Treasure.LOGGER.debug("Registering chest using key: " + key);
 		// test the size
 		if (registry.size() >= MAX_SIZE) {
@@ -67,6 +100,9 @@ public class ChestRegistry {
 		}
 		// register by the unique key
 		registry.put(key, info);
+		// add to the spatial index
+		index(info);
+		dirty = true;
 	}
 	
 	/**
@@ -75,7 +111,10 @@ public class ChestRegistry {
 	 */
 	public synchronized void unregister(final String key) {
 		if (registry.containsKey(key)) {
-			registry.removeAll(key);
+			for (ChestInfo info : registry.removeAll(key)) {
+				unindex(info);
+			}
+			dirty = true;
 		}
 	}
 	
@@ -92,16 +131,333 @@ public class ChestRegistry {
 		return info;
 	}
 	
+	/**
+	 * Finds the nearest registered chest in the dimension that is strictly within the radius of the coords.
+	 * Only the index buckets overlapping the radius are visited and no objects are allocated.
+	 * @param dimensionID
+	 * @param coords
+	 * @param radius
+	 * @return the nearest ChestInfo within the radius, or null if there are none
+	 */
+	public synchronized ChestInfo findWithin(final int dimensionID, final ICoords coords, final int radius) {
+		Long2ObjectMap<List<ChestInfo>> buckets = index.get(dimensionID);
+		if (buckets == null || buckets.isEmpty()) {
+			return null;
+		}
+
+		double radiusSq = (double)radius * radius;
+		ChestInfo nearest = null;
+		double nearestSq = radiusSq;
+
+		int minBucketX = (coords.getX() - radius) >> BUCKET_SHIFT;
+		int maxBucketX = (coords.getX() + radius) >> BUCKET_SHIFT;
+		int minBucketZ = (coords.getZ() - radius) >> BUCKET_SHIFT;
+		int maxBucketZ = (coords.getZ() + radius) >> BUCKET_SHIFT;
+
+		for (int bucketX = minBucketX; bucketX <= maxBucketX; bucketX++) {
+			for (int bucketZ = minBucketZ; bucketZ <= maxBucketZ; bucketZ++) {
+				List<ChestInfo> bucket = buckets.get(toBucketKey(bucketX, bucketZ));
+				if (bucket == null) {
+					continue;
+				}
+				// NOTE use indexed access to avoid allocating an iterator
+				for (int i = 0; i < bucket.size(); i++) {
+					ChestInfo info = bucket.get(i);
+					double distance = coords.getDistanceSq(info.getCoords());
+					if (distance < nearestSq) {
+						nearest = info;
+						nearestSq = distance;
+					}
+				}
+			}
+		}
+		return nearest;
+	}
+	
+	/**
+	 * Collects the registered chests of the dimension that are nearest (horizontally) to the coords and match the filter, nearest first.
+	 * The index buckets are visited in rings around the coords, until no unvisited bucket can hold a nearer chest than the limit-th
+	 * one found, or the max. radius is reached. Once a ring would visit more buckets than the dimension has, the remaining buckets
+	 * are scanned instead, so a query never costs more than a pass over the dimension's buckets.
+	 * @param dimensionID
+	 * @param coords
+	 * @param limit the max. number of chests to collect
+	 * @param maxRadius the max. distance, in blocks, from the coords
+	 * @param filter
+	 * @param deadline the System.nanoTime() at which to stop searching
+	 * @param found the list to collect the chests into
+	 * @return true if the search completed, false if the deadline was reached first (the found chests may not be the nearest)
+	 */
+	public synchronized boolean findNearest(final int dimensionID, final ICoords coords, final int limit, final int maxRadius,
+			final Predicate<ChestInfo> filter, final long deadline, final List<ChestInfo> found) {
+		Long2ObjectMap<List<ChestInfo>> buckets = index.get(dimensionID);
+		if (buckets == null || buckets.isEmpty() || limit <= 0) {
+			return true;
+		}
+		double maxRadiusSq = (double)maxRadius * maxRadius;
+		Comparator<ChestInfo> byDistance = Comparator.comparingDouble(info -> getHorizontalDistanceSq(coords, info.getCoords()));
+		int originX = coords.getX() >> BUCKET_SHIFT;
+		int originZ = coords.getZ() >> BUCKET_SHIFT;
+		int maxRing = (maxRadius >> BUCKET_SHIFT) + 1;
+		int start = found.size();
+		boolean complete = true;
+
+		for (int ring = 0; ring <= maxRing; ring++) {
+			if (System.nanoTime() > deadline) {
+				complete = false;
+				break;
+			}
+			// a chest in an unvisited bucket is at least (ring - 1) buckets away
+			if (found.size() - start >= limit) {
+				found.subList(start, found.size()).sort(byDistance);
+				double bound = (double)(ring - 1) * (1 << BUCKET_SHIFT);
+				if (getHorizontalDistanceSq(coords, found.get(start + limit - 1).getCoords()) <= bound * bound) {
+					break;
+				}
+			}
+			if (8 * ring > buckets.size()) {
+				// sparse - scan the rest
+				int count = 0;
+				for (Long2ObjectMap.Entry<List<ChestInfo>> entry : buckets.long2ObjectEntrySet()) {
+					long key = entry.getLongKey();
+					if (Math.max(Math.abs((int)key - originX), Math.abs((int)(key >>> 32) - originZ)) >= ring) {
+						collect(entry.getValue(), coords, maxRadiusSq, filter, found);
+					}
+					if ((++count & 255) == 0 && System.nanoTime() > deadline) {
+						complete = false;
+						break;
+					}
+				}
+				break;
+			}
+			if (ring == 0) {
+				collect(buckets.get(toBucketKey(originX, originZ)), coords, maxRadiusSq, filter, found);
+				continue;
+			}
+			for (int offset = -ring; offset <= ring; offset++) {
+				collect(buckets.get(toBucketKey(originX + offset, originZ - ring)), coords, maxRadiusSq, filter, found);
+				collect(buckets.get(toBucketKey(originX + offset, originZ + ring)), coords, maxRadiusSq, filter, found);
+				if (offset != -ring && offset != ring) {
+					collect(buckets.get(toBucketKey(originX - ring, originZ + offset)), coords, maxRadiusSq, filter, found);
+					collect(buckets.get(toBucketKey(originX + ring, originZ + offset)), coords, maxRadiusSq, filter, found);
+				}
+			}
+		}
+
+		found.subList(start, found.size()).sort(byDistance);
+		while (found.size() - start > limit) {
+			found.remove(found.size() - 1);
+		}
+		return complete;
+	}
+
+	/**
+	 * 
+	 * @param bucket
+	 * @param coords
+	 * @param maxRadiusSq
+	 * @param filter
+	 * @param found
+	 */
+	private static void collect(final List<ChestInfo> bucket, final ICoords coords, final double maxRadiusSq,
+			final Predicate<ChestInfo> filter, final List<ChestInfo> found) {
+		if (bucket == null) {
+			return;
+		}
+		for (int i = 0; i < bucket.size(); i++) {
+			ChestInfo info = bucket.get(i);
+			if (getHorizontalDistanceSq(coords, info.getCoords()) <= maxRadiusSq && filter.test(info)) {
+				found.add(info);
+			}
+		}
+	}
+
+	/**
+	 * 
+	 * @param from
+	 * @param to
+	 * @return
+	 */
+	private static double getHorizontalDistanceSq(final ICoords from, final ICoords to) {
+		double x = (double)to.getX() - from.getX();
+		double z = (double)to.getZ() - from.getZ();
+		return x * x + z * z;
+	}
+
+	/**
+	 * Convenience method for findWithin().
+	 * @param dimensionID
+	 * @param coords
+	 * @param radius
+	 * @return
+	 */
+	public boolean isWithin(final int dimensionID, final ICoords coords, final int radius) {
+		return findWithin(dimensionID, coords, radius) != null;
+	}
+	
 	/**
 	 * This will not update parent collection.
+	 * Values are returned in registration (FIFO) order.
 	 * @return
 	 */
 	public List<ChestInfo> getValues() {
-		HashSet<ChestInfo> set = Sets.newHashSet(registry.values());
-		return new ArrayList<>(set);
+		return new ArrayList<>(registry.values());
 	}
 	
-	public void clear() {
+	/**
+	 * 
+	 * @return
+	 */
+	public int size() {
+		return registry.size();
+	}
+
+	public synchronized void clear() {
 		registry.clear();
+		index.clear();
+		dirty = true;
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	public boolean isDirty() {
+		return dirty;
+	}
+	
+	/**
+	 * Reads the registry from the tag. Both the compact format and the legacy (compound per entry) format are supported.
+	 * @param tag
+	 * @return true if the legacy format was read and the registry needs to be migrated
+	 */
+	public synchronized boolean read(NBTTagCompound tag) {
+		clear();
+		boolean isLegacy = false;
+		if (tag.hasKey(CHEST_REGISTRY_TAG_NAME, 10)) {
+			NBTTagCompound registryTag = tag.getCompoundTag(CHEST_REGISTRY_TAG_NAME);
+			int[] coords = registryTag.getIntArray(COORDS_TAG_NAME);
+			byte[] rarities = registryTag.getByteArray(RARITY_TAG_NAME);
+			int[] dimensions = registryTag.getIntArray(DIMENSION_ID_TAG_NAME);
+			// NOTE older saves do not contain the generators
+			byte[] generators = registryTag.getByteArray(GENERATOR_TAG_NAME);
+			int size = Math.min(PackedCoordsUtil.size(coords), Math.min(rarities.length, dimensions.length));
+			for (int i = 0; i < size; i++) {
+				ICoords chestCoords = PackedCoordsUtil.read(coords, i);
+				WorldGeneratorType generatorType = i < generators.length && generators[i] >= 0 && generators[i] < WorldGeneratorType.values().length
+						? WorldGeneratorType.values()[generators[i]] : null;
+				register(chestCoords.toShortString(), new ChestInfo(Rarity.getByCode((int)rarities[i]), chestCoords, dimensions[i], generatorType));
+			}
+			// the loaded tag is identical to what would be written unless entries were evicted on load (or it predates the generators)
+			if (registry.size() == size && generators.length == size) {
+				cachedTag = registryTag;
+				dirty = false;
+			}
+		}
+		else if (tag.hasKey(CHEST_REGISTRY_TAG_NAME, 9)) {
+			isLegacy = true;
+			NBTTagList chestRegistryTagList = tag.getTagList(CHEST_REGISTRY_TAG_NAME, 10);
+			for (int i = 0; i < chestRegistryTagList.tagCount(); i++) {
+				NBTTagCompound chunkTag = chestRegistryTagList.getCompoundTagAt(i);
+				String key = chunkTag.getString(KEY_TAG_NAME);
+				String rarity = chunkTag.getString(RARITY_TAG_NAME);
+				NBTTagCompound coords = chunkTag.getCompoundTag(COORDS_TAG_NAME);
+				int x = coords.getInteger("x");
+				int y = coords.getInteger("y");
+				int z = coords.getInteger("z");
+				// NOTE older saves do not contain the dimension and default to the overworld
+				int dimensionID = chunkTag.getInteger(DIMENSION_ID_TAG_NAME);
+				register(key, new ChestInfo(Rarity.getByValue(rarity), new Coords(x, y, z), dimensionID));
+			}
+		}
+		return isLegacy;
+	}
+	
+	/**
+	 * Writes the registry to the tag in the compact format: coords as packed longs, rarity as a byte, dimension as an int
+	 * and generator as a byte (-1 if unknown), each in a parallel array. The registry is only re-serialized if it has changed since the last write.
+	 * @param tag
+	 * @return
+	 */
+	public synchronized NBTTagCompound write(NBTTagCompound tag) {
+		if (dirty || cachedTag == null) {
+			int size = registry.size();
+			int[] coords = new int[size * 2];
+			byte[] rarities = new byte[size];
+			int[] dimensions = new int[size];
+			byte[] generators = new byte[size];
+			int index = 0;
+			for (ChestInfo info : registry.values()) {
+				PackedCoordsUtil.write(coords, index, info.getCoords());
+				rarities[index] = info.getRarity().getCode().byteValue();
+				dimensions[index] = info.getDimensionID();
+				generators[index] = info.getGeneratorType() == null ? -1 : (byte)info.getGeneratorType().ordinal();
+				index++;
+			}
+			NBTTagCompound registryTag = new NBTTagCompound();
+			registryTag.setIntArray(COORDS_TAG_NAME, coords);
+			registryTag.setByteArray(RARITY_TAG_NAME, rarities);
+			registryTag.setIntArray(DIMENSION_ID_TAG_NAME, dimensions);
+			registryTag.setByteArray(GENERATOR_TAG_NAME, generators);
+			cachedTag = registryTag;
+			dirty = false;
+		}
+		tag.setTag(CHEST_REGISTRY_TAG_NAME, cachedTag);
+		return tag;
+	}
+	
+	/**
+	 * 
+	 * @param info
+	 */
+	private void index(final ChestInfo info) {
+		Long2ObjectMap<List<ChestInfo>> buckets = index.get(info.getDimensionID());
+		if (buckets == null) {
+			buckets = new Long2ObjectOpenHashMap<>();
+			index.put(info.getDimensionID(), buckets);
+		}
+		long key = toBucketKey(info.getCoords().getX() >> BUCKET_SHIFT, info.getCoords().getZ() >> BUCKET_SHIFT);
+		List<ChestInfo> bucket = buckets.get(key);
+		if (bucket == null) {
+			bucket = new ArrayList<>(4);
+			buckets.put(key, bucket);
+		}
+		bucket.add(info);
+	}
+	
+	/**
+	 * 
+	 * @param info
+	 */
+	private void unindex(final ChestInfo info) {
+		Long2ObjectMap<List<ChestInfo>> buckets = index.get(info.getDimensionID());
+		if (buckets == null) {
+			return;
+		}
+		long key = toBucketKey(info.getCoords().getX() >> BUCKET_SHIFT, info.getCoords().getZ() >> BUCKET_SHIFT);
+		List<ChestInfo> bucket = buckets.get(key);
+		if (bucket == null) {
+			return;
+		}
+		// remove by identity
+		for (int i = 0; i < bucket.size(); i++) {
+			if (bucket.get(i) == info) {
+				bucket.remove(i);
+				break;
+			}
+		}
+		if (bucket.isEmpty()) {
+			buckets.remove(key);
+		}
+	}
+	
+	/**
+	 * 
+	 * @param bucketX
+	 * @param bucketZ
+	 * @return
+	 */
+	private static long toBucketKey(final int bucketX, final int bucketZ) {
+		return ((long)bucketX & 0xFFFFFFFFL) | (((long)bucketZ & 0xFFFFFFFFL) << 32);
 	}
 }
@@ -0,0 +1,181 @@
+/*
+ * This file is part of  Treasure2.
+ * Copyright (c) 2021, Mark Gottschling (gottsch)
+ * 
+ * All rights reserved.
+ * 
+ * Treasure2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * Treasure2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Treasure2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package com.someguyssoftware.treasure2.registry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.someguyssoftware.treasure2.Treasure;
+
+import net.minecraft.util.ResourceLocation;
+
+/**
+ * Loads (reads, decodes and parses) a list of resources in parallel on a bounded pool of threads.
+ * The results are returned in the order of the resources, so the caller can table them deterministically
+ * on its own thread. A timing report of each resource is logged once all the resources are loaded.
+ * NOTE the loader function must not modify shared state - it is called concurrently.
+ */
+public final class ParallelResourceLoader {
+	/*
+	 * the maximum number of loading threads. leaves a processor for the server thread.
+	 */
+	public static final int MAX_THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+
+	private ParallelResourceLoader() {}
+
+	/**
+	 * 
+	 * @param name the name of the resource type, for logging. ex. "template"
+	 * @param locations
+	 * @param loader loads a single resource. called concurrently.
+	 * @return the loaded resources, in the order of the locations. empty for each resource that failed to load.
+	 */
+	public static <T> List<Optional<T>> loadAll(String name, List<ResourceLocation> locations, Function<ResourceLocation, Optional<T>> loader) {
+		List<Optional<T>> results = new ArrayList<>(locations.size());
+		if (locations.isEmpty()) {
+			return results;
+		}
+
+		long[] times = new long[locations.size()];
+		int threads = Math.min(MAX_THREADS, locations.size());
+		long start = System.nanoTime();
+
+		if (threads == 1) {
+			// not worth a thread
+			for (int i = 0; i < locations.size(); i++) {
+				results.add(load(locations.get(i), loader, times, i));
+			}
+		}
+		else {
+			ExecutorService executor = Executors.newFixedThreadPool(threads,
+					new ThreadFactoryBuilder().setNameFormat("Treasure2 " + name + " loader #%d").setDaemon(true).build());
+			try {
+				List<Callable<Optional<T>>> tasks = new ArrayList<>(locations.size());
+				for (int i = 0; i < locations.size(); i++) {
+					final int index = i;
+					tasks.add(() -> load(locations.get(index), loader, times, index));
+				}
+				// NOTE invokeAll returns the futures in the order of the tasks
+				for (Future<Optional<T>> future : executor.invokeAll(tasks)) {
+					results.add(getResult(future));
+				}
+			}
+			catch (InterruptedException e) {
+				Treasure.LOGGER.warn("interrupted while loading {} resources", name);
+				Thread.currentThread().interrupt();
+				while (results.size() < locations.size()) {
+					results.add(Optional.empty());
+				}
+			}
+			finally {
+				executor.shutdownNow();
+			}
+		}
+
+		report(name, locations, results, times, threads, System.nanoTime() - start);
+		return results;
+	}
+
+	/**
+	 * 
+	 * @param location
+	 * @param loader
+	 * @param times
+	 * @param index
+	 * @return
+	 */
+	private static <T> Optional<T> load(ResourceLocation location, Function<ResourceLocation, Optional<T>> loader, long[] times, int index) {
+		long start = System.nanoTime();
+		try {
+			Optional<T> result = loader.apply(location);
+			return result == null ? Optional.empty() : result;
+		}
+		catch (Exception e) {
+			Treasure.LOGGER.error("unable to load resource -> {}", location, e);
+			return Optional.empty();
+		}
+		finally {
+			// NOTE each task writes its own element. the results are read after invokeAll(), which happens-after the tasks.
+			times[index] = System.nanoTime() - start;
+		}
+	}
+
+	/**
+	 * 
+	 * @param future
+	 * @return
+	 * @throws InterruptedException
+	 */
+	private static <T> Optional<T> getResult(Future<Optional<T>> future) throws InterruptedException {
+		try {
+			return future.get();
+		}
+		catch (ExecutionException e) {
+			// load() catches the loader's exceptions, so this is unexpected
+			Treasure.LOGGER.error("unable to load resource", e.getCause());
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * Logs the total and per resource load times.
+	 * @param name
+	 * @param locations
+	 * @param results
+	 * @param times
+	 * @param threads
+	 * @param elapsed
+	 */
+	private static <T> void report(String name, List<ResourceLocation> locations, List<Optional<T>> results, long[] times, int threads, long elapsed) {
+		long sum = 0;
+		int slowest = 0;
+		int loaded = 0;
+		for (int i = 0; i < times.length; i++) {
+			sum += times[i];
+			if (times[i] > times[slowest]) {
+				slowest = i;
+			}
+			if (results.get(i).isPresent()) {
+				loaded++;
+			}
+		}
+		Treasure.LOGGER.info("loaded {}/{} {} resources in {} ms using {} thread(s) (sum of load times -> {} ms, slowest -> {} @ {} ms)",
+				loaded, locations.size(), name, toMillis(elapsed), threads, toMillis(sum), locations.get(slowest), toMillis(times[slowest]));
+
+		if (Treasure.LOGGER.isDebugEnabled()) {
+			for (int i = 0; i < times.length; i++) {
+				Treasure.LOGGER.debug("{} resource -> {}, loaded -> {}, time -> {} ms", name, locations.get(i), results.get(i).isPresent(), toMillis(times[i]));
+			}
+		}
+	}
+
+	private static long toMillis(long nanos) {
+		return TimeUnit.NANOSECONDS.toMillis(nanos);
+	}
+}
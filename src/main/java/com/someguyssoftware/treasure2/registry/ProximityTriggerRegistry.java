@@ -0,0 +1,269 @@
+/**
+ * 
+ */
+package com.someguyssoftware.treasure2.registry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import com.someguyssoftware.treasure2.tileentity.IProximityTrigger;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+
+/**
+ * Tracks the proximity triggers (ex. proximity spawners, mist emitters) of each world, indexed by chunk.
+ * Instead of each tile entity scanning all the players every tick, the triggers of the chunks around each player
+ * are evaluated once every EVALUATION_INTERVAL ticks, and only the triggers with a player within proximity are called.
+ * NOTE only used by the server worlds.
+ */
+public class ProximityTriggerRegistry {
+	public static final int EVALUATION_INTERVAL = 5;
+
+	/*
+	 * the largest supported proximity. determines the chunks searched around a player.
+	 */
+	public static final double MAX_PROXIMITY = 32D;
+	private static final int CHUNK_RADIUS = ((int)MAX_PROXIMITY >> 4) + 1;
+
+	private static ProximityTriggerRegistry instance = new ProximityTriggerRegistry();
+
+	private final Map<World, WorldTriggers> worlds = Collections.synchronizedMap(new WeakHashMap<>());
+
+	/**
+	 * 
+	 */
+	private ProximityTriggerRegistry() {}
+
+	/**
+	 * 
+	 * @return
+	 */
+	public static ProximityTriggerRegistry getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Registers the trigger with its world. Called when the tile entity is loaded.
+	 * @param world
+	 * @param trigger
+	 */
+	public void register(World world, IProximityTrigger trigger) {
+		WorldTriggers triggers = worlds.get(world);
+		if (triggers == null) {
+			triggers = new WorldTriggers();
+			worlds.put(world, triggers);
+		}
+		triggers.add(trigger);
+	}
+
+	/**
+	 * Unregisters the trigger from its world. Called when the tile entity is invalidated or its chunk is unloaded.
+	 * @param world
+	 * @param trigger
+	 */
+	public void unregister(World world, IProximityTrigger trigger) {
+		WorldTriggers triggers = worlds.get(world);
+		if (triggers != null) {
+			triggers.remove(trigger);
+		}
+	}
+
+	/**
+	 * 
+	 * @param world
+	 * @param trigger
+	 * @return true if the trigger is registered with the world
+	 */
+	public boolean isRegistered(World world, IProximityTrigger trigger) {
+		WorldTriggers triggers = worlds.get(world);
+		return triggers != null && triggers.contains(trigger);
+	}
+
+	/**
+	 * Evaluates the triggers of the world every EVALUATION_INTERVAL ticks. Called once per tick of the world.
+	 * @param world
+	 */
+	public void tick(World world) {
+		if (world.getTotalWorldTime() % EVALUATION_INTERVAL != 0) {
+			return;
+		}
+		WorldTriggers triggers = worlds.get(world);
+		if (triggers != null && !triggers.isEmpty()) {
+			triggers.evaluate(world);
+		}
+	}
+
+	/**
+	 * 
+	 * @param world
+	 */
+	public void clear(World world) {
+		worlds.remove(world);
+	}
+
+	/**
+	 * The triggers of a single world.
+	 */
+	private static class WorldTriggers {
+		private final Long2ObjectMap<List<Entry>> chunks = new Long2ObjectOpenHashMap<>();
+		// the entries that had a player within proximity at the last evaluation
+		private final List<Entry> activeEntries = new ArrayList<>();
+		// reused between evaluations
+		private final List<Entry> candidates = new ArrayList<>();
+		private final List<EntityPlayer> players = new ArrayList<>();
+		private int evaluation;
+
+		public boolean isEmpty() {
+			return chunks.isEmpty() && activeEntries.isEmpty();
+		}
+
+		public void add(IProximityTrigger trigger) {
+			long key = toChunkKey(trigger.getPos());
+			List<Entry> entries = chunks.get(key);
+			if (entries == null) {
+				entries = new ArrayList<>(2);
+				chunks.put(key, entries);
+			}
+			for (int i = 0; i < entries.size(); i++) {
+				if (entries.get(i).trigger == trigger) {
+					return;
+				}
+			}
+			entries.add(new Entry(trigger));
+		}
+
+		public boolean contains(IProximityTrigger trigger) {
+			List<Entry> entries = chunks.get(toChunkKey(trigger.getPos()));
+			if (entries != null) {
+				for (int i = 0; i < entries.size(); i++) {
+					if (entries.get(i).trigger == trigger) {
+						return true;
+					}
+				}
+			}
+			return false;
+		}
+
+		public void remove(IProximityTrigger trigger) {
+			long key = toChunkKey(trigger.getPos());
+			List<Entry> entries = chunks.get(key);
+			if (entries == null) {
+				return;
+			}
+			for (int i = 0; i < entries.size(); i++) {
+				if (entries.get(i).trigger == trigger) {
+					activeEntries.remove(entries.remove(i));
+					break;
+				}
+			}
+			if (entries.isEmpty()) {
+				chunks.remove(key);
+			}
+		}
+
+		/**
+		 * 
+		 * @param world
+		 */
+		public void evaluate(World world) {
+			evaluation++;
+			candidates.clear();
+
+			// collect the triggers in the chunks around each player, once each
+			for (int playerIndex = 0; playerIndex < world.playerEntities.size(); playerIndex++) {
+				EntityPlayer player = world.playerEntities.get(playerIndex);
+				int chunkX = ((int)Math.floor(player.posX)) >> 4;
+				int chunkZ = ((int)Math.floor(player.posZ)) >> 4;
+				for (int x = chunkX - CHUNK_RADIUS; x <= chunkX + CHUNK_RADIUS; x++) {
+					for (int z = chunkZ - CHUNK_RADIUS; z <= chunkZ + CHUNK_RADIUS; z++) {
+						List<Entry> entries = chunks.get(ChunkPos.asLong(x, z));
+						if (entries == null) {
+							continue;
+						}
+						for (int i = 0; i < entries.size(); i++) {
+							Entry entry = entries.get(i);
+							if (entry.evaluation != evaluation) {
+								entry.evaluation = evaluation;
+								candidates.add(entry);
+							}
+						}
+					}
+				}
+			}
+
+			// test the candidates against the players
+			for (int i = 0; i < candidates.size(); i++) {
+				Entry entry = candidates.get(i);
+				entry.withinProximity = false;
+				if (!entry.trigger.isTriggerEnabled()) {
+					continue;
+				}
+				collectPlayersWithinProximity(world, entry.trigger);
+				if (!players.isEmpty()) {
+					entry.withinProximity = true;
+					if (!entry.active) {
+						entry.active = true;
+						activeEntries.add(entry);
+					}
+					// NOTE the trigger may unregister itself from the callback
+					entry.trigger.onPlayersWithinProximity(world, players);
+				}
+			}
+			players.clear();
+
+			// notify the previously active triggers that no longer have a player within proximity
+			for (int i = activeEntries.size() - 1; i >= 0; i--) {
+				Entry entry = activeEntries.get(i);
+				if (entry.evaluation != evaluation || !entry.withinProximity) {
+					entry.active = false;
+					activeEntries.remove(i);
+					entry.trigger.onPlayersWithinProximity(world, Collections.emptyList());
+				}
+			}
+		}
+
+		private void collectPlayersWithinProximity(World world, IProximityTrigger trigger) {
+			players.clear();
+			double proximitySq = getProximitySq(trigger);
+			BlockPos pos = trigger.getPos();
+			for (int playerIndex = 0; playerIndex < world.playerEntities.size(); playerIndex++) {
+				EntityPlayer player = world.playerEntities.get(playerIndex);
+				if (player.getDistanceSq(pos.getX() + 0.5D, pos.getY() + 0.5D, pos.getZ() + 0.5D) < proximitySq) {
+					players.add(player);
+				}
+			}
+		}
+
+		private static double getProximitySq(IProximityTrigger trigger) {
+			double proximity = Math.min(trigger.getProximity(), MAX_PROXIMITY);
+			double proximitySq = proximity * proximity;
+			return proximitySq < 1 ? 1 : proximitySq;
+		}
+
+		private static long toChunkKey(BlockPos pos) {
+			return ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4);
+		}
+	}
+
+	/**
+	 * 
+	 */
+	private static class Entry {
+		private final IProximityTrigger trigger;
+		private int evaluation;
+		private boolean withinProximity;
+		private boolean active;
+
+		public Entry(IProximityTrigger trigger) {
+			this.trigger = trigger;
+		}
+	}
+}
@@ -14,9 +14,9 @@ import com.someguyssoftware.gottschcore.positional.Coords;
 import com.someguyssoftware.gottschcore.positional.ICoords;
 import com.someguyssoftware.treasure2.Treasure;
 import com.someguyssoftware.treasure2.config.TreasureConfig;
+import com.someguyssoftware.treasure2.util.PackedCoordsUtil;
 
 import net.minecraft.nbt.NBTTagCompound;
-import net.minecraft.nbt.NBTTagInt;
 import net.minecraft.nbt.NBTTagList;
 
 /**
@@ -33,6 +33,11 @@ public class WitherTreeRegistry {
 	private static WitherTreeRegistry instance = new WitherTreeRegistry();
 	private Map<Integer, LinkedList<WitherTreeInfo>> registry;
 	
+	// true if the registry has changed since it was last written
+	private boolean dirty;
+	// the last written registry tag list. reused as-is while the registry is not dirty.
+	private NBTTagList cachedTagList;
+	
 	/**
 	 * 
 	 */
@@ -79,6 +84,7 @@ public class WitherTreeRegistry {
 		
 		// register
 		witherTrees.add(info);
+		dirty = true;
 	}
 	
 	/**
@@ -91,6 +97,7 @@ public class WitherTreeRegistry {
 			// remove the head
 			if (witherTrees.size() > 0) {
 				witherTrees.pop();
+				dirty = true;
 			}
 		}
 	}
@@ -144,69 +151,83 @@ public class WitherTreeRegistry {
 	 */
 	public void clear() {
 		registry.clear();
+		dirty = true;
 	}
 	
 	/**
 	 * 
+	 * @return
+	 */
+	public boolean isDirty() {
+		return dirty;
+	}
+	
+	/**
+	 * Reads the registry from the tag. Both the compact format and the legacy (compound per entry) format are supported.
 	 * @param tag
+	 * @return true if the legacy format was read and the registry needs to be migrated
 	 */
-	public void read(NBTTagCompound tag) {
+	public synchronized boolean read(NBTTagCompound tag) {
 		clear();
+		boolean isLegacy = false;
 		NBTTagList witherTreeRegistryDimensionTagList = tag.getTagList(WITHER_TREE_REGISTRY_TAG_NAME, 10);
 		for (int index = 0; index < witherTreeRegistryDimensionTagList.tagCount(); index++) {
 			NBTTagCompound dimTag = witherTreeRegistryDimensionTagList.getCompoundTagAt(index);
 			int dimensionID = dimTag.getInteger(DIMENSION_ID_TAG_NAME);
-			NBTTagList infoTagList = dimTag.getTagList("infoList", 10);
-			for (int infoIndex = 0; infoIndex < infoTagList.tagCount(); infoIndex++) {
-				NBTTagCompound infoTag = infoTagList.getCompoundTagAt(infoIndex);
-				int biomeID = infoTag.getInteger(BIOME_ID_TAG_NAME);
-				NBTTagCompound coordsTag = infoTag.getCompoundTag(COORDS_TAG_NAME);
-				int x = coordsTag.getInteger("x");
-				int y = coordsTag.getInteger("y");
-				int z = coordsTag.getInteger("z");
-				register(dimensionID, new WitherTreeInfo(new Coords(x, y, z), dimensionID, biomeID));
+			if (dimTag.hasKey(COORDS_TAG_NAME, 11)) {
+				int[] coords = dimTag.getIntArray(COORDS_TAG_NAME);
+				int[] biomes = dimTag.getIntArray(BIOME_ID_TAG_NAME);
+				int size = Math.min(PackedCoordsUtil.size(coords), biomes.length);
+				for (int infoIndex = 0; infoIndex < size; infoIndex++) {
+					register(dimensionID, new WitherTreeInfo(PackedCoordsUtil.read(coords, infoIndex), dimensionID, biomes[infoIndex]));
+				}
 			}
-		}	
+			else {
+				isLegacy = true;
+				NBTTagList infoTagList = dimTag.getTagList("infoList", 10);
+				for (int infoIndex = 0; infoIndex < infoTagList.tagCount(); infoIndex++) {
+					NBTTagCompound infoTag = infoTagList.getCompoundTagAt(infoIndex);
+					int biomeID = infoTag.getInteger(BIOME_ID_TAG_NAME);
+					NBTTagCompound coordsTag = infoTag.getCompoundTag(COORDS_TAG_NAME);
+					int x = coordsTag.getInteger("x");
+					int y = coordsTag.getInteger("y");
+					int z = coordsTag.getInteger("z");
+					register(dimensionID, new WitherTreeInfo(new Coords(x, y, z), dimensionID, biomeID));
+				}
+			}
+		}
+		return isLegacy;
 	}
 	
 	/**
-	 * 
+	 * Writes the registry to the tag in the compact format: per dimension, coords as packed longs and biome IDs in parallel arrays.
+	 * The registry is only re-serialized if it has changed since the last write.
 	 * @param tag
 	 * @return
 	 */
-	public NBTTagCompound write(NBTTagCompound tag) {
-		
-		NBTTagList witherTreeRegistryDimensionTagList = new NBTTagList();
-		for (Integer dimensionKey : getDimensionKeys()) {
-			LinkedList<WitherTreeInfo> infoList = getDimensionEntry(dimensionKey);
-			NBTTagCompound dimTag = new NBTTagCompound();
-			dimTag.setInteger(DIMENSION_ID_TAG_NAME, dimensionKey);
-			NBTTagList infoTagList = new NBTTagList();
-			for(WitherTreeInfo info : infoList) {
-				NBTTagCompound infoTag = new NBTTagCompound();					
-				NBTTagInt biomeID = new NBTTagInt(info.getBiomeID());
-				NBTTagCompound coords = new NBTTagCompound();
-				NBTTagInt x = new NBTTagInt(info.getCoords().getX());
-				NBTTagInt y = new NBTTagInt(info.getCoords().getY());
-				NBTTagInt z = new NBTTagInt(info.getCoords().getZ());
-				
-				coords.setTag("x", x);
-				coords.setTag("y", y);
-				coords.setTag("z", z);
-
-				infoTag.setTag(BIOME_ID_TAG_NAME, biomeID);
-				infoTag.setTag(COORDS_TAG_NAME, coords);
-				
-				infoTagList.appendTag(infoTag);
+	public synchronized NBTTagCompound write(NBTTagCompound tag) {
+		if (dirty || cachedTagList == null) {
+			NBTTagList witherTreeRegistryDimensionTagList = new NBTTagList();
+			for (Integer dimensionKey : getDimensionKeys()) {
+				LinkedList<WitherTreeInfo> infoList = getDimensionEntry(dimensionKey);
+				int[] coords = new int[infoList.size() * 2];
+				int[] biomes = new int[infoList.size()];
+				int infoIndex = 0;
+				for(WitherTreeInfo info : infoList) {
+					PackedCoordsUtil.write(coords, infoIndex, info.getCoords());
+					biomes[infoIndex] = info.getBiomeID();
+					infoIndex++;
+				}
+				NBTTagCompound dimTag = new NBTTagCompound();
+				dimTag.setInteger(DIMENSION_ID_TAG_NAME, dimensionKey);
+				dimTag.setIntArray(COORDS_TAG_NAME, coords);
+				dimTag.setIntArray(BIOME_ID_TAG_NAME, biomes);
+				witherTreeRegistryDimensionTagList.appendTag(dimTag);
 			}
-			dimTag.setTag("infoList", infoTagList);
-			witherTreeRegistryDimensionTagList.appendTag(dimTag);
+			cachedTagList = witherTreeRegistryDimensionTagList;
+			dirty = false;
 		}
-		// delete current tag
-		tag.removeTag(WITHER_TREE_REGISTRY_TAG_NAME);
-		// add new values
-		tag.setTag(WITHER_TREE_REGISTRY_TAG_NAME, witherTreeRegistryDimensionTagList);
-		
+		tag.setTag(WITHER_TREE_REGISTRY_TAG_NAME, cachedTagList);
 		return tag;		
 	}
 	
@@ -70,4 +70,10 @@ public interface IRuneEntity {
 	
 	boolean isAppliedTo(String type);
 
+	/**
+	 * 
+	 * @return a counter that is incremented whenever a saved property of the entity changes
+	 */
+	long getVersion();
+
 }
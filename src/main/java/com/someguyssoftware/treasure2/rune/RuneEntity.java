@@ -22,6 +22,8 @@ package com.someguyssoftware.treasure2.rune;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.someguyssoftware.treasure2.capability.VersionCounter;
+
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.nbt.NBTTagList;
 import net.minecraft.nbt.NBTTagString;
@@ -38,6 +40,11 @@ public class RuneEntity implements IRuneEntity {
 	private boolean applied;
 	
 	private List<String> appliedTo;
+
+	// incremented by every setter - see getVersion()
+	private long version;
+	// counts the changes of the applied-to list
+	private final VersionCounter appliedToVersions = new VersionCounter();
 	
 	/**
 	 * 
@@ -57,6 +64,14 @@ public class RuneEntity implements IRuneEntity {
 		// TODO complete
 	}
 	
+	/**
+	 * NOTE the applied-to list is modified in place by the runes, so its changes are counted as well.
+	 */
+	@Override
+	public long getVersion() {
+		return version + appliedToVersions.count(getAppliedTo());
+	}
+
 	public boolean isAppliedTo(String type) {
 		return getAppliedTo().contains(type);
 	}
@@ -91,6 +106,7 @@ public class RuneEntity implements IRuneEntity {
 	@Override
 	public void setRunestone(IRune runestone) {
 		this.runestone = runestone;
+		version++;
 	}
 
 	@Override
@@ -106,6 +122,7 @@ public class RuneEntity implements IRuneEntity {
 	@Override
 	public void setApplied(boolean applied) {
 		this.applied = applied;
+		version++;
 	}
 
 	@Override
@@ -119,6 +136,7 @@ public class RuneEntity implements IRuneEntity {
 	@Override
 	public void setAppliedTo(List<String> appliedTo) {
 		this.appliedTo = appliedTo;
+		version++;
 	}
 	
 }
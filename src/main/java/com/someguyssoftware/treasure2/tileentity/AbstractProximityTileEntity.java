@@ -3,24 +3,24 @@
  */
 package com.someguyssoftware.treasure2.tileentity;
 
+import java.util.List;
 import java.util.Random;
 
 import com.someguyssoftware.gottschcore.GottschCore;
 import com.someguyssoftware.gottschcore.positional.Coords;
 import com.someguyssoftware.gottschcore.tileentity.AbstractModTileEntity;
-import com.someguyssoftware.gottschcore.world.WorldInfo;
 import com.someguyssoftware.treasure2.Treasure;
+import com.someguyssoftware.treasure2.registry.ProximityTriggerRegistry;
 
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.nbt.NBTTagCompound;
-import net.minecraft.util.ITickable;
 import net.minecraft.world.World;
 
 /**
  * @author Mark Gottschling on Jan 17, 2019
  *
  */
-public abstract class AbstractProximityTileEntity extends AbstractModTileEntity implements IProximityTileEntity, ITickable {
+public abstract class AbstractProximityTileEntity extends AbstractModTileEntity implements IProximityTileEntity, IProximityTrigger {
 	private double proximity;
 	private boolean isDead = false;
 	
@@ -63,40 +63,50 @@ public abstract class AbstractProximityTileEntity extends AbstractModTileEntity
 	    return tag;
 	}
 	
-	/* (non-Javadoc)
-	 * @see net.minecraft.util.ITickable#update()
+	/**
+	 * Register with the proximity trigger registry. NOTE the trigger is only evaluated on the server.
 	 */
 	@Override
-	public void update() {
-        if (WorldInfo.isClientSide()) {
-        	return;
-        }      
-        
-    	// get all players within range
-        EntityPlayer player = null;
+	public void onLoad() {
+		super.onLoad();
+		if (!getWorld().isRemote) {
+			ProximityTriggerRegistry.getInstance().register(getWorld(), this);
+		}
+	}
 
-        boolean isTriggered = false;         
-        double proximitySq = getProximity() * getProximity();
-        if (proximitySq < 1) proximitySq = 1;
-        
-        // for each player
-        for (int playerIndex = 0; playerIndex < getWorld().playerEntities.size(); ++playerIndex) {
-            player = (EntityPlayer)getWorld().playerEntities.get(playerIndex);
-            // get the distance
-            double distanceSq = player.getDistanceSq(this.getPos().add(0.5D, 0.5D, 0.5D));
-//            GottschCore.logger.debug("PTE @ -> {}, proximity -> {}, distance -> {}, triggered -> {}, dead -> {}, result -> {}", 
-//            		this.pos, proximitySq, distanceSq, isTriggered, this.isDead, (!isTriggered && !this.isDead && (distanceSq < proximitySq)) ? "met" : "not met");
-            if (!isTriggered && !this.isDead && (distanceSq < proximitySq)) {
-            	GottschCore.logger.debug("PTE proximity was met.");
-            	isTriggered = true;
-            	// exectute action
-            	execute(this.getWorld(), new Random(), new Coords(this.getPos()), new Coords(player.getPosition()));
+	@Override
+	public void invalidate() {
+		super.invalidate();
+		if (getWorld() != null && !getWorld().isRemote) {
+			ProximityTriggerRegistry.getInstance().unregister(getWorld(), this);
+		}
+	}
 
-            	// NOTE: does not self-destruct that is up to the execute action to perform
-            }
-            
-            if (this.isDead) break;            
-        }
+	@Override
+	public void onChunkUnload() {
+		super.onChunkUnload();
+		if (!getWorld().isRemote) {
+			ProximityTriggerRegistry.getInstance().unregister(getWorld(), this);
+		}
+	}
+
+	@Override
+	public boolean isTriggerEnabled() {
+		return !isDead();
+	}
+
+	/**
+	 * Executes the action for the first player within proximity.
+	 */
+	@Override
+	public void onPlayersWithinProximity(World world, List<EntityPlayer> players) {
+		if (players.isEmpty() || isDead()) {
+			return;
+		}
+		GottschCore.logger.debug("PTE proximity was met.");
+		// exectute action
+		execute(world, world.rand, new Coords(this.getPos()), new Coords(players.get(0).getPosition()));
+		// NOTE: does not self-destruct that is up to the execute action to perform
 	}
 
 	@Override
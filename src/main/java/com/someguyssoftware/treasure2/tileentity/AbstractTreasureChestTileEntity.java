@@ -11,7 +11,6 @@ import java.util.List;
 import javax.annotation.Nullable;
 
 import com.someguyssoftware.gottschcore.tileentity.AbstractModTileEntity;
-import com.someguyssoftware.gottschcore.world.WorldInfo;
 import com.someguyssoftware.treasure2.Treasure;
 import com.someguyssoftware.treasure2.block.TreasureChestBlock;
 import com.someguyssoftware.treasure2.enums.ChestGeneratorType;
@@ -19,12 +18,14 @@ import com.someguyssoftware.treasure2.enums.Rarity;
 import com.someguyssoftware.treasure2.inventory.AbstractChestContainer;
 import com.someguyssoftware.treasure2.inventory.StandardChestContainer;
 import com.someguyssoftware.treasure2.lock.LockState;
+import com.someguyssoftware.treasure2.loot.LootPreRollCache;
+import com.someguyssoftware.treasure2.registry.AnimatedChestRegistry;
+import com.someguyssoftware.treasure2.registry.ProximityTriggerRegistry;
 
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.init.SoundEvents;
 import net.minecraft.inventory.ContainerChest;
-import net.minecraft.inventory.IInventory;
 import net.minecraft.inventory.ItemStackHelper;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
@@ -32,7 +33,6 @@ import net.minecraft.nbt.NBTTagList;
 import net.minecraft.network.NetworkManager;
 import net.minecraft.network.play.server.SPacketUpdateTileEntity;
 import net.minecraft.util.EnumFacing;
-import net.minecraft.util.ITickable;
 import net.minecraft.util.NonNullList;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.SoundCategory;
@@ -49,7 +49,7 @@ import net.minecraftforge.common.util.Constants;
  * @author Mark Gottschling onDec 22, 2017
  *
  */
-public abstract class AbstractTreasureChestTileEntity extends AbstractModTileEntity implements ITreasureChestTileEntity, ITickable {
+public abstract class AbstractTreasureChestTileEntity extends AbstractModTileEntity implements ITreasureChestTileEntity, IProximityTrigger {
 	public class GenerationContext {
 		/*
 		 * The rarity level of the loot that the chest will contain
@@ -121,6 +121,11 @@ public abstract class AbstractTreasureChestTileEntity extends AbstractModTileEnt
 	/** Server sync counter (once per 20 ticks) */
 	public int ticksSinceSync;
 
+	// the fields that changed since the last update packet
+	private int syncFlags;
+	// the box of recountPlayersUsing(), built once per position
+	private AxisAlignedBB recountArea;
+
 	/** IInventory properties */
 	private NonNullList<ItemStack> items = NonNullList.<ItemStack>withSize(getNumberOfSlots(), ItemStack.EMPTY);
 	private String customName;
@@ -134,39 +139,71 @@ public abstract class AbstractTreasureChestTileEntity extends AbstractModTileEnt
 	}
 
 	/**
-	 * Like the old updateEntity(), except more generic.
+	 * Pre-roll the loot of a sealed chest when a player comes near. NOTE only on the server.
+	 * A chest that is sealed after it has loaded (ex. by the chest generator) is registered by setSealed().
+	 */
+	@Override
+	public void onLoad() {
+		super.onLoad();
+		if (!getWorld().isRemote && isSealed()) {
+			ProximityTriggerRegistry.getInstance().register(getWorld(), this);
+		}
+	}
+
+	@Override
+	public void invalidate() {
+		super.invalidate();
+		if (getWorld() != null) {
+			AnimatedChestRegistry.getInstance().deactivate(getWorld(), this);
+		}
+		if (getWorld() != null && !getWorld().isRemote) {
+			ProximityTriggerRegistry.getInstance().unregister(getWorld(), this);
+			LootPreRollCache.getInstance().discard(getWorld(), this);
+		}
+	}
+
+	@Override
+	public void onChunkUnload() {
+		super.onChunkUnload();
+		AnimatedChestRegistry.getInstance().deactivate(getWorld(), this);
+		if (!getWorld().isRemote) {
+			ProximityTriggerRegistry.getInstance().unregister(getWorld(), this);
+			LootPreRollCache.getInstance().discard(getWorld(), this);
+		}
+	}
+
+	@Override
+	public double getProximity() {
+		return LootPreRollCache.PROXIMITY;
+	}
+
+	@Override
+	public boolean isTriggerEnabled() {
+		return isSealed();
+	}
+
+	@Override
+	public void onPlayersWithinProximity(World world, List<EntityPlayer> players) {
+		if (!players.isEmpty()) {
+			// the nearest player is the most likely to open the chest
+			EntityPlayer nearest = players.get(0);
+			for (int i = 1; i < players.size(); i++) {
+				if (players.get(i).getDistanceSq(getPos()) < nearest.getDistanceSq(getPos())) {
+					nearest = players.get(i);
+				}
+			}
+			LootPreRollCache.getInstance().request(world, this, nearest);
+		}
+	}
+
+	/**
+	 * Animates the lid. NOTE the chest is not tickable - it is ticked by the AnimatedChestRegistry while it is animating.
 	 */
-    @Override
 	public void update() {
 		int i = this.pos.getX();
 		int j = this.pos.getY();
 		int k = this.pos.getZ();
 		++this.ticksSinceSync;
-		
-		if (WorldInfo.isServerSide(getWorld()) && this.numPlayersUsing != 0
-				&& (this.ticksSinceSync + i + j + k) % 200 == 0) {
-			this.numPlayersUsing = 0;
-			float f = 5.0F;
-			for (EntityPlayer player : this.world.getEntitiesWithinAABB(EntityPlayer.class,
-					new AxisAlignedBB((double) ((float) i - 5.0F), (double) ((float) j - 5.0F),
-							(double) ((float) k - 5.0F), (double) ((float) (i + 1) + 5.0F),
-							(double) ((float) (j + 1) + 5.0F), (double) ((float) (k + 1) + 5.0F)))) {
-				// TODO create interface for ChestContainer or make StandardChestContainer extend AbstractChestContainer or both
-				if (player.openContainer instanceof AbstractChestContainer) {
-					IInventory inventory = ((AbstractChestContainer) player.openContainer).getChestInventory();					
-					if (inventory == this) {
-						++this.numPlayersUsing;
-					}
-				}				
-				// TEMP fix
-				else if (player.openContainer instanceof StandardChestContainer) {
-					IInventory inventory = ((StandardChestContainer) player.openContainer).getChestInventory();
-					if (inventory == this) {
-						++this.numPlayersUsing;
-					}
-				}				
-			}
-		}
 
 		this.prevLidAngle = this.lidAngle;
 
@@ -204,6 +241,68 @@ public abstract class AbstractTreasureChestTileEntity extends AbstractModTileEnt
 		}
 	}
 
+	/**
+	 * 
+	 * @return true if the chest needs to be ticked, ie. it is in use or its lid is still moving
+	 */
+	public boolean isAnimating() {
+		return this.numPlayersUsing > 0 || this.lidAngle > 0.0F || this.prevLidAngle != this.lidAngle;
+	}
+
+	/**
+	 * NOTE the position is only set once the tile entity is placed or loaded, so the recount box is rebuilt lazily.
+	 */
+	@Override
+	public void setPos(BlockPos pos) {
+		super.setPos(pos);
+		recountArea = null;
+	}
+
+	/**
+	 * Recounts the players within 5 blocks (the same box as the vanilla chest) that have the chest open, in case a close was missed.
+	 * NOTE only on the server.
+	 */
+	public void recountPlayersUsing() {
+		int count = 0;
+		if (recountArea == null) {
+			recountArea = new AxisAlignedBB(this.pos).grow(5.0D);
+		}
+		for (EntityPlayer player : this.world.playerEntities) {
+			if (!player.getEntityBoundingBox().intersects(recountArea)) {
+				continue;
+			}
+			// TODO create interface for ChestContainer or make StandardChestContainer extend AbstractChestContainer or both
+			if (player.openContainer instanceof AbstractChestContainer) {
+				if (((AbstractChestContainer) player.openContainer).getChestInventory() == this) {
+					++count;
+				}
+			}
+			// TEMP fix
+			else if (player.openContainer instanceof StandardChestContainer) {
+				if (((StandardChestContainer) player.openContainer).getChestInventory() == this) {
+					++count;
+				}
+			}
+		}
+		if (count != this.numPlayersUsing) {
+			this.numPlayersUsing = count;
+			this.world.addBlockEvent(this.pos, this.getBlockType(), 1, this.numPlayersUsing);
+		}
+	}
+
+	/**
+	 * The number of players using the chest, sent by the server when it is opened or closed.
+	 */
+	@Override
+	public boolean receiveClientEvent(int id, int type) {
+		if (id == 1) {
+			this.numPlayersUsing = type;
+			AnimatedChestRegistry.getInstance().activate(this.world, this);
+			return true;
+		}
+		return super.receiveClientEvent(id, type);
+	}
+
 	/**
 	 * 
 	 */
@@ -414,21 +513,98 @@ public abstract class AbstractTreasureChestTileEntity extends AbstractModTileEnt
 		}
 	}
 
+	/**
+	 * Only the fields that changed since the last update packet, or all the sync fields if none were flagged.
+	 */
 	@Override
 	@Nullable
 	public SPacketUpdateTileEntity getUpdatePacket() {
-		return new SPacketUpdateTileEntity(this.pos, 3, this.getUpdateTag());
+		int flags = this.syncFlags == 0 ? SYNC_ALL : this.syncFlags;
+		this.syncFlags = 0;
+		return new SPacketUpdateTileEntity(this.pos, 3, writeSyncTag(new NBTTagCompound(), flags));
 	}
 
+	/**
+	 * Sent with the chunk. NOTE leaves out the inventory and the loot properties, which the client doesn't use.
+	 */
 	@Override
 	public NBTTagCompound getUpdateTag() {
-		return this.writeToNBT(new NBTTagCompound());
+		return writeSyncTag(super.writeToNBT(new NBTTagCompound()), SYNC_ALL);
+	}
+
+	@Override
+	public void handleUpdateTag(NBTTagCompound tag) {
+		readSyncTag(tag);
 	}
 
 	@Override
 	public void onDataPacket(NetworkManager net, SPacketUpdateTileEntity pkt) {
 		super.onDataPacket(net, pkt);
-		handleUpdateTag(pkt.getNbtCompound());
+		readSyncTag(pkt.getNbtCompound());
+	}
+
+	/**
+	 * Writes the client sync payload.
+	 * @param tag
+	 * @param flags the fields to write
+	 * @return
+	 */
+	public NBTTagCompound writeSyncTag(NBTTagCompound tag, int flags) {
+		try {
+			tag.setByte("sync", (byte)flags);
+			if ((flags & SYNC_LOCK_STATES) != 0) {
+				writeLockStatesToNBT(tag);
+				// an empty list clears the client's lock states
+				if (!tag.hasKey("lockStates")) {
+					tag.setTag("lockStates", new NBTTagList());
+				}
+			}
+			if ((flags & SYNC_FACING) != 0) {
+				tag.setInteger("facing", getFacing());
+			}
+			if ((flags & SYNC_PROPERTIES) != 0) {
+				if (this.hasCustomName()) {
+					tag.setString("CustomName", this.customName);
+				}
+				tag.setBoolean("sealed", isSealed());
+			}
+			if ((flags & SYNC_PLAYERS_USING) != 0) {
+				tag.setByte("playersUsing", (byte)Math.max(0, Math.min(this.numPlayersUsing, Byte.MAX_VALUE)));
+			}
+		} catch (Exception e) {
+			LOGGER.error("Error writing sync tag:", e);
+		}
+		return tag;
+	}
+
+	/**
+	 * Reads the client sync payload - only the fields that it carries.
+	 * @param tag
+	 */
+	public void readSyncTag(NBTTagCompound tag) {
+		try {
+			int flags = tag.getByte("sync");
+			if ((flags & SYNC_LOCK_STATES) != 0) {
+				readLockStatesFromNBT(tag);
+			}
+			if ((flags & SYNC_FACING) != 0) {
+				setFacing(tag.getInteger("facing"));
+			}
+			if ((flags & SYNC_PROPERTIES) != 0) {
+				if (tag.hasKey("CustomName", 8)) {
+					this.customName = tag.getString("CustomName");
+				}
+				setSealed(tag.getBoolean("sealed"));
+			}
+			if ((flags & SYNC_PLAYERS_USING) != 0) {
+				this.numPlayersUsing = tag.getByte("playersUsing");
+				if (this.numPlayersUsing > 0 && this.world != null) {
+					AnimatedChestRegistry.getInstance().activate(this.world, this);
+				}
+			}
+		} catch (Exception e) {
+			LOGGER.error("Error reading sync tag:", e);
+		}
 	}
 
 	/**
@@ -447,6 +623,16 @@ public abstract class AbstractTreasureChestTileEntity extends AbstractModTileEnt
 	 */
 	@Override
 	public void sendUpdates() {
+		sendUpdates(SYNC_ALL);
+	}
+
+	/**
+	 * Sync the changed fields to the client. NOTE the flags accumulate until the update packet is sent.
+	 * @param syncFlags the fields that changed
+	 */
+	@Override
+	public void sendUpdates(int syncFlags) {
+		this.syncFlags |= syncFlags;
 		world.markBlockRangeForRenderUpdate(pos, pos);
 		world.notifyBlockUpdate(pos, getState(), getState(), 3);
 		world.scheduleBlockUpdate(pos, this.getBlockType(), 0, 0);
@@ -641,6 +827,7 @@ public abstract class AbstractTreasureChestTileEntity extends AbstractModTileEnt
 			}
 			++this.numPlayersUsing;
 //			logger.debug("Incremented numPlayersUsing to:" + numPlayersUsing);
+			AnimatedChestRegistry.getInstance().activate(this.world, this);
 			this.world.addBlockEvent(this.pos, this.getBlockType(), 1, this.numPlayersUsing);
 			this.world.notifyNeighborsOfStateChange(this.pos, this.getBlockType(), false);
 		}
@@ -653,6 +840,7 @@ public abstract class AbstractTreasureChestTileEntity extends AbstractModTileEnt
 	public void closeInventory(EntityPlayer player) {
 		if (!player.isSpectator() && this.getBlockType() instanceof TreasureChestBlock) {
 			--this.numPlayersUsing;
+			AnimatedChestRegistry.getInstance().activate(this.world, this);
 			this.world.addBlockEvent(this.pos, this.getBlockType(), 1, this.numPlayersUsing);
 			this.world.notifyNeighborsOfStateChange(this.pos, this.getBlockType(), false);
 		}
@@ -739,7 +927,11 @@ public abstract class AbstractTreasureChestTileEntity extends AbstractModTileEnt
 
 	@Override
 	public void setSealed(boolean sealed) {
+		boolean wasSealed = this.sealed;
 		this.sealed = sealed;
+		if (sealed && !wasSealed && getWorld() != null && !getWorld().isRemote) {
+			ProximityTriggerRegistry.getInstance().register(getWorld(), this);
+		}
 	}
 
 	@Override
@@ -1,13 +1,8 @@
 package com.someguyssoftware.treasure2.tileentity;
 
-import com.someguyssoftware.gottschcore.world.WorldInfo;
-
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.init.SoundEvents;
-import net.minecraft.inventory.ContainerChest;
-import net.minecraft.inventory.IInventory;
 import net.minecraft.util.SoundCategory;
-import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.text.translation.I18n;
 
 /**
@@ -46,27 +41,6 @@ public class CardboardBoxTileEntity extends AbstractTreasureChestTileEntity {
 		int z = this.pos.getZ();
 		++this.ticksSinceSync;
 
-		/*
-		 * recalculating if the chest is in use by any players
-		 */
-		if (WorldInfo.isServerSide(getWorld()) && this.numPlayersUsing != 0
-				&& (this.ticksSinceSync + x + y + z) % 200 == 0) {
-			this.numPlayersUsing = 0;
-
-			for (EntityPlayer entityplayer : this.world.getEntitiesWithinAABB(EntityPlayer.class,
-					new AxisAlignedBB((double) ((float) x - 5.0F), (double) ((float) y - 5.0F),
-							(double) ((float) z - 5.0F), (double) ((float) (x + 1) + 5.0F),
-							(double) ((float) (y + 1) + 5.0F), (double) ((float) (z + 1) + 5.0F)))) {
-				if (entityplayer.openContainer instanceof ContainerChest) {
-					IInventory iinventory = ((ContainerChest) entityplayer.openContainer).getLowerChestInventory();
-
-					if (iinventory == this) {
-						++this.numPlayersUsing;
-					}
-				}
-			}
-		}
-
 		// save the previous positions and angles of box components
 		this.prevLidAngle = this.lidAngle;
 		this.prevInnerLidAngle = this.innerLidAngle;
@@ -149,6 +123,14 @@ public class CardboardBoxTileEntity extends AbstractTreasureChestTileEntity {
 		}		
 	}
 
+	/**
+	 * The lid closes after the inner lid.
+	 */
+	@Override
+	public boolean isAnimating() {
+		return super.isAnimating() || this.innerLidAngle > 0.0F || this.prevInnerLidAngle != this.innerLidAngle;
+	}
+
 	public float getPrevInnerLidPos() {
 		return prevInnerLidPos;
 	}
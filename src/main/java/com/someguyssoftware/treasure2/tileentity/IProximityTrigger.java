@@ -0,0 +1,34 @@
+/**
+ * 
+ */
+package com.someguyssoftware.treasure2.tileentity;
+
+import java.util.List;
+
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+
+/**
+ * A tile entity that is evaluated by the ProximityTriggerRegistry instead of scanning for players itself.
+ */
+public interface IProximityTrigger {
+
+	BlockPos getPos();
+
+	double getProximity();
+
+	/**
+	 * 
+	 * @return false if the trigger should not be evaluated. ex. it has already fired.
+	 */
+	boolean isTriggerEnabled();
+
+	/**
+	 * Called when players are within proximity of the trigger, and once with an empty list when the last player leaves.
+	 * NOTE the list is reused by the registry and must be copied if it is retained.
+	 * @param world
+	 * @param players
+	 */
+	void onPlayersWithinProximity(World world, List<EntityPlayer> players);
+}
@@ -11,6 +11,14 @@ import net.minecraft.inventory.IInventory;
  * @author Mark Gottschling on 9/4/2020
  */
 public interface ITreasureChestTileEntity extends IInventory {
+	/*
+	 * the fields of the client sync payload. NOTE the inventory is never part of it - the container syncs it.
+	 */
+	int SYNC_LOCK_STATES = 1;
+	int SYNC_FACING = 2;
+	int SYNC_PROPERTIES = 4;
+	int SYNC_PLAYERS_USING = 8;
+	int SYNC_ALL = SYNC_LOCK_STATES | SYNC_FACING | SYNC_PROPERTIES | SYNC_PLAYERS_USING;
 
     public List<LockState> getLockStates();
     public void setLockStates(List<LockState> lockStates);
@@ -28,5 +36,6 @@ public interface ITreasureChestTileEntity extends IInventory {
 	int getNumberOfSlots();
 	void setNumberOfSlots(int numberOfSlots);
 	void sendUpdates();
+	void sendUpdates(int syncFlags);
     
 }
\ No newline at end of file
@@ -3,61 +3,106 @@
  */
 package com.someguyssoftware.treasure2.tileentity;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 
 import com.someguyssoftware.gottschcore.tileentity.AbstractModTileEntity;
-import com.someguyssoftware.gottschcore.world.WorldInfo;
-import com.someguyssoftware.treasure2.Treasure;
+import com.someguyssoftware.treasure2.block.IMistEmitter;
+import com.someguyssoftware.treasure2.config.TreasureConfig;
+import com.someguyssoftware.treasure2.registry.ProximityTriggerRegistry;
 
+import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.nbt.NBTTagCompound;
-import net.minecraft.util.ITickable;
+import net.minecraft.potion.Potion;
+import net.minecraft.potion.PotionEffect;
+import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.world.World;
 
 /**
+ * Inflicts the mist effect of the emitter block on the players within the mist. Evaluated on the server
+ * by the ProximityTriggerRegistry; the client mist particles are purely cosmetic.
  * @author Mark Gottschling on Feb 16, 2020
  *
  */
-public class MistEmitterTileEntity extends AbstractModTileEntity implements ITickable {
+public class MistEmitterTileEntity extends AbstractModTileEntity implements IProximityTrigger {
 	public static final float DEFAULT_PROXIMITY = 5.0F;
+	public static final int EFFECT_DURATION = 300;
 	private float proximity = DEFAULT_PROXIMITY;
 	private boolean active = false;
-	private List<EntityPlayer> playersWithinProximity;
 
 	/**
 	 * 
 	 */
 	public MistEmitterTileEntity() {
-		playersWithinProximity = Collections.synchronizedList(new ArrayList<>());
 	}
 	
+	/**
+	 * Register with the proximity trigger registry. NOTE the emitter is only evaluated on the server.
+	 */
+	@Override
+	public void onLoad() {
+		super.onLoad();
+		if (!getWorld().isRemote) {
+			ProximityTriggerRegistry.getInstance().register(getWorld(), this);
+		}
+	}
+
+	@Override
+	public void invalidate() {
+		super.invalidate();
+		if (getWorld() != null && !getWorld().isRemote) {
+			ProximityTriggerRegistry.getInstance().unregister(getWorld(), this);
+		}
+	}
+
+	@Override
+	public void onChunkUnload() {
+		super.onChunkUnload();
+		if (!getWorld().isRemote) {
+			ProximityTriggerRegistry.getInstance().unregister(getWorld(), this);
+		}
+	}
+
+	@Override
+	public boolean isTriggerEnabled() {
+		return TreasureConfig.WORLD_GEN.getGeneralProperties().enablePoisonFog;
+	}
+
+	/**
+	 * Inflicts the mist effect on the players whose bounding box intersects the mist volume.
+	 */
 	@Override
-	public void update() {
-        if (WorldInfo.isServerSide()) {
-        	return;
-        }
-
-    	// get all players within range
-        EntityPlayer player = null;
-        double proximitySq = getProximity() * getProximity();
-
-        // clear list
-        getPlayersWithinProximity().clear();
-        setActive(false);
-        
-        // for each player
-        for (int playerIndex = 0; playerIndex < getWorld().playerEntities.size(); ++playerIndex) {
-            player = (EntityPlayer)getWorld().playerEntities.get(playerIndex);
-            // get the distance
-            double distanceSq = player.getDistanceSq(this.getPos().add(0.5D, 0.5D, 0.5D));
-           
-            if (distanceSq < proximitySq) {
-            	// add player to list
-            	getPlayersWithinProximity().add(player); // TODO this should be wrapped in a synchronized block
-            	setActive(true);
-            }
-        }
+	public void onPlayersWithinProximity(World world, List<EntityPlayer> players) {
+		setActive(!players.isEmpty());
+		if (players.isEmpty()) {
+			return;
+		}
+
+		IBlockState state = world.getBlockState(getPos());
+		if (!(state.getBlock() instanceof IMistEmitter)) {
+			return;
+		}
+		IMistEmitter emitter = (IMistEmitter) state.getBlock();
+		Potion effect = emitter.getMistEffect(state);
+		if (effect == null) {
+			return;
+		}
+
+		// torches reduce (or prevent) the mist
+		if (!emitter.checkTorchPrevention(world, world.rand, getPos().getX(), getPos().getY(), getPos().getZ())) {
+			return;
+		}
+
+		AxisAlignedBB volume = emitter.getMistVolume(state, getPos());
+		for (int i = 0; i < players.size(); i++) {
+			EntityPlayer player = players.get(i);
+			if (player.getEntityBoundingBox().intersects(volume)) {
+				// if player does not have the effect, add it
+				if (player.getActivePotionEffect(effect) == null) {
+					player.addPotionEffect(new PotionEffect(effect, EFFECT_DURATION, 0));
+				}
+			}
+		}
 	}
 	
 	/**
@@ -77,14 +122,6 @@ public class MistEmitterTileEntity extends AbstractModTileEntity implements ITic
 	    return tag;
 	}
 
-	public synchronized List<EntityPlayer> getPlayersWithinProximity() {
-		return playersWithinProximity;
-	}
-
-	private synchronized void setPlayersWithinProximity(List<EntityPlayer> playersWithinProximity) {
-		this.playersWithinProximity = playersWithinProximity;
-	}
-
 	public synchronized boolean isActive() {
 		return active;
 	}
@@ -93,7 +130,8 @@ public class MistEmitterTileEntity extends AbstractModTileEntity implements ITic
 		this.active = active;
 	}
 
-	public float getProximity() {
+	@Override
+	public double getProximity() {
 		return proximity;
 	}
 
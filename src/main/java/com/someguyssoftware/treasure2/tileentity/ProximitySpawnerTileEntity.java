@@ -5,18 +5,17 @@ package com.someguyssoftware.treasure2.tileentity;
 
 import java.util.Random;
 
-import com.someguyssoftware.gottschcore.GottschCore;
 import com.someguyssoftware.gottschcore.measurement.Quantity;
 import com.someguyssoftware.gottschcore.positional.Coords;
 import com.someguyssoftware.gottschcore.random.RandomHelper;
-import com.someguyssoftware.gottschcore.world.WorldInfo;
 import com.someguyssoftware.treasure2.Treasure;
+import com.someguyssoftware.treasure2.generator.GenerationRandom;
+import com.someguyssoftware.treasure2.generator.GenerationRandom.Stream;
 
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityList;
 import net.minecraft.entity.EntityLiving;
 import net.minecraft.entity.IEntityLivingData;
-import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.StringUtils;
@@ -57,15 +56,12 @@ public class ProximitySpawnerTileEntity extends AbstractProximityTileEntity {
 			// read the custom name
 			if (sourceTag.hasKey("mobName", 8)) {
 				this.mobName = new ResourceLocation(sourceTag.getString("mobName"));
+				if (StringUtils.isNullOrEmpty(getMobName().toString())) {
+					defaultMobSpawnerSettings();
+					return;
+				}
 			}
-			else {
-                // select a random mob
-				this.mobName = DungeonHooks.getRandomDungeonMob(new Random());
-			}
-			if (getMobName() == null || StringUtils.isNullOrEmpty(getMobName().toString())) {
-				defaultMobSpawnerSettings();
-				return;
-			}
+			// NOTE without a mob name, a random mob is selected once the world is set - the world isn't set yet when a chunk is read
 			
 			int min = 1;
 			int max = 1;
@@ -94,6 +90,7 @@ public class ProximitySpawnerTileEntity extends AbstractProximityTileEntity {
 	@Override
 	public NBTTagCompound writeToNBT(NBTTagCompound sourceTag) {
         super.writeToNBT(sourceTag);
+        selectMob();
         if (getMobName() == null || StringUtils.isNullOrEmpty(getMobName().toString())) {        	
             defaultMobSpawnerSettings();
         }
@@ -105,6 +102,25 @@ public class ProximitySpawnerTileEntity extends AbstractProximityTileEntity {
 	    return sourceTag;
 	}
     
+	/**
+	 * 
+	 */
+	@Override
+	public void onLoad() {
+		super.onLoad();
+		selectMob();
+	}
+
+	/**
+	 * Selects a random dungeon mob, if none was set, from the spawner stream of the world seed and the position -
+	 * so only once the world is set, and only on the server (the client doesn't know the seed).
+	 */
+	private void selectMob() {
+		if (getMobName() == null && getWorld() != null && !getWorld().isRemote) {
+			setMobName(DungeonHooks.getRandomDungeonMob(GenerationRandom.forPos(getWorld(), Stream.SPAWNER, getPos())));
+		}
+	}
+
     /**
      * 
      */
@@ -114,49 +130,15 @@ public class ProximitySpawnerTileEntity extends AbstractProximityTileEntity {
         setSpawnRange(5.0D);
     }
 
-    ///// TEMP
-	@Override
-	public void update() {
-        if (WorldInfo.isClientSide()) {
-        	return;
-        }      
-        
-    	// get all players within range
-        EntityPlayer player = null;
-
-        boolean isTriggered = false;         
-        double proximitySq = getProximity() * getProximity();
-        if (proximitySq < 1) proximitySq = 1;
-        
-        // for each player
-        for (int playerIndex = 0; playerIndex < getWorld().playerEntities.size(); ++playerIndex) {
-            player = (EntityPlayer)getWorld().playerEntities.get(playerIndex);
-            // get the distance
-            double distanceSq = player.getDistanceSq(this.getPos().add(0.5D, 0.5D, 0.5D));
-            if (this.getMobName().getResourcePath().equals("bound_soul")) {
-            Treasure.LOGGER.debug("PTE for mob -> {} @ -> {}, proximity -> {}, distance -> {}, triggered -> {}, dead -> {}, result -> {}", this.getMobName(),
-            		this.pos, proximitySq, distanceSq, isTriggered, this.isDead(), (!isTriggered && !this.isDead() && (distanceSq < proximitySq)) ? "met" : "not met");
-            }
-            if (!isTriggered && !this.isDead() && (distanceSq < proximitySq)) {
-            	Treasure.LOGGER.debug("PTE proximity was met.");
-            	isTriggered = true;
-            	// exectute action
-            	execute(this.getWorld(), new Random(), new Coords(this.getPos()), new Coords(player.getPosition()));
-
-            	// NOTE: does not self-destruct that is up to the execute action to perform
-            }
-            
-            if (this.isDead()) break;
-        }
-	}
-    ///////
-    
 	/**
 	 * 
 	 */
 	@Override
 	public void execute(World world, Random random, Coords blockCoords, Coords playerCoords) {
-		
+		selectMob();
+		if (getMobName() == null) {
+			defaultMobSpawnerSettings();
+		}
     	int mobCount = RandomHelper.randomInt(random, getMobNum().getMinInt(), getMobNum().getMaxInt());
 
     	for (int i = 0; i < mobCount; i++) {
@@ -0,0 +1,86 @@
+/**
+ * 
+ */
+package com.someguyssoftware.treasure2.util;
+
+import com.someguyssoftware.gottschcore.positional.Coords;
+import com.someguyssoftware.gottschcore.positional.ICoords;
+
+/**
+ * Packs coords into the same long layout as BlockPos.toLong() for compact NBT storage.
+ * NOTE 1.12 NBTTagLongArray has no accessor, so longs are stored as pairs of ints in an int array.
+ */
+public class PackedCoordsUtil {
+	private static final int NUM_X_BITS = 26;
+	private static final int NUM_Z_BITS = NUM_X_BITS;
+	private static final int NUM_Y_BITS = 64 - NUM_X_BITS - NUM_Z_BITS;
+	private static final int Y_SHIFT = NUM_Z_BITS;
+	private static final int X_SHIFT = Y_SHIFT + NUM_Y_BITS;
+	private static final long X_MASK = (1L << NUM_X_BITS) - 1L;
+	private static final long Y_MASK = (1L << NUM_Y_BITS) - 1L;
+	private static final long Z_MASK = (1L << NUM_Z_BITS) - 1L;
+
+	/**
+	 * 
+	 * @param coords
+	 * @return
+	 */
+	public static long pack(ICoords coords) {
+		return pack(coords.getX(), coords.getY(), coords.getZ());
+	}
+
+	/**
+	 * 
+	 * @param x
+	 * @param y
+	 * @param z
+	 * @return
+	 */
+	public static long pack(int x, int y, int z) {
+		return ((long)x & X_MASK) << X_SHIFT | ((long)y & Y_MASK) << Y_SHIFT | ((long)z & Z_MASK);
+	}
+
+	/**
+	 * 
+	 * @param packed
+	 * @return
+	 */
+	public static ICoords unpack(long packed) {
+		int x = (int)(packed << 64 - X_SHIFT - NUM_X_BITS >> 64 - NUM_X_BITS);
+		int y = (int)(packed << 64 - Y_SHIFT - NUM_Y_BITS >> 64 - NUM_Y_BITS);
+		int z = (int)(packed << 64 - NUM_Z_BITS >> 64 - NUM_Z_BITS);
+		return new Coords(x, y, z);
+	}
+
+	/**
+	 * Writes the packed coords into the int array at index * 2.
+	 * @param array
+	 * @param index
+	 * @param coords
+	 */
+	public static void write(int[] array, int index, ICoords coords) {
+		long packed = pack(coords);
+		array[index * 2] = (int)(packed >>> 32);
+		array[index * 2 + 1] = (int)packed;
+	}
+
+	/**
+	 * Reads the packed coords from the int array at index * 2.
+	 * @param array
+	 * @param index
+	 * @return
+	 */
+	public static ICoords read(int[] array, int index) {
+		long packed = ((long)array[index * 2] << 32) | (array[index * 2 + 1] & 0xFFFFFFFFL);
+		return unpack(packed);
+	}
+
+	/**
+	 * 
+	 * @param array
+	 * @return the number of coords in the array
+	 */
+	public static int size(int[] array) {
+		return array.length / 2;
+	}
+}
@@ -0,0 +1,279 @@
+/**
+ * 
+ */
+package com.someguyssoftware.treasure2.wish;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import javax.annotation.Nullable;
+
+import com.someguyssoftware.treasure2.block.IWishingWellBlock;
+import com.someguyssoftware.treasure2.util.PackedCoordsUtil;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.item.EntityItem;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.util.SoundCategory;
+import net.minecraft.util.SoundEvent;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.IWorldEventListener;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+
+/**
+ * Knows the positions of the wishing well blocks, so that checking whether a tossed item is in a wishing well
+ * is a few set lookups instead of probing the blocks around the item every tick.
+ * The well blocks are indexed per chunk section, when a section is first queried, and kept up to date by listening to the
+ * block changes of the world. The sections of a chunk are dropped when it is unloaded.
+ * NOTE each world is only accessed from its own thread.
+ */
+public class WishingWellRegistry {
+	/*
+	 * the number of wishing well blocks that must be adjacent to the water
+	 */
+	public static final int MIN_WELL_BLOCKS = 2;
+	/*
+	 * the number of ticks between checks while an item stays in the water
+	 */
+	public static final int CHECK_INTERVAL = 10;
+
+	private static final String IN_WATER_KEY = "treasure2:inWater";
+
+	private static WishingWellRegistry instance = new WishingWellRegistry();
+
+	private final Map<World, WorldWells> worlds = Collections.synchronizedMap(new WeakHashMap<>());
+
+	/**
+	 * 
+	 */
+	private WishingWellRegistry() {}
+
+	/**
+	 * 
+	 * @return
+	 */
+	public static WishingWellRegistry getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Starts listening to the block changes of the world.
+	 * @param world
+	 */
+	public void onWorldLoad(World world) {
+		WorldWells wells = new WorldWells();
+		WorldWells previous = worlds.put(world, wells);
+		if (previous != null) {
+			world.removeEventListener(previous);
+		}
+		world.addEventListener(wells);
+	}
+
+	/**
+	 * 
+	 * @param world
+	 */
+	public void onWorldUnload(World world) {
+		WorldWells wells = worlds.remove(world);
+		if (wells != null) {
+			world.removeEventListener(wells);
+		}
+	}
+
+	/**
+	 * 
+	 * @param world
+	 * @param chunkX
+	 * @param chunkZ
+	 */
+	public void onChunkUnload(World world, int chunkX, int chunkZ) {
+		invalidate(world, chunkX, chunkZ, 0xFFFF);
+	}
+
+	/**
+	 * Drops the indexed sections of the chunk, so that they are re-indexed when next queried.
+	 * Used for the block changes that don't notify the listeners, ex. a SectionBlockWriter commit.
+	 * @param world
+	 * @param chunkX
+	 * @param chunkZ
+	 * @param sectionMask the sections to drop, a bit per section y
+	 */
+	public void invalidate(World world, int chunkX, int chunkZ, int sectionMask) {
+		WorldWells wells = worlds.get(world);
+		if (wells != null) {
+			for (int sectionY = 0; sectionY < 16; sectionY++) {
+				if ((sectionMask & 1 << sectionY) != 0) {
+					wells.sections.remove(PackedCoordsUtil.pack(chunkX, sectionY, chunkZ));
+				}
+			}
+		}
+	}
+
+	/**
+	 * An item is checked on the tick it enters water, and then every CHECK_INTERVAL ticks while it stays in the water.
+	 * @param entityItem
+	 * @return true if the item should be checked for a wishing well this tick
+	 */
+	public static boolean isCheckDue(EntityItem entityItem) {
+		NBTTagCompound data = entityItem.getEntityData();
+		if (!entityItem.isInWater()) {
+			if (data.getBoolean(IN_WATER_KEY)) {
+				data.removeTag(IN_WATER_KEY);
+			}
+			return false;
+		}
+		if (!data.getBoolean(IN_WATER_KEY)) {
+			data.setBoolean(IN_WATER_KEY, true);
+			return true;
+		}
+		return entityItem.ticksExisted % CHECK_INTERVAL == 0;
+	}
+
+	/**
+	 * 
+	 * @param world
+	 * @param pos the position of the water
+	 * @return true if at least MIN_WELL_BLOCKS wishing well blocks surround the position (on the same level)
+	 */
+	public boolean isWishingWell(World world, BlockPos pos) {
+		WorldWells wells = worlds.get(world);
+		int count = 0;
+		BlockPos.MutableBlockPos checkPos = new BlockPos.MutableBlockPos();
+		for (int x = -1; x <= 1; x++) {
+			for (int z = -1; z <= 1; z++) {
+				if (x == 0 && z == 0) {
+					continue;
+				}
+				checkPos.setPos(pos.getX() + x, pos.getY(), pos.getZ() + z);
+				boolean isWellBlock = wells == null
+						// the world is not being tracked - check the block
+						? world.isBlockLoaded(checkPos) && world.getBlockState(checkPos).getBlock() instanceof IWishingWellBlock
+						: wells.contains(world, checkPos);
+				if (isWellBlock && ++count >= MIN_WELL_BLOCKS) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * The well block positions of a world, keyed by section then position.
+	 * Listens to the block changes of the world to add and remove the well blocks of the indexed sections.
+	 */
+	private static class WorldWells implements IWorldEventListener {
+		private final Long2ObjectMap<LongSet> sections = new Long2ObjectOpenHashMap<>();
+
+		/**
+		 * 
+		 * @param world
+		 * @param pos
+		 * @return true if the block at the position is a wishing well block. never loads the chunk.
+		 */
+		public boolean contains(World world, BlockPos pos) {
+			if (pos.getY() < 0 || pos.getY() > 255) {
+				return false;
+			}
+			long sectionKey = PackedCoordsUtil.pack(pos.getX() >> 4, pos.getY() >> 4, pos.getZ() >> 4);
+			LongSet wells = sections.get(sectionKey);
+			if (wells == null) {
+				Chunk chunk = world.getChunkProvider().getLoadedChunk(pos.getX() >> 4, pos.getZ() >> 4);
+				if (chunk == null) {
+					return false;
+				}
+				wells = index(chunk, pos.getY() >> 4);
+				sections.put(sectionKey, wells);
+			}
+			return !wells.isEmpty() && wells.contains(PackedCoordsUtil.pack(pos.getX(), pos.getY(), pos.getZ()));
+		}
+
+		/**
+		 * 
+		 * @param chunk
+		 * @param sectionY
+		 * @return the positions of the well blocks in the section
+		 */
+		private static LongSet index(Chunk chunk, int sectionY) {
+			LongSet wells = new LongOpenHashSet();
+			ExtendedBlockStorage storage = chunk.getBlockStorageArray()[sectionY];
+			if (storage == Chunk.NULL_BLOCK_STORAGE || storage.isEmpty()) {
+				return wells;
+			}
+			for (int y = 0; y < 16; y++) {
+				for (int z = 0; z < 16; z++) {
+					for (int x = 0; x < 16; x++) {
+						if (storage.get(x, y, z).getBlock() instanceof IWishingWellBlock) {
+							wells.add(PackedCoordsUtil.pack((chunk.x << 4) + x, (sectionY << 4) + y, (chunk.z << 4) + z));
+						}
+					}
+				}
+			}
+			return wells;
+		}
+
+		@Override
+		public void notifyBlockUpdate(World world, BlockPos pos, IBlockState oldState, IBlockState newState, int flags) {
+			boolean wasWell = oldState.getBlock() instanceof IWishingWellBlock;
+			boolean isWell = newState.getBlock() instanceof IWishingWellBlock;
+			if (wasWell == isWell || sections.isEmpty()) {
+				return;
+			}
+			// only the indexed sections are updated - the others are indexed as they are when first queried
+			LongSet wells = sections.get(PackedCoordsUtil.pack(pos.getX() >> 4, pos.getY() >> 4, pos.getZ() >> 4));
+			if (wells != null) {
+				long key = PackedCoordsUtil.pack(pos.getX(), pos.getY(), pos.getZ());
+				if (isWell) {
+					wells.add(key);
+				}
+				else {
+					wells.remove(key);
+				}
+			}
+		}
+
+		@Override
+		public void notifyLightSet(BlockPos pos) {}
+
+		@Override
+		public void markBlockRangeForRenderUpdate(int x1, int y1, int z1, int x2, int y2, int z2) {}
+
+		@Override
+		public void playSoundToAllNearExcept(@Nullable EntityPlayer player, SoundEvent sound, SoundCategory category,
+				double x, double y, double z, float volume, float pitch) {}
+
+		@Override
+		public void playRecord(SoundEvent sound, BlockPos pos) {}
+
+		@Override
+		public void spawnParticle(int particleID, boolean ignoreRange, double xCoord, double yCoord, double zCoord,
+				double xSpeed, double ySpeed, double zSpeed, int... parameters) {}
+
+		@Override
+		public void spawnParticle(int id, boolean ignoreRange, boolean minimiseParticleLevel, double x, double y,
+				double z, double xSpeed, double ySpeed, double zSpeed, int... parameters) {}
+
+		@Override
+		public void onEntityAdded(Entity entity) {}
+
+		@Override
+		public void onEntityRemoved(Entity entity) {}
+
+		@Override
+		public void broadcastSound(int soundID, BlockPos pos, int data) {}
+
+		@Override
+		public void playEvent(EntityPlayer player, int type, BlockPos blockPos, int data) {}
+
+		@Override
+		public void sendBlockBreakProgress(int breakerId, BlockPos pos, int progress) {}
+	}
+}
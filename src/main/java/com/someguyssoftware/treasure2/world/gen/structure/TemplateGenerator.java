@@ -30,6 +30,7 @@ import com.someguyssoftware.gottschcore.world.gen.structure.IDecayProcessor;
 import com.someguyssoftware.gottschcore.world.gen.structure.StructureMarkers;
 import com.someguyssoftware.treasure2.Treasure;
 import com.someguyssoftware.treasure2.block.TreasureBlocks;
+import com.someguyssoftware.treasure2.generator.ColumnProfiles;
 import com.someguyssoftware.treasure2.generator.GenUtil;
 import com.someguyssoftware.treasure2.generator.GeneratorResult;
 import com.someguyssoftware.treasure2.generator.TemplateGeneratorData;
@@ -60,6 +61,8 @@ public class TemplateGenerator implements ITemplateGenerator<GeneratorResult<Tem
 	// facing property of a vanilla chest
 	private static final PropertyDirection FACING = BlockHorizontal.FACING;
 	private static final PropertyEnum<EnumFacing> CHEST_FACING = PropertyDirection.create("facing", EnumFacing.class);
+	// send to clients only - like vanilla structures, don't notify the neighbours of each placed block during world generation
+	private static final int PLACEMENT_FLAGS = 2;
 
 	private Block nullBlock;
 
@@ -126,12 +129,15 @@ public class TemplateGenerator implements ITemplateGenerator<GeneratorResult<Tem
 		if (decayProcessor == null) {
 			Treasure.LOGGER.debug("no decay processor found.");
 			template.addBlocksToWorld(world, spawnCoords.toPos(), placement, getNullBlock(),
-					TreasureTemplateRegistry.getManager().getReplacementMap(), 3);
+					TreasureTemplateRegistry.getManager().getReplacementMap(), PLACEMENT_FLAGS);
 		} else {
 			decayProcessor.setDecayStartY(Math.abs(offset));
 			template.addBlocksToWorld(world, spawnCoords.toPos(), decayProcessor, placement, getNullBlock(),
-					TreasureTemplateRegistry.getManager().getReplacementMap(), 3);
+					TreasureTemplateRegistry.getManager().getReplacementMap(), PLACEMENT_FLAGS);
 		}
+		// the template is placed around the spawn coords in the direction of its rotation - drop the profiles on every side
+		int reach = Math.max(template.getSize().getX(), template.getSize().getZ());
+		ColumnProfiles.invalidate(world, spawnCoords.toPos().add(-reach, 0, -reach), spawnCoords.toPos().add(reach, 0, reach));
 
 		// process all markers and adding them to the result data (absolute positioned)
 //		for (Entry<Block, StructureMarkerContext> entry : template.getMarkerMap().entries()) {
@@ -40,6 +40,7 @@ import com.google.gson.JsonParseException;
 import com.someguyssoftware.gottschcore.world.gen.structure.DecayRuleSet;
 import com.someguyssoftware.gottschcore.world.gen.structure.IDecayRuleSet;
 import com.someguyssoftware.treasure2.Treasure;
+import com.someguyssoftware.treasure2.registry.ParallelResourceLoader;
 
 import net.minecraft.util.ResourceLocation;
 
@@ -82,12 +83,12 @@ public class TreasureDecayManager {
 		
 		List<ResourceLocation> resourceLocations = getResourceLocations(modID, resourcePaths);
 		Treasure.LOGGER.debug("acquired resource locations -> {}", resourceLocations);
-		// load each ResourceLocation as ruleset and map it.
-		resourceLocations.forEach(loc -> {
-			// need to test for world save version first
-			Treasure.LOGGER.debug("register decay -> loading decay resource loc -> {}", loc.toString());						
-			tableDecay(loc, load(loc));
-		});
+		// load each ResourceLocation as ruleset in parallel (tests for the world save version first)
+		List<Optional<IDecayRuleSet>> decays = ParallelResourceLoader.loadAll("decay", resourceLocations, this::load);
+		// map them in order
+		for (int i = 0; i < resourceLocations.size(); i++) {
+			tableDecay(resourceLocations.get(i), decays.get(i));
+		}
 	}
 	
 	/**
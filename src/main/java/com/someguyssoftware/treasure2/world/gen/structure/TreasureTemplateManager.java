@@ -36,6 +36,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Optional;
 import java.util.Random;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -60,6 +61,7 @@ import com.someguyssoftware.treasure2.config.TreasureConfig;
 import com.someguyssoftware.treasure2.meta.StructureArchetype;
 import com.someguyssoftware.treasure2.meta.StructureMeta;
 import com.someguyssoftware.treasure2.meta.StructureType;
+import com.someguyssoftware.treasure2.registry.ParallelResourceLoader;
 import com.someguyssoftware.treasure2.registry.TreasureMetaRegistry;
 
 import net.minecraft.block.Block;
@@ -144,13 +146,55 @@ public class TreasureTemplateManager extends GottschTemplateManager {
 		
 		List<ResourceLocation> resourceLocations = getResourceLocations(modID, resourcePaths);
 		Treasure.LOGGER.debug("acquired template resource locations -> {}", resourceLocations);
-		// load each ResourceLocation as LootTable and map it.
-		resourceLocations.forEach(loc -> {
-			// need to test for world save version first
-			Treasure.LOGGER.debug("loading template resource loc -> {}", loc.toString());
-						
-			tableTemplate(modID, loc, load(loc, getMarkerScanList(), getReplacementMap()));
+		// decode each ResourceLocation as a Template in parallel.
+		List<Block> markerBlocks = getMarkerScanList();
+		Map<IBlockState, IBlockState> replacementBlocks = getReplacementMap();
+		List<Optional<Template>> templates = ParallelResourceLoader.loadAll("template", resourceLocations, loc -> {
+			// NOTE the templates map is only read while decoding. it is updated below, after all the templates are decoded.
+			Template template = getTemplates().get(loc.toString());
+			return template != null ? Optional.of(template) : decodeTemplate(loc, markerBlocks, replacementBlocks);
 		});
+
+		// add and map them in order
+		for (int i = 0; i < resourceLocations.size(); i++) {
+			ResourceLocation loc = resourceLocations.get(i);
+			Template template = templates.get(i).orElse(null);
+			if (template != null) {
+				getTemplates().put(loc.toString(), template);
+			}
+			tableTemplate(modID, loc, template);
+		}
+	}
+
+	/**
+	 * Decodes a template from the file system, or from the jar if not found, without adding it to the templates map.
+	 * Safe to call from a loading thread.
+	 * @param location
+	 * @param markerBlocks
+	 * @param replacementBlocks
+	 * @return
+	 */
+	public Optional<Template> decodeTemplate(ResourceLocation location, List<Block> markerBlocks, Map<IBlockState, IBlockState> replacementBlocks) {
+		File file = Paths.get("structures", getMod().getId(), location.getResourcePath()).toFile();
+		InputStream inputstream = null;
+		try {
+			if (file.exists()) {
+				inputstream = new FileInputStream(file);
+			}
+			else {
+				inputstream = Treasure.instance.getClass().getClassLoader().getResourceAsStream("structures/" + location.getResourceDomain() + "/" + location.getResourcePath());
+			}
+			if (inputstream == null) {
+				Treasure.LOGGER.warn("unable to locate template -> {}", location);
+				return Optional.empty();
+			}
+			return Optional.of(decodeTemplateFromStream(inputstream, markerBlocks, replacementBlocks));
+		} catch (Throwable e) {
+			Treasure.LOGGER.error("error reading resource: ", e);
+			return Optional.empty();
+		} finally {
+			IOUtils.closeQuietly(inputstream);
+		}
 	}
 	
 	/**
@@ -218,6 +262,17 @@ public class TreasureTemplateManager extends GottschTemplateManager {
 	private void readTemplateFromStream(String id, InputStream stream, List<Block> markerBlocks, 
 			Map<IBlockState, IBlockState> replacementBlocks) throws IOException {
 		
+		GottschTemplate template = decodeTemplateFromStream(stream, markerBlocks, replacementBlocks);
+		Treasure.LOGGER.debug("adding template to map with key -> {}", id);
+		this.getTemplates().put(id, template);
+	}
+
+	/**
+	 * decompresses, fixes and reads a template from an inputstream
+	 */
+	private GottschTemplate decodeTemplateFromStream(InputStream stream, List<Block> markerBlocks, 
+			Map<IBlockState, IBlockState> replacementBlocks) throws IOException {
+
 		NBTTagCompound nbttagcompound = CompressedStreamTools.readCompressed(stream);
 
 		if (!nbttagcompound.hasKey("DataVersion", 99)) {
@@ -226,8 +281,7 @@ public class TreasureTemplateManager extends GottschTemplateManager {
 
 		GottschTemplate template = new GottschTemplate();
 		template.read(getFixer().process(FixTypes.STRUCTURE, nbttagcompound), markerBlocks, replacementBlocks);
-		Treasure.LOGGER.debug("adding template to map with key -> {}", id);
-		this.getTemplates().put(id, template);
+		return template;
 	}
 	
 	/**
@@ -0,0 +1,230 @@
+/**
+ * 
+ */
+package com.someguyssoftware.treasure2.worldgen;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Random;
+import java.util.WeakHashMap;
+
+import com.someguyssoftware.treasure2.Treasure;
+import com.someguyssoftware.treasure2.generator.ColumnProfiles;
+import com.someguyssoftware.treasure2.persistence.DeferredPlacements;
+import com.someguyssoftware.treasure2.persistence.GenDataPersistence;
+
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.IChunkProvider;
+import net.minecraft.world.gen.IChunkGenerator;
+import net.minecraftforge.fml.common.IWorldGenerator;
+
+/**
+ * Routes the block placements of the multi-chunk features (ex. wither groves) so that they never
+ * trigger the generation of a neighbouring chunk (cascading chunk generation).
+ * A placement into a loaded, populated chunk (which includes the chunk currently being populated) is applied immediately.
+ * Any other placement is deferred, persisted with the world's gen data, and applied when its chunk populates,
+ * or on the next world tick after its chunk is loaded if the chunk is already populated.
+ * NOTE only used by the server worlds.
+ */
+public class DeferredPlacementBuffer implements IWorldGenerator {
+	/*
+	 * registered ahead of the treasure world generators so a chunk's deferred placements land before anything new is built on it
+	 */
+	public static final int GENERATOR_WEIGHT = -1;
+
+	private static DeferredPlacementBuffer instance = new DeferredPlacementBuffer();
+
+	// the loaded, populated chunks that have deferred placements, by world
+	private final Map<World, LongSet> readyChunks = Collections.synchronizedMap(new WeakHashMap<>());
+
+	// metrics
+	private long immediateCount;
+	private long deferredCount;
+	private long appliedCount;
+
+	/**
+	 * 
+	 */
+	private DeferredPlacementBuffer() {}
+
+	/**
+	 * 
+	 * @return
+	 */
+	public static DeferredPlacementBuffer getInstance() {
+		return instance;
+	}
+
+	/**
+	 * 
+	 * @param world
+	 * @param pos
+	 * @param state
+	 * @return
+	 */
+	public boolean setBlockState(World world, BlockPos pos, IBlockState state) {
+		return setBlockState(world, pos, state, 3);
+	}
+
+	/**
+	 * Places the block if its chunk is loaded and populated, otherwise defers the placement.
+	 * @param world
+	 * @param pos
+	 * @param state
+	 * @param flags the World.setBlockState flags
+	 * @return true if the block was placed or deferred
+	 */
+	public boolean setBlockState(World world, BlockPos pos, IBlockState state, int flags) {
+		if (isPopulated(world, pos.getX() >> 4, pos.getZ() >> 4)) {
+			immediateCount++;
+			ColumnProfiles.invalidate(world, pos);
+			return world.setBlockState(pos, state, flags);
+		}
+		GenDataPersistence savedData = GenDataPersistence.get(world);
+		savedData.getGenerationState(world.provider.getDimension()).getDeferredPlacements().add(pos, state, flags);
+		savedData.markDirty();
+		deferredCount++;
+		return true;
+	}
+
+	/**
+	 * 
+	 * @param world
+	 * @param pos
+	 * @return
+	 */
+	public boolean setBlockToAir(World world, BlockPos pos) {
+		return setBlockState(world, pos, Blocks.AIR.getDefaultState(), 3);
+	}
+
+	/**
+	 * NOTE the chunk being populated is already flagged as populated (Chunk.checkLight() sets it before the generators run).
+	 * @param world
+	 * @param chunkX
+	 * @param chunkZ
+	 * @return true if the chunk is loaded and populated. never loads or generates the chunk.
+	 */
+	public static boolean isPopulated(World world, int chunkX, int chunkZ) {
+		Chunk chunk = world.getChunkProvider().getLoadedChunk(chunkX, chunkZ);
+		return chunk != null && chunk.isTerrainPopulated();
+	}
+
+	/**
+	 * Applies the deferred placements of the chunk being populated.
+	 */
+	@Override
+	public void generate(Random random, int chunkX, int chunkZ, World world, IChunkGenerator chunkGenerator, IChunkProvider chunkProvider) {
+		apply(world, chunkX, chunkZ);
+	}
+
+	/**
+	 * Schedules the deferred placements of a chunk that was loaded already populated. They are applied at the end of the world tick,
+	 * as the chunk is not ready to be modified while it is loading.
+	 * @param world
+	 * @param chunk
+	 */
+	public void onChunkLoad(World world, Chunk chunk) {
+		if (world.isRemote || !chunk.isTerrainPopulated()) {
+			return;
+		}
+		DeferredPlacements placements = getDeferredPlacements(world);
+		if (placements.size() > 0 && placements.contains(chunk.x, chunk.z)) {
+			LongSet chunks = readyChunks.get(world);
+			if (chunks == null) {
+				chunks = new LongOpenHashSet();
+				readyChunks.put(world, chunks);
+			}
+			chunks.add(ChunkPos.asLong(chunk.x, chunk.z));
+		}
+	}
+
+	/**
+	 * Applies the deferred placements of the chunks that were loaded since the last tick. Called once per tick of the world.
+	 * @param world
+	 */
+	public void tick(World world) {
+		LongSet chunks = readyChunks.get(world);
+		if (chunks == null || chunks.isEmpty()) {
+			return;
+		}
+		LongIterator iterator = chunks.iterator();
+		while (iterator.hasNext()) {
+			long key = iterator.nextLong();
+			iterator.remove();
+			int chunkX = (int)key;
+			int chunkZ = (int)(key >>> 32);
+			// the chunk may have been unloaded in the meantime
+			if (isPopulated(world, chunkX, chunkZ)) {
+				apply(world, chunkX, chunkZ);
+			}
+		}
+	}
+
+	/**
+	 * 
+	 * @param world
+	 */
+	public void onWorldUnload(World world) {
+		readyChunks.remove(world);
+		if (!world.isRemote && deferredCount > 0) {
+			Treasure.LOGGER.debug("deferred placements -> immediate: {}, deferred: {}, applied: {}, pending in dimension {}: {}",
+					immediateCount, deferredCount, appliedCount, world.provider.getDimension(), getDeferredPlacements(world).size());
+		}
+	}
+
+	/**
+	 * 
+	 * @param world
+	 * @param chunkX
+	 * @param chunkZ
+	 */
+	private void apply(World world, int chunkX, int chunkZ) {
+		DeferredPlacements placements = getDeferredPlacements(world);
+		if (placements.size() == 0) {
+			return;
+		}
+		int count = placements.apply(world, chunkX, chunkZ);
+		if (count > 0) {
+			appliedCount += count;
+			ColumnProfiles.invalidate(world, new BlockPos(chunkX << 4, 0, chunkZ << 4));
+			GenDataPersistence.get(world).markDirty();
+			Treasure.LOGGER.debug("applied {} deferred placements to chunk [{}, {}]", count, chunkX, chunkZ);
+		}
+	}
+
+	private static DeferredPlacements getDeferredPlacements(World world) {
+		return GenDataPersistence.get(world).getGenerationState(world.provider.getDimension()).getDeferredPlacements();
+	}
+
+	/**
+	 * 
+	 * @return the number of placements that were applied immediately
+	 */
+	public long getImmediateCount() {
+		return immediateCount;
+	}
+
+	/**
+	 * 
+	 * @return the number of placements that were deferred
+	 */
+	public long getDeferredCount() {
+		return deferredCount;
+	}
+
+	/**
+	 * 
+	 * @return the number of deferred placements that were applied
+	 */
+	public long getAppliedCount() {
+		return appliedCount;
+	}
+}
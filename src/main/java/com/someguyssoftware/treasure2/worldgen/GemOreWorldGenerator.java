@@ -9,8 +9,11 @@ import com.someguyssoftware.gottschcore.random.RandomHelper;
 import com.someguyssoftware.treasure2.Treasure;
 import com.someguyssoftware.treasure2.block.TreasureBlocks;
 import com.someguyssoftware.treasure2.config.TreasureConfig;
+import com.someguyssoftware.treasure2.generator.GenerationRandom;
+import com.someguyssoftware.treasure2.generator.GenerationRandom.Stream;
 import com.someguyssoftware.treasure2.item.TreasureItems;
 import com.someguyssoftware.treasure2.persistence.GenDataPersistence;
+import com.someguyssoftware.treasure2.persistence.GenerationState;
 import com.someguyssoftware.treasure2.worldgen.GemOreWorldGenerator.GemGenerationContext;
 import com.someguyssoftware.treasure2.worldgen.GemOreWorldGenerator.WorldGenMinable;
 
@@ -36,7 +39,6 @@ public class GemOreWorldGenerator implements ITreasureWorldGenerator {
     private WorldGenMinable onyxGenerator;
 	private WorldGenMinable sapphireGenerator;
 	private WorldGenMinable rubyGenerator;
-	private int chunksSinceLastOre = 1;
 
     Map<Item, GemGenerationContext> gemContexts;
 
@@ -55,9 +57,6 @@ public class GemOreWorldGenerator implements ITreasureWorldGenerator {
 	 * 
 	 */
 	public void init() {
-		// intialize chunks since last ore spawn
-        chunksSinceLastOre = 0;
-
         // create generators
         amethystGenerator = new WorldGenMinable(TreasureBlocks.AMETHYST_ORE.getDefaultState(), TreasureConfig.GEMS_ORES.amethystOreVeinSize);
         onyxGenerator = new WorldGenMinable(TreasureBlocks.ONYX_ORE.getDefaultState(), TreasureConfig.GEMS_ORES.onyxOreVeinSize);
@@ -101,10 +100,11 @@ public class GemOreWorldGenerator implements ITreasureWorldGenerator {
 		if (!TreasureConfig.GEMS_ORES.enableGemOreSpawn) {
 			return;
 		}
-		if (TreasureConfig.WORLD_GEN.getGeneralProperties().getDimensionsWhiteList().contains(Integer.valueOf(world.provider.getDimension()))) {
+		if (TreasureConfig.WORLD_GEN.getGeneralProperties().isDimensionAllowed(world.provider.getDimension())) {
             // generate(world, random, chunkX, chunkZ);
-            generate(world, random, chunkX, chunkZ, gemContexts.get(TreasureItems.RUBY), gemContexts.get(TreasureItems.SAPPHIRE));
-            generate(world, random, chunkX, chunkZ, gemContexts.get(TreasureItems.AMETHYST), gemContexts.get(TreasureItems.ONYX));
+            Random oreRandom = GenerationRandom.forChunk(world, Stream.GEM_ORE, chunkX, chunkZ);
+            generate(world, oreRandom, chunkX, chunkZ, gemContexts.get(TreasureItems.RUBY), gemContexts.get(TreasureItems.SAPPHIRE));
+            generate(world, oreRandom, chunkX, chunkZ, gemContexts.get(TreasureItems.AMETHYST), gemContexts.get(TreasureItems.ONYX));
 		}
 	}
 
@@ -117,8 +117,12 @@ public class GemOreWorldGenerator implements ITreasureWorldGenerator {
 	 */
 	// private void generate(World world, Random random, int chunkX, int chunkZ) {
     private void generate(World world, Random random, int chunkX, int chunkZ, GemGenerationContext... contexts) {
+		// get the generation state of the dimension
+		GenDataPersistence savedData = GenDataPersistence.get(world);
+		GenerationState state = savedData.getGenerationState(world.provider.getDimension());
+
 		// increment the chunk count
-		chunksSinceLastOre++;
+		state.incrementChunksSinceLastOre();
 
 		// get spawn position @ chunk
 		int xSpawn = chunkX * 16;
@@ -135,18 +139,19 @@ public class GemOreWorldGenerator implements ITreasureWorldGenerator {
 		}
 
 		for (int veinIndex = 0; veinIndex < context.veinsPerChunk; veinIndex++) {
-			xSpawn = xSpawn + random.nextInt(16);
-			int ySpawn = random.nextInt(context.maxY) + context.minY;
-			zSpawn = zSpawn + random.nextInt(16);
+			// NOTE each vein is offset from the chunk origin (not from the previous vein), so with WorldGenMinable's +8 offset
+			// the veins stay within the chunks that are already generated, and never cascade chunk generation.
+			int xVein = xSpawn + random.nextInt(16);
+			int yVein = random.nextInt(context.maxY) + context.minY;
+			int zVein = zSpawn + random.nextInt(16);
 
-			context.gen.generate(world, random, new BlockPos(xSpawn, ySpawn, zSpawn));
+			context.gen.generate(world, random, new BlockPos(xVein, yVein, zVein));
 		}
 		// reset count
-		chunksSinceLastOre = 0;
+		state.setChunksSinceLastOre(0);
 		//		}
 
 		// save world data
-		GenDataPersistence savedData = GenDataPersistence.get(world);
 		if (savedData != null) {
 			savedData.markDirty();
 		}
@@ -174,21 +179,6 @@ public class GemOreWorldGenerator implements ITreasureWorldGenerator {
 	private void generateEnd(World world, Random random, int i, int j) {
 	}
 
-	/**
-	 * @return the chunksSinceLastOre
-	 */
-	public int getChunksSinceLastOre() {
-		return chunksSinceLastOre;
-	}
-
-	/**
-	 * @param chunksSinceLastOre
-	 *            the chunksSinceLastOre to set
-	 */
-	public void setChunksSinceLastOre(int chunksSinceLastOre) {
-		this.chunksSinceLastOre = chunksSinceLastOre;
-	}
-
 	/**
 	 * Re-created this class for debugging purposes.
 	 * @author Mark Gottschling on Dec 10, 2018
@@ -3,6 +3,15 @@
  */
 package com.someguyssoftware.treasure2.worldgen;
 
+import java.util.Optional;
+import java.util.Random;
+
+import com.someguyssoftware.treasure2.config.TreasureConfig;
+import com.someguyssoftware.treasure2.generator.GenerationRandom;
+import com.someguyssoftware.treasure2.generator.PlacementGrid;
+import com.someguyssoftware.treasure2.locate.TreasureSite;
+
+import net.minecraft.world.World;
 import net.minecraftforge.fml.common.IWorldGenerator;
 
 /**
@@ -11,4 +20,100 @@ import net.minecraftforge.fml.common.IWorldGenerator;
  */
 public interface ITreasureWorldGenerator extends IWorldGenerator {
 	void init();
+
+	/**
+	 * 
+	 * @return the placement grid of the generator (with the current config), or null if the generator doesn't support one
+	 */
+	default PlacementGrid getPlacementGrid() {
+		return null;
+	}
+
+	/**
+	 * Attempts a site in a candidate chunk of the placement grid: the checks of generate() that don't need the terrain and don't depend
+	 * on the other sites (ex. the biome and the probability), drawing from the random in the same order as generate().
+	 * @param world
+	 * @param random the random of the chunk
+	 * @param chunkX
+	 * @param chunkZ
+	 * @return the attempted site, or empty if the chunk doesn't attempt one
+	 */
+	default Optional<TreasureSite> attemptSite(World world, Random random, int chunkX, int chunkZ) {
+		return Optional.empty();
+	}
+
+	/**
+	 * Tests if the site attempted in the candidate chunk yields to another attempted site within the min. distance, ex. to a candidate
+	 * of higher precedence of the same grid, or to a candidate of a generator that takes precedence.
+	 * @param world
+	 * @param chunkX
+	 * @param chunkZ
+	 * @return true if the chunk yields
+	 */
+	default boolean isYielding(World world, int chunkX, int chunkZ) {
+		return false;
+	}
+
+	/**
+	 * The placement grid decision, shared by generate() and predictSite(): the candidate chunk generates its attempted site,
+	 * unless it yields. It depends on the seed alone, not on the registries or the order the chunks are generated in.
+	 * @param world
+	 * @param random the random of the chunk, as drawn from by generate() afterwards
+	 * @param chunkX
+	 * @param chunkZ
+	 * @return the site to generate, or empty
+	 */
+	default Optional<TreasureSite> decideSite(World world, Random random, int chunkX, int chunkZ) {
+		PlacementGrid grid = getPlacementGrid();
+		if (grid == null || !grid.isCandidate(world.getSeed(), chunkX, chunkZ)) {
+			return Optional.empty();
+		}
+		Optional<TreasureSite> site = attemptSite(world, random, chunkX, chunkZ);
+		if (!site.isPresent() || isYielding(world, chunkX, chunkZ)) {
+			return Optional.empty();
+		}
+		return site;
+	}
+
+	/**
+	 * Predicts the site that the generator will generate in the chunk, when the placement grid is enabled.
+	 * The checks that need the terrain are not applied, so a predicted site may still fail to generate.
+	 * @param world
+	 * @param chunkX
+	 * @param chunkZ
+	 * @return the predicted site, or empty if the chunk won't have one
+	 */
+	default Optional<TreasureSite> predictSite(World world, int chunkX, int chunkZ) {
+		PlacementGrid grid = getPlacementGrid();
+		if (grid == null || !TreasureConfig.WORLD_GEN.getGeneralProperties().enablePlacementGrid
+				|| !TreasureConfig.WORLD_GEN.getGeneralProperties().isDimensionAllowed(world.provider.getDimension())) {
+			return Optional.empty();
+		}
+		return decideSite(world, GenerationRandom.forChunk(world, grid.getStream(), chunkX, chunkZ), chunkX, chunkZ);
+	}
+
+	/**
+	 * 
+	 * @param world
+	 * @param chunkX
+	 * @param chunkZ
+	 * @return true if the candidate chunk attempts a site, whether or not it yields
+	 */
+	default boolean isAttempting(World world, int chunkX, int chunkZ) {
+		PlacementGrid grid = getPlacementGrid();
+		return grid != null && attemptSite(world, GenerationRandom.forChunk(world, grid.getStream(), chunkX, chunkZ), chunkX, chunkZ).isPresent();
+	}
+
+	/**
+	 * 
+	 * @param world
+	 * @param chunkX
+	 * @param chunkZ
+	 * @param distance the min. distance, in blocks
+	 * @return true if a candidate of the generator within the distance of the chunk attempts a site
+	 */
+	default boolean isAttemptingWithin(World world, int chunkX, int chunkZ, int distance) {
+		PlacementGrid grid = getPlacementGrid();
+		return grid != null && grid.isCandidateWithin(world.getSeed(), chunkX, chunkZ, distance, (x, z) -> isAttempting(world, x, z));
+	}
 }
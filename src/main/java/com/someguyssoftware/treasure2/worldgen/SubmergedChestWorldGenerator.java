@@ -15,24 +15,27 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Random;
 
-import com.someguyssoftware.gottschcore.biome.BiomeHelper;
 import com.someguyssoftware.gottschcore.positional.Coords;
 import com.someguyssoftware.gottschcore.positional.ICoords;
 import com.someguyssoftware.gottschcore.random.RandomHelper;
 import com.someguyssoftware.gottschcore.random.RandomWeightedCollection;
 import com.someguyssoftware.gottschcore.world.WorldInfo;
 import com.someguyssoftware.treasure2.Treasure;
-import com.someguyssoftware.treasure2.biome.TreasureBiomeHelper;
-import com.someguyssoftware.treasure2.biome.TreasureBiomeHelper.Result;
 import com.someguyssoftware.treasure2.chest.ChestInfo;
 import com.someguyssoftware.treasure2.config.IChestConfig;
 import com.someguyssoftware.treasure2.config.TreasureConfig;
 import com.someguyssoftware.treasure2.enums.Rarity;
+import com.someguyssoftware.treasure2.enums.WorldGeneratorType;
 import com.someguyssoftware.treasure2.generator.ChestGeneratorData;
+import com.someguyssoftware.treasure2.generator.ColumnProfiles;
+import com.someguyssoftware.treasure2.generator.GenerationRandom;
+import com.someguyssoftware.treasure2.generator.GenerationRandom.Stream;
 import com.someguyssoftware.treasure2.generator.GeneratorData;
 import com.someguyssoftware.treasure2.generator.GeneratorResult;
+import com.someguyssoftware.treasure2.generator.PlacementGrid;
 import com.someguyssoftware.treasure2.generator.chest.CauldronChestGenerator;
 import com.someguyssoftware.treasure2.generator.chest.CommonChestGenerator;
 import com.someguyssoftware.treasure2.generator.chest.CrystalSkullChestGenerator;
@@ -46,15 +49,15 @@ import com.someguyssoftware.treasure2.generator.chest.ScarceChestGenerator;
 import com.someguyssoftware.treasure2.generator.chest.SkullChestGenerator;
 import com.someguyssoftware.treasure2.generator.chest.UncommonChestGenerator;
 import com.someguyssoftware.treasure2.generator.ruins.SubmergedRuinGenerator;
+import com.someguyssoftware.treasure2.locate.TreasureSite;
 import com.someguyssoftware.treasure2.persistence.GenDataPersistence;
+import com.someguyssoftware.treasure2.persistence.GenerationState.ChestGenerationState;
 import com.someguyssoftware.treasure2.registry.ChestRegistry;
 
-import net.minecraft.init.Biomes;
 import net.minecraft.world.World;
 import net.minecraft.world.biome.Biome;
 import net.minecraft.world.chunk.IChunkProvider;
 import net.minecraft.world.gen.IChunkGenerator;
-import net.minecraftforge.common.BiomeDictionary;
 
 /**
  * 
@@ -62,11 +65,11 @@ import net.minecraftforge.common.BiomeDictionary;
  *
  */
 public class SubmergedChestWorldGenerator implements ITreasureWorldGenerator {
-	private int chunksSinceLastChest;
-	private Map<Rarity, Integer> chunksSinceLastRarityChest;
-
 	private Map<Rarity, RandomWeightedCollection<IChestGenerator>> chestCollectionGeneratorsMap = new HashMap<>();
 
+	// the placement grid, cached until the spacing config changes
+	private PlacementGrid placementGrid;
+
 	private static final List<Rarity> RARITIES = new ArrayList<>();
 	
 	/**
@@ -83,15 +86,6 @@ public class SubmergedChestWorldGenerator implements ITreasureWorldGenerator {
 	public void init() {
 		RARITIES.clear();
 		
-		// initialize chunks since last array
-		chunksSinceLastChest = 0;
-		chunksSinceLastRarityChest = new HashMap<>(Rarity.values().length);
-		
-		// setup temporary rarity-generators map
-		for (Rarity rarity : Rarity.values()) {
-			chunksSinceLastRarityChest.put(rarity, 0);
-		}
-				
 		// setup chest collection generator maps
 		if (TreasureConfig.CHESTS.submergedChests.configMap.get(COMMON).isEnableChest()) {
 			RARITIES.add(COMMON);
@@ -139,8 +133,14 @@ public class SubmergedChestWorldGenerator implements ITreasureWorldGenerator {
 	 */
 	@Override
 	public void generate(Random random, int chunkX, int chunkZ, World world, IChunkGenerator chunkGenerator, IChunkProvider chunkProvider) {
-		if (TreasureConfig.WORLD_GEN.getGeneralProperties().getDimensionsWhiteList().contains(Integer.valueOf(world.provider.getDimension()))) {
-			generate(world, random, chunkX, chunkZ);
+		if (TreasureConfig.WORLD_GEN.getGeneralProperties().isDimensionAllowed(world.provider.getDimension())) {
+			ColumnProfiles.begin(world, chunkX, chunkZ);
+			try {
+				generate(world, GenerationRandom.forChunk(world, Stream.SUBMERGED_CHEST, chunkX, chunkZ), chunkX, chunkZ);
+			}
+			finally {
+				ColumnProfiles.end(world);
+			}
 		}
 		
 //		switch(world.provider.getDimension()){
@@ -153,6 +153,50 @@ public class SubmergedChestWorldGenerator implements ITreasureWorldGenerator {
 	}		
 
 
+	@Override
+	public PlacementGrid getPlacementGrid() {
+		// rebuilt only if the config changed
+		int spacing = TreasureConfig.CHESTS.submergedChests.placementSpacing;
+		int separation = TreasureConfig.CHESTS.submergedChests.placementSeparation;
+		if (placementGrid == null || !placementGrid.hasSpacing(spacing, separation)) {
+			placementGrid = new PlacementGrid(Stream.SUBMERGED_CHEST, spacing, separation);
+		}
+		return placementGrid;
+	}
+
+	/**
+	 * 
+	 */
+	@Override
+	public Optional<TreasureSite> attemptSite(World world, Random random, int chunkX, int chunkZ) {
+		ICoords coords = new Coords((chunkX * WorldInfo.CHUNK_SIZE) + WorldInfo.CHUNK_RADIUS, 0, (chunkZ * WorldInfo.CHUNK_SIZE) + WorldInfo.CHUNK_RADIUS);
+		Biome biome = world.getBiome(coords.toPos());
+		if (!SurfaceChestWorldGenerator.isOcean(biome)) {
+			return Optional.empty();
+		}
+		// same draws, in the same order, as generate()
+		Rarity rarity = SurfaceChestWorldGenerator.selectGridRarity(random, RARITIES, TreasureConfig.CHESTS.submergedChests.configMap);
+		IChestConfig chestConfig = TreasureConfig.CHESTS.submergedChests.configMap.get(rarity);
+		if (chestConfig == null || !RandomHelper.checkProbability(random, chestConfig.getGenProbability()) || !chestConfig.isBiomeAllowed(biome)) {
+			return Optional.empty();
+		}
+		return Optional.of(new TreasureSite(WorldGeneratorType.SUBMERGED_CHEST, rarity, coords, world.provider.getDimension(), true));
+	}
+
+	/**
+	 * Yields to the candidates of higher precedence within the min. distance, and to any surface chest candidate within it - 
+	 * the surface chests take precedence over the submerged chests.
+	 */
+	@Override
+	public boolean isYielding(World world, int chunkX, int chunkZ) {
+		int minDistance = TreasureConfig.CHESTS.submergedChests.minDistancePerChest;
+		if (!getPlacementGrid().hasPrecedence(world.getSeed(), chunkX, chunkZ, minDistance, (x, z) -> isAttempting(world, x, z))) {
+			return true;
+		}
+		ITreasureWorldGenerator surfaceChests = Treasure.WORLD_GENERATORS.get(WorldGeneratorType.SURFACE_CHEST);
+		return surfaceChests != null && surfaceChests.isAttemptingWithin(world, chunkX, chunkZ, minDistance);
+	}
+
 	/**
 	 * 
 	 * @param world
@@ -161,6 +205,18 @@ public class SubmergedChestWorldGenerator implements ITreasureWorldGenerator {
 	 * @param j
 	 */
 	private void generate(World world, Random random, int chunkX, int chunkZ) {
+		// with the placement grid, only the candidate chunk of the cell can have a chest
+		if (TreasureConfig.WORLD_GEN.getGeneralProperties().enablePlacementGrid) {
+			Optional<TreasureSite> site = decideSite(world, random, chunkX, chunkZ);
+			if (site.isPresent()) {
+				GenDataPersistence savedData = GenDataPersistence.get(world);
+				ChestGenerationState state = savedData.getGenerationState(world.provider.getDimension()).getSubmergedChestState();
+				generateSite(world, random, SurfaceChestWorldGenerator.getSpawnCoords(world, chunkX, chunkZ), site.get().getRarity(), state);
+				savedData.markDirty();
+			}
+			return;
+		}
+
  		/*
  		 * get current chunk position
  		 */            
@@ -171,24 +227,25 @@ public class SubmergedChestWorldGenerator implements ITreasureWorldGenerator {
 		// 0. hard check for ocean biomes
         ICoords coords = new Coords(xSpawn, 0, zSpawn);
 		Biome biome = world.getBiome(coords.toPos());
-		if (biome != Biomes.OCEAN && biome != Biomes.DEEP_OCEAN && biome != Biomes.FROZEN_OCEAN &&
-				!BiomeDictionary.hasType(biome, BiomeDictionary.Type.OCEAN)) {
+		if (!SurfaceChestWorldGenerator.isOcean(biome)) {
 			return;
 		}
 		
+		// get the generation state of the dimension
+		GenDataPersistence savedData = GenDataPersistence.get(world);
+		ChestGenerationState state = savedData.getGenerationState(world.provider.getDimension()).getSubmergedChestState();
+		
 		// increment the chunk counts
-		chunksSinceLastChest++;
+		state.incrementChunksSinceLastChest();
 		for (Rarity rarity : RARITIES) {
-			Integer i = chunksSinceLastRarityChest.get(rarity);
-			chunksSinceLastRarityChest.put(rarity, ++i);			
+			state.incrementChunksSinceLastRarityChest(rarity);
 		}
 
 		// test if min chunks was met
-     	if (chunksSinceLastChest > TreasureConfig.CHESTS.submergedChests.minChunksPerChest) {
+     	if (state.getChunksSinceLastChest() > TreasureConfig.CHESTS.submergedChests.minChunksPerChest) {
            
             // the get first surface y (could be leaves, trunk, water, etc)
-            int ySpawn = world.getChunkFromChunkCoords(chunkX, chunkZ).getHeightValue(WorldInfo.CHUNK_RADIUS, WorldInfo.CHUNK_RADIUS);
-            coords = new Coords(xSpawn, ySpawn, zSpawn);
+            coords = SurfaceChestWorldGenerator.getSpawnCoords(world, chunkX, chunkZ);
 
 	    	// determine what type to generate
             Rarity rarity = (Rarity) RARITIES.get(random.nextInt(RARITIES.size()));
@@ -198,7 +255,7 @@ public class SubmergedChestWorldGenerator implements ITreasureWorldGenerator {
 				return;
 			}
 			
-    		if (chunksSinceLastRarityChest.get(rarity) >= chestConfig.getChunksPerChest()) {
+    		if (state.getChunksSinceLastRarityChest(rarity) >= chestConfig.getChunksPerChest()) {
 				// 1. test if chest meets the probability criteria
 				if (!RandomHelper.checkProbability(random, chestConfig.getGenProbability())) {
 					Treasure.LOGGER.debug("Submerged chest does not meet generate probability.");
@@ -206,29 +263,17 @@ public class SubmergedChestWorldGenerator implements ITreasureWorldGenerator {
 				}
 				
 				// 2. test if the override (global) biome is allowed
-				TreasureBiomeHelper.Result biomeCheck =TreasureBiomeHelper.isBiomeAllowed(biome, chestConfig.getBiomeWhiteList(), chestConfig.getBiomeBlackList());
-				if(biomeCheck == Result.BLACK_LISTED ) {
-		    		if (WorldInfo.isClientSide(world)) {
-		    			Treasure.LOGGER.debug("{} is not a valid biome @ {}", biome.getBiomeName(), coords.toShortString());
-		    		}
-		    		else {
-		    			Treasure.LOGGER.debug("Biome {} is not valid @ {}",rarity.getValue(), coords.toShortString());
-		    		}					
+				if (!chestConfig.isBiomeAllowed(biome)) {
+			    	if (Treasure.LOGGER.isDebugEnabled()) {
+			    		if (WorldInfo.isClientSide(world)) {
+			    			Treasure.LOGGER.debug("{} is not a valid biome @ {}", biome.getBiomeName(), coords.toShortString());
+			    		}
+			    		else {
+			    			Treasure.LOGGER.debug("Biome {} is not valid @ {}",rarity.getValue(), coords.toShortString());
+			    		}
+			    	}
 					return;
 				}
-				else if (biomeCheck == Result.OK) {
-				    if (!BiomeHelper.isBiomeAllowed(biome, chestConfig.getBiomeTypeWhiteList(), chestConfig.getBiomeTypeBlackList())) {
-				    	if (Treasure.LOGGER.isDebugEnabled()) {
-				    		if (WorldInfo.isClientSide(world)) {
-				    			Treasure.LOGGER.debug("{} is not a valid biome type @ {}", biome.getBiomeName(), coords.toShortString());
-				    		}
-				    		else {
-				    			Treasure.LOGGER.debug("Biome type of {} is not valid @ {}",rarity.getValue(), coords.toShortString());
-				    		}
-				    	}
-				    	return;
-				    }
-				}
 			    
      			// 3. check against all registered chests
      			if (isRegisteredChestWithinDistance(world, coords, TreasureConfig.CHESTS.submergedChests.minDistancePerChest)) {
@@ -236,29 +281,40 @@ public class SubmergedChestWorldGenerator implements ITreasureWorldGenerator {
      				return;
      			}
      			     			
-    			// reset chunks since last common chest regardless of successful generation - makes more rare and realistic and configurable generation.
-    			chunksSinceLastRarityChest.put(rarity, 0);
- 			
-    			// generate the chest/pit/chambers
-				Treasure.LOGGER.debug("Attempting to generate pit/chest.");
-				GeneratorResult<GeneratorData> result = null;
-				result = generate(world, random, coords, rarity, chestCollectionGeneratorsMap.get(rarity).next(), TreasureConfig.CHESTS.submergedChests.configMap.get(rarity));
-				
-    			if (result.isSuccess()) {
-    				// add to registry
-    				ChestRegistry.getInstance().register(coords.toShortString(), new ChestInfo(rarity, coords));
-    				// reset the chunk counts
-        			chunksSinceLastChest = 0;
-    			}
+    			generateSite(world, random, coords, rarity, state);
     		}
 
 	     	// save world data
-    		GenDataPersistence savedData = GenDataPersistence.get(world);
 	    	if (savedData != null) {
 	    		savedData.markDirty();
 	    	}
      	}
 	}
+
+	/**
+	 * Generates the pit/chest at the site that passed all the checks, and records it.
+	 * @param world
+	 * @param random
+	 * @param coords
+	 * @param rarity
+	 * @param state
+	 */
+	private void generateSite(World world, Random random, ICoords coords, Rarity rarity, ChestGenerationState state) {
+		// reset chunks since last common chest regardless of successful generation - makes more rare and realistic and configurable generation.
+		state.setChunksSinceLastRarityChest(rarity, 0);
+
+		// generate the chest/pit/chambers
+		Treasure.LOGGER.debug("Attempting to generate pit/chest.");
+		GeneratorResult<GeneratorData> result = null;
+		result = generate(world, random, coords, rarity, chestCollectionGeneratorsMap.get(rarity).next(), TreasureConfig.CHESTS.submergedChests.configMap.get(rarity));
+
+		if (result.isSuccess()) {
+			// add to registry
+			ChestRegistry.getInstance().register(coords.toShortString(), new ChestInfo(rarity, coords, world.provider.getDimension(), WorldGeneratorType.SUBMERGED_CHEST));
+			// reset the chunk counts
+			state.setChunksSinceLastChest(0);
+		}
+	}
 	
 	public GeneratorResult<GeneratorData> generate(World world, Random random, ICoords coords, Rarity chestRarity, 
 			IChestGenerator chestSelector, IChestConfig config) {
@@ -269,7 +325,7 @@ public class SubmergedChestWorldGenerator implements ITreasureWorldGenerator {
 		GeneratorResult<ChestGeneratorData> genResult = new GeneratorResult<>(ChestGeneratorData.class);		
 
 		// 1. collect location data points
-		ICoords surfaceCoords = WorldInfo.getOceanFloorSurfaceCoords(world, coords);
+		ICoords surfaceCoords = ColumnProfiles.getOceanFloorSurfaceCoords(world, coords);
 		Treasure.LOGGER.debug("ocean floor surface coords -> {}", surfaceCoords.toShortString());
 		if (!WorldInfo.isValidY(surfaceCoords)) {
 			Treasure.LOGGER.debug("ocean floor surface coords are invalid @ {}", surfaceCoords.toShortString());
@@ -357,41 +413,7 @@ public class SubmergedChestWorldGenerator implements ITreasureWorldGenerator {
 	 * @return
 	 */
 	public boolean isRegisteredChestWithinDistance(World world, ICoords coords, int minDistance) {
-		
-		double minDistanceSq = minDistance * minDistance;
-		
-		// get a list of dungeons
-		List<ChestInfo> infos = ChestRegistry.getInstance().getValues();
-
-		if (infos == null || infos.size() == 0) {
-			Treasure.LOGGER.debug("Unable to locate the ChestConfig Registry or the Registry doesn't contain any values");
-			return false;
-		}
-		
-		for (ChestInfo info : infos) {
-			// calculate the distance to the poi
-			double distance = coords.getDistanceSq(info.getCoords());
-			if (distance < minDistanceSq) {
-				return true;
-			}
-		}
-		return false;
-	}
-
-	public int getChunksSinceLastChest() {
-		return chunksSinceLastChest;
-	}
-
-	public void setChunksSinceLastChest(int chunksSinceLastChest) {
-		this.chunksSinceLastChest = chunksSinceLastChest;
-	}
-
-	public Map<Rarity, Integer> getChunksSinceLastRarityChest() {
-		return chunksSinceLastRarityChest;
-	}
-
-	public void setChunksSinceLastRarityChest(Map<Rarity, Integer> chunksSinceLastRarityChest) {
-		this.chunksSinceLastRarityChest = chunksSinceLastRarityChest;
+		return ChestRegistry.getInstance().isWithin(world.provider.getDimension(), coords, minDistance);
 	}
 
 	public Map<Rarity, RandomWeightedCollection<IChestGenerator>> getChestCollectionGeneratorsMap() {
@@ -15,12 +15,12 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Random;
 import java.util.stream.Collectors;
 
 import com.google.common.collect.HashBasedTable;
 import com.google.common.collect.Table;
-import com.someguyssoftware.gottschcore.biome.BiomeHelper;
 import com.someguyssoftware.gottschcore.positional.Coords;
 import com.someguyssoftware.gottschcore.positional.ICoords;
 import com.someguyssoftware.gottschcore.random.RandomHelper;
@@ -28,17 +28,21 @@ import com.someguyssoftware.gottschcore.random.RandomWeightedCollection;
 import com.someguyssoftware.gottschcore.world.WorldInfo;
 import com.someguyssoftware.gottschcore.world.gen.structure.IDecayRuleSet;
 import com.someguyssoftware.treasure2.Treasure;
-import com.someguyssoftware.treasure2.biome.TreasureBiomeHelper;
-import com.someguyssoftware.treasure2.biome.TreasureBiomeHelper.Result;
 import com.someguyssoftware.treasure2.chest.ChestInfo;
 import com.someguyssoftware.treasure2.config.IChestConfig;
 import com.someguyssoftware.treasure2.config.TreasureConfig;
 import com.someguyssoftware.treasure2.enums.PitTypes;
 import com.someguyssoftware.treasure2.enums.Pits;
 import com.someguyssoftware.treasure2.enums.Rarity;
+import com.someguyssoftware.treasure2.enums.WorldGeneratorType;
 import com.someguyssoftware.treasure2.generator.ChestGeneratorData;
+import com.someguyssoftware.treasure2.generator.ColumnProfiles;
+import com.someguyssoftware.treasure2.generator.GenerationRandom;
+import com.someguyssoftware.treasure2.generator.GenerationRandom.Stream;
 import com.someguyssoftware.treasure2.generator.GeneratorData;
 import com.someguyssoftware.treasure2.generator.GeneratorResult;
+import com.someguyssoftware.treasure2.generator.PlacementGrid;
+import com.someguyssoftware.treasure2.generator.SectionBlockWriter;
 import com.someguyssoftware.treasure2.generator.chest.CauldronChestGenerator;
 import com.someguyssoftware.treasure2.generator.chest.CommonChestGenerator;
 import com.someguyssoftware.treasure2.generator.chest.CrystalSkullChestGenerator;
@@ -63,7 +67,9 @@ import com.someguyssoftware.treasure2.generator.pit.StructurePitGenerator;
 import com.someguyssoftware.treasure2.generator.pit.TntTrapPitGenerator;
 import com.someguyssoftware.treasure2.generator.pit.VolcanoPitGenerator;
 import com.someguyssoftware.treasure2.generator.ruins.SurfaceRuinGenerator;
+import com.someguyssoftware.treasure2.locate.TreasureSite;
 import com.someguyssoftware.treasure2.persistence.GenDataPersistence;
+import com.someguyssoftware.treasure2.persistence.GenerationState.ChestGenerationState;
 import com.someguyssoftware.treasure2.registry.ChestRegistry;
 import com.someguyssoftware.treasure2.world.gen.structure.TemplateHolder;
 
@@ -82,12 +88,12 @@ import net.minecraftforge.common.BiomeDictionary;
 public class SurfaceChestWorldGenerator implements ITreasureWorldGenerator {
 	protected static int UNDERGROUND_OFFSET = 5;
 	
-	private int chunksSinceLastChest;
-	private Map<Rarity, Integer> chunksSinceLastRarityChest;
-	
 	// the chest chestGeneratorsMap
 	private Map<Rarity, RandomWeightedCollection<IChestGenerator>> chestGenMap = new HashMap<>();
 
+	// the placement grid, cached until the spacing config changes
+	private PlacementGrid placementGrid;
+
 	// the pit chestGeneratorsMap
 	public static Table<PitTypes, Pits, IPitGenerator<GeneratorResult<ChestGeneratorData>>> pitGens =  HashBasedTable.create();
 	
@@ -106,16 +112,6 @@ public class SurfaceChestWorldGenerator implements ITreasureWorldGenerator {
 	
 	@Override
 	public void init() {
-		// TODO all these values need to be indexed by dimension
-		// initialize chunks since last array
-		chunksSinceLastChest = 0;
-		chunksSinceLastRarityChest = new HashMap<>(Rarity.values().length);
-		
-		// setup temporary rarity-generators map
-		for (Rarity rarity : Rarity.values()) {
-			chunksSinceLastRarityChest.put(rarity, 0);
-		}
-	
 		// setup chest collection generator maps
 		if (TreasureConfig.CHESTS.surfaceChests.configMap.get(COMMON).isEnableChest()) {
 			RARITIES.add(COMMON);
@@ -191,8 +187,15 @@ public class SurfaceChestWorldGenerator implements ITreasureWorldGenerator {
 	 */
 	@Override
 	public void generate(Random random, int chunkX, int chunkZ, World world, IChunkGenerator chunkGenerator, IChunkProvider chunkProvider) {
-		if (TreasureConfig.WORLD_GEN.getGeneralProperties().getDimensionsWhiteList().contains(Integer.valueOf(world.provider.getDimension()))) {
-			generate(world, random, chunkX, chunkZ);
+		if (TreasureConfig.WORLD_GEN.getGeneralProperties().isDimensionAllowed(world.provider.getDimension())) {
+			// the surface checks of all the treasure generators of the population share the profiles of the chunks
+			ColumnProfiles.begin(world, chunkX, chunkZ);
+			try {
+				generate(world, GenerationRandom.forChunk(world, Stream.SURFACE_CHEST, chunkX, chunkZ), chunkX, chunkZ);
+			}
+			finally {
+				ColumnProfiles.end(world);
+			}
 		}
 	}
 
@@ -204,6 +207,18 @@ public class SurfaceChestWorldGenerator implements ITreasureWorldGenerator {
 	 * @param chunkZ
 	 */
 	private void generate(World world, Random random, int chunkX, int chunkZ) {
+		// the placement grid candidates are spaced by the grid, instead of by the chunk counts
+		if (TreasureConfig.WORLD_GEN.getGeneralProperties().enablePlacementGrid) {
+			Optional<TreasureSite> site = decideSite(world, random, chunkX, chunkZ);
+			if (site.isPresent()) {
+				GenDataPersistence savedData = GenDataPersistence.get(world);
+				ChestGenerationState state = savedData.getGenerationState(world.provider.getDimension()).getSurfaceChestState();
+				generateSite(world, random, getSpawnCoords(world, chunkX, chunkZ), site.get().getRarity(), state);
+				savedData.markDirty();
+			}
+			return;
+		}
+
  		/*
  		 * get current chunk position
  		 */            
@@ -214,25 +229,25 @@ public class SurfaceChestWorldGenerator implements ITreasureWorldGenerator {
 		// 0. hard check against ocean biomes
         ICoords coords = new Coords(xSpawn, 0, zSpawn);
 		Biome biome = world.getBiome(coords.toPos());
-		if (biome == Biomes.OCEAN || biome == Biomes.DEEP_OCEAN || biome == Biomes.FROZEN_OCEAN ||
-				BiomeDictionary.hasType(biome, BiomeDictionary.Type.OCEAN)) {
+		if (isOcean(biome)) {
 			return;
 		}
 		
+		// get the generation state of the dimension
+		GenDataPersistence savedData = GenDataPersistence.get(world);
+		ChestGenerationState state = savedData.getGenerationState(world.provider.getDimension()).getSurfaceChestState();
+		
 		// increment the chunk counts
-		chunksSinceLastChest++;
-
+		state.incrementChunksSinceLastChest();
 		for (Rarity rarity : RARITIES) {
-			Integer i = chunksSinceLastRarityChest.get(rarity);
-			chunksSinceLastRarityChest.put(rarity, ++i);			
+			state.incrementChunksSinceLastRarityChest(rarity);
 		}
 
 		// test if min chunks was met
-     	if (chunksSinceLastChest > TreasureConfig.CHESTS.surfaceChests.minChunksPerChest) {
+     	if (state.getChunksSinceLastChest() > TreasureConfig.CHESTS.surfaceChests.minChunksPerChest) {
             
             // the get first surface y (could be leaves, trunk, water, etc)
-            int ySpawn = world.getChunkFromChunkCoords(chunkX, chunkZ).getHeightValue(WorldInfo.CHUNK_RADIUS, WorldInfo.CHUNK_RADIUS);
-            coords = new Coords(xSpawn, ySpawn, zSpawn);
+            coords = getSpawnCoords(world, chunkX, chunkZ);
 
 	    	// determine what type to generate
             Rarity rarity = (Rarity) RARITIES.get(random.nextInt(RARITIES.size()));
@@ -243,7 +258,7 @@ public class SurfaceChestWorldGenerator implements ITreasureWorldGenerator {
 			}
 //			Treasure.logger.debug("Chunks since last {} chest: {}", rarity,  chunksSinceLastRarityChest.get(rarity) );
 //			Treasure.logger.debug("Chunks per {} chest: {}", rarity, chestConfig.getChunksPerChest());
-    		if (chunksSinceLastRarityChest.get(rarity) >= chestConfig.getChunksPerChest()) {
+    		if (state.getChunksSinceLastRarityChest(rarity) >= chestConfig.getChunksPerChest()) {
     			    			
 				// 1. test if chest meets the probability criteria
 				if (!RandomHelper.checkProbability(random, chestConfig.getGenProbability())) {
@@ -252,29 +267,17 @@ public class SurfaceChestWorldGenerator implements ITreasureWorldGenerator {
 				}
 				
 				// 2. test if the override (global) biome is allowed
-				TreasureBiomeHelper.Result biomeCheck =TreasureBiomeHelper.isBiomeAllowed(biome, chestConfig.getBiomeWhiteList(), chestConfig.getBiomeBlackList());
-				if(biomeCheck == Result.BLACK_LISTED ) {
-		    		if (WorldInfo.isClientSide(world)) {
-		    			Treasure.LOGGER.debug("{} is not a valid biome @ {}", biome.getBiomeName(), coords.toShortString());
-		    		}
-		    		else {
-		    			Treasure.LOGGER.debug("Biome {} is not valid @ {}",rarity.getValue(), coords.toShortString());
-		    		}					
+				if (!chestConfig.isBiomeAllowed(biome)) {
+			    	if (Treasure.LOGGER.isDebugEnabled()) {
+			    		if (WorldInfo.isClientSide(world)) {
+			    			Treasure.LOGGER.debug("{} is not a valid biome @ {}", biome.getBiomeName(), coords.toShortString());
+			    		}
+			    		else {
+			    			Treasure.LOGGER.debug("Biome {} is not valid @ {}",rarity.getValue(), coords.toShortString());
+			    		}
+			    	}
 					return;
 				}
-				else if (biomeCheck == Result.OK) {
-				    if (!BiomeHelper.isBiomeAllowed(biome, chestConfig.getBiomeTypeWhiteList(), chestConfig.getBiomeTypeBlackList())) {
-				    	if (Treasure.LOGGER.isDebugEnabled()) {
-				    		if (WorldInfo.isClientSide(world)) {
-				    			Treasure.LOGGER.debug("{} is not a valid biome type @ {}", biome.getBiomeName(), coords.toShortString());
-				    		}
-				    		else {
-				    			Treasure.LOGGER.debug("Biome type of {} is not valid @ {}",rarity.getValue(), coords.toShortString());
-				    		}
-				    	}
-				    	return;
-				    }
-				}
 			    
      			// 3. check against all registered chests
      			if (isRegisteredChestWithinDistance(world, coords, TreasureConfig.CHESTS.surfaceChests.minDistancePerChest)) {
@@ -282,29 +285,130 @@ public class SurfaceChestWorldGenerator implements ITreasureWorldGenerator {
      				return;
      			}
      			     			
-    			// reset chunks since last common chest regardless of successful generation - makes more rare and realistic and configurable generation.
-    			chunksSinceLastRarityChest.put(rarity, 0);
- 			
-    			// generate the chest/pit/chambers
-				Treasure.LOGGER.debug("Attempting to generate pit/chest.");
-				GeneratorResult<GeneratorData> result = null;
-				result = generate(world, random, coords, rarity, chestGenMap.get(rarity).next(), TreasureConfig.CHESTS.surfaceChests.configMap.get(rarity));
-				
-    			if (result.isSuccess()) {
-    				// add to registry
-    				ChestRegistry.getInstance().register(coords.toShortString(), new ChestInfo(rarity, coords));
-    				// reset the chunk counts
-        			chunksSinceLastChest = 0;
-    			}
+    			generateSite(world, random, coords, rarity, state);
     		}
 
 	     	// save world data
-    		GenDataPersistence savedData = GenDataPersistence.get(world);
 	    	if (savedData != null) {
 	    		savedData.markDirty();
 	    	}
      	}
 	}
+
+	/**
+	 * Generates the chest/pit/chambers at the site that passed all the checks, and records it.
+	 * @param world
+	 * @param random
+	 * @param coords
+	 * @param rarity
+	 * @param state
+	 */
+	private void generateSite(World world, Random random, ICoords coords, Rarity rarity, ChestGenerationState state) {
+		// reset chunks since last common chest regardless of successful generation - makes more rare and realistic and configurable generation.
+		state.setChunksSinceLastRarityChest(rarity, 0);
+
+		// generate the chest/pit/chambers
+		Treasure.LOGGER.debug("Attempting to generate pit/chest.");
+		GeneratorResult<GeneratorData> result = null;
+		result = generate(world, random, coords, rarity, chestGenMap.get(rarity).next(), TreasureConfig.CHESTS.surfaceChests.configMap.get(rarity));
+
+		if (result.isSuccess()) {
+			// add to registry
+			ChestRegistry.getInstance().register(coords.toShortString(), new ChestInfo(rarity, coords, world.provider.getDimension(), WorldGeneratorType.SURFACE_CHEST));
+			// reset the chunk counts
+			state.setChunksSinceLastChest(0);
+		}
+	}
+
+	/**
+	 * 
+	 * @param world
+	 * @param chunkX
+	 * @param chunkZ
+	 * @return the middle of the chunk, at the first surface y (could be leaves, trunk, water, etc)
+	 */
+	static ICoords getSpawnCoords(World world, int chunkX, int chunkZ) {
+		int ySpawn = world.getChunkFromChunkCoords(chunkX, chunkZ).getHeightValue(WorldInfo.CHUNK_RADIUS, WorldInfo.CHUNK_RADIUS);
+		return new Coords((chunkX * WorldInfo.CHUNK_SIZE) + WorldInfo.CHUNK_RADIUS, ySpawn, (chunkZ * WorldInfo.CHUNK_SIZE) + WorldInfo.CHUNK_RADIUS);
+	}
+
+	/**
+	 * 
+	 * @param biome
+	 * @return true if the biome is an ocean biome
+	 */
+	static boolean isOcean(Biome biome) {
+		return biome == Biomes.OCEAN || biome == Biomes.DEEP_OCEAN || biome == Biomes.FROZEN_OCEAN ||
+				BiomeDictionary.hasType(biome, BiomeDictionary.Type.OCEAN);
+	}
+
+	@Override
+	public PlacementGrid getPlacementGrid() {
+		// rebuilt only if the config changed
+		int spacing = TreasureConfig.CHESTS.surfaceChests.placementSpacing;
+		int separation = TreasureConfig.CHESTS.surfaceChests.placementSeparation;
+		if (placementGrid == null || !placementGrid.hasSpacing(spacing, separation)) {
+			placementGrid = new PlacementGrid(Stream.SURFACE_CHEST, spacing, separation);
+		}
+		return placementGrid;
+	}
+
+	/**
+	 * The checks of the legacy generation, in the same order, with the rarity selected by weight instead of by the chunk counts.
+	 */
+	@Override
+	public Optional<TreasureSite> attemptSite(World world, Random random, int chunkX, int chunkZ) {
+		ICoords coords = new Coords((chunkX * WorldInfo.CHUNK_SIZE) + WorldInfo.CHUNK_RADIUS, 0, (chunkZ * WorldInfo.CHUNK_SIZE) + WorldInfo.CHUNK_RADIUS);
+		Biome biome = world.getBiome(coords.toPos());
+		if (isOcean(biome)) {
+			return Optional.empty();
+		}
+		Rarity rarity = selectGridRarity(random, RARITIES, TreasureConfig.CHESTS.surfaceChests.configMap);
+		IChestConfig chestConfig = TreasureConfig.CHESTS.surfaceChests.configMap.get(rarity);
+		if (chestConfig == null || !RandomHelper.checkProbability(random, chestConfig.getGenProbability()) || !chestConfig.isBiomeAllowed(biome)) {
+			return Optional.empty();
+		}
+		return Optional.of(new TreasureSite(WorldGeneratorType.SURFACE_CHEST, rarity, coords, world.provider.getDimension(), true));
+	}
+
+	/**
+	 * Yields to the candidates of higher precedence within the min. distance - instead of the registered chests,
+	 * as the registry depends on the order the chunks are generated in.
+	 */
+	@Override
+	public boolean isYielding(World world, int chunkX, int chunkZ) {
+		return !getPlacementGrid().hasPrecedence(world.getSeed(), chunkX, chunkZ, TreasureConfig.CHESTS.surfaceChests.minDistancePerChest,
+				(x, z) -> isAttempting(world, x, z));
+	}
+
+	/**
+	 * Selects the rarity of a placement grid candidate. Without the chunk counts, the rarities are weighted by the inverse of their
+	 * chunks per chest, so that a rarity keeps its frequency relative to the other rarities.
+	 * @param random
+	 * @param rarities
+	 * @param configMap
+	 * @return the rarity, or null if there are no rarities
+	 */
+	public static Rarity selectGridRarity(Random random, List<Rarity> rarities, Map<Rarity, IChestConfig> configMap) {
+		double[] weights = new double[rarities.size()];
+		double total = 0;
+		for (int i = 0; i < weights.length; i++) {
+			IChestConfig chestConfig = configMap.get(rarities.get(i));
+			weights[i] = chestConfig == null ? 0 : 1.0 / Math.max(1, chestConfig.getChunksPerChest());
+			total += weights[i];
+		}
+		if (total <= 0) {
+			return rarities.isEmpty() ? null : rarities.get(random.nextInt(rarities.size()));
+		}
+		double value = random.nextDouble() * total;
+		for (int i = 0; i < weights.length; i++) {
+			value -= weights[i];
+			if (value < 0) {
+				return rarities.get(i);
+			}
+		}
+		return rarities.get(weights.length - 1);
+	}
 	
 	/**
 	 * 
@@ -330,7 +434,7 @@ public class SurfaceChestWorldGenerator implements ITreasureWorldGenerator {
 		GeneratorResult<ChestGeneratorData> genResult = new GeneratorResult<>(ChestGeneratorData.class);		
 
 		// 1. collect location data points
-		ICoords surfaceCoords = WorldInfo.getDryLandSurfaceCoords(world, coords);
+		ICoords surfaceCoords = ColumnProfiles.getDryLandSurfaceCoords(world, coords);
 		Treasure.LOGGER.debug("surface coords -> {}", surfaceCoords.toShortString());
 		if (!WorldInfo.isValidY(surfaceCoords)) {
 			Treasure.LOGGER.debug("surface coords are invalid @ {}", surfaceCoords.toShortString());
@@ -445,7 +549,7 @@ public class SurfaceChestWorldGenerator implements ITreasureWorldGenerator {
 		GeneratorResult<ChestGeneratorData> pitResult = new GeneratorResult<ChestGeneratorData>(ChestGeneratorData.class);
 
 		// 2.5. check if it has 50% land
-		if (!WorldInfo.isSolidBase(world, markerCoords, 2, 2, 50)) {
+		if (!ColumnProfiles.isSolidBase(world, markerCoords, 2, 2, 50)) {
 			Treasure.LOGGER.debug("Coords [{}] does not meet solid base requires for {} x {}", markerCoords.toShortString(), 3, 3);
 			return result.fail();
 		}
@@ -466,7 +570,14 @@ public class SurfaceChestWorldGenerator implements ITreasureWorldGenerator {
 		Treasure.LOGGER.debug("Using pit generator -> {}", pitGenerator.getClass().getSimpleName());
 		
 		// 3. build the pit
-		pitResult = pitGenerator.generate(world, random, markerCoords, spawnCoords);
+		// NOTE the pit's blocks are relit and synced once, when the writer is committed
+		SectionBlockWriter writer = SectionBlockWriter.begin(world);
+		try {
+			pitResult = pitGenerator.generate(world, random, markerCoords, spawnCoords);
+		}
+		finally {
+			writer.commit();
+		}
 
 		if (!pitResult.isSuccess()) return result.fail();
 
@@ -510,7 +621,7 @@ public class SurfaceChestWorldGenerator implements ITreasureWorldGenerator {
 
 			spawnPos = new Coords(pos.getX(), ySpawn, pos.getZ());
 			// get floor pos (if in a cavern or tunnel etc)
-			spawnPos = WorldInfo.getDryLandSurfaceCoords(world, spawnPos);
+			spawnPos = ColumnProfiles.getDryLandSurfaceCoords(world, spawnPos);
 		}
 		return spawnPos;
 	}
@@ -527,12 +638,12 @@ public class SurfaceChestWorldGenerator implements ITreasureWorldGenerator {
 	public static ICoords getUndergroundSpawnPos(World world, Random random, ICoords pos, int minDepth, int maxDepth) {
 		ICoords spawnPos = null;
 
-		int depth = RandomHelper.randomInt(minDepth, maxDepth);
+		int depth = RandomHelper.randomInt(random, minDepth, maxDepth);
 		int ySpawn = Math.max(UNDERGROUND_OFFSET, pos.getY() - depth);
 		Treasure.LOGGER.debug("ySpawn -> {}", ySpawn);
 		spawnPos = new Coords(pos.getX(), ySpawn, pos.getZ());
 		// get floor pos (if in a cavern or tunnel etc)
-		spawnPos = WorldInfo.getDryLandSurfaceCoords(world, spawnPos);
+		spawnPos = ColumnProfiles.getDryLandSurfaceCoords(world, spawnPos);
 
 		return spawnPos;
 	}
@@ -565,41 +676,7 @@ public class SurfaceChestWorldGenerator implements ITreasureWorldGenerator {
 	 * @return
 	 */
 	public boolean isRegisteredChestWithinDistance(World world, ICoords coords, int minDistance) {
-		
-		double minDistanceSq = minDistance * minDistance;
-		
-		// get a list of dungeons
-		List<ChestInfo> infos = ChestRegistry.getInstance().getValues();
-
-		if (infos == null || infos.size() == 0) {
-			Treasure.LOGGER.debug("Unable to locate the ChestConfig Registry or the Registry doesn't contain any values");
-			return false;
-		}
-		
-		for (ChestInfo info : infos) {
-			// calculate the distance to the poi
-			double distance = coords.getDistanceSq(info.getCoords());
-			if (distance < minDistanceSq) {
-				return true;
-			}
-		}
-		return false;
-	}
-
-	public int getChunksSinceLastChest() {
-		return chunksSinceLastChest;
-	}
-
-	public void setChunksSinceLastChest(int chunksSinceLastChest) {
-		this.chunksSinceLastChest = chunksSinceLastChest;
-	}
-
-	public Map<Rarity, Integer> getChunksSinceLastRarityChest() {
-		return chunksSinceLastRarityChest;
-	}
-
-	public void setChunksSinceLastRarityChest(Map<Rarity, Integer> chunksSinceLastRarityChest) {
-		this.chunksSinceLastRarityChest = chunksSinceLastRarityChest;
+		return ChestRegistry.getInstance().isWithin(world.provider.getDimension(), coords, minDistance);
 	}
 
 	public Map<Rarity, RandomWeightedCollection<IChestGenerator>> getChestGenMap() {
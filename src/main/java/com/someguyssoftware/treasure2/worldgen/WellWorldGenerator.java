@@ -3,34 +3,35 @@
  */
 package com.someguyssoftware.treasure2.worldgen;
 
-import java.util.List;
+import java.util.Optional;
 import java.util.Random;
 
-import com.someguyssoftware.gottschcore.biome.BiomeHelper;
 import com.someguyssoftware.gottschcore.positional.Coords;
 import com.someguyssoftware.gottschcore.positional.ICoords;
 import com.someguyssoftware.gottschcore.random.RandomHelper;
 import com.someguyssoftware.gottschcore.world.WorldInfo;
 import com.someguyssoftware.treasure2.Treasure;
-import com.someguyssoftware.treasure2.biome.TreasureBiomeHelper;
-import com.someguyssoftware.treasure2.biome.TreasureBiomeHelper.Result;
-import com.someguyssoftware.treasure2.chest.ChestInfo;
 import com.someguyssoftware.treasure2.config.IWellConfig;
 import com.someguyssoftware.treasure2.config.TreasureConfig;
 import com.someguyssoftware.treasure2.enums.Wells;
+import com.someguyssoftware.treasure2.enums.WorldGeneratorType;
+import com.someguyssoftware.treasure2.generator.ColumnProfiles;
+import com.someguyssoftware.treasure2.generator.GenerationRandom;
+import com.someguyssoftware.treasure2.generator.GenerationRandom.Stream;
 import com.someguyssoftware.treasure2.generator.GeneratorData;
 import com.someguyssoftware.treasure2.generator.GeneratorResult;
+import com.someguyssoftware.treasure2.generator.PlacementGrid;
 import com.someguyssoftware.treasure2.generator.well.IWellGenerator;
 import com.someguyssoftware.treasure2.generator.well.WellGenerator;
+import com.someguyssoftware.treasure2.locate.TreasureSite;
 import com.someguyssoftware.treasure2.persistence.GenDataPersistence;
+import com.someguyssoftware.treasure2.persistence.GenerationState;
 import com.someguyssoftware.treasure2.registry.ChestRegistry;
 
-import net.minecraft.init.Biomes;
 import net.minecraft.world.World;
 import net.minecraft.world.biome.Biome;
 import net.minecraft.world.chunk.IChunkProvider;
 import net.minecraft.world.gen.IChunkGenerator;
-import net.minecraftforge.common.BiomeDictionary;
 
 /**
  * 
@@ -41,11 +42,12 @@ public class WellWorldGenerator implements ITreasureWorldGenerator {
 	// the number of blocks of half a chunk (radius) (a chunk is 16x16)
 	public static final int CHUNK_RADIUS = 8;
 
-	private int chunksSinceLastWell;
-
 	// the well geneators
 	private IWellGenerator<GeneratorResult<GeneratorData>> generator = new WellGenerator();
 
+	// the placement grid, cached until the spacing config changes
+	private PlacementGrid placementGrid;
+
 	/**
 	 * 
 	 */
@@ -59,8 +61,7 @@ public class WellWorldGenerator implements ITreasureWorldGenerator {
 
 	@Override
 	public void init() {
-		// intialize chunks since last array
-		chunksSinceLastWell = 0;
+		// NOTE the chunk counters are held per dimension in GenerationState
 	}
 
 	/**
@@ -68,8 +69,14 @@ public class WellWorldGenerator implements ITreasureWorldGenerator {
 	 */
 	@Override
 	public void generate(Random random, int chunkX, int chunkZ, World world, IChunkGenerator chunkGenerator, IChunkProvider chunkProvider) {
-		if (TreasureConfig.WORLD_GEN.getGeneralProperties().getDimensionsWhiteList().contains(Integer.valueOf(world.provider.getDimension()))) {
-			generate(world, random, chunkX, chunkZ);
+		if (TreasureConfig.WORLD_GEN.getGeneralProperties().isDimensionAllowed(world.provider.getDimension())) {
+			ColumnProfiles.begin(world, chunkX, chunkZ);
+			try {
+				generate(world, GenerationRandom.forChunk(world, Stream.WELL, chunkX, chunkZ), chunkX, chunkZ);
+			}
+			finally {
+				ColumnProfiles.end(world);
+			}
 		}
 //		switch(world.provider.getDimension()){
 //		case 0:
@@ -89,6 +96,17 @@ public class WellWorldGenerator implements ITreasureWorldGenerator {
 	 * @param j
 	 */
 	private void generate(World world, Random random, int chunkX, int chunkZ) {
+		// with the placement grid, only the candidate chunk of the cell can have a well
+		if (TreasureConfig.WORLD_GEN.getGeneralProperties().enablePlacementGrid) {
+			if (decideSite(world, random, chunkX, chunkZ).isPresent()) {
+				GenDataPersistence savedData = GenDataPersistence.get(world);
+				ICoords coords = new Coords(chunkX * 16 + 8, world.getChunkFromChunkCoords(chunkX, chunkZ).getHeightValue(8, 8), chunkZ * 16 + 8);
+				generateSite(world, random, coords, savedData.getGenerationState(world.provider.getDimension()));
+				savedData.markDirty();
+			}
+			return;
+		}
+
 		/*
 		 * get current chunk position
 		 */            
@@ -99,18 +117,19 @@ public class WellWorldGenerator implements ITreasureWorldGenerator {
 		// 0. hard check against ocean biomes
         ICoords coords = new Coords(xSpawn, 0, zSpawn);
 		Biome biome = world.getBiome(coords.toPos());
-		if (biome == Biomes.OCEAN || biome == Biomes.DEEP_OCEAN || biome == Biomes.FROZEN_OCEAN ||
-				BiomeDictionary.hasType(biome, BiomeDictionary.Type.OCEAN)) {
+		if (SurfaceChestWorldGenerator.isOcean(biome)) {
 			return;
 		}
 		
-		// increment the chunk counts
-		chunksSinceLastWell++;
+		// get the generation state of the dimension
+		GenDataPersistence savedData = GenDataPersistence.get(world);
+		GenerationState state = savedData.getGenerationState(world.provider.getDimension());
 
-		GeneratorResult<GeneratorData> result = new GeneratorResult<>(GeneratorData.class);
+		// increment the chunk counts
+		state.incrementChunksSinceLastWell();
 
 		// test if min chunks was met
-		if (chunksSinceLastWell > TreasureConfig.WELL.chunksPerWell) {
+		if (state.getChunksSinceLastWell() > TreasureConfig.WELL.chunksPerWell) {
 //			Treasure.logger.debug(String.format("Gen: pass first test: chunksSinceLast: %d, minChunks: %d", chunksSinceLastWell, TreasureConfig.minChunksPerWell));
 
 			// get first surface y (could be leaves, trunk, water, etc)
@@ -125,28 +144,21 @@ public class WellWorldGenerator implements ITreasureWorldGenerator {
 				return;
 			}
 
-			if (chunksSinceLastWell >= wellConfig.getChunksPerWell()) {
+			if (state.getChunksSinceLastWell() >= wellConfig.getChunksPerWell()) {
 
 				// 1. test if correct biome
 				// TODO this whole biome check should be wrapped in a method that returns true/false
-				TreasureBiomeHelper.Result biomeCheck =TreasureBiomeHelper.isBiomeAllowed(biome, wellConfig.getBiomeWhiteList(), wellConfig.getBiomeBlackList());
-				if(biomeCheck == Result.BLACK_LISTED ) {
-					chunksSinceLastWell = 0;
-					return;
-				}
-				else if (biomeCheck == Result.OK) {
-					if (!BiomeHelper.isBiomeAllowed(biome, wellConfig.getBiomeTypeWhiteList(), wellConfig.getBiomeTypeBlackList())) {
-						if (Treasure.LOGGER.isDebugEnabled()) {
-				    		if (WorldInfo.isClientSide(world)) {
-				    			Treasure.LOGGER.debug("{} is not a valid biome @ {} for Well", biome.getBiomeName(), coords.toShortString());
-				    		}
-				    		else {
-				    			Treasure.LOGGER.debug("Biome is not valid @ {} for Well", coords.toShortString());
-				    		}
-						}
-						chunksSinceLastWell = 0;
-						return;
+				if (!wellConfig.isBiomeAllowed(biome)) {
+					if (Treasure.LOGGER.isDebugEnabled()) {
+			    		if (WorldInfo.isClientSide(world)) {
+			    			Treasure.LOGGER.debug("{} is not a valid biome @ {} for Well", biome.getBiomeName(), coords.toShortString());
+			    		}
+			    		else {
+			    			Treasure.LOGGER.debug("Biome is not valid @ {} for Well", coords.toShortString());
+			    		}
 					}
+					state.setChunksSinceLastWell(0);
+					return;
 				}
 				
 				// 2. test if well meets the probability criteria
@@ -156,28 +168,68 @@ public class WellWorldGenerator implements ITreasureWorldGenerator {
 					return;
 				}
 
-				// increment chunks since last common chest regardless of successful generation - makes more rare and realistic and configurable generation.
-				chunksSinceLastWell++;    	    	
-
-				// generate the well
-				Treasure.LOGGER.debug("Attempting to generate a well");
-//				isGenerated = generators.get(well)
-				result = generator.generate(world, random, coords, wellConfig); 
-				Treasure.LOGGER.debug("well world gen result -> {}", result.isSuccess());
-				if (result.isSuccess()) {
-					// add to registry
-					//				ChestRegistry.getInstance().register(coords.toShortString(), new ChestInfo(rarity, coords));
-					chunksSinceLastWell = 0;
-				}
+				generateSite(world, random, coords, state);
 			}
 			// save world data
-			GenDataPersistence savedData = GenDataPersistence.get(world);
 			if (savedData != null) {
 				savedData.markDirty();
 			}
 		}
 	}
 
+	/**
+	 * Generates the well at the site that passed all the checks.
+	 * @param world
+	 * @param random
+	 * @param coords
+	 * @param state
+	 */
+	private void generateSite(World world, Random random, ICoords coords, GenerationState state) {
+		// increment chunks since last common chest regardless of successful generation - makes more rare and realistic and configurable generation.
+		state.incrementChunksSinceLastWell();    	    	
+
+		// generate the well
+		Treasure.LOGGER.debug("Attempting to generate a well");
+//		isGenerated = generators.get(well)
+		GeneratorResult<GeneratorData> result = generator.generate(world, random, coords, TreasureConfig.WELL); 
+		Treasure.LOGGER.debug("well world gen result -> {}", result.isSuccess());
+		if (result.isSuccess()) {
+			// add to registry
+			//				ChestRegistry.getInstance().register(coords.toShortString(), new ChestInfo(rarity, coords));
+			state.setChunksSinceLastWell(0);
+		}
+	}
+
+	@Override
+	public PlacementGrid getPlacementGrid() {
+		// rebuilt only if the config changed
+		int spacing = TreasureConfig.WELL.placementSpacing;
+		int separation = TreasureConfig.WELL.placementSeparation;
+		if (placementGrid == null || !placementGrid.hasSpacing(spacing, separation)) {
+			placementGrid = new PlacementGrid(Stream.WELL, spacing, separation);
+		}
+		return placementGrid;
+	}
+
+	/**
+	 * NOTE wells are not registered, so a well can only be located while it is predicted. Wells don't have a min. distance,
+	 * so a well never yields.
+	 */
+	@Override
+	public Optional<TreasureSite> attemptSite(World world, Random random, int chunkX, int chunkZ) {
+		ICoords coords = new Coords(chunkX * 16 + 8, 0, chunkZ * 16 + 8);
+		Biome biome = world.getBiome(coords.toPos());
+		if (SurfaceChestWorldGenerator.isOcean(biome)) {
+			return Optional.empty();
+		}
+		// the well type is drawn before the probability
+		random.nextInt(Wells.values().length);
+		if (!TreasureConfig.WELL.isBiomeAllowed(biome) || !RandomHelper.checkProbability(random, TreasureConfig.WELL.getGenProbability())) {
+			return Optional.empty();
+		}
+		return Optional.of(new TreasureSite(WorldGeneratorType.WELL, null, coords, world.provider.getDimension(), true));
+	}
+
 	/**
 	 * 
 	 * @param world
@@ -206,40 +258,7 @@ public class WellWorldGenerator implements ITreasureWorldGenerator {
 	 * @return
 	 */
 	public boolean isRegisteredChestWithinDistance(World world, ICoords coords, int minDistance) {
-
-		double minDistanceSq = minDistance * minDistance;
-
-		// get a list of dungeons
-		List<ChestInfo> infos = ChestRegistry.getInstance().getValues();
-
-		if (infos == null || infos.size() == 0) {
-			Treasure.LOGGER.debug("Unable to locate the ChestConfig Registry or the Registry doesn't contain any values");
-			return false;
-		}
-
-		for (ChestInfo info : infos) {
-			// calculate the distance to the poi
-			double distance = coords.getDistanceSq(info.getCoords());
-			//		    Dungeons2.log.debug("Dungeon dist^2: " + distance);
-			if (distance < minDistanceSq) {
-				return true;
-			}
-		}
-		return false;
-	}
-
-	/**
-	 * @return the chunksSinceLastWell
-	 */
-	public int getChunksSinceLastWell() {
-		return chunksSinceLastWell;
-	}
-
-	/**
-	 * @param chunksSinceLastWell the chunksSinceLastWell to set
-	 */
-	public void setChunksSinceLastWell(int chunksSinceLastWell) {
-		this.chunksSinceLastWell = chunksSinceLastWell;
+		return ChestRegistry.getInstance().isWithin(world.provider.getDimension(), coords, minDistance);
 	}
 
 //	/**
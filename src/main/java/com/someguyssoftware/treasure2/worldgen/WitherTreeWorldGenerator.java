@@ -5,9 +5,9 @@ package com.someguyssoftware.treasure2.worldgen;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.Random;
 
-import com.someguyssoftware.gottschcore.biome.BiomeHelper;
 import com.someguyssoftware.gottschcore.cube.Cube;
 import com.someguyssoftware.gottschcore.enums.Direction;
 import com.someguyssoftware.gottschcore.positional.Coords;
@@ -15,8 +15,6 @@ import com.someguyssoftware.gottschcore.positional.ICoords;
 import com.someguyssoftware.gottschcore.random.RandomHelper;
 import com.someguyssoftware.gottschcore.world.WorldInfo;
 import com.someguyssoftware.treasure2.Treasure;
-import com.someguyssoftware.treasure2.biome.TreasureBiomeHelper;
-import com.someguyssoftware.treasure2.biome.TreasureBiomeHelper.Result;
 import com.someguyssoftware.treasure2.block.ITreasureBlock;
 import com.someguyssoftware.treasure2.block.SpanishMossBlock;
 import com.someguyssoftware.treasure2.block.TreasureBlocks;
@@ -27,11 +25,18 @@ import com.someguyssoftware.treasure2.chest.ChestInfo;
 import com.someguyssoftware.treasure2.config.IWitherTreeConfig;
 import com.someguyssoftware.treasure2.config.TreasureConfig;
 import com.someguyssoftware.treasure2.enums.Rarity;
+import com.someguyssoftware.treasure2.enums.WorldGeneratorType;
 import com.someguyssoftware.treasure2.generator.ChestGeneratorData;
+import com.someguyssoftware.treasure2.generator.ColumnProfiles;
+import com.someguyssoftware.treasure2.generator.GenerationRandom;
+import com.someguyssoftware.treasure2.generator.GenerationRandom.Stream;
 import com.someguyssoftware.treasure2.generator.GeneratorData;
 import com.someguyssoftware.treasure2.generator.GeneratorResult;
+import com.someguyssoftware.treasure2.generator.PlacementGrid;
 import com.someguyssoftware.treasure2.generator.chest.WitherChestGenerator;
+import com.someguyssoftware.treasure2.locate.TreasureSite;
 import com.someguyssoftware.treasure2.persistence.GenDataPersistence;
+import com.someguyssoftware.treasure2.persistence.GenerationState;
 import com.someguyssoftware.treasure2.registry.ChestRegistry;
 import com.someguyssoftware.treasure2.registry.WitherTreeRegistry;
 import com.someguyssoftware.treasure2.registry.WitherTreeRegistry.WitherTreeInfo;
@@ -39,7 +44,6 @@ import com.someguyssoftware.treasure2.registry.WitherTreeRegistry.WitherTreeInfo
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockDirt;
 import net.minecraft.block.state.IBlockState;
-import net.minecraft.init.Biomes;
 import net.minecraft.init.Blocks;
 import net.minecraft.util.EnumFacing;
 import net.minecraft.util.math.AxisAlignedBB;
@@ -47,7 +51,6 @@ import net.minecraft.world.World;
 import net.minecraft.world.biome.Biome;
 import net.minecraft.world.chunk.IChunkProvider;
 import net.minecraft.world.gen.IChunkGenerator;
-import net.minecraftforge.common.BiomeDictionary;
 
 /**
  * 
@@ -76,6 +79,12 @@ public class WitherTreeWorldGenerator implements ITreasureWorldGenerator {
 	static List<Direction> supportTrunkMatrix = new ArrayList<>();
 	static List<Direction> topMatrix = new ArrayList<>();
 
+	// the grove reaches into the neighbouring chunks - defer the placements that would cascade chunk generation
+	private final DeferredPlacementBuffer placements = DeferredPlacementBuffer.getInstance();
+
+	// the placement grid, cached until the spacing config changes
+	private PlacementGrid placementGrid;
+
 	static {
 		trunkMatrix[0] = new ArrayList<>();
 		trunkMatrix[1] = new ArrayList<>();
@@ -102,8 +111,6 @@ public class WitherTreeWorldGenerator implements ITreasureWorldGenerator {
 		topMatrix.add(null);
 	}
 
-	private int chunksSinceLastTree;
-
 	/**
 	 * 
 	 */
@@ -119,8 +126,7 @@ public class WitherTreeWorldGenerator implements ITreasureWorldGenerator {
 	 * 
 	 */
 	public void init() {
-		// intialize chunks since last array
-		chunksSinceLastTree = 0;
+		// NOTE the chunk counters are held per dimension in GenerationState
 	}
 
 	/**
@@ -129,9 +135,14 @@ public class WitherTreeWorldGenerator implements ITreasureWorldGenerator {
 	@Override
 	public void generate(Random random, int chunkX, int chunkZ, World world, IChunkGenerator chunkGenerator,
 			IChunkProvider chunkProvider) {
-		if (TreasureConfig.WORLD_GEN.getGeneralProperties().getDimensionsWhiteList()
-				.contains(Integer.valueOf(world.provider.getDimension()))) {
-			generate(world, random, chunkX, chunkZ);
+		if (TreasureConfig.WORLD_GEN.getGeneralProperties().isDimensionAllowed(world.provider.getDimension())) {
+			ColumnProfiles.begin(world, chunkX, chunkZ);
+			try {
+				generate(world, GenerationRandom.forChunk(world, Stream.WITHER_TREE, chunkX, chunkZ), chunkX, chunkZ);
+			}
+			finally {
+				ColumnProfiles.end(world);
+			}
 		}
 	}
 
@@ -143,6 +154,17 @@ public class WitherTreeWorldGenerator implements ITreasureWorldGenerator {
 	 * @param j
 	 */
 	private void generate(World world, Random random, int chunkX, int chunkZ) {
+		// with the placement grid, only the candidate chunk of the cell can have a wither tree
+		if (TreasureConfig.WORLD_GEN.getGeneralProperties().enablePlacementGrid) {
+			if (decideSite(world, random, chunkX, chunkZ).isPresent()) {
+				GenDataPersistence savedData = GenDataPersistence.get(world);
+				ICoords coords = new Coords(chunkX * 16 + WorldInfo.CHUNK_RADIUS, world.getChunkFromChunkCoords(chunkX, chunkZ).getHeightValue(8, 8), chunkZ * 16 + WorldInfo.CHUNK_RADIUS);
+				generateSite(world, random, coords, savedData.getGenerationState(world.provider.getDimension()));
+				savedData.markDirty();
+			}
+			return;
+		}
+
 		/*
 		 * get current chunk position
 		 */
@@ -155,17 +177,19 @@ public class WitherTreeWorldGenerator implements ITreasureWorldGenerator {
 		// 0. hard check against ocean biomes
 		ICoords coords = new Coords(xSpawn, 0, zSpawn);
 		Biome biome = world.getBiome(coords.toPos());
-		if (biome == Biomes.OCEAN || biome == Biomes.DEEP_OCEAN || biome == Biomes.FROZEN_OCEAN
-				|| BiomeDictionary.hasType(biome, BiomeDictionary.Type.OCEAN)) {
+		if (SurfaceChestWorldGenerator.isOcean(biome)) {
 			return;
 		}
-		Integer biomeID = Biome.getIdForBiome(biome);
 		
+		// get the generation state of the dimension
+		GenDataPersistence savedData = GenDataPersistence.get(world);
+		GenerationState state = savedData.getGenerationState(world.provider.getDimension());
+
 		// increment the chunk counts
-		chunksSinceLastTree++;
+		state.incrementChunksSinceLastTree();
 
 		// test if min chunks was met
-		if (chunksSinceLastTree > TreasureConfig.WITHER_TREE.chunksPerTree) {
+		if (state.getChunksSinceLastTree() > TreasureConfig.WITHER_TREE.chunksPerTree) {
 
 			// get first surface y (could be leaves, trunk, water, etc)
 			int ySpawn = world.getChunkFromChunkCoords(chunkX, chunkZ).getHeightValue(8, 8);
@@ -178,29 +202,21 @@ public class WitherTreeWorldGenerator implements ITreasureWorldGenerator {
 				return;
 			}
 
-			if (chunksSinceLastTree >= treeConfig.getChunksPerTree()) {
+			if (state.getChunksSinceLastTree() >= treeConfig.getChunksPerTree()) {
 				// 1. test if correct biome
 				// if not the correct biome, reset the count
-				TreasureBiomeHelper.Result biomeCheck = TreasureBiomeHelper.isBiomeAllowed(biome,
-						treeConfig.getBiomeWhiteList(), treeConfig.getBiomeBlackList());
-				if (biomeCheck == Result.BLACK_LISTED) {
-					chunksSinceLastTree = 0;
-					return;
-				} else if (biomeCheck == Result.OK) {
-					if (!BiomeHelper.isBiomeAllowed(biome, treeConfig.getBiomeTypeWhiteList(),
-							treeConfig.getBiomeTypeBlackList())) {
-						if (Treasure.LOGGER.isDebugEnabled()) {
-							if (WorldInfo.isClientSide(world)) {
-								Treasure.LOGGER.debug("{} is not a valid biome @ {} for Wither Tree",
-										biome.getBiomeName(), coords.toShortString());
-							} else {
-								Treasure.LOGGER.debug("Biome is not valid @ {} for Wither Tree",
-										coords.toShortString());
-							}
+				if (!treeConfig.isBiomeAllowed(biome)) {
+					if (Treasure.LOGGER.isDebugEnabled()) {
+						if (WorldInfo.isClientSide(world)) {
+							Treasure.LOGGER.debug("{} is not a valid biome @ {} for Wither Tree",
+									biome.getBiomeName(), coords.toShortString());
+						} else {
+							Treasure.LOGGER.debug("Biome is not valid @ {} for Wither Tree",
+									coords.toShortString());
 						}
-						chunksSinceLastTree = 0;
-						return;
 					}
+					state.setChunksSinceLastTree(0);
+					return;
 				}
 
 				// 2. test if well meets the probability criteria
@@ -222,28 +238,82 @@ public class WitherTreeWorldGenerator implements ITreasureWorldGenerator {
 					return;
 				}
 
-				// increment chunks since last tree regardless of successful generation - makes
-				// more rare and realistic and configurable generation.
-				chunksSinceLastTree = 0;
-
-				// generate the well
-				Treasure.LOGGER.debug("Attempting to generate a wither tree");
-				GeneratorResult<GeneratorData> result = generate(world, random, coords, treeConfig);
-
-				if (result.isSuccess()) {
-					// add to registry
-					ChestRegistry.getInstance().register(coords.toShortString(), new ChestInfo(Rarity.SCARCE, coords));
-    				WitherTreeRegistry.getInstance().register(dimensionID, coords, biomeID);
-				}
+				generateSite(world, random, coords, state);
 			}
 			// save world data
-			GenDataPersistence savedData = GenDataPersistence.get(world);
 			if (savedData != null) {
 				savedData.markDirty();
 			}
 		}
 	}
+
+	/**
+	 * Generates the wither tree at the site that passed all the checks, and records it.
+	 * @param world
+	 * @param random
+	 * @param coords
+	 * @param state
+	 */
+	private void generateSite(World world, Random random, ICoords coords, GenerationState state) {
+		// increment chunks since last tree regardless of successful generation - makes
+		// more rare and realistic and configurable generation.
+		state.setChunksSinceLastTree(0);
+
+		// generate the well
+		Treasure.LOGGER.debug("Attempting to generate a wither tree");
+		GeneratorResult<GeneratorData> result = generate(world, random, coords, TreasureConfig.WITHER_TREE);
+
+		if (result.isSuccess()) {
+			// add to registry
+			Integer dimensionID = Integer.valueOf(world.provider.getDimension());
+			ChestRegistry.getInstance().register(coords.toShortString(), new ChestInfo(Rarity.SCARCE, coords, dimensionID, WorldGeneratorType.WITHER_TREE));
+			WitherTreeRegistry.getInstance().register(dimensionID, coords, Biome.getIdForBiome(world.getBiome(coords.toPos())));
+		}
+	}
 	
+	@Override
+	public PlacementGrid getPlacementGrid() {
+		// rebuilt only if the config changed
+		int spacing = TreasureConfig.WITHER_TREE.placementSpacing;
+		int separation = TreasureConfig.WITHER_TREE.placementSeparation;
+		if (placementGrid == null || !placementGrid.hasSpacing(spacing, separation)) {
+			placementGrid = new PlacementGrid(Stream.WITHER_TREE, spacing, separation);
+		}
+		return placementGrid;
+	}
+
+	/**
+	 * 
+	 */
+	@Override
+	public Optional<TreasureSite> attemptSite(World world, Random random, int chunkX, int chunkZ) {
+		ICoords coords = new Coords(chunkX * 16 + WorldInfo.CHUNK_RADIUS, 0, chunkZ * 16 + WorldInfo.CHUNK_RADIUS);
+		Biome biome = world.getBiome(coords.toPos());
+		if (SurfaceChestWorldGenerator.isOcean(biome) || !TreasureConfig.WITHER_TREE.isBiomeAllowed(biome)
+				|| !RandomHelper.checkProbability(random, TreasureConfig.WITHER_TREE.getGenProbability())) {
+			return Optional.empty();
+		}
+		return Optional.of(new TreasureSite(WorldGeneratorType.WITHER_TREE, Rarity.SCARCE, coords, world.provider.getDimension(), true));
+	}
+
+	/**
+	 * Yields to any chest candidate within the min. distance per chest - the chests take precedence over the wither trees -
+	 * and to the candidates of higher precedence within the min. distance per wither tree.
+	 */
+	@Override
+	public boolean isYielding(World world, int chunkX, int chunkZ) {
+		if (isChestCandidateWithinDistance(world, chunkX, chunkZ, TreasureConfig.CHESTS.surfaceChests.minDistancePerChest)) {
+			Treasure.LOGGER.debug("The distance to the nearest treasure chest is less than the minimun required.");
+			return true;
+		}
+		if (!getPlacementGrid().hasPrecedence(world.getSeed(), chunkX, chunkZ, TreasureConfig.WITHER_TREE.minDistancePerWitherTree,
+				(x, z) -> isAttempting(world, x, z))) {
+			Treasure.LOGGER.debug("A wither tree of higher precedence is within the minimun distance.");
+			return true;
+		}
+		return false;
+	}
+
 	/**
 	 * 
 	 * @param world
@@ -261,7 +331,7 @@ public class WitherTreeWorldGenerator implements ITreasureWorldGenerator {
 		ICoords witherTreeCoords = null;
 
 		// 1. determine y-coord of land for markers
-		surfaceCoords = WorldInfo.getDryLandSurfaceCoords(world, coords);
+		surfaceCoords = ColumnProfiles.getDryLandSurfaceCoords(world, coords);
 		Treasure.LOGGER.debug("Surface Coords @ {}", surfaceCoords.toShortString());
 		if (surfaceCoords == null || surfaceCoords == WorldInfo.EMPTY_COORDS) {
 			Treasure.LOGGER.debug("Returning due to surface coords == null or EMPTY_COORDS");
@@ -301,27 +371,34 @@ public class WitherTreeWorldGenerator implements ITreasureWorldGenerator {
 //		}
 
 		// determine how many extra "withered" trees to include in the area
-		int numTrees = RandomHelper.randomInt(config.getMinSupportingTrees(), config.getMaxSupportingTrees());
+		int numTrees = RandomHelper.randomInt(random, config.getMinSupportingTrees(), config.getMaxSupportingTrees());
 
 		for (int treeIndex = 0; treeIndex < numTrees; treeIndex++) {
+			// each tree has its own stream, so a skipped tree doesn't shift the trees after it
+			Random treeRandom = GenerationRandom.split(random);
+
 			// find a random location around a radius from the tree
 			// ie. rand x-radius, rand z-radius = new point (+x,+z), rand degrees of
 			// rotation from origin
-			double xlen = RandomHelper.randomDouble(MIN_RADIUS, MAX_RADIUS);
-			double zlen = RandomHelper.randomDouble(MIN_RADIUS, MAX_RADIUS);
-			int degrees = RandomHelper.randomInt(0, DEGREES);
+			double xlen = RandomHelper.randomDouble(treeRandom, MIN_RADIUS, MAX_RADIUS);
+			double zlen = RandomHelper.randomDouble(treeRandom, MIN_RADIUS, MAX_RADIUS);
+			int degrees = RandomHelper.randomInt(treeRandom, 0, DEGREES);
 
 			ICoords c = witherTreeCoords.rotate(xlen, zlen, degrees);
+			// don't read the surface of a chunk that isn't generated yet
+			if (!world.isBlockLoaded(c.toPos())) {
+				continue;
+			}
 
 			// get the yspawn
-			c = WorldInfo.getDryLandSurfaceCoords(world, c.withY(WorldInfo.getHeightValue(world, c)));
+			c = ColumnProfiles.getDryLandSurfaceCoords(world, c.withY(WorldInfo.getHeightValue(world, c)));
 
 			// add tree if criteria is met
 			if (c != null && c != WorldInfo.EMPTY_COORDS) {
 				if (c.getDistanceSq(witherTreeCoords) > 4) {
 					if (world.getBlockState(c.toPos()).getBlock() != TreasureBlocks.WITHER_LOG) {
-						buildClearing(world, random, c);
-						buildTree(world, random, c, config);
+						buildClearing(world, treeRandom, c);
+						buildTree(world, treeRandom, c, config);
 //						if (TreasureConfig.WORLD_GEN.getGeneralProperties().enablePoisonFog) {
 //							GenUtil.addFog(world, random, c, poisonFogDensity);
 //						}
@@ -362,21 +439,26 @@ public class WitherTreeWorldGenerator implements ITreasureWorldGenerator {
 		int depth = Math.abs((int) (witherGroveSize.maxZ - witherGroveSize.minZ));
 		ICoords centerCoords = new Coords((int)(witherGroveSize.minX + width * 0.5D), (int)witherGroveSize.minY, (int)(witherGroveSize.minZ + depth * 0.5D));
 
-		for (int scrubIndex = 0; scrubIndex < RandomHelper.randomInt(MIN_SCRUB, MAX_SCRUB); scrubIndex++) {
+		int numScrub = RandomHelper.randomInt(random, MIN_SCRUB, MAX_SCRUB);
+		for (int scrubIndex = 0; scrubIndex < numScrub; scrubIndex++) {
 			int xOffset = (int) (random.nextFloat() * width - (width/2));
 			int zOffset = (int) (random.nextFloat() * depth - (depth/2));
 			
-			ICoords surfaceCoords = WorldInfo.getDryLandSurfaceCoords(world, centerCoords.add(xOffset, 0, zOffset).withY(255));
+			ICoords scrubCoords = centerCoords.add(xOffset, 0, zOffset);
+			if (!world.isBlockLoaded(scrubCoords.toPos())) {
+				continue;
+			}
+			ICoords surfaceCoords = ColumnProfiles.getDryLandSurfaceCoords(world, scrubCoords.withY(255));
 //			Treasure.logger.debug("adding scrub at -> {}", surfaceCoords.toShortString());
 			// check if current block is a dirt, podzol, coarse dirt or sand
 			Block supportBlock = world.getBlockState(surfaceCoords.down(1).toPos()).getBlock();
 			if (supportBlock == Blocks.DIRT || supportBlock == Blocks.SAND) {
 				// randomize between bush and stump
 				if (RandomHelper.checkProbability(random, 25)) {
-					world.setBlockState(surfaceCoords.toPos(), Blocks.LOG.getDefaultState());
+					placements.setBlockState(world, surfaceCoords.toPos(), Blocks.LOG.getDefaultState());
 				}
 				else {
-					world.setBlockState(surfaceCoords.toPos(), Blocks.DEADBUSH.getDefaultState());
+					placements.setBlockState(world, surfaceCoords.toPos(), Blocks.DEADBUSH.getDefaultState());
 				}
 			}
 		}
@@ -388,12 +470,17 @@ public class WitherTreeWorldGenerator implements ITreasureWorldGenerator {
 		int depth = Math.abs((int) (witherGroveSize.maxZ - witherGroveSize.minZ));
 		ICoords centerCoords = new Coords((int)(witherGroveSize.minX + width * 0.5D), (int)witherGroveSize.minY, (int)(witherGroveSize.minZ + depth * 0.5D));
 		
-		for (int rockIndex = 0; rockIndex < RandomHelper.randomInt(MIN_ROCKS, MAX_ROCKS); rockIndex++) {
+		int numRocks = RandomHelper.randomInt(random, MIN_ROCKS, MAX_ROCKS);
+		for (int rockIndex = 0; rockIndex < numRocks; rockIndex++) {
 			// randomize a position within the aabb
 			int xOffset = (int) (random.nextFloat() * width - (width/2));
 			int zOffset = (int) (random.nextFloat() * depth - (depth/2));
 			
-			ICoords rocksCoords = WorldInfo.getDryLandSurfaceCoords(world, centerCoords.add(xOffset, 0, zOffset).withY(255));
+			ICoords rocksCoords = centerCoords.add(xOffset, 0, zOffset);
+			if (!world.isBlockLoaded(rocksCoords.toPos())) {
+				continue;
+			}
+			rocksCoords = ColumnProfiles.getDryLandSurfaceCoords(world, rocksCoords.withY(255));
 			rocksCoords = rocksCoords.down(1);
 //Treasure.logger.debug("adding rocks at -> {}", rocksCoords.toShortString());
 			// check if current block is a tree or any treasure block
@@ -407,7 +494,7 @@ public class WitherTreeWorldGenerator implements ITreasureWorldGenerator {
 					for (int x = 0; x < 2; x++) {
 						if (RandomHelper.checkProbability(random, 70)) {
 							ICoords spawnCoords = new Coords(rocksCoords).add(x, y, z);
-							world.setBlockState(spawnCoords.toPos(), Blocks.MOSSY_COBBLESTONE.getDefaultState());
+							placements.setBlockState(world, spawnCoords.toPos(), Blocks.MOSSY_COBBLESTONE.getDefaultState());
 						}
 					}
 				}
@@ -427,10 +514,14 @@ public class WitherTreeWorldGenerator implements ITreasureWorldGenerator {
 		for (int xOffset = -(CLEARING_RADIUS); xOffset <= CLEARING_RADIUS; xOffset++) {
 			for (int zOffset = -(CLEARING_RADIUS); zOffset <= CLEARING_RADIUS; zOffset++) {
 				if (Math.abs(xOffset) + Math.abs(zOffset) <= CLEARING_RADIUS) {
+					// don't read the surface of a chunk that isn't generated yet
+					if (!world.isBlockLoaded(coords.add(xOffset, 0, zOffset).toPos())) {
+						continue;
+					}
 
 					// find the first surface
 					int yHeight = WorldInfo.getHeightValue(world, coords.add(xOffset, 255, zOffset));
-					buildCoords = WorldInfo.getDryLandSurfaceCoords(world,
+					buildCoords = ColumnProfiles.getDryLandSurfaceCoords(world,
 							new Coords(coords.getX() + xOffset, yHeight, coords.getZ() + zOffset));
 
 					// additional check that it's not a tree and within 2 y-blocks of original
@@ -441,11 +532,11 @@ public class WitherTreeWorldGenerator implements ITreasureWorldGenerator {
 						}
 						if (RandomHelper.checkProbability(random, DIRT_REPLACEMENT_PROBABILITY)) {
 							if (Math.abs(xOffset) < 4 && Math.abs(zOffset) < 4 && !(Math.abs(xOffset) == 3 && Math.abs(zOffset) == 3)) {
-								world.setBlockState(buildCoords.add(0, -1, 0).toPos(),
+								placements.setBlockState(world, buildCoords.add(0, -1, 0).toPos(),
 										Blocks.DIRT.getDefaultState()
 										.withProperty(BlockDirt.VARIANT, BlockDirt.DirtType.PODZOL));
 							} else {
-								world.setBlockState(buildCoords.add(0, -1, 0).toPos(),
+								placements.setBlockState(world, buildCoords.add(0, -1, 0).toPos(),
 										Blocks.DIRT.getDefaultState()
 										.withProperty(BlockDirt.VARIANT, BlockDirt.DirtType.DIRT));
 							}
@@ -457,7 +548,7 @@ public class WitherTreeWorldGenerator implements ITreasureWorldGenerator {
 					// remove the tree
 					while (cube.equalsBlock(Blocks.LOG) || cube.equalsBlock(Blocks.LOG2)) {
 						// remove log
-						world.setBlockToAir(climbCoords.toPos());
+						placements.setBlockToAir(world, climbCoords.toPos());
 						// climb upwards
 						climbCoords = climbCoords.add(0, 1, 0);
 						cube = new Cube(world, climbCoords);
@@ -483,14 +574,14 @@ public class WitherTreeWorldGenerator implements ITreasureWorldGenerator {
 		for (int y = 0; y < maxSize; y++) {
 			if (y == 0) {
 				if (!hasLifeBeenAdded) {
-					world.setBlockState(coords.add(0, y, 0).toPos(), TreasureBlocks.WITHER_LOG_SOUL.getDefaultState());
+					placements.setBlockState(world, coords.add(0, y, 0).toPos(), TreasureBlocks.WITHER_LOG_SOUL.getDefaultState());
 					hasLifeBeenAdded = true;
 					continue;
 				}
 			}
 
 			// add the trunk
-			world.setBlockState(coords.add(0, y, 0).toPos(), TreasureBlocks.WITHER_LOG.getDefaultState());
+			placements.setBlockState(world, coords.add(0, y, 0).toPos(), TreasureBlocks.WITHER_LOG.getDefaultState());
 
 			// add the branches/roots
 			if (y == 0) {
@@ -527,7 +618,7 @@ public class WitherTreeWorldGenerator implements ITreasureWorldGenerator {
 				if (trunkIndex == 2 && y == 2) { // TODO <-- select the right index and the face facing in the right
 													// direction
 					if (!hasLifeBeenAdded) {
-						world.setBlockState(trunkCoords[trunkIndex].add(0, y, 0).toPos(),
+						placements.setBlockState(world, trunkCoords[trunkIndex].add(0, y, 0).toPos(),
 								TreasureBlocks.WITHER_LOG_SOUL.getDefaultState()
 										.withProperty(WitherLogSoulBlock.APPEARANCE, WitherLogSoulBlock.Appearance.FACE)
 										.withProperty(WitherLogSoulBlock.FACING, EnumFacing.SOUTH));
@@ -537,7 +628,7 @@ public class WitherTreeWorldGenerator implements ITreasureWorldGenerator {
 				}
 
 				// add the trunk
-				world.setBlockState(trunkCoords[trunkIndex].add(0, y, 0).toPos(),
+				placements.setBlockState(world, trunkCoords[trunkIndex].add(0, y, 0).toPos(),
 						TreasureBlocks.WITHER_LOG.getDefaultState());
 
 				// add the decorations (branches, roots, top)
@@ -571,7 +662,7 @@ public class WitherTreeWorldGenerator implements ITreasureWorldGenerator {
 			IBlockState state = TreasureBlocks.WITHER_BROKEN_LOG.getDefaultState().withProperty(WitherRootBlock.FACING,
 					direction.toFacing());
 			// add the top log to the world
-			world.setBlockState(coords.add(0, y, 0).toPos(), state);
+			placements.setBlockState(world, coords.add(0, y, 0).toPos(), state);
 		}
 	}
 
@@ -598,7 +689,7 @@ public class WitherTreeWorldGenerator implements ITreasureWorldGenerator {
 							.withProperty(WitherRootBlock.ACTIVATED, true);
 
 					// add the branch to the world
-					world.setBlockState(c.toPos(), state);
+					placements.setBlockState(world, c.toPos(), state);
 //					 Treasure.logger.debug("Wither Tree building root @ " +  coords.toShortString());					
 				}
 			}
@@ -641,13 +732,13 @@ public class WitherTreeWorldGenerator implements ITreasureWorldGenerator {
 								.withProperty(WitherBranchBlock.FACING, d.toFacing());
 
 						// add the branch to the world
-						world.setBlockState(c.add(0, y, 0).toPos(), state);
+						placements.setBlockState(world, c.add(0, y, 0).toPos(), state);
 
 						// add spanish moss
 						if (RandomHelper.checkProbability(random, SPANISH_MOSS_PROBABILITY)) {
 							replaceCube = new Cube(world, c.add(0, y - 1, 0));
 							if (replaceCube.isAir() || replaceCube.isReplaceable()) {
-								world.setBlockState(c.add(0, y - 1, 0).toPos(), TreasureBlocks.SPANISH_MOSS
+								placements.setBlockState(world, c.add(0, y - 1, 0).toPos(), TreasureBlocks.SPANISH_MOSS
 										.getDefaultState().withProperty(SpanishMossBlock.ACTIVATED, true));
 							}
 						}
@@ -689,22 +780,21 @@ public class WitherTreeWorldGenerator implements ITreasureWorldGenerator {
 	 * @return
 	 */
 	public boolean isRegisteredChestWithinDistance(World world, ICoords coords, int minDistance) {
+		return ChestRegistry.getInstance().isWithin(world.provider.getDimension(), coords, minDistance);
+	}
 
-		double minDistanceSq = minDistance * minDistance;
-
-		// get a list of dungeons
-		List<ChestInfo> infos = ChestRegistry.getInstance().getValues();
-
-		if (infos == null || infos.size() == 0) {
-			Treasure.LOGGER
-					.debug("Unable to locate the ChestConfig Registry or the Registry doesn't contain any values");
-			return false;
-		}
-
-		for (ChestInfo info : infos) {
-			// calculate the distance to the poi
-			double distance = coords.getDistanceSq(info.getCoords());
-			if (distance < minDistanceSq) {
+	/**
+	 * Tests the candidates of the surface and submerged chest placement grids, instead of the registry.
+	 * @param world
+	 * @param chunkX
+	 * @param chunkZ
+	 * @param minDistance
+	 * @return true if a chest candidate within the distance attempts to generate
+	 */
+	public boolean isChestCandidateWithinDistance(World world, int chunkX, int chunkZ, int minDistance) {
+		for (WorldGeneratorType type : new WorldGeneratorType[] {WorldGeneratorType.SURFACE_CHEST, WorldGeneratorType.SUBMERGED_CHEST}) {
+			ITreasureWorldGenerator chests = Treasure.WORLD_GENERATORS.get(type);
+			if (chests != null && chests.isAttemptingWithin(world, chunkX, chunkZ, minDistance)) {
 				return true;
 			}
 		}
@@ -738,18 +828,4 @@ public class WitherTreeWorldGenerator implements ITreasureWorldGenerator {
 		return false;
 	}
 	
-	/**
-	 * @return the chunksSinceLastTree
-	 */
-	public int getChunksSinceLastTree() {
-		return chunksSinceLastTree;
-	}
-
-	/**
-	 * 
-	 * @param chunksSinceLastTree
-	 */
-	public void setChunksSinceLastTree(int chunksSinceLastTree) {
-		this.chunksSinceLastTree = chunksSinceLastTree;
-	}
 }
@@ -0,0 +1,83 @@
+/**
+ * 
+ */
+package com.someguyssoftware.treasure2;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.profiler.Profiler;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.GameType;
+import net.minecraft.world.World;
+import net.minecraft.world.WorldProviderSurface;
+import net.minecraft.world.WorldSettings;
+import net.minecraft.world.WorldType;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.EmptyChunk;
+import net.minecraft.world.chunk.IChunkProvider;
+import net.minecraft.world.storage.WorldInfo;
+
+/**
+ * A bare world for the tests - it has a seed and a side, but no provider world and no save handler.
+ * Only for the code that uses the world as a key, or reads its seed or side, or the blocks of the chunks that were loaded with load().
+ */
+public class TestWorld extends World {
+	private final Long2ObjectMap<Chunk> chunks = new Long2ObjectOpenHashMap<>();
+
+	/**
+	 * 
+	 * @param seed
+	 * @param client
+	 */
+	public TestWorld(long seed, boolean client) {
+		super(null, new WorldInfo(new WorldSettings(seed, GameType.SURVIVAL, false, false, WorldType.DEFAULT), "test"),
+				new WorldProviderSurface(), new Profiler(), client);
+		this.chunkProvider = createChunkProvider();
+	}
+
+	/**
+	 * 
+	 * @param chunk the chunk, built for this world
+	 * @return
+	 */
+	public Chunk load(Chunk chunk) {
+		chunks.put(ChunkPos.asLong(chunk.x, chunk.z), chunk);
+		return chunk;
+	}
+
+	@Override
+	protected IChunkProvider createChunkProvider() {
+		return new IChunkProvider() {
+			@Override
+			public Chunk getLoadedChunk(int x, int z) {
+				return chunks.get(ChunkPos.asLong(x, z));
+			}
+
+			@Override
+			public Chunk provideChunk(int x, int z) {
+				Chunk chunk = getLoadedChunk(x, z);
+				return chunk == null ? new EmptyChunk(TestWorld.this, x, z) : chunk;
+			}
+
+			@Override
+			public boolean tick() {
+				return false;
+			}
+
+			@Override
+			public String makeString() {
+				return "TestChunkProvider: " + chunks.size();
+			}
+
+			@Override
+			public boolean isChunkGeneratedAt(int x, int z) {
+				return chunks.containsKey(ChunkPos.asLong(x, z));
+			}
+		};
+	}
+
+	@Override
+	protected boolean isChunkLoaded(int x, int z, boolean allowEmpty) {
+		return chunks.containsKey(ChunkPos.asLong(x, z));
+	}
+}
@@ -0,0 +1,120 @@
+/**
+ * 
+ */
+package com.someguyssoftware.treasure2.adornment;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.someguyssoftware.treasure2.Treasure;
+import com.someguyssoftware.treasure2.adornment.TreasureAdornmentRegistry.AttributeIndex;
+import com.someguyssoftware.treasure2.charm.TreasureCharms;
+import com.someguyssoftware.treasure2.enums.AdornmentType;
+import com.someguyssoftware.treasure2.enums.Rarity;
+import com.someguyssoftware.treasure2.item.Adornment;
+
+import net.minecraft.util.ResourceLocation;
+
+/**
+ * The adornments are selected from the precomputed attributes, by material and gem, and by rarity or max charm level.
+ */
+public class AdornmentAttributesTest {
+	private static final ResourceLocation GOLD = new ResourceLocation(Treasure.MODID, "gold");
+	private static final ResourceLocation SILVER = new ResourceLocation(Treasure.MODID, "silver");
+
+	private final AdornmentAttributes commonRing = attributes("gold_ring", GOLD, false, 3);
+	private final AdornmentAttributes uncommonRing = attributes("gold_ring_2", GOLD, false, 6);
+	private final AdornmentAttributes uncommonNecklace = attributes("gold_necklace", GOLD, false, 7);
+	private final AdornmentAttributes gemRing = attributes("gold_ruby_ring", GOLD, true, 3);
+	private final AdornmentAttributes silverRing = attributes("silver_ring", SILVER, false, 3);
+	private final AttributeIndex index = AttributeIndex.of(Arrays.asList(commonRing, uncommonRing, uncommonNecklace, gemRing, silverRing));
+
+	@Test
+	public void getAttributesOfTheIndexedAdornment() {
+		assertSame(uncommonRing, index.getAttributes(uncommonRing.getAdornment()).get());
+		assertFalse(index.getAttributes(new Adornment(Treasure.MODID, "copper_ring", AdornmentType.RING)).isPresent());
+	}
+
+	@Test
+	public void selectsByRarityOrLevel() {
+		// the common adornments, plus the adornments of level 6
+		assertEquals(set(commonRing, uncommonRing), selectAll(GOLD, false, Rarity.COMMON, 6));
+		assertEquals(set(uncommonRing, uncommonNecklace), selectAll(GOLD, false, Rarity.UNCOMMON, 1));
+		assertEquals(set(uncommonRing), selectAll(GOLD, false, null, 6));
+	}
+
+	@Test
+	public void selectsByMaterialAndGem() {
+		assertEquals(set(gemRing), selectAll(GOLD, true, Rarity.COMMON, 3));
+		assertEquals(set(silverRing), selectAll(SILVER, false, Rarity.COMMON, 3));
+		assertFalse(index.select(new Random(), new ResourceLocation(Treasure.MODID, "copper"), false, Rarity.COMMON, 3).isPresent());
+		assertFalse(index.select(new Random(), SILVER, true, Rarity.COMMON, 3).isPresent());
+	}
+
+	@Test
+	public void levelOfTheRarityIsNotCountedTwice() {
+		// the adornments of level 6 are uncommon, so they are already candidates by rarity
+		BoundRandom random = new BoundRandom();
+		index.select(random, GOLD, false, Rarity.UNCOMMON, 6);
+		assertEquals(2, random.bound);
+
+		// whereas the level of another rarity adds its adornments to the common one
+		index.select(random, GOLD, false, Rarity.COMMON, 6);
+		assertEquals(2, random.bound);
+	}
+
+	@Test
+	public void selectionIsStableForARandom() {
+		for (long seed = 0; seed < 32; seed++) {
+			Optional<Adornment> selected = index.select(new Random(seed), GOLD, false, Rarity.UNCOMMON, 3);
+			assertTrue(selected.isPresent());
+			assertSame(selected.get(), AttributeIndex.of(Arrays.asList(commonRing, uncommonRing, uncommonNecklace, gemRing, silverRing))
+					.select(new Random(seed), GOLD, false, Rarity.UNCOMMON, 3).get());
+		}
+	}
+
+	private Set<Adornment> selectAll(ResourceLocation material, boolean hasGem, Rarity rarity, int level) {
+		Set<Adornment> selected = new HashSet<>();
+		for (long seed = 0; seed < 64; seed++) {
+			index.select(new Random(seed), material, hasGem, rarity, level).ifPresent(selected::add);
+		}
+		return selected;
+	}
+
+	private static Set<Adornment> set(AdornmentAttributes... attributes) {
+		Set<Adornment> set = new HashSet<>();
+		for (AdornmentAttributes a : attributes) {
+			set.add(a.getAdornment());
+		}
+		return set;
+	}
+
+	private static AdornmentAttributes attributes(String name, ResourceLocation material, boolean hasGem, int maxCharmLevel) {
+		Adornment adornment = new Adornment(Treasure.MODID, name, AdornmentType.RING);
+		return new AdornmentAttributes(adornment, material, hasGem, maxCharmLevel, TreasureCharms.LEVEL_RARITY.get(maxCharmLevel), adornment.getSize());
+	}
+
+	/*
+	 * records the number of candidates the selection draws from
+	 */
+	private static class BoundRandom extends Random {
+		private static final long serialVersionUID = 1L;
+		private int bound;
+
+		@Override
+		public int nextInt(int bound) {
+			this.bound = bound;
+			return 0;
+		}
+	}
+}
@@ -0,0 +1,182 @@
+/**
+ * 
+ */
+package com.someguyssoftware.treasure2.capability;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.function.Supplier;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import net.minecraft.init.Bootstrap;
+import net.minecraft.init.Items;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
+
+/**
+ * The outputs are memoised by the content of the input stacks, so equal stacks hit and any changed part of a stack misses.
+ */
+public class RecipeResultCacheTest {
+	private static final String RECIPE = "test";
+
+	@BeforeClass
+	public static void bootstrap() {
+		Bootstrap.register();
+	}
+
+	@Test
+	public void equalStacksHit() {
+		RecipeResultCache cache = new RecipeResultCache();
+		CountingOutput output = new CountingOutput();
+		cache.get(RECIPE, output, stack(2, 0, 1), stack(1, 0, 1));
+		cache.get(RECIPE, output, stack(2, 0, 1), stack(1, 0, 1));
+		assertEquals(1, output.count);
+		assertEquals(1, cache.getHits());
+		assertEquals(1, cache.getMisses());
+	}
+
+	@Test
+	public void changedStackMisses() {
+		RecipeResultCache cache = new RecipeResultCache();
+		CountingOutput output = new CountingOutput();
+		cache.get(RECIPE, output, stack(2, 0, 1));
+		// count, damage, tag
+		cache.get(RECIPE, output, stack(3, 0, 1));
+		cache.get(RECIPE, output, stack(2, 5, 1));
+		cache.get(RECIPE, output, stack(2, 0, 2));
+		cache.get(RECIPE, output, new ItemStack(Items.GOLDEN_SWORD, 2));
+		// another item
+		cache.get(RECIPE, output, new ItemStack(Items.IRON_SWORD, 2));
+		assertEquals(6, output.count);
+		assertEquals(0, cache.getHits());
+	}
+
+	@Test
+	public void changedTagOfTheSameStackMisses() {
+		RecipeResultCache cache = new RecipeResultCache();
+		CountingOutput output = new CountingOutput();
+		ItemStack stack = stack(1, 0, 1);
+		cache.get(RECIPE, output, stack);
+		// ex. a charm was added to the stack in the slot
+		stack.getTagCompound().setInteger("value", 2);
+		cache.get(RECIPE, output, stack);
+		assertEquals(2, output.count);
+
+		// the key kept a copy of the tag, so the original stack still hits
+		cache.get(RECIPE, output, stack(1, 0, 1));
+		assertEquals(2, output.count);
+	}
+
+	@Test
+	public void recipeAndIndexArePartOfTheKey() {
+		RecipeResultCache cache = new RecipeResultCache();
+		CountingOutput output = new CountingOutput();
+		cache.get(RECIPE, 0, output, stack(1, 0, 1));
+		cache.get(RECIPE, 1, output, stack(1, 0, 1));
+		cache.get("other", 0, output, stack(1, 0, 1));
+		assertEquals(3, output.count);
+		assertEquals(3, cache.size());
+	}
+
+	@Test
+	public void emptySlotsArePartOfTheKey() {
+		RecipeResultCache cache = new RecipeResultCache();
+		CountingOutput output = new CountingOutput();
+		cache.get(RECIPE, output, stack(1, 0, 1), ItemStack.EMPTY);
+		cache.get(RECIPE, output, ItemStack.EMPTY, stack(1, 0, 1));
+		assertEquals(2, output.count);
+		// an empty slot is an empty slot
+		cache.get(RECIPE, output, stack(1, 0, 1), new ItemStack(Items.AIR));
+		assertEquals(2, output.count);
+	}
+
+	@Test
+	public void outputIsACopy() {
+		RecipeResultCache cache = new RecipeResultCache();
+		CountingOutput output = new CountingOutput();
+		ItemStack first = cache.get(RECIPE, output, stack(1, 0, 1));
+		first.setCount(10);
+		ItemStack second = cache.get(RECIPE, output, stack(1, 0, 1));
+		assertNotSame(first, second);
+		assertEquals(1, second.getCount());
+	}
+
+	@Test
+	public void noOutputIsMemoised() {
+		RecipeResultCache cache = new RecipeResultCache();
+		int[] count = new int[1];
+		Supplier<ItemStack> output = () -> {
+			count[0]++;
+			return null;
+		};
+		assertSame(ItemStack.EMPTY, cache.get(RECIPE, output, stack(1, 0, 1)));
+		assertSame(ItemStack.EMPTY, cache.get(RECIPE, output, stack(1, 0, 1)));
+		assertEquals(1, count[0]);
+	}
+
+	@Test
+	public void leastRecentlyUsedIsEvicted() {
+		RecipeResultCache cache = new RecipeResultCache();
+		CountingOutput output = new CountingOutput();
+		for (int i = 0; i < RecipeResultCache.MAX_RESULTS; i++) {
+			cache.get(RECIPE, output, stack(1, 0, i));
+		}
+		// used, so the second is the least recently used
+		cache.get(RECIPE, output, stack(1, 0, 0));
+		cache.get(RECIPE, output, stack(1, 0, RecipeResultCache.MAX_RESULTS));
+		assertEquals(RecipeResultCache.MAX_RESULTS, cache.size());
+
+		int count = output.count;
+		cache.get(RECIPE, output, stack(1, 0, 0));
+		assertEquals(count, output.count);
+		cache.get(RECIPE, output, stack(1, 0, 1));
+		assertEquals(count + 1, output.count);
+	}
+
+	@Test
+	public void clearDropsTheOutputs() {
+		RecipeResultCache cache = new RecipeResultCache();
+		CountingOutput output = new CountingOutput();
+		cache.get(RECIPE, output, stack(1, 0, 1));
+		cache.clear();
+		assertEquals(0, cache.size());
+		cache.get(RECIPE, output, stack(1, 0, 1));
+		assertEquals(2, output.count);
+		assertEquals(0D, cache.getHitRate(), 0D);
+	}
+
+	@Test
+	public void hitRateCountsTheLookups() {
+		RecipeResultCache cache = new RecipeResultCache();
+		CountingOutput output = new CountingOutput();
+		for (int i = 0; i < 4; i++) {
+			cache.get(RECIPE, output, stack(1, 0, 1));
+		}
+		assertEquals(0.75D, cache.getHitRate(), 0D);
+	}
+
+	private static ItemStack stack(int count, int damage, int value) {
+		ItemStack stack = new ItemStack(Items.GOLDEN_SWORD, count, damage);
+		NBTTagCompound tag = new NBTTagCompound();
+		tag.setInteger("value", value);
+		stack.setTagCompound(tag);
+		return stack;
+	}
+
+	/*
+	 * builds a new output on every call
+	 */
+	private static class CountingOutput implements Supplier<ItemStack> {
+		private int count;
+
+		@Override
+		public ItemStack get() {
+			count++;
+			return new ItemStack(Items.GOLD_INGOT);
+		}
+	}
+}
@@ -0,0 +1,95 @@
+/**
+ * 
+ */
+package com.someguyssoftware.treasure2.capability;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import net.minecraft.nbt.NBTTagCompound;
+
+/**
+ * The snapshots are memoised by the version of the capability, and never shared with the callers that keep a compound.
+ */
+public class SnapshotCacheTest {
+
+	@Test
+	public void missesUntilPut() {
+		SnapshotCache cache = new SnapshotCache();
+		long misses = SnapshotCache.getMisses();
+		assertNull(cache.get(0));
+		assertEquals(misses + 1, SnapshotCache.getMisses());
+	}
+
+	@Test
+	public void hitsTheSameVersion() {
+		SnapshotCache cache = new SnapshotCache();
+		NBTTagCompound tag = new NBTTagCompound();
+		cache.put(3, tag);
+		long hits = SnapshotCache.getHits();
+		assertSame(tag, cache.get(3));
+		assertEquals(hits + 1, SnapshotCache.getHits());
+	}
+
+	@Test
+	public void missesAnotherVersion() {
+		SnapshotCache cache = new SnapshotCache();
+		cache.put(3, new NBTTagCompound());
+		assertNull(cache.get(4));
+		assertNull(cache.get(2));
+	}
+
+	@Test
+	public void changedCapabilityHasANewVersion() {
+		DurabilityCapability cap = new DurabilityCapability(100, 100);
+		cap.setSnapshot(durabilityTag(100));
+		long version = cap.getVersion();
+		cap.setDurability(50);
+		// so getSnapshot() misses and rebuilds the compound
+		assertNotEquals(version, cap.getVersion());
+	}
+
+	@Test
+	public void setSnapshotCopiesTheTag() {
+		DurabilityCapability cap = new DurabilityCapability(100, 100);
+		NBTTagCompound tag = durabilityTag(100);
+		cap.setSnapshot(tag);
+		// ex. the stack's nbt is modified after it was read
+		tag.setInteger("durability", 1);
+		assertEquals(100, cap.getSnapshot().getInteger("durability"));
+		assertNotSame(tag, cap.getSnapshot());
+	}
+
+	@Test
+	public void serializeNBTReturnsACopy() {
+		DurabilityCapability durabilityCap = new DurabilityCapability(100, 100);
+		CharmableCapability charmableCap = new CharmableCapability(0, 0, 0);
+		RunestonesCapability runestonesCap = new RunestonesCapability(0, 0, 0);
+		durabilityCap.setSnapshot(durabilityTag(100));
+		charmableCap.setSnapshot(new NBTTagCompound());
+		runestonesCap.setSnapshot(new NBTTagCompound());
+		AdornmentCapabilityProvider provider = new AdornmentCapabilityProvider(charmableCap, runestonesCap, durabilityCap);
+
+		NBTTagCompound tag = provider.serializeNBT();
+		// ex. the caller merges into the compound it was given
+		tag.getCompoundTag("durability").setInteger("durability", 1);
+		tag.getCompoundTag("charmable").setBoolean("source", true);
+
+		NBTTagCompound next = provider.serializeNBT();
+		assertEquals(100, next.getCompoundTag("durability").getInteger("durability"));
+		assertFalse(next.getCompoundTag("charmable").hasKey("source"));
+		assertEquals(100, durabilityCap.getSnapshot().getInteger("durability"));
+	}
+
+	private NBTTagCompound durabilityTag(int durability) {
+		NBTTagCompound tag = new NBTTagCompound();
+		tag.setInteger("durability", durability);
+		return tag;
+	}
+}
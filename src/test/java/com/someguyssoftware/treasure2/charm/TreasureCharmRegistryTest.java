@@ -0,0 +1,121 @@
+/**
+ * 
+ */
+package com.someguyssoftware.treasure2.charm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.someguyssoftware.treasure2.enums.Rarity;
+
+/**
+ * The charm index answers the same lookups as filtering the registered charms, and is recompiled when a charm is registered.
+ */
+public class TreasureCharmRegistryTest {
+	private static final int UNREGISTERED_LEVEL = 30;
+
+	@BeforeClass
+	public static void registerCharms() {
+		TreasureCharms.init();
+	}
+
+	@Test
+	public void sampleByRarityMatchesTheRegistry() {
+		for (Rarity rarity : Rarity.values()) {
+			assertCandidates(c -> c.getRarity() == rarity && !c.isCurse(), random -> TreasureCharmRegistry.sample(random, rarity, false));
+			assertCandidates(c -> c.getRarity() == rarity, random -> TreasureCharmRegistry.sample(random, rarity, true));
+		}
+	}
+
+	@Test
+	public void sampleByLevelMatchesTheRegistry() {
+		for (int level = 0; level <= 25; level++) {
+			int l = level;
+			assertCandidates(c -> c.getLevel() == l && !c.isCurse(), random -> TreasureCharmRegistry.sampleByLevel(random, l, false));
+			assertCandidates(c -> c.getLevel() == l, random -> TreasureCharmRegistry.sampleByLevel(random, l, true));
+			// no curse is a candidate
+			assertCandidates(c -> c.getLevel() == l && !c.isCurse(), random -> TreasureCharmRegistry.sampleByLevel(random, l, 0.0));
+		}
+	}
+
+	@Test
+	public void sampleUpToLevelMatchesTheRegistry() {
+		for (int level = 0; level <= 25; level++) {
+			int l = level;
+			assertCandidates(c -> c.getLevel() <= l && !c.isCurse(), random -> TreasureCharmRegistry.sampleUpToLevel(random, l));
+		}
+		// beyond the max. level, all the charms
+		assertCandidates(c -> !c.isCurse(), random -> TreasureCharmRegistry.sampleUpToLevel(random, Integer.MAX_VALUE));
+	}
+
+	@Test
+	public void levelOutOfRangeSamplesNothing() {
+		assertFalse(TreasureCharmRegistry.sampleByLevel(new Random(), -1, true).isPresent());
+		assertFalse(TreasureCharmRegistry.sampleByLevel(new Random(), 1000, true).isPresent());
+		assertFalse(TreasureCharmRegistry.sampleByLevel(new Random(), 1000, 0.5).isPresent());
+		assertFalse(TreasureCharmRegistry.sampleUpToLevel(new Random(), -1).isPresent());
+	}
+
+	@Test
+	public void registerRecompilesTheIndex() {
+		assertFalse(TreasureCharmRegistry.sampleByLevel(new Random(), UNREGISTERED_LEVEL, false).isPresent());
+		int upToLevel = TreasureCharmRegistry.getBy(c -> !c.isCurse()).get().size();
+
+		ICharm charm = TreasureCharms.makeHealing(UNREGISTERED_LEVEL);
+		assertSame(charm, TreasureCharmRegistry.sampleByLevel(new Random(), UNREGISTERED_LEVEL, false).get());
+		assertEquals(upToLevel + 1, new HashSet<>(sample(random -> TreasureCharmRegistry.sampleUpToLevel(random, UNREGISTERED_LEVEL), upToLevel + 1)).size());
+	}
+
+	/*
+	 * the candidates of the sampling, each drawn exactly once, are the registered charms that match the predicate
+	 */
+	private static void assertCandidates(Predicate<ICharm> predicate, Function<Random, Optional<ICharm>> sampling) {
+		Set<ICharm> expected = new HashSet<>(TreasureCharmRegistry.getBy(predicate).orElse(Collections.emptyList()));
+		if (expected.isEmpty()) {
+			assertFalse(sampling.apply(new CyclingRandom()).isPresent());
+			return;
+		}
+		List<ICharm> sampled = sample(sampling, expected.size());
+		assertEquals(expected.size(), new HashSet<>(sampled).size());
+		assertEquals(expected, new HashSet<>(sampled));
+	}
+
+	private static List<ICharm> sample(Function<Random, Optional<ICharm>> sampling, int count) {
+		Random random = new CyclingRandom();
+		List<ICharm> sampled = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			Optional<ICharm> charm = sampling.apply(random);
+			assertTrue(charm.isPresent());
+			sampled.add(charm.get());
+		}
+		return sampled;
+	}
+
+	/*
+	 * draws 0, 1, 2... so that n draws from n candidates visit each of them once
+	 */
+	private static class CyclingRandom extends Random {
+		private static final long serialVersionUID = 1L;
+		private int next;
+
+		@Override
+		public int nextInt(int bound) {
+			return next++ % bound;
+		}
+	}
+}
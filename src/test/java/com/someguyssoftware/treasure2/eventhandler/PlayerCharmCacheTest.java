@@ -0,0 +1,78 @@
+/**
+ * 
+ */
+package com.someguyssoftware.treasure2.eventhandler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.someguyssoftware.treasure2.eventhandler.PlayerCharmCache.SlotSignature;
+
+import net.minecraft.init.Bootstrap;
+import net.minecraft.init.Items;
+import net.minecraft.item.ItemStack;
+
+/**
+ * The charm contexts of a player are rebuilt when the signature of the watched slots no longer matches.
+ */
+public class PlayerCharmCacheTest {
+
+	@BeforeClass
+	public static void bootstrap() {
+		Bootstrap.register();
+	}
+
+	@Test
+	public void recordedSlotsMatch() {
+		ItemStack sword = new ItemStack(Items.GOLDEN_SWORD);
+		SlotSignature signature = signature(sword, 3);
+		assertTrue(signature.matches(0, sword, 3));
+		assertTrue(signature.matches(1, ItemStack.EMPTY, 0));
+	}
+
+	@Test
+	public void changedCharmCountDoesNotMatch() {
+		ItemStack sword = new ItemStack(Items.GOLDEN_SWORD);
+		SlotSignature signature = signature(sword, 3);
+		// ex. a charm was added to, or removed from, the capability in place
+		assertFalse(signature.matches(0, sword, 4));
+		assertFalse(signature.matches(0, sword, 2));
+		// the capability stopped executing
+		assertFalse(signature.matches(0, sword, -3));
+	}
+
+	@Test
+	public void equalStackDoesNotMatch() {
+		ItemStack sword = new ItemStack(Items.GOLDEN_SWORD);
+		SlotSignature signature = signature(sword, 3);
+		// ex. the slot was replaced by a copy, whose capability is another instance
+		assertTrue(ItemStack.areItemStacksEqual(sword, sword.copy()));
+		assertFalse(signature.matches(0, sword.copy(), 3));
+		assertFalse(signature.matches(1, new ItemStack(Items.GOLDEN_SWORD), 0));
+	}
+
+	@Test
+	public void resizeClearsTheSlots() {
+		ItemStack sword = new ItemStack(Items.GOLDEN_SWORD);
+		SlotSignature signature = signature(sword, 3);
+		signature.resize(2);
+		assertTrue(signature.matches(0, sword, 3));
+
+		signature.resize(3);
+		assertEquals(3, signature.size());
+		assertFalse(signature.matches(0, sword, 3));
+	}
+
+	private static SlotSignature signature(ItemStack mainhand, int charmCount) {
+		SlotSignature signature = new SlotSignature();
+		assertEquals(0, signature.size());
+		signature.resize(2);
+		signature.record(0, mainhand, charmCount);
+		signature.record(1, ItemStack.EMPTY, 0);
+		return signature;
+	}
+}
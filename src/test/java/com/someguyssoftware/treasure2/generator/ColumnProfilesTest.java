@@ -0,0 +1,217 @@
+/**
+ * 
+ */
+package com.someguyssoftware.treasure2.generator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.someguyssoftware.gottschcore.positional.Coords;
+import com.someguyssoftware.gottschcore.positional.ICoords;
+import com.someguyssoftware.treasure2.TestWorld;
+
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
+import net.minecraft.init.Bootstrap;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.ChunkPrimer;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+
+/**
+ * The profile of a chunk is reused during a population until the chunk is written to, its height map changes
+ * or the next population begins.
+ * NOTE the blocks are written straight to the section storage, so only what the profiles check (the invalidations,
+ * the height map) tells them that the chunk has changed.
+ */
+public class ColumnProfilesTest {
+	private static final int SURFACE = 63;
+
+	private final TestWorld world = new TestWorld(1L, false);
+	private final Chunk chunk = world.load(flatChunk(0, 0));
+	private final Chunk eastChunk = world.load(flatChunk(1, 0));
+
+	@BeforeClass
+	public static void bootstrap() {
+		Bootstrap.register();
+	}
+
+	@After
+	public void tearDown() {
+		ColumnProfiles.clear(world);
+	}
+
+	@Test
+	public void profileAnswersTheSurface() {
+		ColumnProfiles.begin(world, 0, 0);
+		try {
+			assertEquals(SURFACE + 1, dryLandY(5, 5));
+			assertTrue(ColumnProfiles.isSolidBase(world, new Coords(2, SURFACE + 1, 2), 20, 4, 100));
+			assertTrue(ColumnProfiles.isAirBase(world, new Coords(2, SURFACE + 1, 2), 20, 4, 100));
+		}
+		finally {
+			ColumnProfiles.end(world);
+		}
+	}
+
+	@Test
+	public void writeIsSeenOnceInvalidated() {
+		ColumnProfiles.begin(world, 0, 0);
+		try {
+			assertEquals(SURFACE + 1, dryLandY(5, 5));
+			// the height map isn't regenerated, as for a block that doesn't block light (ex. a chest)
+			dig(chunk, 5, 5);
+			assertEquals(SURFACE + 1, dryLandY(5, 5));
+
+			// as the SectionBlockWriter does
+			ColumnProfiles.invalidate(world, new BlockPos(5, SURFACE, 5));
+			assertEquals(SURFACE - 1, dryLandY(5, 5));
+		}
+		finally {
+			ColumnProfiles.end(world);
+		}
+	}
+
+	@Test
+	public void invalidateAreaDropsOnlyItsChunks() {
+		ColumnProfiles.begin(world, 0, 0);
+		try {
+			assertEquals(SURFACE + 1, dryLandY(5, 5));
+			assertEquals(SURFACE + 1, dryLandY(21, 5));
+			dig(chunk, 5, 5);
+			dig(eastChunk, 5, 5);
+
+			ColumnProfiles.invalidate(world, new BlockPos(10, SURFACE, 0), new BlockPos(0, SURFACE, 15));
+			assertEquals(SURFACE - 1, dryLandY(5, 5));
+			assertEquals(SURFACE + 1, dryLandY(21, 5));
+		}
+		finally {
+			ColumnProfiles.end(world);
+		}
+	}
+
+	@Test
+	public void changedHeightMapRebuildsTheProfile() {
+		ColumnProfiles.begin(world, 0, 0);
+		try {
+			assertEquals(SURFACE + 1, dryLandY(5, 5));
+			// ex. another mod's generator built on the chunk
+			setBlockState(chunk, 5, SURFACE + 1, 5, Blocks.STONE.getDefaultState());
+			setBlockState(chunk, 5, SURFACE + 2, 5, Blocks.STONE.getDefaultState());
+			chunk.generateSkylightMap();
+			assertEquals(SURFACE + 3, dryLandY(5, 5));
+			assertFalse(ColumnProfiles.isAirBase(world, new Coords(4, SURFACE + 1, 4), 3, 3, 100));
+		}
+		finally {
+			ColumnProfiles.end(world);
+		}
+	}
+
+	@Test
+	public void nextPopulationDropsTheProfiles() {
+		ColumnProfiles.begin(world, 0, 0);
+		try {
+			assertEquals(SURFACE + 1, dryLandY(5, 5));
+		}
+		finally {
+			ColumnProfiles.end(world);
+		}
+		dig(chunk, 5, 5);
+
+		// the same population, re-entered
+		ColumnProfiles.begin(world, 0, 0);
+		try {
+			assertEquals(SURFACE + 1, dryLandY(5, 5));
+		}
+		finally {
+			ColumnProfiles.end(world);
+		}
+
+		ColumnProfiles.begin(world, 1, 0);
+		try {
+			assertEquals(SURFACE - 1, dryLandY(5, 5));
+		}
+		finally {
+			ColumnProfiles.end(world);
+		}
+	}
+
+	@Test
+	public void profileIsOnlyValidForItsChunk() {
+		ColumnProfile profile = ColumnProfile.build(world, chunk);
+		assertTrue(profile.isValid(chunk));
+		// ex. the chunk was unloaded and loaded again
+		assertFalse(profile.isValid(flatChunk(0, 0)));
+		assertFalse(profile.isValid(eastChunk));
+
+		setBlockState(chunk, 0, SURFACE + 1, 0, Blocks.STONE.getDefaultState());
+		chunk.generateSkylightMap();
+		assertFalse(profile.isValid(chunk));
+	}
+
+	@Test
+	public void columnsAreReadOnce() {
+		ColumnProfile profile = ColumnProfile.build(world, chunk);
+		long reads = ColumnProfiles.getSectionReadCount();
+		assertEquals(SURFACE, profile.getDryLandY(5, 5));
+		long columnReads = ColumnProfiles.getSectionReadCount() - reads;
+		assertTrue(columnReads > 0);
+
+		assertEquals(SURFACE, profile.getFloorY(5, 5));
+		assertFalse(profile.isLiquid(5, 5));
+		assertTrue(profile.isSolid(5, SURFACE, 5));
+		assertTrue(profile.isAir(5, SURFACE + 1, 5));
+		assertEquals(columnReads, ColumnProfiles.getSectionReadCount() - reads);
+	}
+
+	@Test
+	public void outsideOfAPopulationFallsBackToTheWorld() {
+		ColumnProfiles.begin(world, 0, 0);
+		ColumnProfiles.end(world);
+		dig(chunk, 5, 5);
+		assertEquals(SURFACE - 1, dryLandY(5, 5));
+	}
+
+	private int dryLandY(int x, int z) {
+		ICoords coords = ColumnProfiles.getDryLandSurfaceCoords(world, new Coords(x, 100, z));
+		return coords.getY();
+	}
+
+	/*
+	 * removes the surface block and the block below it
+	 */
+	private static void dig(Chunk chunk, int x, int z) {
+		setBlockState(chunk, x, SURFACE, z, Blocks.AIR.getDefaultState());
+		setBlockState(chunk, x, SURFACE - 1, z, Blocks.AIR.getDefaultState());
+	}
+
+	private static void setBlockState(Chunk chunk, int x, int y, int z, IBlockState state) {
+		ExtendedBlockStorage[] sections = chunk.getBlockStorageArray();
+		if (sections[y >> 4] == Chunk.NULL_BLOCK_STORAGE) {
+			sections[y >> 4] = new ExtendedBlockStorage(y >> 4 << 4, true);
+		}
+		sections[y >> 4].set(x, y & 15, z, state);
+	}
+
+	/*
+	 * stone up to the surface
+	 */
+	private Chunk flatChunk(int chunkX, int chunkZ) {
+		ChunkPrimer primer = new ChunkPrimer();
+		for (int x = 0; x < 16; x++) {
+			for (int z = 0; z < 16; z++) {
+				for (int y = 0; y <= SURFACE; y++) {
+					primer.setBlockState(x, y, z, Blocks.STONE.getDefaultState());
+				}
+			}
+		}
+		Chunk chunk = new Chunk(world, primer, chunkX, chunkZ);
+		chunk.generateSkylightMap();
+		return chunk;
+	}
+}
@@ -0,0 +1,53 @@
+/**
+ * 
+ */
+package com.someguyssoftware.treasure2.generator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.someguyssoftware.treasure2.generator.GenerationRandom.Stream;
+
+import net.minecraft.util.math.ChunkPos;
+
+/**
+ * The cell arithmetic of the grid. The decisions of the generators that use it are tested in GridPlacementTest.
+ */
+public class PlacementGridTest {
+	private static final long WORLD_SEED = 8675309L;
+
+	@Test
+	public void candidateIsInItsCell() {
+		PlacementGrid grid = new PlacementGrid(Stream.SURFACE_CHEST, 6, 2);
+		for (int cellX = -20; cellX < 20; cellX++) {
+			for (int cellZ = -20; cellZ < 20; cellZ++) {
+				ChunkPos candidate = grid.getCandidate(WORLD_SEED, cellX, cellZ);
+				assertEquals(cellX, grid.getCell(candidate.x));
+				assertEquals(cellZ, grid.getCell(candidate.z));
+				assertTrue(grid.isCandidate(WORLD_SEED, candidate.x, candidate.z));
+				// the separation is kept from the edge of the next cell
+				assertTrue(candidate.x - cellX * 6 < 6 - 2);
+				assertTrue(candidate.z - cellZ * 6 < 6 - 2);
+			}
+		}
+	}
+
+	@Test
+	public void zeroDistanceAlwaysHasPrecedence() {
+		PlacementGrid grid = new PlacementGrid(Stream.SURFACE_CHEST, 6, 2);
+		assertTrue(grid.hasPrecedence(WORLD_SEED, 0, 0, 0, (x, z) -> true));
+	}
+
+	@Test
+	public void hasSpacingComparesTheCappedValues() {
+		PlacementGrid grid = new PlacementGrid(Stream.SURFACE_CHEST, 6, 10);
+		assertEquals(5, grid.getSeparation());
+		assertTrue(grid.hasSpacing(6, 10));
+		assertTrue(grid.hasSpacing(6, 5));
+		assertFalse(grid.hasSpacing(6, 2));
+		assertFalse(grid.hasSpacing(7, 10));
+	}
+}
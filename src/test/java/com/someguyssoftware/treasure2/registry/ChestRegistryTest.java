@@ -0,0 +1,131 @@
+/**
+ * 
+ */
+package com.someguyssoftware.treasure2.registry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.someguyssoftware.gottschcore.positional.Coords;
+import com.someguyssoftware.treasure2.chest.ChestInfo;
+import com.someguyssoftware.treasure2.enums.Rarity;
+import com.someguyssoftware.treasure2.enums.WorldGeneratorType;
+
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
+
+/**
+ * The registry tag is only rebuilt when the registry has changed since it was last written (or read).
+ */
+public class ChestRegistryTest {
+	private final ChestRegistry registry = ChestRegistry.getInstance();
+
+	@Before
+	public void setUp() {
+		registry.clear();
+		register(new Coords(100, 64, -40), Rarity.RARE, 0);
+		register(new Coords(-3000, 12, 7000), Rarity.COMMON, -1);
+	}
+
+	@After
+	public void tearDown() {
+		registry.clear();
+	}
+
+	@Test
+	public void unchangedRegistryReusesTheWrittenTag() {
+		NBTTagCompound written = write();
+		assertFalse(registry.isDirty());
+		assertSame(written, write());
+	}
+
+	@Test
+	public void registerInvalidatesTheWrittenTag() {
+		NBTTagCompound written = write();
+		register(new Coords(16, 70, 16), Rarity.EPIC, 0);
+		assertTrue(registry.isDirty());
+		NBTTagCompound rewritten = write();
+		assertNotSame(written, rewritten);
+		assertEquals(3, rewritten.getByteArray("rarity").length);
+	}
+
+	@Test
+	public void unregisterInvalidatesTheWrittenTag() {
+		NBTTagCompound written = write();
+		// not registered - nothing changes
+		registry.unregister(new Coords(1, 2, 3).toShortString());
+		assertSame(written, write());
+
+		registry.unregister(new Coords(100, 64, -40).toShortString());
+		assertTrue(registry.isDirty());
+		assertEquals(1, write().getByteArray("rarity").length);
+	}
+
+	@Test
+	public void writtenRegistryReloads() {
+		NBTTagCompound tag = registry.write(new NBTTagCompound());
+		List<ChestInfo> values = registry.getValues();
+
+		assertFalse(registry.read(tag));
+		assertFalse(registry.isDirty());
+		List<ChestInfo> reloaded = registry.getValues();
+		assertEquals(values.size(), reloaded.size());
+		for (int i = 0; i < values.size(); i++) {
+			assertEquals(values.get(i).getCoords().toShortString(), reloaded.get(i).getCoords().toShortString());
+			assertEquals(values.get(i).getRarity(), reloaded.get(i).getRarity());
+			assertEquals(values.get(i).getDimensionID(), reloaded.get(i).getDimensionID());
+			assertEquals(values.get(i).getGeneratorType(), reloaded.get(i).getGeneratorType());
+		}
+		// the loaded tag is written back as it is
+		assertSame(tag.getCompoundTag("chestRegistry"), write());
+	}
+
+	@Test
+	public void writeAfterReloadIsRebuilt() {
+		NBTTagCompound tag = registry.write(new NBTTagCompound());
+		registry.read(tag);
+		register(new Coords(16, 70, 16), Rarity.EPIC, 0);
+		NBTTagCompound rewritten = write();
+		assertNotSame(tag.getCompoundTag("chestRegistry"), rewritten);
+		assertEquals(3, rewritten.getByteArray("rarity").length);
+	}
+
+	@Test
+	public void legacyRegistryIsMigrated() {
+		NBTTagCompound coords = new NBTTagCompound();
+		coords.setInteger("x", 100);
+		coords.setInteger("y", 64);
+		coords.setInteger("z", -40);
+		NBTTagCompound entry = new NBTTagCompound();
+		entry.setString("key", new Coords(100, 64, -40).toShortString());
+		entry.setString("rarity", Rarity.RARE.getValue());
+		entry.setTag("coords", coords);
+		NBTTagList list = new NBTTagList();
+		list.appendTag(entry);
+		NBTTagCompound tag = new NBTTagCompound();
+		tag.setTag("chestRegistry", list);
+
+		assertTrue(registry.read(tag));
+		assertEquals(1, registry.size());
+		// written in the compact format on the next save
+		assertTrue(registry.isDirty());
+		assertEquals(1, write().getByteArray("rarity").length);
+	}
+
+	private void register(Coords coords, Rarity rarity, int dimensionID) {
+		registry.register(coords.toShortString(), new ChestInfo(rarity, coords, dimensionID, WorldGeneratorType.SURFACE_CHEST));
+	}
+
+	private NBTTagCompound write() {
+		return registry.write(new NBTTagCompound()).getCompoundTag("chestRegistry");
+	}
+}
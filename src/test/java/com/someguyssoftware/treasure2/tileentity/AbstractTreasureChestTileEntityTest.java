@@ -0,0 +1,65 @@
+/**
+ * 
+ */
+package com.someguyssoftware.treasure2.tileentity;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.someguyssoftware.treasure2.TestWorld;
+import com.someguyssoftware.treasure2.registry.ProximityTriggerRegistry;
+
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+
+/**
+ * A chest generated into the world is sealed after its tile entity has loaded, and must still be registered for the
+ * loot pre-roll.
+ */
+public class AbstractTreasureChestTileEntityTest {
+	private final World world = new TestWorld(1L, false);
+
+	@After
+	public void clear() {
+		ProximityTriggerRegistry.getInstance().clear(world);
+	}
+
+	@Test
+	public void sealingLoadedChestRegistersIt() {
+		AbstractTreasureChestTileEntity chest = loadedChest(world);
+		assertFalse(ProximityTriggerRegistry.getInstance().isRegistered(world, chest));
+
+		// as IChestGenerator.addSeal()
+		chest.setSealed(true);
+		assertTrue(ProximityTriggerRegistry.getInstance().isRegistered(world, chest));
+	}
+
+	@Test
+	public void loadingSealedChestRegistersIt() {
+		AbstractTreasureChestTileEntity chest = new AbstractTreasureChestTileEntity() {};
+		chest.setPos(new BlockPos(-300, 70, 12));
+		chest.setSealed(true);
+		chest.setWorld(world);
+		chest.onLoad();
+		assertTrue(ProximityTriggerRegistry.getInstance().isRegistered(world, chest));
+	}
+
+	@Test
+	public void clientChestIsNeverRegistered() {
+		World client = new TestWorld(1L, true);
+		AbstractTreasureChestTileEntity chest = loadedChest(client);
+		chest.setSealed(true);
+		assertFalse(ProximityTriggerRegistry.getInstance().isRegistered(client, chest));
+	}
+
+	private static AbstractTreasureChestTileEntity loadedChest(World world) {
+		AbstractTreasureChestTileEntity chest = new AbstractTreasureChestTileEntity() {};
+		chest.setWorld(world);
+		chest.setPos(new BlockPos(100, 64, -40));
+		chest.onLoad();
+		return chest;
+	}
+}
@@ -0,0 +1,245 @@
+/**
+ * 
+ */
+package com.someguyssoftware.treasure2.worldgen;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.someguyssoftware.gottschcore.positional.Coords;
+import com.someguyssoftware.treasure2.TestWorld;
+import com.someguyssoftware.treasure2.Treasure;
+import com.someguyssoftware.treasure2.chest.ChestInfo;
+import com.someguyssoftware.treasure2.config.TreasureConfig;
+import com.someguyssoftware.treasure2.enums.Rarity;
+import com.someguyssoftware.treasure2.enums.WorldGeneratorType;
+import com.someguyssoftware.treasure2.generator.GenerationRandom;
+import com.someguyssoftware.treasure2.locate.TreasureSite;
+import com.someguyssoftware.treasure2.registry.ChestRegistry;
+
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+
+/**
+ * Runs the placement grid decision of the generators over a region of chunks. Only the terrain and biome checks of attemptSite()
+ * are stubbed - the precedence and the yields to the other generators are the generators' own.
+ */
+public class GridPlacementTest {
+	private static final long WORLD_SEED = 8675309L;
+	private static final int RADIUS = 96;
+	private static final int ORDERS = 4;
+
+	private final Map<WorldGeneratorType, ITreasureWorldGenerator> savedGenerators = new HashMap<>();
+	private boolean savedPlacementGrid;
+	private World world;
+
+	@Before
+	public void setUp() {
+		savedGenerators.putAll(Treasure.WORLD_GENERATORS);
+		savedPlacementGrid = TreasureConfig.WORLD_GEN.getGeneralProperties().enablePlacementGrid;
+		TreasureConfig.WORLD_GEN.getGeneralProperties().enablePlacementGrid = true;
+		TreasureConfig.WORLD_GEN.getGeneralProperties().dimensionsWhiteListSet.add(0);
+
+		Treasure.WORLD_GENERATORS.clear();
+		Treasure.WORLD_GENERATORS.put(WorldGeneratorType.SURFACE_CHEST, new SurfaceChests());
+		Treasure.WORLD_GENERATORS.put(WorldGeneratorType.SUBMERGED_CHEST, new SubmergedChests());
+		Treasure.WORLD_GENERATORS.put(WorldGeneratorType.WELL, new Wells());
+		Treasure.WORLD_GENERATORS.put(WorldGeneratorType.WITHER_TREE, new WitherTrees());
+		world = new TestWorld(WORLD_SEED, false);
+		ChestRegistry.getInstance().clear();
+	}
+
+	@After
+	public void tearDown() {
+		Treasure.WORLD_GENERATORS.clear();
+		Treasure.WORLD_GENERATORS.putAll(savedGenerators);
+		TreasureConfig.WORLD_GEN.getGeneralProperties().enablePlacementGrid = savedPlacementGrid;
+		TreasureConfig.WORLD_GEN.getGeneralProperties().dimensionsWhiteListSet.remove(0);
+		ChestRegistry.getInstance().clear();
+	}
+
+	@Test
+	public void placedSitesAreOrderIndependent() {
+		Map<WorldGeneratorType, Set<ChunkPos>> expected = null;
+		for (int order = 0; order < ORDERS; order++) {
+			List<ChunkPos> chunks = chunks();
+			Collections.shuffle(chunks, new Random(order));
+			// NOTE the registry isn't cleared between the orders, so the later orders are decided next to the sites of the earlier ones,
+			// like a world that is reloaded and explored in another direction
+			Map<WorldGeneratorType, Set<ChunkPos>> placed = generate(chunks);
+			if (expected == null) {
+				expected = placed;
+				for (Entry<WorldGeneratorType, Set<ChunkPos>> entry : placed.entrySet()) {
+					assertFalse(entry.getKey() + " nothing placed", entry.getValue().isEmpty());
+				}
+				assertFalse("nothing registered", ChestRegistry.getInstance().getValues().isEmpty());
+			}
+			else {
+				assertEquals("order " + order, expected, placed);
+			}
+		}
+	}
+
+	@Test
+	public void predictedSitesMatchTheDecision() {
+		Map<WorldGeneratorType, Set<ChunkPos>> decided = generate(chunks());
+		for (Entry<WorldGeneratorType, ITreasureWorldGenerator> entry : Treasure.WORLD_GENERATORS.entrySet()) {
+			Set<ChunkPos> predicted = new HashSet<>();
+			for (ChunkPos chunk : chunks()) {
+				if (entry.getValue().predictSite(world, chunk.x, chunk.z).isPresent()) {
+					predicted.add(chunk);
+				}
+			}
+			assertFalse(entry.getKey() + " nothing predicted", predicted.isEmpty());
+			assertEquals(entry.getKey().toString(), decided.get(entry.getKey()), predicted);
+		}
+	}
+
+	@Test
+	public void predictedSitesKeepTheMinDistances() {
+		int chestDistance = TreasureConfig.CHESTS.surfaceChests.minDistancePerChest;
+		Map<WorldGeneratorType, Set<ChunkPos>> predicted = new EnumMap<>(WorldGeneratorType.class);
+		for (Entry<WorldGeneratorType, ITreasureWorldGenerator> entry : Treasure.WORLD_GENERATORS.entrySet()) {
+			Set<ChunkPos> sites = new HashSet<>();
+			for (ChunkPos chunk : chunks()) {
+				if (entry.getValue().predictSite(world, chunk.x, chunk.z).isPresent()) {
+					sites.add(chunk);
+				}
+			}
+			predicted.put(entry.getKey(), sites);
+		}
+
+		assertApart(predicted.get(WorldGeneratorType.SURFACE_CHEST), predicted.get(WorldGeneratorType.SURFACE_CHEST), chestDistance);
+		assertApart(predicted.get(WorldGeneratorType.SUBMERGED_CHEST), predicted.get(WorldGeneratorType.SUBMERGED_CHEST),
+				TreasureConfig.CHESTS.submergedChests.minDistancePerChest);
+		// the surface chests take precedence over the submerged chests
+		assertApart(predicted.get(WorldGeneratorType.SUBMERGED_CHEST), predicted.get(WorldGeneratorType.SURFACE_CHEST),
+				TreasureConfig.CHESTS.submergedChests.minDistancePerChest);
+		// the chests take precedence over the wither trees
+		assertApart(predicted.get(WorldGeneratorType.WITHER_TREE), predicted.get(WorldGeneratorType.WITHER_TREE),
+				TreasureConfig.WITHER_TREE.minDistancePerWitherTree);
+		assertApart(predicted.get(WorldGeneratorType.WITHER_TREE), predicted.get(WorldGeneratorType.SURFACE_CHEST), chestDistance);
+		assertApart(predicted.get(WorldGeneratorType.WITHER_TREE), predicted.get(WorldGeneratorType.SUBMERGED_CHEST), chestDistance);
+	}
+
+	/*
+	 * populates the chunks in the order given, like the world does: every generator decides with the random that generate() draws from,
+	 * and the chests and wither trees are registered as generate() registers them
+	 */
+	private Map<WorldGeneratorType, Set<ChunkPos>> generate(List<ChunkPos> chunks) {
+		Map<WorldGeneratorType, Set<ChunkPos>> placed = new EnumMap<>(WorldGeneratorType.class);
+		for (WorldGeneratorType type : Treasure.WORLD_GENERATORS.keySet()) {
+			placed.put(type, new HashSet<>());
+		}
+		for (ChunkPos chunk : chunks) {
+			for (Entry<WorldGeneratorType, ITreasureWorldGenerator> entry : Treasure.WORLD_GENERATORS.entrySet()) {
+				ITreasureWorldGenerator generator = entry.getValue();
+				Random random = GenerationRandom.forChunk(world, generator.getPlacementGrid().getStream(), chunk.x, chunk.z);
+				Optional<TreasureSite> site = generator.decideSite(world, random, chunk.x, chunk.z);
+				if (site.isPresent()) {
+					placed.get(entry.getKey()).add(chunk);
+					if (entry.getKey() != WorldGeneratorType.WELL) {
+						ChestRegistry.getInstance().register(site.get().getCoords().toShortString(), new ChestInfo(site.get().getRarity(),
+								site.get().getCoords(), site.get().getDimensionID(), entry.getKey()));
+					}
+				}
+			}
+		}
+		return placed;
+	}
+
+	private List<ChunkPos> chunks() {
+		List<ChunkPos> chunks = new ArrayList<>();
+		for (int x = -RADIUS; x < RADIUS; x++) {
+			for (int z = -RADIUS; z < RADIUS; z++) {
+				chunks.add(new ChunkPos(x, z));
+			}
+		}
+		return chunks;
+	}
+
+	private void assertApart(Set<ChunkPos> sites, Set<ChunkPos> others, int distance) {
+		for (ChunkPos site : sites) {
+			for (ChunkPos other : others) {
+				if (!site.equals(other)) {
+					assertFalse(site + " too close to " + other, distanceSq(site, other) < (long) distance * distance);
+				}
+			}
+		}
+	}
+
+	private long distanceSq(ChunkPos a, ChunkPos b) {
+		long x = (long) (a.x - b.x) << 4;
+		long z = (long) (a.z - b.z) << 4;
+		return x * x + z * z;
+	}
+
+	/*
+	 * stands in for the terrain and biome checks: draws from the random of the chunk, as attemptSite() does
+	 */
+	private static Optional<TreasureSite> attempt(World world, Random random, WorldGeneratorType type, int chunkX, int chunkZ, int probability) {
+		if (random.nextInt(100) >= probability) {
+			return Optional.empty();
+		}
+		return Optional.of(new TreasureSite(type, Rarity.COMMON, new Coords((chunkX << 4) + 8, 0, (chunkZ << 4) + 8), world.provider.getDimension(), true));
+	}
+
+	/*
+	 * oceans of 16 x 16 chunks, in a checkerboard
+	 */
+	private static boolean isOcean(int chunkX, int chunkZ) {
+		return Math.floorMod((chunkX >> 4) + (chunkZ >> 4), 2) == 0;
+	}
+
+	private static class SurfaceChests extends SurfaceChestWorldGenerator {
+		@Override
+		public void init() {
+		}
+
+		@Override
+		public Optional<TreasureSite> attemptSite(World world, Random random, int chunkX, int chunkZ) {
+			return isOcean(chunkX, chunkZ) ? Optional.empty() : attempt(world, random, WorldGeneratorType.SURFACE_CHEST, chunkX, chunkZ, 40);
+		}
+	}
+
+	private static class SubmergedChests extends SubmergedChestWorldGenerator {
+		@Override
+		public void init() {
+		}
+
+		@Override
+		public Optional<TreasureSite> attemptSite(World world, Random random, int chunkX, int chunkZ) {
+			return isOcean(chunkX, chunkZ) ? attempt(world, random, WorldGeneratorType.SUBMERGED_CHEST, chunkX, chunkZ, 40) : Optional.empty();
+		}
+	}
+
+	private static class Wells extends WellWorldGenerator {
+		@Override
+		public Optional<TreasureSite> attemptSite(World world, Random random, int chunkX, int chunkZ) {
+			return isOcean(chunkX, chunkZ) ? Optional.empty() : attempt(world, random, WorldGeneratorType.WELL, chunkX, chunkZ, 50);
+		}
+	}
+
+	private static class WitherTrees extends WitherTreeWorldGenerator {
+		@Override
+		public Optional<TreasureSite> attemptSite(World world, Random random, int chunkX, int chunkZ) {
+			return isOcean(chunkX, chunkZ) ? Optional.empty() : attempt(world, random, WorldGeneratorType.WITHER_TREE, chunkX, chunkZ, 90);
+		}
+	}
+}